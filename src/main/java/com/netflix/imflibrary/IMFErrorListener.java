@@ -0,0 +1,41 @@
+/*
+ *
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.netflix.imflibrary;
+
+import com.netflix.imflibrary.utils.ErrorLogger;
+
+import javax.annotation.Nonnull;
+
+/**
+ * An interface to be notified of errors as an IMFErrorLogger records them, so that errors can be streamed, for e.g. to a log
+ * or a user interface, while a validation is still running. A listener can end the validation early by throwing an
+ * IMFValidationTerminatedException, which propagates out of the validation entry point. A listener that is passed to a
+ * validation that runs on several threads is notified concurrently and should be thread-safe.
+ */
+public interface IMFErrorListener
+{
+    /**
+     * A method that is invoked every time an error is recorded, an error that is deduplicated by the IMFErrorLogger is only
+     * notified the first time it is recorded
+     *
+     * @param errorObject - the error that was recorded
+     * @throws com.netflix.imflibrary.exceptions.IMFValidationTerminatedException - to end the validation
+     */
+    void onError(@Nonnull ErrorLogger.ErrorObject errorObject);
+}
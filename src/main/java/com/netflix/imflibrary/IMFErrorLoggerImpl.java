@@ -21,30 +21,86 @@ package com.netflix.imflibrary;
 import com.netflix.imflibrary.utils.ErrorLogger;
 
 import javax.annotation.Nonnull;
-import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
-
-import static java.lang.Boolean.TRUE;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * An non-thread-safe implementation of the IMFErrorLogger interface
+ * A thread-safe implementation of the IMFErrorLogger interface that can be shared by the threads of a validation run. Errors
+ * are kept in the order in which they were first added, and by default an error that is added more than once is only kept
+ * once, while the number of times it was added is counted. The number of errors of every error level is counted as errors
+ * are added, so that counting errors or checking for fatal errors, in all the errors or in a range of them, does not
+ * require scanning the errors. Adding an error only holds a lock while appending it, reading errors does not lock. An
+ * IMFErrorListener can be notified of every error as it is recorded.
  */
-@NotThreadSafe
+@ThreadSafe
 public final class IMFErrorLoggerImpl implements IMFErrorLogger //This is really a logging aggregator
 {
-    private final Set<ErrorLogger.ErrorObject> errorObjects;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NUMBER_OF_ERROR_LEVELS = IMFErrors.ErrorLevels.values().length;
+
+    private final boolean deduplicate;
+    @Nullable
+    private final IMFErrorListener errorListener;
+    private final ConcurrentMap<ErrorLogger.ErrorObject, AtomicInteger> occurrences = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+
+    /*
+     * The arrays are only written while holding the lock, and are replaced by larger copies when they are full. A reader
+     * that reads the number of errors before reading the arrays sees arrays that hold at least that many errors, since the
+     * writer updates the number of errors last.
+     */
+    private volatile ErrorLogger.ErrorObject[] errorObjects = new ErrorLogger.ErrorObject[INITIAL_CAPACITY];
+    /*errorLevelCounts[i * NUMBER_OF_ERROR_LEVELS + level] is the number of errors of that level among the first i errors*/
+    private volatile int[] errorLevelCounts = new int[(INITIAL_CAPACITY + 1) * NUMBER_OF_ERROR_LEVELS];
+    private volatile int numberOfErrors = 0;
 
     /**
-     * Instantiates a new IMF error logger impl object
+     * Instantiates a new IMF error logger impl object that keeps an error that is added more than once only once
      */
     public IMFErrorLoggerImpl()
     {
-        this.errorObjects = Collections.synchronizedSet(new HashSet<ErrorLogger.ErrorObject>());
+        this(true, null);
+    }
+
+    /**
+     * Instantiates a new IMF error logger impl object that keeps an error that is added more than once only once
+     *
+     * @param errorListener - a listener to notify of every error as it is recorded, null if there is none
+     */
+    public IMFErrorLoggerImpl(@Nullable IMFErrorListener errorListener)
+    {
+        this(true, errorListener);
+    }
+
+    /**
+     * Instantiates a new IMF error logger impl object
+     *
+     * @param deduplicate - true if an error that is added more than once should only be kept once, false if it should be kept
+     *                    every time it is added
+     */
+    public IMFErrorLoggerImpl(boolean deduplicate)
+    {
+        this(deduplicate, null);
+    }
+
+    /**
+     * Instantiates a new IMF error logger impl object
+     *
+     * @param deduplicate - true if an error that is added more than once should only be kept once, false if it should be kept
+     *                    every time it is added
+     * @param errorListener - a listener to notify of every error as it is recorded, null if there is none
+     */
+    public IMFErrorLoggerImpl(boolean deduplicate, @Nullable IMFErrorListener errorListener)
+    {
+        this.deduplicate = deduplicate;
+        this.errorListener = errorListener;
     }
 
     /**
@@ -56,17 +112,35 @@ public final class IMFErrorLoggerImpl implements IMFErrorLogger //This is really
      */
     public void addError(@Nonnull IMFErrors.ErrorCodes errorCode, @Nonnull IMFErrors.ErrorLevels errorLevel, @Nonnull String errorDescription)
     {
-        this.errorObjects.add(new ErrorLogger.ErrorObject(errorCode, errorLevel, errorDescription));
+        addError(new ErrorLogger.ErrorObject(errorCode, errorLevel, errorDescription));
     }
 
     /**
      * A method to add an error object to a persistent list
      *
      * @param errorObject - error object to be added to a persistent list - cannot be null
+     * @throws com.netflix.imflibrary.exceptions.IMFValidationTerminatedException - if the error listener ends the validation
      */
     public void addError(@Nonnull ErrorObject errorObject)
     {
-        this.errorObjects.add(errorObject);
+        AtomicInteger count = this.occurrences.get(errorObject);
+        if (count == null)
+        {
+            AtomicInteger newCount = new AtomicInteger();
+            count = this.occurrences.putIfAbsent(errorObject, newCount);
+            if (count == null)
+            {
+                count = newCount;
+            }
+        }
+        if (count.getAndIncrement() == 0 || !this.deduplicate)
+        {
+            append(errorObject);
+            if (this.errorListener != null)
+            {
+                this.errorListener.onError(errorObject);
+            }
+        }
     }
 
     /**
@@ -76,7 +150,37 @@ public final class IMFErrorLoggerImpl implements IMFErrorLogger //This is really
      */
     public void addAllErrors(@Nonnull List<ErrorObject> errorObjects)
     {
-        this.errorObjects.addAll(errorObjects);
+        for (ErrorObject errorObject : errorObjects)
+        {
+            addError(errorObject);
+        }
+    }
+
+    private void append(ErrorObject errorObject)
+    {
+        synchronized (this.lock)
+        {
+            int index = this.numberOfErrors;
+            ErrorObject[] errorObjects = this.errorObjects;
+            int[] errorLevelCounts = this.errorLevelCounts;
+            if (index == errorObjects.length)
+            {
+                int capacity = errorObjects.length * 2;
+                errorObjects = Arrays.copyOf(errorObjects, capacity);
+                errorLevelCounts = Arrays.copyOf(errorLevelCounts, (capacity + 1) * NUMBER_OF_ERROR_LEVELS);
+            }
+            errorObjects[index] = errorObject;
+            int previousOffset = index * NUMBER_OF_ERROR_LEVELS;
+            int offset = previousOffset + NUMBER_OF_ERROR_LEVELS;
+            System.arraycopy(errorLevelCounts, previousOffset, errorLevelCounts, offset, NUMBER_OF_ERROR_LEVELS);
+            if (errorObject.getErrorLevel() instanceof IMFErrors.ErrorLevels)
+            {
+                errorLevelCounts[offset + errorObject.getErrorLevel().ordinal()]++;
+            }
+            this.errorObjects = errorObjects;
+            this.errorLevelCounts = errorLevelCounts;
+            this.numberOfErrors = index + 1;
+        }
     }
 
     /**
@@ -85,7 +189,34 @@ public final class IMFErrorLoggerImpl implements IMFErrorLogger //This is really
      */
     public int getNumberOfErrors()
     {
-        return this.errorObjects.size();
+        return this.numberOfErrors;
+    }
+
+    /**
+     * Getter for the number of times an error was added to this ErrorLogger
+     * @param errorObject the error
+     * @return the number of times the error was added, 0 if it was never added
+     */
+    public int getNumberOfOccurrences(@Nonnull ErrorObject errorObject)
+    {
+        AtomicInteger count = this.occurrences.get(errorObject);
+        return (count == null) ? 0 : count.get();
+    }
+
+    /**
+     * Getter for the number of errors of an error level in a specified range of errors
+     * @param errorLevel the error level
+     * @param startIndex the start index (inclusive) within the list of errors
+     * @param endIndex the last index (exclusive) within the list of errors
+     * @return the number of errors of the error level in the range
+     */
+    public int getNumberOfErrors(IMFErrors.ErrorLevels errorLevel, int startIndex, int endIndex) throws IllegalArgumentException
+    {
+        int numberOfErrors = this.numberOfErrors;
+        validateRangeRequest(startIndex, endIndex, numberOfErrors);
+        int[] errorLevelCounts = this.errorLevelCounts;
+        return errorLevelCounts[endIndex * NUMBER_OF_ERROR_LEVELS + errorLevel.ordinal()]
+                - errorLevelCounts[startIndex * NUMBER_OF_ERROR_LEVELS + errorLevel.ordinal()];
     }
 
     /**
@@ -94,8 +225,8 @@ public final class IMFErrorLoggerImpl implements IMFErrorLogger //This is really
      */
     public List<ErrorLogger.ErrorObject> getErrors()
     {
-        List<ErrorObject> errors = new ArrayList<>(this.errorObjects);
-        return Collections.unmodifiableList(errors);
+        int numberOfErrors = this.numberOfErrors;
+        return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(this.errorObjects, numberOfErrors)));
     }
 
     /**
@@ -105,7 +236,7 @@ public final class IMFErrorLoggerImpl implements IMFErrorLogger //This is really
      */
     public List<ErrorLogger.ErrorObject> getErrors(IMFErrors.ErrorLevels errorLevel) throws IllegalArgumentException
     {
-        return getErrors(errorLevel, 0, this.errorObjects.size());
+        return getErrors(errorLevel, 0, this.numberOfErrors);
     }
 
     /**
@@ -117,9 +248,20 @@ public final class IMFErrorLoggerImpl implements IMFErrorLogger //This is really
      */
     public List<ErrorLogger.ErrorObject> getErrors(IMFErrors.ErrorLevels errorLevel, int startIndex, int endIndex) throws IllegalArgumentException
     {
-        validateRangeRequest(startIndex, endIndex);
-        List<ErrorObject> errors = new ArrayList<>(this.errorObjects);
-        return Collections.unmodifiableList(errors.subList(startIndex, endIndex).stream().filter(e -> e.getErrorLevel().equals(IMFErrorLogger.IMFErrors.ErrorLevels.FATAL)).collect(Collectors.toList()));
+        if (getNumberOfErrors(errorLevel, startIndex, endIndex) == 0)
+        {
+            return Collections.emptyList();
+        }
+        ErrorObject[] errorObjects = this.errorObjects;
+        List<ErrorObject> errors = new ArrayList<>();
+        for (int i = startIndex; i < endIndex; i++)
+        {
+            if (errorObjects[i].getErrorLevel() == errorLevel)
+            {
+                errors.add(errorObjects[i]);
+            }
+        }
+        return Collections.unmodifiableList(errors);
     }
 
     /**
@@ -129,7 +271,7 @@ public final class IMFErrorLoggerImpl implements IMFErrorLogger //This is really
      */
     public List<ErrorLogger.ErrorObject> getErrors(IMFErrors.ErrorCodes errorCode) throws IllegalArgumentException
     {
-        return getErrors(errorCode, 0 , this.errorObjects.size());
+        return getErrors(errorCode, 0 , this.numberOfErrors);
     }
 
     /**
@@ -141,12 +283,20 @@ public final class IMFErrorLoggerImpl implements IMFErrorLogger //This is really
      */
     public List<ErrorLogger.ErrorObject> getErrors(IMFErrors.ErrorCodes errorCode, int startIndex, int endIndex) throws IllegalArgumentException
     {
-        validateRangeRequest(startIndex, endIndex);
-        List<ErrorObject> errors = new ArrayList<>(this.errorObjects);
-        return Collections.unmodifiableList(errors.subList(startIndex, endIndex).stream().filter(e -> e.getErrorCode().equals(IMFErrorLogger.IMFErrors.ErrorLevels.FATAL)).collect(Collectors.toList()));
+        validateRangeRequest(startIndex, endIndex, this.numberOfErrors);
+        ErrorObject[] errorObjects = this.errorObjects;
+        List<ErrorObject> errors = new ArrayList<>();
+        for (int i = startIndex; i < endIndex; i++)
+        {
+            if (errorObjects[i].getErrorCode() == errorCode)
+            {
+                errors.add(errorObjects[i]);
+            }
+        }
+        return Collections.unmodifiableList(errors);
     }
 
-    private void validateRangeRequest(int rangeStart, int rangeEnd) throws IllegalArgumentException {
+    private void validateRangeRequest(int rangeStart, int rangeEnd, int numberOfErrors) throws IllegalArgumentException {
 
         if (rangeStart < 0)
         {
@@ -158,19 +308,19 @@ public final class IMFErrorLoggerImpl implements IMFErrorLogger //This is really
             throw new IllegalArgumentException(String.format("rangeStart = %d is not <= %d rangeEnd", rangeStart, rangeEnd));
         }
 
-        if (rangeEnd > (this.errorObjects.size()))
+        if (rangeEnd > numberOfErrors)
         {
-            throw new IllegalArgumentException(String.format("rangeEnd = %d is not <= (resourceSize) = %d", rangeEnd, (this.errorObjects.size())));
+            throw new IllegalArgumentException(String.format("rangeEnd = %d is not <= (resourceSize) = %d", rangeEnd, numberOfErrors));
         }
     }
 
     public Boolean hasFatalErrors()
     {
-        return (getErrors(IMFErrors.ErrorLevels.FATAL).size() > 0);
+        return hasFatalErrors(0, this.numberOfErrors);
     }
 
     public Boolean hasFatalErrors(int startIndex, int endIndex) {
-        return (getErrors(IMFErrors.ErrorLevels.FATAL, startIndex, endIndex).size() > 0);
+        return (getNumberOfErrors(IMFErrors.ErrorLevels.FATAL, startIndex, endIndex) > 0);
 
     }
 }
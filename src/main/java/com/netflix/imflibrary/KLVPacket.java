@@ -110,7 +110,7 @@ public final class KLVPacket
     {
 
         //read one byte
-        int value = byteProvider.getBytes(1)[0];
+        int value = byteProvider.getUnsignedByte();
         if ((value >> 7) == 0)
         {//MSB equals 0
             return new LengthField(value, 1);
@@ -135,12 +135,11 @@ public final class KLVPacket
                         numBytesToRead, KLVPacket.LENGTH_FIELD_SUFFIX_MAX_SIZE));
             }
 
-            byte[] byteArray = byteProvider.getBytes(numBytesToRead);
             long length = 0;
-            for (long b : byteArray)
+            for (int i = 0; i < numBytesToRead; i++)
             {
                 length <<= 8;
-                length += (b & 0xFF);
+                length += byteProvider.getUnsignedByte();
             }
             if (length < 0)
             {
@@ -27,19 +27,40 @@ import com.netflix.imflibrary.st0377.header.UL;
 import com.netflix.imflibrary.utils.ByteProvider;
 
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A utility class that provides methods for populating fields with MXF metadata sets
  */
 public final class MXFPropertyPopulator
 {
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * Codecs of the fields of a class, built once per class so that populating a field does not involve reflection
+     */
+    private static final ClassValue<PropertyCodecs> PROPERTY_CODECS = new ClassValue<PropertyCodecs>()
+    {
+        @Override
+        protected PropertyCodecs computeValue(Class<?> type)
+        {
+            return new PropertyCodecs(type);
+        }
+    };
+
     //to prevent instantiation
     private MXFPropertyPopulator()
     {
@@ -73,170 +94,10 @@ public final class MXFPropertyPopulator
         doPopulateField(fieldSize, byteProvider, object, fieldName);
     }
 
-    @SuppressWarnings("PMD.NcssMethodCount")
     private static void doPopulateField(int byteArraySize, ByteProvider byteProvider, Object object, String fieldName) throws IOException
     {
-
-        try
-        {
-            Field field = getField(object.getClass(), fieldName);
-            field.setAccessible(true);
-            if (field.getType() == byte[].class)
-            {
-                byte[] byteArray = byteProvider.getBytes(byteArraySize);
-                field.set(object, byteArray);
-            }
-            else if (field.getType() == InterchangeObject.InterchangeObjectBO.StrongRef.class)
-            {
-                byte[] byteArray = byteProvider.getBytes(byteArraySize);
-                field.set(object, new InterchangeObject.InterchangeObjectBO.StrongRef(byteArray));
-            }
-            else if(field.getType() == UL.class){
-                byte[] byteArray = byteProvider.getBytes(byteArraySize);
-                field.set(object, new UL(byteArray));
-            }
-            else if (field.getType() == String.class)
-            {
-                byte[] byteArray = byteProvider.getBytes(byteArraySize);
-                Charset charset = getFieldCharset(object, fieldName);
-                field.set(object, getString(byteArray, charset));
-            }
-            else if (field.getType() == CompoundDataTypes.Rational.class)
-            {
-                CompoundDataTypes.Rational rational = new CompoundDataTypes.Rational(byteProvider);
-                field.set(object, rational);
-            }
-            else if (field.getType() == CompoundDataTypes.Timestamp.class)
-            {
-                CompoundDataTypes.Timestamp timestamp = new CompoundDataTypes.Timestamp(byteProvider);
-                field.set(object, timestamp);
-            }
-            else if (field.getType() == CompoundDataTypes.MXFCollections.MXFCollection.class)
-            {
-                CompoundDataTypes.MXFCollections.Header cHeader = new CompoundDataTypes.MXFCollections.Header(byteProvider);
-                ParameterizedType parameterizedType = (ParameterizedType)field.getGenericType();
-                if(parameterizedType.getActualTypeArguments().length > 1)
-                {
-                    throw new MXFException(String.format("Found %d type arguments, however only 1 is supported at this time",
-                            parameterizedType.getActualTypeArguments().length));
-                }
-                if ((parameterizedType.getActualTypeArguments()[0] == byte[].class) ||
-                        (parameterizedType.getActualTypeArguments()[0].toString().equals("byte[]")))
-                {
-                    List<byte[]> cList = new ArrayList<>();
-                    for (long i=0; i<cHeader.getNumberOfElements(); i++)
-                    {
-                        cList.add(byteProvider.getBytes((int)cHeader.getSizeOfElement()));
-                    }
-                    field.set(object, new CompoundDataTypes.MXFCollections.MXFCollection<>(cHeader, cList, fieldName));
-                }
-                else if (parameterizedType.getActualTypeArguments()[0] == Integer.class)
-                {
-                    List<Integer> cList = new ArrayList<>();
-                    for (long i=0; i<cHeader.getNumberOfElements(); i++)
-                    {
-                        cList.add(getInt(byteProvider.getBytes(4), KLVPacket.BYTE_ORDER));
-                    }
-                    field.set(object, new CompoundDataTypes.MXFCollections.MXFCollection<>(cHeader, cList, fieldName));
-                }
-                else if (parameterizedType.getActualTypeArguments()[0] == InterchangeObject.InterchangeObjectBO.StrongRef.class){
-                    List<InterchangeObject.InterchangeObjectBO.StrongRef> cList = new ArrayList<>();
-                    for (long i=0; i<cHeader.getNumberOfElements(); i++)
-                    {
-                        cList.add(new InterchangeObject.InterchangeObjectBO.StrongRef(byteProvider.getBytes((int)cHeader.getSizeOfElement())));
-                    }
-                    field.set(object, new CompoundDataTypes.MXFCollections.MXFCollection<>(cHeader, cList, fieldName));
-                }
-                else if (parameterizedType.getActualTypeArguments()[0] == UL.class){
-                    List<UL> cList = new ArrayList<>();
-                    for (long i=0; i<cHeader.getNumberOfElements(); i++)
-                    {
-                        cList.add(new UL(byteProvider.getBytes((int)cHeader.getSizeOfElement())));
-                    }
-                    field.set(object, new CompoundDataTypes.MXFCollections.MXFCollection<>(cHeader, cList, fieldName));
-                }
-                else if (parameterizedType.getActualTypeArguments()[0] == JPEG2000PictureComponent.JPEG2000PictureComponentBO.class){
-                    List<JPEG2000PictureComponent.JPEG2000PictureComponentBO> cList = new ArrayList<>();
-                    for (long i=0; i<cHeader.getNumberOfElements(); i++)
-                    {
-                        cList.add(new JPEG2000PictureComponent.JPEG2000PictureComponentBO(byteProvider.getBytes((int)cHeader.getSizeOfElement())));
-                    }
-                    field.set(object, new CompoundDataTypes.MXFCollections.MXFCollection<>(cHeader, cList, fieldName));
-                }
-                else
-                {
-                    throw new MXFException(String.format("Found unsupported type argument = %s", parameterizedType.getActualTypeArguments()[0].toString()));
-                }
-            }
-            else if (field.getType() == Float.class)
-            {
-                byte[] byteArray = byteProvider.getBytes(byteArraySize);
-                field.set(object, getFloat(byteArray, KLVPacket.BYTE_ORDER));
-            }
-            else if ((field.getType() == Long.class) && (byteArraySize == 8))
-            {// long
-                byte[] byteArray = byteProvider.getBytes(byteArraySize);
-                field.set(object, getLong(byteArray, KLVPacket.BYTE_ORDER));
-            }
-            else if ((field.getType() == Long.class) && (byteArraySize == 4))
-            {// unsigned int
-                byte[] byteArray = byteProvider.getBytes(byteArraySize);
-                field.set(object, getUnsignedIntAsLong(byteArray, KLVPacket.BYTE_ORDER));
-            }
-            else if ((field.getType() == Integer.class) && (byteArraySize == 4))
-            {//signed int
-                byte[] byteArray = byteProvider.getBytes(byteArraySize);
-                field.set(object, getInt(byteArray, KLVPacket.BYTE_ORDER));
-            }
-            else if ((field.getType() == Integer.class) && (byteArraySize == 2))
-            {//unsigned short
-                byte[] byteArray = byteProvider.getBytes(byteArraySize);
-                field.set(object, getUnsignedShortAsInt(byteArray, KLVPacket.BYTE_ORDER));
-            }
-            else if ((field.getType() == Short.class) && (byteArraySize == 2))
-            {//signed short
-                byte[] byteArray = byteProvider.getBytes(byteArraySize);
-                field.set(object, getShort(byteArray, KLVPacket.BYTE_ORDER));
-            }
-            else if ((field.getType() == Short.class) && (byteArraySize == 1))
-            {//unsigned byte
-                byte[] byteArray = byteProvider.getBytes(byteArraySize);
-                field.set(object, getUnsignedByteAsShort(byteArray));
-            }
-            else if ((field.getType() == Byte.class) && (byteArraySize == 1))
-            {//signed byte
-                byte[] byteArray = byteProvider.getBytes(byteArraySize);
-                field.set(object, getByte(byteArray));
-            }
-            else if ((field.getType() == Boolean.class) && (byteArraySize == 1))
-            {//boolean byte
-                byte[] byteArray = byteProvider.getBytes(byteArraySize);
-                field.set(object, getBooleanFromByte(byteArray));
-            }
-            else
-            {
-                throw new MXFException(String.format("unknown type = %s, size = %d combination encountered for field %s",
-                        field.getType().toString(), byteArraySize, fieldName));
-            }
-
-        }
-        catch(NoSuchFieldException e)
-        {
-            throw new MXFException(e);
-        }
-        catch(SecurityException e)
-        {
-            throw new MXFException(e);
-        }
-        catch(IllegalAccessException e)
-        {
-            throw new MXFException(e);
-        }
-        catch(IllegalArgumentException e)
-        {
-            throw new MXFException(e);
-        }
-
+        FieldCodec fieldCodec = getFieldCodec(object.getClass(), fieldName);
+        fieldCodec.set(object, fieldCodec.decoder.decode(byteProvider, byteArraySize));
     }
 
     /**
@@ -390,26 +251,7 @@ public final class MXFPropertyPopulator
      */
     public static int getFieldSizeInBytes(Object object, String fieldName)
     {
-        int fieldSizeInBytes;
-        try
-        {
-
-            Field field = getField(object.getClass(), fieldName);
-            if (field.isAnnotationPresent(MXFProperty.class))
-            {
-                fieldSizeInBytes = field.getAnnotation(MXFProperty.class).size();
-
-            }
-            else
-            {
-                throw new MXFException(String.format("field %s is not annotated with %s", fieldName, MXFProperty.class.getSimpleName()));
-            }
-        }
-        catch(NoSuchFieldException e)
-        {
-            throw new MXFException(e);
-        }
-        return fieldSizeInBytes;
+        return getAnnotation(object, fieldName).size();
     }
 
     /**
@@ -421,25 +263,27 @@ public final class MXFPropertyPopulator
      */
     public static Charset getFieldCharset(Object object, String fieldName)
     {
-        Charset fieldCharset;
-        try
+        FieldCodec fieldCodec = getFieldCodec(object.getClass(), fieldName);
+        if (fieldCodec.charset != null)
         {
-
-            Field field = getField(object.getClass(), fieldName);
-            if (field.isAnnotationPresent(MXFProperty.class))
-            {
-                fieldCharset = Charset.forName(field.getAnnotation(MXFProperty.class).charset());
-            }
-            else
-            {
-                throw new MXFException(String.format("field %s is not annotated with %s", fieldName, MXFProperty.class.getSimpleName()));
-            }
+            return fieldCodec.charset;
         }
-        catch(NoSuchFieldException e)
+        return Charset.forName(getAnnotation(object, fieldName).charset());
+    }
+
+    private static MXFProperty getAnnotation(Object object, String fieldName)
+    {
+        MXFProperty mxfProperty = getFieldCodec(object.getClass(), fieldName).mxfProperty;
+        if (mxfProperty == null)
         {
-            throw new MXFException(e);
+            throw new MXFException(String.format("field %s is not annotated with %s", fieldName, MXFProperty.class.getSimpleName()));
         }
-        return fieldCharset;
+        return mxfProperty;
+    }
+
+    private static FieldCodec getFieldCodec(Class aClass, String fieldName)
+    {
+        return PROPERTY_CODECS.get(aClass).getFieldCodec(fieldName);
     }
 
     private static Field getField(Class aClass, String fieldName) throws NoSuchFieldException
@@ -471,69 +315,350 @@ public final class MXFPropertyPopulator
     public static List<MXFUID> getDependentUIDs(InterchangeObject.InterchangeObjectBO interchangeObjectBO)
     {
         List<MXFUID> dependentUIDs = new ArrayList<>();
-        Class aClass = interchangeObjectBO.getClass();
-        while (aClass != null)
+        for (MethodHandle getter : PROPERTY_CODECS.get(interchangeObjectBO.getClass()).dependentFieldGetters)
+        {
+            Object object = invokeGetter(getter, interchangeObjectBO);
+            if (object != null)
+            {
+                if (object instanceof CompoundDataTypes.MXFCollections.MXFCollection)
+                {
+                    CompoundDataTypes.MXFCollections.MXFCollection<Object> collection = (CompoundDataTypes.MXFCollections.MXFCollection<Object>) object;
+                    if(collection.getEntries().get(0) instanceof InterchangeObject.InterchangeObjectBO.StrongRef) {
+                        CompoundDataTypes.MXFCollections.MXFCollection<InterchangeObject.InterchangeObjectBO.StrongRef> collectionStrongRefs = (CompoundDataTypes.MXFCollections.MXFCollection<InterchangeObject.InterchangeObjectBO.StrongRef>) object;
+                        for (InterchangeObject.InterchangeObjectBO.StrongRef entry : collectionStrongRefs.getEntries()) {
+                            dependentUIDs.add(entry.getInstanceUID());
+                        }
+                    }
+                    else if(collection.getEntries().get(0) instanceof UL){
+                        CompoundDataTypes.MXFCollections.MXFCollection<UL> collectionULs = (CompoundDataTypes.MXFCollections.MXFCollection<UL>) object;
+                        for (UL entry : collectionULs.getEntries()) {
+                            dependentUIDs.add(entry.getULAsMXFUid());
+                        }
+                    }
+                }
+                else if(object instanceof InterchangeObject.InterchangeObjectBO.StrongRef){
+                    InterchangeObject.InterchangeObjectBO.StrongRef strongRef = (InterchangeObject.InterchangeObjectBO.StrongRef) object;
+                    dependentUIDs.add(strongRef.getInstanceUID());
+                }
+                else if(object instanceof UL){
+                    UL ul = (UL)object;
+                    dependentUIDs.add(ul.getULAsMXFUid());
+                }
+                else
+                {
+                    byte[] bytes = (byte[]) object;
+                    dependentUIDs.add(new MXFUID(bytes));
+                }
+            }
+        }
+
+        return dependentUIDs;
+
+    }
+
+    private static Object invokeGetter(MethodHandle getter, Object object)
+    {
+        try
+        {
+            return (Object)getter.invokeExact(object);
+        }
+        catch (RuntimeException | Error e)
+        {
+            throw e;
+        }
+        catch (Throwable t)
         {
-            Field[] fields = aClass.getDeclaredFields();
-            for (Field field : fields)
+            throw new MXFException(t);
+        }
+    }
+
+    private static final class PropertyCodecs
+    {
+        private final Class<?> aClass;
+        private final Map<String, FieldCodec> fieldCodecs = new ConcurrentHashMap<>();
+        private final List<MethodHandle> dependentFieldGetters = new ArrayList<>();
+
+        private PropertyCodecs(Class<?> aClass)
+        {
+            this.aClass = aClass;
+            Class<?> currentClass = aClass;
+            while (currentClass != null)
             {
-                field.setAccessible(true);
-                if (field.isAnnotationPresent(MXFProperty.class))
+                for (Field field : currentClass.getDeclaredFields())
                 {
-                    boolean depends = field.getAnnotation(MXFProperty.class).depends();
-                    if (depends)
+                    if (field.isAnnotationPresent(MXFProperty.class) && field.getAnnotation(MXFProperty.class).depends())
                     {
+                        field.setAccessible(true);
                         try
                         {
-                            Object object = field.get(interchangeObjectBO);
-                            if (object != null)
-                            {
-                                if (object instanceof CompoundDataTypes.MXFCollections.MXFCollection)
-                                {
-                                    CompoundDataTypes.MXFCollections.MXFCollection<Object> collection = (CompoundDataTypes.MXFCollections.MXFCollection<Object>) object;
-                                    if(collection.getEntries().get(0) instanceof InterchangeObject.InterchangeObjectBO.StrongRef) {
-                                        CompoundDataTypes.MXFCollections.MXFCollection<InterchangeObject.InterchangeObjectBO.StrongRef> collectionStrongRefs = (CompoundDataTypes.MXFCollections.MXFCollection<InterchangeObject.InterchangeObjectBO.StrongRef>) object;
-                                        for (InterchangeObject.InterchangeObjectBO.StrongRef entry : collectionStrongRefs.getEntries()) {
-                                            dependentUIDs.add(entry.getInstanceUID());
-                                        }
-                                    }
-                                    else if(collection.getEntries().get(0) instanceof UL){
-                                        CompoundDataTypes.MXFCollections.MXFCollection<UL> collectionULs = (CompoundDataTypes.MXFCollections.MXFCollection<UL>) object;
-                                        for (UL entry : collectionULs.getEntries()) {
-                                            dependentUIDs.add(entry.getULAsMXFUid());
-                                        }
-                                    }
-                                }
-                                else if(object instanceof InterchangeObject.InterchangeObjectBO.StrongRef){
-                                    InterchangeObject.InterchangeObjectBO.StrongRef strongRef = (InterchangeObject.InterchangeObjectBO.StrongRef) object;
-                                    dependentUIDs.add(strongRef.getInstanceUID());
-                                }
-                                else if(object instanceof UL){
-                                    UL ul = (UL)object;
-                                    dependentUIDs.add(ul.getULAsMXFUid());
-                                }
-                                else
-                                {
-                                    byte[] bytes = (byte[]) object;
-                                    dependentUIDs.add(new MXFUID(bytes));
-                                }
-                            }
-
+                            this.dependentFieldGetters.add(MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE));
                         }
-                        catch(IllegalAccessException e)
+                        catch (IllegalAccessException e)
                         {
                             throw new MXFException(e);
                         }
-
                     }
                 }
+                currentClass = currentClass.getSuperclass();
             }
+        }
 
-            aClass = aClass.getSuperclass();
+        private FieldCodec getFieldCodec(String fieldName)
+        {
+            FieldCodec fieldCodec = this.fieldCodecs.get(fieldName);
+            if (fieldCodec == null)
+            {
+                try
+                {
+                    fieldCodec = new FieldCodec(getField(this.aClass, fieldName));
+                }
+                catch (NoSuchFieldException | IllegalAccessException e)
+                {
+                    throw new MXFException(e);
+                }
+                this.fieldCodecs.put(fieldName, fieldCodec);
+            }
+            return fieldCodec;
         }
+    }
 
-        return dependentUIDs;
+    private interface FieldDecoder
+    {
+        Object decode(ByteProvider byteProvider, int byteArraySize) throws IOException;
+    }
+
+    private static final class FieldCodec
+    {
+        private final MXFProperty mxfProperty;
+        private final Charset charset;
+        private final MethodHandle setter;
+        private final FieldDecoder decoder;
+
+        private FieldCodec(Field field) throws IllegalAccessException
+        {
+            this.mxfProperty = field.getAnnotation(MXFProperty.class);
+            this.charset = (this.mxfProperty != null && field.getType() == String.class) ? Charset.forName(this.mxfProperty.charset()) : null;
+            field.setAccessible(true);
+            this.setter = MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+            this.decoder = getDecoder(field, this.charset);
+        }
+
+        private void set(Object object, Object value)
+        {
+            try
+            {
+                this.setter.invokeExact(object, value);
+            }
+            catch (RuntimeException | Error e)
+            {
+                throw e;
+            }
+            catch (Throwable t)
+            {
+                throw new MXFException(t);
+            }
+        }
+
+        @SuppressWarnings("PMD.NcssMethodCount")
+        private static FieldDecoder getDecoder(Field field, Charset charset)
+        {
+            String fieldName = field.getName();
+            Class<?> type = field.getType();
+            if (type == byte[].class)
+            {
+                return (byteProvider, byteArraySize) -> byteProvider.getBytes(byteArraySize);
+            }
+            else if (type == InterchangeObject.InterchangeObjectBO.StrongRef.class)
+            {
+                return (byteProvider, byteArraySize) -> new InterchangeObject.InterchangeObjectBO.StrongRef(byteProvider.getBytes(byteArraySize));
+            }
+            else if (type == UL.class)
+            {
+                return (byteProvider, byteArraySize) -> new UL(byteProvider.getBytes(byteArraySize));
+            }
+            else if (type == String.class)
+            {
+                return (byteProvider, byteArraySize) -> getString(byteProvider.getBytes(byteArraySize),
+                        (charset != null) ? charset : Charset.forName(getAnnotation(field).charset()));
+            }
+            else if (type == CompoundDataTypes.Rational.class)
+            {
+                return (byteProvider, byteArraySize) -> new CompoundDataTypes.Rational(byteProvider);
+            }
+            else if (type == CompoundDataTypes.Timestamp.class)
+            {
+                return (byteProvider, byteArraySize) -> new CompoundDataTypes.Timestamp(byteProvider);
+            }
+            else if (type == CompoundDataTypes.MXFCollections.MXFCollection.class)
+            {
+                return getCollectionDecoder(field);
+            }
+            else if (type == Float.class)
+            {
+                return (byteProvider, byteArraySize) -> (byteArraySize == 4) ?
+                        Float.intBitsToFloat((int)byteProvider.getUnsignedInt()) : getFloat(byteProvider.getBytes(byteArraySize), KLVPacket.BYTE_ORDER);
+            }
+            else if (type == Long.class)
+            {
+                return (byteProvider, byteArraySize) -> {
+                    if (byteArraySize == 8)
+                    {// long
+                        return byteProvider.getLong();
+                    }
+                    else if (byteArraySize == 4)
+                    {// unsigned int
+                        return byteProvider.getUnsignedInt();
+                    }
+                    throw unknownTypeAndSize(type, byteArraySize, fieldName);
+                };
+            }
+            else if (type == Integer.class)
+            {
+                return (byteProvider, byteArraySize) -> {
+                    if (byteArraySize == 4)
+                    {//signed int
+                        return (int)byteProvider.getUnsignedInt();
+                    }
+                    else if (byteArraySize == 2)
+                    {//unsigned short
+                        return byteProvider.getUnsignedShort();
+                    }
+                    throw unknownTypeAndSize(type, byteArraySize, fieldName);
+                };
+            }
+            else if (type == Short.class)
+            {
+                return (byteProvider, byteArraySize) -> {
+                    if (byteArraySize == 2)
+                    {//signed short
+                        return (short)byteProvider.getUnsignedShort();
+                    }
+                    else if (byteArraySize == 1)
+                    {//unsigned byte
+                        return (short)byteProvider.getUnsignedByte();
+                    }
+                    throw unknownTypeAndSize(type, byteArraySize, fieldName);
+                };
+            }
+            else if (type == Byte.class)
+            {
+                return (byteProvider, byteArraySize) -> {
+                    if (byteArraySize == 1)
+                    {//signed byte
+                        return (byte)byteProvider.getUnsignedByte();
+                    }
+                    throw unknownTypeAndSize(type, byteArraySize, fieldName);
+                };
+            }
+            else if (type == Boolean.class)
+            {
+                return (byteProvider, byteArraySize) -> {
+                    if (byteArraySize == 1)
+                    {//boolean byte
+                        return byteProvider.getUnsignedByte() != 0;
+                    }
+                    throw unknownTypeAndSize(type, byteArraySize, fieldName);
+                };
+            }
+            else
+            {
+                return (byteProvider, byteArraySize) -> {
+                    throw unknownTypeAndSize(type, byteArraySize, fieldName);
+                };
+            }
+        }
 
+        private static FieldDecoder getCollectionDecoder(Field field)
+        {
+            String fieldName = field.getName();
+            ParameterizedType parameterizedType = (ParameterizedType)field.getGenericType();
+            if(parameterizedType.getActualTypeArguments().length > 1)
+            {
+                throw new MXFException(String.format("Found %d type arguments, however only 1 is supported at this time",
+                        parameterizedType.getActualTypeArguments().length));
+            }
+            Type typeArgument = parameterizedType.getActualTypeArguments()[0];
+            if ((typeArgument == byte[].class) || (typeArgument.toString().equals("byte[]")))
+            {
+                return (byteProvider, byteArraySize) -> {
+                    CompoundDataTypes.MXFCollections.Header cHeader = new CompoundDataTypes.MXFCollections.Header(byteProvider);
+                    List<byte[]> cList = new ArrayList<>();
+                    for (long i=0; i<cHeader.getNumberOfElements(); i++)
+                    {
+                        cList.add(byteProvider.getBytes((int)cHeader.getSizeOfElement()));
+                    }
+                    return new CompoundDataTypes.MXFCollections.MXFCollection<>(cHeader, cList, fieldName);
+                };
+            }
+            else if (typeArgument == Integer.class)
+            {
+                return (byteProvider, byteArraySize) -> {
+                    CompoundDataTypes.MXFCollections.Header cHeader = new CompoundDataTypes.MXFCollections.Header(byteProvider);
+                    List<Integer> cList = new ArrayList<>();
+                    for (long i=0; i<cHeader.getNumberOfElements(); i++)
+                    {
+                        cList.add((int)byteProvider.getUnsignedInt());
+                    }
+                    return new CompoundDataTypes.MXFCollections.MXFCollection<>(cHeader, cList, fieldName);
+                };
+            }
+            else if (typeArgument == InterchangeObject.InterchangeObjectBO.StrongRef.class)
+            {
+                return (byteProvider, byteArraySize) -> {
+                    CompoundDataTypes.MXFCollections.Header cHeader = new CompoundDataTypes.MXFCollections.Header(byteProvider);
+                    List<InterchangeObject.InterchangeObjectBO.StrongRef> cList = new ArrayList<>();
+                    for (long i=0; i<cHeader.getNumberOfElements(); i++)
+                    {
+                        cList.add(new InterchangeObject.InterchangeObjectBO.StrongRef(byteProvider.getBytes((int)cHeader.getSizeOfElement())));
+                    }
+                    return new CompoundDataTypes.MXFCollections.MXFCollection<>(cHeader, cList, fieldName);
+                };
+            }
+            else if (typeArgument == UL.class)
+            {
+                return (byteProvider, byteArraySize) -> {
+                    CompoundDataTypes.MXFCollections.Header cHeader = new CompoundDataTypes.MXFCollections.Header(byteProvider);
+                    List<UL> cList = new ArrayList<>();
+                    for (long i=0; i<cHeader.getNumberOfElements(); i++)
+                    {
+                        cList.add(new UL(byteProvider.getBytes((int)cHeader.getSizeOfElement())));
+                    }
+                    return new CompoundDataTypes.MXFCollections.MXFCollection<>(cHeader, cList, fieldName);
+                };
+            }
+            else if (typeArgument == JPEG2000PictureComponent.JPEG2000PictureComponentBO.class)
+            {
+                return (byteProvider, byteArraySize) -> {
+                    CompoundDataTypes.MXFCollections.Header cHeader = new CompoundDataTypes.MXFCollections.Header(byteProvider);
+                    List<JPEG2000PictureComponent.JPEG2000PictureComponentBO> cList = new ArrayList<>();
+                    for (long i=0; i<cHeader.getNumberOfElements(); i++)
+                    {
+                        cList.add(new JPEG2000PictureComponent.JPEG2000PictureComponentBO(byteProvider.getBytes((int)cHeader.getSizeOfElement())));
+                    }
+                    return new CompoundDataTypes.MXFCollections.MXFCollection<>(cHeader, cList, fieldName);
+                };
+            }
+            else
+            {
+                throw new MXFException(String.format("Found unsupported type argument = %s", typeArgument.toString()));
+            }
+        }
+
+        private static MXFProperty getAnnotation(Field field)
+        {
+            MXFProperty mxfProperty = field.getAnnotation(MXFProperty.class);
+            if (mxfProperty == null)
+            {
+                throw new MXFException(String.format("field %s is not annotated with %s", field.getName(), MXFProperty.class.getSimpleName()));
+            }
+            return mxfProperty;
+        }
+
+        private static MXFException unknownTypeAndSize(Class<?> type, int byteArraySize, String fieldName)
+        {
+            return new MXFException(String.format("unknown type = %s, size = %d combination encountered for field %s",
+                    type.toString(), byteArraySize, fieldName));
+        }
     }
 
 }
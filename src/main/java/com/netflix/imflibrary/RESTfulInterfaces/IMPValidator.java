@@ -1,6 +1,7 @@
 package com.netflix.imflibrary.RESTfulInterfaces;
 
 import com.netflix.imflibrary.IMFConstraints;
+import com.netflix.imflibrary.IMFErrorListener;
 import com.netflix.imflibrary.IMFErrorLogger;
 import com.netflix.imflibrary.IMFErrorLoggerImpl;
 import com.netflix.imflibrary.MXFOperationalPattern1A;
@@ -13,6 +14,7 @@ import com.netflix.imflibrary.st2067_2.ApplicationCompositionFactory;
 import com.netflix.imflibrary.st2067_2.Composition;
 import com.netflix.imflibrary.st2067_2.ApplicationComposition;
 import com.netflix.imflibrary.st2067_2.Composition.VirtualTrack;
+import com.netflix.imflibrary.st2067_2.EssenceDescriptorCache;
 import com.netflix.imflibrary.st2067_2.IMFEssenceComponentVirtualTrack;
 import com.netflix.imflibrary.st2067_2.IMFMarkerVirtualTrack;
 import com.netflix.imflibrary.utils.DOMNodeObjectModel;
@@ -82,7 +84,19 @@ public class IMPValidator {
      * @throws IOException - any I/O related error is exposed through an IOException
      */
     public static List<ErrorLogger.ErrorObject> validatePKL(PayloadRecord pkl) throws IOException {
-        IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl();
+        return validatePKL(pkl, null);
+    }
+
+    /**
+     * A stateless method that will validate an IMF PackingList document, and notify a listener of errors as they are encountered
+     * @param pkl - a payload record for a Packing List document
+     * @param errorListener - a listener to notify of errors as they are encountered, null if there is none
+     * @return list of error messages encountered while validating a Packing List document
+     * @throws IOException - any I/O related error is exposed through an IOException
+     * @throws com.netflix.imflibrary.exceptions.IMFValidationTerminatedException - if the listener ends the validation
+     */
+    public static List<ErrorLogger.ErrorObject> validatePKL(PayloadRecord pkl, @Nullable IMFErrorListener errorListener) throws IOException {
+        IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl(errorListener);
 
         if(pkl.getPayloadAssetType() != PayloadRecord.PayloadAssetType.PackingList){
             throw new IMFException(String.format("Payload asset type is %s, expected asset type %s", pkl
@@ -265,7 +279,19 @@ public class IMPValidator {
      * @throws IOException - any I/O related error is exposed through an IOException
      */
     public static List<ErrorLogger.ErrorObject> validateCPL(PayloadRecord cpl) throws IOException{
-        IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl();
+        return validateCPL(cpl, null);
+    }
+
+    /**
+     * A stateless method that will validate an IMF Composition document, and notify a listener of errors as they are encountered
+     * @param cpl - a payload record for a Composition document
+     * @param errorListener - a listener to notify of errors as they are encountered, null if there is none
+     * @return list of error messages encountered while validating an AssetMap document
+     * @throws IOException - any I/O related error is exposed through an IOException
+     * @throws com.netflix.imflibrary.exceptions.IMFValidationTerminatedException - if the listener ends the validation
+     */
+    public static List<ErrorLogger.ErrorObject> validateCPL(PayloadRecord cpl, @Nullable IMFErrorListener errorListener) throws IOException{
+        IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl(errorListener);
         if(cpl.getPayloadAssetType() != PayloadRecord.PayloadAssetType.CompositionPlaylist){
             throw new IMFException(String.format("Payload asset type is %s, expected asset type %s", cpl
                     .getPayloadAssetType(), PayloadRecord.PayloadAssetType.CompositionPlaylist.toString()));
@@ -342,8 +368,47 @@ public class IMPValidator {
     public static List<ErrorLogger.ErrorObject> areAllVirtualTracksInCPLConformed(
             PayloadRecord cplPayloadRecord,
             List<PayloadRecord> essencesHeaderPartitionPayloads) throws IOException {
+        return areAllVirtualTracksInCPLConformed(cplPayloadRecord, essencesHeaderPartitionPayloads, new EssenceDescriptorCache());
+    }
 
-        IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl();
+    /**
+     * A stateless method that can be used to determine if a Composition is conformant. Conformance checks
+     * perform deeper inspection of the Composition and the EssenceDescriptors corresponding to all the
+     * Virtual Tracks that are a part of the Composition
+     * @param cplPayloadRecord a payload record corresponding to the Composition payload
+     * @param essencesHeaderPartitionPayloads list of payload records containing the raw bytes of the HeaderPartitions of the IMF Track files that are a part of the Virtual Track/s in the Composition
+     * @param essenceDescriptorCache a cache of the EssenceDescriptors of the IMF Track files, that should be shared when conforming
+     *                               several Compositions against the same HeaderPartitions
+     * @return list of error messages encountered while performing conformance validation of the Composition document
+     * @throws IOException - any I/O related error is exposed through an IOException
+     */
+    public static List<ErrorLogger.ErrorObject> areAllVirtualTracksInCPLConformed(
+            PayloadRecord cplPayloadRecord,
+            List<PayloadRecord> essencesHeaderPartitionPayloads,
+            EssenceDescriptorCache essenceDescriptorCache) throws IOException {
+        return areAllVirtualTracksInCPLConformed(cplPayloadRecord, essencesHeaderPartitionPayloads, essenceDescriptorCache, null);
+    }
+
+    /**
+     * A stateless method that can be used to determine if a Composition is conformant, and that notifies a listener of
+     * errors as they are encountered. Conformance checks perform deeper inspection of the Composition and the
+     * EssenceDescriptors corresponding to all the Virtual Tracks that are a part of the Composition
+     * @param cplPayloadRecord a payload record corresponding to the Composition payload
+     * @param essencesHeaderPartitionPayloads list of payload records containing the raw bytes of the HeaderPartitions of the IMF Track files that are a part of the Virtual Track/s in the Composition
+     * @param essenceDescriptorCache a cache of the EssenceDescriptors of the IMF Track files, that should be shared when conforming
+     *                               several Compositions against the same HeaderPartitions
+     * @param errorListener a listener to notify of errors as they are encountered, null if there is none
+     * @return list of error messages encountered while performing conformance validation of the Composition document
+     * @throws IOException - any I/O related error is exposed through an IOException
+     * @throws com.netflix.imflibrary.exceptions.IMFValidationTerminatedException - if the listener ends the validation
+     */
+    public static List<ErrorLogger.ErrorObject> areAllVirtualTracksInCPLConformed(
+            PayloadRecord cplPayloadRecord,
+            List<PayloadRecord> essencesHeaderPartitionPayloads,
+            EssenceDescriptorCache essenceDescriptorCache,
+            @Nullable IMFErrorListener errorListener) throws IOException {
+
+        IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl(errorListener);
         ApplicationComposition applicationComposition = ApplicationCompositionFactory.getApplicationComposition(new ByteArrayByteRangeProvider(cplPayloadRecord.getPayload()), imfErrorLogger);
 
         List<VirtualTrack> virtualTracks = new ArrayList<>(applicationComposition.getVirtualTracks());
@@ -353,7 +418,7 @@ public class IMPValidator {
             return imfErrorLogger.getErrors();
         }
         imfErrorLogger.addAllErrors(conformVirtualTracksInCPL(cplPayloadRecord, essencesHeaderPartitionPayloads,
-                true));
+                true, essenceDescriptorCache));
 
         return imfErrorLogger.getErrors();
     }
@@ -361,6 +426,13 @@ public class IMPValidator {
     public static List<ErrorLogger.ErrorObject> conformVirtualTracksInCPL(PayloadRecord cplPayloadRecord,
         List<PayloadRecord> essencesHeaderPartitionPayloads,boolean conformAllVirtualTracks) throws IOException
     {
+        return conformVirtualTracksInCPL(cplPayloadRecord, essencesHeaderPartitionPayloads, conformAllVirtualTracks, new EssenceDescriptorCache());
+    }
+
+    public static List<ErrorLogger.ErrorObject> conformVirtualTracksInCPL(PayloadRecord cplPayloadRecord,
+        List<PayloadRecord> essencesHeaderPartitionPayloads, boolean conformAllVirtualTracks,
+        EssenceDescriptorCache essenceDescriptorCache) throws IOException
+    {
 
         IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl();
         List<PayloadRecord> essencesHeaderPartition = Collections.unmodifiableList(essencesHeaderPartitionPayloads);
@@ -397,7 +469,7 @@ public class IMPValidator {
             }
 
             imfErrorLogger.addAllErrors(applicationComposition.conformVirtualTracksInComposition(Collections.unmodifiableList
-                    (headerPartitionTuples), conformAllVirtualTracks));
+                    (headerPartitionTuples), conformAllVirtualTracks, essenceDescriptorCache));
 
             imfErrorLogger.addAllErrors(applicationComposition.getErrors());
         }
@@ -559,17 +631,22 @@ public class IMPValidator {
                 continue;
             }
             HeaderPartition headerPartition = null;
+            boolean isMaterialized = false;
             try {
-                headerPartition = new HeaderPartition(new ByteArrayDataProvider(payloadRecord.getPayload()),
+                //the compliance checks walk the complete object model, lazy materialization only spares the structural metadata
+                //sets of a header partition that is rejected when it is indexed
+                headerPartition = HeaderPartition.createLazyHeaderPartition(ByteBuffer.wrap(payloadRecord.getPayload()),
                     0L,
                     (long)payloadRecord.getPayload().length,
                     imfErrorLogger);
+                headerPartition.getPreface();
+                isMaterialized = true;
 
                 MXFOperationalPattern1A.HeaderPartitionOP1A headerPartitionOP1A = MXFOperationalPattern1A.checkOperationalPattern1ACompliance(headerPartition, imfErrorLogger);
                 IMFConstraints.checkIMFCompliance(headerPartitionOP1A, imfErrorLogger);
             }
             catch (IMFException | MXFException e){
-                if(headerPartition != null) {
+                if(isMaterialized) {
                     Preface preface = headerPartition.getPreface();
                     GenericPackage genericPackage = preface.getContentStorage().getEssenceContainerDataList().get(0).getLinkedPackage();
                     SourcePackage filePackage = (SourcePackage) genericPackage;
@@ -618,7 +695,8 @@ public class IMPValidator {
                         payloadRecord.getPayloadAssetType(), PayloadRecord.PayloadAssetType.EssencePartition.toString
                                 ()), imfErrorLogger);
             }
-            HeaderPartition headerPartition = new HeaderPartition(new ByteArrayDataProvider(payloadRecord.getPayload()),
+            //the spoken language is read from the structural metadata sets, without building the object model of the header partition
+            HeaderPartition headerPartition = HeaderPartition.createLazyHeaderPartition(ByteBuffer.wrap(payloadRecord.getPayload()),
                 0L,
                 (long) payloadRecord.getPayload().length,
                 imfErrorLogger);
@@ -0,0 +1,121 @@
+/*
+ *
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.netflix.imflibrary;
+
+import com.netflix.imflibrary.exceptions.IMFValidationTerminatedException;
+import com.netflix.imflibrary.utils.ErrorLogger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An IMFErrorListener that forwards errors to another listener and ends the validation at the first fatal error, or once a
+ * maximum number of errors has been recorded. Once it has ended a validation it keeps throwing on every error, so that the
+ * other threads of a validation running on several threads end as well.
+ */
+@ThreadSafe
+public final class TerminatingIMFErrorListener implements IMFErrorListener
+{
+    private final IMFErrorListener errorListener;
+    private final boolean terminateOnFatalError;
+    private final int maxNumberOfErrors;
+    private final AtomicInteger numberOfErrors = new AtomicInteger(0);
+    @Nullable
+    private volatile String terminationReason = null;
+
+    /**
+     * Instantiates a new terminating error listener
+     *
+     * @param errorListener - the listener to forward errors to, null if errors are not forwarded
+     * @param terminateOnFatalError - true to end the validation at the first fatal error
+     * @param maxNumberOfErrors - the number of errors after which the validation ends, 0 for no limit
+     */
+    public TerminatingIMFErrorListener(@Nullable IMFErrorListener errorListener, boolean terminateOnFatalError, int maxNumberOfErrors)
+    {
+        if (maxNumberOfErrors < 0)
+        {
+            throw new IllegalArgumentException(String.format("maxNumberOfErrors = %d is < 0", maxNumberOfErrors));
+        }
+        this.errorListener = errorListener;
+        this.terminateOnFatalError = terminateOnFatalError;
+        this.maxNumberOfErrors = maxNumberOfErrors;
+    }
+
+    /**
+     * A method that forwards an error, and ends the validation if the error is fatal or the maximum number of errors is reached
+     *
+     * @param errorObject - the error that was recorded
+     * @throws IMFValidationTerminatedException - to end the validation
+     */
+    @Override
+    public void onError(@Nonnull ErrorLogger.ErrorObject errorObject)
+    {
+        String terminationReason = this.terminationReason;
+        if (terminationReason != null)
+        {//the other threads of the validation end with the same reason
+            throw new IMFValidationTerminatedException(terminationReason);
+        }
+        if (this.errorListener != null)
+        {
+            this.errorListener.onError(errorObject);
+        }
+        int numberOfErrors = this.numberOfErrors.incrementAndGet();
+        if (this.terminateOnFatalError
+                && errorObject.getErrorLevel() == IMFErrorLogger.IMFErrors.ErrorLevels.FATAL)
+        {
+            throw terminate(String.format("Validation was terminated at the first fatal error : %s", errorObject.getErrorDescription()));
+        }
+        if (this.maxNumberOfErrors > 0
+                && numberOfErrors >= this.maxNumberOfErrors)
+        {
+            throw terminate(String.format("Validation was terminated after %d errors", numberOfErrors));
+        }
+    }
+
+    private synchronized IMFValidationTerminatedException terminate(String terminationReason)
+    {
+        if (this.terminationReason == null)
+        {
+            this.terminationReason = terminationReason;
+        }
+        return new IMFValidationTerminatedException(this.terminationReason);
+    }
+
+    /**
+     * Getter for whether this listener has ended the validation
+     *
+     * @return true if this listener has ended the validation
+     */
+    public boolean isTerminated()
+    {
+        return this.terminationReason != null;
+    }
+
+    /**
+     * Getter for the number of errors this listener was notified of
+     *
+     * @return the number of errors
+     */
+    public int getNumberOfErrors()
+    {
+        return this.numberOfErrors.get();
+    }
+}
@@ -21,6 +21,7 @@ package com.netflix.imflibrary.app;
 import com.netflix.imflibrary.*;
 import com.netflix.imflibrary.exceptions.IMFException;
 import com.netflix.imflibrary.exceptions.MXFException;
+import com.netflix.imflibrary.st0377.EssenceAccessor;
 import com.netflix.imflibrary.st0377.HeaderPartition;
 import com.netflix.imflibrary.st0377.IndexTableSegment;
 import com.netflix.imflibrary.st0377.PartitionPack;
@@ -32,11 +33,10 @@ import com.netflix.imflibrary.st0377.header.GenericPackage;
 import com.netflix.imflibrary.st0377.header.InterchangeObject;
 import com.netflix.imflibrary.st0377.header.Preface;
 import com.netflix.imflibrary.st0377.header.SourcePackage;
-import com.netflix.imflibrary.utils.ByteArrayDataProvider;
 import com.netflix.imflibrary.utils.ByteProvider;
 import com.netflix.imflibrary.utils.ErrorLogger;
-import com.netflix.imflibrary.utils.FileByteRangeProvider;
-import com.netflix.imflibrary.utils.FileDataProvider;
+import com.netflix.imflibrary.utils.MXFBootstrapReader;
+import com.netflix.imflibrary.utils.MappedResourceByteRangeProvider;
 import com.netflix.imflibrary.utils.ResourceByteRangeProvider;
 import com.netflix.imflibrary.utils.Utilities;
 import org.slf4j.Logger;
@@ -54,8 +54,6 @@ import java.io.File;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.*;
 
 /**
@@ -64,8 +62,8 @@ import java.util.*;
 @ThreadSafe
 final class IMFTrackFileReader
 {
-    private final File workingDirectory;
     private final ResourceByteRangeProvider resourceByteRangeProvider;
+    private volatile MXFBootstrapReader bootstrapReader = null;
     private volatile RandomIndexPack randomIndexPack = null;
     private volatile List<PartitionPack> partitionPacks = null;
     private volatile List<PartitionPack> referencedPartitionPacks = null;
@@ -77,12 +75,11 @@ final class IMFTrackFileReader
 
     /**
      * Lazily creates a model instance corresponding to a st2067-5 compliant MXF file
-     * @param workingDirectory the working directory
+     * @param workingDirectory the working directory, byte ranges of the MXF file are read into memory and are not staged in it
      * @param resourceByteRangeProvider the MXF file represented as a {@link com.netflix.imflibrary.utils.ResourceByteRangeProvider}
      */
     IMFTrackFileReader(File workingDirectory, ResourceByteRangeProvider resourceByteRangeProvider)
     {
-        this.workingDirectory = workingDirectory;
         this.resourceByteRangeProvider = resourceByteRangeProvider;
     }
 
@@ -116,17 +113,30 @@ final class IMFTrackFileReader
 
     private void setHeaderPartitionIMF(long inclusiveRangeStart, long inclusiveRangeEnd, @Nonnull IMFErrorLogger imfErrorLogger) throws IOException
     {
-        File fileWithHeaderPartition = this.resourceByteRangeProvider.getByteRange(inclusiveRangeStart, inclusiveRangeEnd, this.workingDirectory);
-        ByteProvider byteProvider = this.getByteProvider(fileWithHeaderPartition);
+        long headerPartitionSize = inclusiveRangeEnd - inclusiveRangeStart + 1;
         HeaderPartition headerPartition = null;
+        boolean isMaterialized = false;
         try {
-            headerPartition = new HeaderPartition(byteProvider, inclusiveRangeStart, inclusiveRangeEnd - inclusiveRangeStart + 1, imfErrorLogger);
+            if (headerPartitionSize > Integer.MAX_VALUE)
+            {//a header partition that does not fit in a ByteBuffer is streamed and materialized eagerly
+                ByteProvider byteProvider = this.resourceByteRangeProvider.getByteRangeAsByteProvider(inclusiveRangeStart, inclusiveRangeEnd);
+                headerPartition = new HeaderPartition(byteProvider, inclusiveRangeStart, headerPartitionSize, imfErrorLogger);
+            }
+            else
+            {
+                //the compliance checks below walk the complete object model, lazy materialization only spares the structural
+                //metadata sets of a header partition that is rejected when it is indexed
+                ByteBuffer byteBuffer = this.resourceByteRangeProvider.getByteRangeAsByteBuffer(inclusiveRangeStart, inclusiveRangeEnd);
+                headerPartition = HeaderPartition.createLazyHeaderPartition(byteBuffer, inclusiveRangeStart, headerPartitionSize, imfErrorLogger);
+                headerPartition.getPreface();
+            }
+            isMaterialized = true;
             //validate header partition
             MXFOperationalPattern1A.HeaderPartitionOP1A headerPartitionOP1A = MXFOperationalPattern1A.checkOperationalPattern1ACompliance(headerPartition, imfErrorLogger);
             this.headerPartition = IMFConstraints.checkIMFCompliance(headerPartitionOP1A, imfErrorLogger);
         }
         catch (MXFException | IMFException e){
-            if(headerPartition == null){
+            if(!isMaterialized){
                 imfErrorLogger.addError(new ErrorLogger.ErrorObject(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_ESSENCE_COMPONENT_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.FATAL, String.format("IMFTrackFile has fatal errors")));
             }
             else {
@@ -184,8 +194,7 @@ final class IMFTrackFileReader
                     (KLVPacket.KEY_FIELD_SIZE + KLVPacket.LENGTH_FIELD_SUFFIX_MAX_SIZE) -1;
             rangeEnd = rangeEnd < (archiveFileSize - 1) ? rangeEnd : (archiveFileSize - 1);
 
-            File fileWithPartitionPackKLVPacketHeader = this.resourceByteRangeProvider.getByteRange(inclusivePartitionStart, rangeEnd, this.workingDirectory);
-            ByteProvider byteProvider = this.getByteProvider(fileWithPartitionPackKLVPacketHeader);
+            ByteProvider byteProvider = this.resourceByteRangeProvider.getByteRangeAsByteProvider(inclusivePartitionStart, rangeEnd);
             header = new KLVPacket.Header(byteProvider, inclusivePartitionStart);
         }
 
@@ -196,8 +205,7 @@ final class IMFTrackFileReader
                     (KLVPacket.KEY_FIELD_SIZE + header.getLSize() + header.getVSize()) -1;
             rangeEnd = rangeEnd < (archiveFileSize - 1) ? rangeEnd : (archiveFileSize - 1);
 
-            File fileWithPartitionPack = this.resourceByteRangeProvider.getByteRange(inclusivePartitionStart, rangeEnd, this.workingDirectory);
-            ByteProvider byteProvider = this.getByteProvider(fileWithPartitionPack);
+            ByteProvider byteProvider = this.resourceByteRangeProvider.getByteRangeAsByteProvider(inclusivePartitionStart, rangeEnd);
             partitionPack = new PartitionPack(byteProvider, inclusivePartitionStart, false);
         }
 
@@ -208,8 +216,7 @@ final class IMFTrackFileReader
             long rangeEnd = inclusivePartitionEnd;
             rangeEnd = rangeEnd < (archiveFileSize - 1) ? rangeEnd : (archiveFileSize - 1);
 
-            File fileWithPartition = this.resourceByteRangeProvider.getByteRange(inclusivePartitionStart, rangeEnd, this.workingDirectory);
-            ByteProvider byteProvider = this.getByteProvider(fileWithPartition);
+            ByteProvider byteProvider = this.resourceByteRangeProvider.getByteRangeAsByteProvider(inclusivePartitionStart, rangeEnd);
 
             long numBytesToRead = rangeEnd - inclusivePartitionStart + 1;
             long numBytesRead = 0;
@@ -296,6 +303,18 @@ final class IMFTrackFileReader
 
     }
 
+    /**
+     * Getter for an accessor that resolves the edit units of the essence container of this track file to the byte ranges of
+     * their essence
+     * @param imfErrorLogger an error logger for recording any errors - cannot be null
+     * @return an EssenceAccessor for the essence container of this track file
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    EssenceAccessor getEssenceAccessor(@Nonnull IMFErrorLogger imfErrorLogger) throws IOException
+    {
+        return new EssenceAccessor(this.resourceByteRangeProvider, getPartitionPacks(imfErrorLogger), getIndexTableSegments(imfErrorLogger));
+    }
+
     List<String> getPartitionPacksType(@Nonnull IMFErrorLogger imfErrorLogger) throws IOException
     {
         if (this.partitionPacks == null)
@@ -314,12 +333,9 @@ final class IMFTrackFileReader
     {
         RandomIndexPack randomIndexPack = getRandomIndexPack(imfErrorLogger);
 
-        List<PartitionPack> partitionPacks = new ArrayList<>();
-        List<Long> allPartitionByteOffsets = randomIndexPack.getAllPartitionByteOffsets();
-        for (long offset : allPartitionByteOffsets)
-        {
-            partitionPacks.add(getPartitionPack(offset));
-        }
+        //the partition packs are read through a single vectored read, except the ones read along with the random index pack
+        List<PartitionPack> partitionPacks = new ArrayList<>(getBootstrapReader().getPartitionPacks(randomIndexPack.getAllPartitionByteOffsets()));
+        //the partition packs are validated in the order of the random index pack, the lookups by byte offset sort a copy of them
         try {
             //validate partition packs
             MXFOperationalPattern1A.checkOperationalPattern1ACompliance(partitionPacks);
@@ -341,38 +357,6 @@ final class IMFTrackFileReader
         this.partitionPacks  = Collections.unmodifiableList(partitionPacks);
     }
 
-    private PartitionPack getPartitionPack(long resourceOffset) throws IOException
-    {
-        long archiveFileSize = this.resourceByteRangeProvider.getResourceSize();
-        KLVPacket.Header header;
-        {//logic to provide as an input stream the portion of the archive that contains PartitionPack KLVPacker Header
-            long rangeEnd = resourceOffset +
-                    (KLVPacket.KEY_FIELD_SIZE + KLVPacket.LENGTH_FIELD_SUFFIX_MAX_SIZE) -1;
-            rangeEnd = rangeEnd < (archiveFileSize - 1) ? rangeEnd : (archiveFileSize - 1);
-
-            File fileWithPartitionPackKLVPacketHeader = this.resourceByteRangeProvider.getByteRange(resourceOffset, rangeEnd, this.workingDirectory);
-            ByteProvider byteProvider = this.getByteProvider(fileWithPartitionPackKLVPacketHeader);
-            header = new KLVPacket.Header(byteProvider, resourceOffset);
-        }
-
-        PartitionPack partitionPack;
-        {//logic to provide as an input stream the portion of the archive that contains a PartitionPack and next KLV header
-
-            long rangeEnd = resourceOffset +
-                    (KLVPacket.KEY_FIELD_SIZE + header.getLSize() + header.getVSize()) +
-                    (KLVPacket.KEY_FIELD_SIZE + KLVPacket.LENGTH_FIELD_SUFFIX_MAX_SIZE) +
-                    -1;
-            rangeEnd = rangeEnd < (archiveFileSize - 1) ? rangeEnd : (archiveFileSize - 1);
-
-            File fileWithPartitionPack = this.resourceByteRangeProvider.getByteRange(resourceOffset, rangeEnd, this.workingDirectory);
-            ByteProvider byteProvider = this.getByteProvider(fileWithPartitionPack);
-            partitionPack = new PartitionPack(byteProvider, resourceOffset, true);
-
-        }
-
-        return partitionPack;
-    }
-
     /**
      * Returns a model instance corresponding to the RandomIndexPack section of the MXF file
      * @return a {@link com.netflix.imflibrary.st0377.RandomIndexPack} representation of the random index pack section
@@ -390,41 +374,35 @@ final class IMFTrackFileReader
     private void setRandomIndexPack(@Nonnull IMFErrorLogger imfErrorLogger) throws IOException
     {
 
+        //the randomIndexPack size and usually the randomIndexPack itself are in the window read at the end of the archive
         long archiveFileSize = this.resourceByteRangeProvider.getResourceSize();
-        long randomIndexPackSize;
-        {//logic to provide as an input stream the portion of the archive that contains randomIndexPack size
-            long rangeEnd = archiveFileSize - 1;
-            long rangeStart = archiveFileSize - 4;
-
-            File fileWithRandomIndexPackSize = this.resourceByteRangeProvider.getByteRange(rangeStart, rangeEnd, this.workingDirectory);
-            byte[] bytes = Files.readAllBytes(Paths.get(fileWithRandomIndexPackSize.toURI()));
-            randomIndexPackSize = (long)(ByteBuffer.wrap(bytes).getInt());
-        }
+        MXFBootstrapReader bootstrapReader = getBootstrapReader();
+        long randomIndexPackSize = bootstrapReader.getRandomIndexPackSize();
         //RandomIndexPack size min value = 16 + 4 + 36 + 4
         // 16 bytes for the UL, 4 bytes for the overall length of the pack, 3 * 12 bytes since we expect to see atleast 3 partitions, 4 bytes overall length of the pack including the SetKey, Pack Length and SID/Offset fields
         if(randomIndexPackSize < 60){
             imfErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_ESSENCE_COMPONENT_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.FATAL, String.format("RandomIndexPackSize = %d is smaller than what is required to reliably contain a minimum number of Partition Byte Offsets.", randomIndexPackSize));
             throw new MXFException(String.format("RandomIndexPackSize = %d is smaller than what is required to reliably contain a minimum number of Partition Byte Offsets.", randomIndexPackSize), imfErrorLogger);
         }
-        RandomIndexPack randomIndexPack;
-        {//logic to provide as an input stream the portion of the archive that contains randomIndexPack
-            long rangeEnd = archiveFileSize - 1;
-            long rangeStart = archiveFileSize - randomIndexPackSize;
-            if (rangeStart < 0)
-            {
-                throw new MXFException(String.format("RandomIndexPackSize = %d obtained from last 4 bytes of the MXF file is larger than archiveFile size = %d, implying that this file does not contain a RandomIndexPack",
-                        randomIndexPackSize, archiveFileSize));
-            }
-
-            File fileWithRandomIndexPack = this.resourceByteRangeProvider.getByteRange(rangeStart, rangeEnd, this.workingDirectory);
-            ByteProvider byteProvider = this.getByteProvider(fileWithRandomIndexPack);
-            randomIndexPack = new RandomIndexPack(byteProvider, rangeStart, randomIndexPackSize);
+        if (archiveFileSize < randomIndexPackSize)
+        {
+            throw new MXFException(String.format("RandomIndexPackSize = %d obtained from last 4 bytes of the MXF file is larger than archiveFile size = %d, implying that this file does not contain a RandomIndexPack",
+                    randomIndexPackSize, archiveFileSize));
         }
 
-        this.randomIndexPack =  randomIndexPack;
+        this.randomIndexPack = bootstrapReader.getRandomIndexPack();
 
     }
 
+    private MXFBootstrapReader getBootstrapReader() throws IOException
+    {
+        if (this.bootstrapReader == null)
+        {
+            this.bootstrapReader = new MXFBootstrapReader(this.resourceByteRangeProvider);
+        }
+        return this.bootstrapReader;
+    }
+
     /**
      * A method that returns a list of EssenceDescriptor objects referenced by the Source Packages in this HeaderPartition
      * @param imfErrorLogger an error logger for recording any errors - cannot be null
@@ -532,24 +510,7 @@ final class IMFTrackFileReader
      * @throws IOException
      */
     ByteProvider getByteProvider(KLVPacket.Header header) throws IOException {
-        File file = this.resourceByteRangeProvider.getByteRange(header.getByteOffset(), header.getByteOffset() + header.getKLSize() + header.getVSize(), this.workingDirectory);
-        return this.getByteProvider(file);
-    }
-
-    private ByteProvider getByteProvider(File file) throws IOException {
-        ByteProvider byteProvider;
-        Long size = file.length();
-        if(size <= 0){
-            throw new IOException(String.format("Range of bytes (%d) has to be +ve and non-zero", size));
-        }
-        if(size <= Integer.MAX_VALUE) {
-            byte[] bytes = Files.readAllBytes(Paths.get(file.toURI()));
-            byteProvider = new ByteArrayDataProvider(bytes);
-        }
-        else{
-            byteProvider = new FileDataProvider(file);
-        }
-        return byteProvider;
+        return this.resourceByteRangeProvider.getByteRangeAsByteProvider(header.getByteOffset(), header.getByteOffset() + header.getKLSize() + header.getVSize());
     }
 
     /**
@@ -687,46 +648,47 @@ final class IMFTrackFileReader
         }
         File workingDirectory = new File(args[1]);
 
-        ResourceByteRangeProvider resourceByteRangeProvider = new FileByteRangeProvider(inputFile);
-        IMFTrackFileReader imfTrackFileReader = null;
-        IMFTrackFileCPLBuilder imfTrackFileCPLBuilder = null;
         IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl();
-        try {
-            imfTrackFileReader = new IMFTrackFileReader(workingDirectory, resourceByteRangeProvider);
-            imfTrackFileCPLBuilder = new IMFTrackFileCPLBuilder(workingDirectory, inputFile);
-        }
-        catch (IMFException | MXFException e){
-            if(e instanceof IMFException){
-                IMFException imfException = (IMFException)e;
-                imfErrorLogger.addAllErrors(imfException.getErrors());
+        try (MappedResourceByteRangeProvider resourceByteRangeProvider = new MappedResourceByteRangeProvider(inputFile)) {
+            IMFTrackFileReader imfTrackFileReader = null;
+            IMFTrackFileCPLBuilder imfTrackFileCPLBuilder = null;
+            try {
+                imfTrackFileReader = new IMFTrackFileReader(workingDirectory, resourceByteRangeProvider);
+                imfTrackFileCPLBuilder = new IMFTrackFileCPLBuilder(workingDirectory, inputFile);
             }
-            else if(e instanceof MXFException){
-                MXFException mxfException = (MXFException)e;
-                imfErrorLogger.addAllErrors(mxfException.getErrors());
+            catch (IMFException | MXFException e){
+                if(e instanceof IMFException){
+                    IMFException imfException = (IMFException)e;
+                    imfErrorLogger.addAllErrors(imfException.getErrors());
+                }
+                else if(e instanceof MXFException){
+                    MXFException mxfException = (MXFException)e;
+                    imfErrorLogger.addAllErrors(mxfException.getErrors());
+                }
+                imfErrorLogger.addAllErrors(imfErrorLogger.getErrors());
             }
-            imfErrorLogger.addAllErrors(imfErrorLogger.getErrors());
-        }
-        Set<HeaderPartition.EssenceTypeEnum> supportedEssenceComponentTypes = new HashSet<>();
-        supportedEssenceComponentTypes.add(HeaderPartition.EssenceTypeEnum.MainImageEssence);
-        supportedEssenceComponentTypes.add(HeaderPartition.EssenceTypeEnum.MainAudioEssence);
-        supportedEssenceComponentTypes.add(HeaderPartition.EssenceTypeEnum.MarkerEssence);
-        if(imfTrackFileReader != null
-                && imfTrackFileCPLBuilder != null
-                && supportedEssenceComponentTypes.contains(imfTrackFileReader.getEssenceType(imfErrorLogger))) {
-            try {
-                for (InterchangeObject.InterchangeObjectBO essenceDescriptor : imfTrackFileReader.getEssenceDescriptors(imfErrorLogger)) {
-                /* create dom */
-                    DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-                    DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-                    Document document = docBuilder.newDocument();
-                /*Output file containing the RegXML representation of the EssenceDescriptor*/
-                    KLVPacket.Header essenceDescriptorHeader = essenceDescriptor.getHeader();
-                    List<KLVPacket.Header> subDescriptorHeaders = imfTrackFileReader.getSubDescriptorKLVHeader(essenceDescriptor, imfErrorLogger);
-                    File outputFile = imfTrackFileCPLBuilder.getEssenceDescriptorAsXMLFile(document, essenceDescriptorHeader, subDescriptorHeaders);
-                    logger.info(String.format("The EssenceDescriptor in the IMFTrackFile has been written to a XML document at the following location %s", outputFile.getAbsolutePath()));
+            Set<HeaderPartition.EssenceTypeEnum> supportedEssenceComponentTypes = new HashSet<>();
+            supportedEssenceComponentTypes.add(HeaderPartition.EssenceTypeEnum.MainImageEssence);
+            supportedEssenceComponentTypes.add(HeaderPartition.EssenceTypeEnum.MainAudioEssence);
+            supportedEssenceComponentTypes.add(HeaderPartition.EssenceTypeEnum.MarkerEssence);
+            if(imfTrackFileReader != null
+                    && imfTrackFileCPLBuilder != null
+                    && supportedEssenceComponentTypes.contains(imfTrackFileReader.getEssenceType(imfErrorLogger))) {
+                try {
+                    for (InterchangeObject.InterchangeObjectBO essenceDescriptor : imfTrackFileReader.getEssenceDescriptors(imfErrorLogger)) {
+                    /* create dom */
+                        DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
+                        DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
+                        Document document = docBuilder.newDocument();
+                    /*Output file containing the RegXML representation of the EssenceDescriptor*/
+                        KLVPacket.Header essenceDescriptorHeader = essenceDescriptor.getHeader();
+                        List<KLVPacket.Header> subDescriptorHeaders = imfTrackFileReader.getSubDescriptorKLVHeader(essenceDescriptor, imfErrorLogger);
+                        File outputFile = imfTrackFileCPLBuilder.getEssenceDescriptorAsXMLFile(document, essenceDescriptorHeader, subDescriptorHeaders);
+                        logger.info(String.format("The EssenceDescriptor in the IMFTrackFile has been written to a XML document at the following location %s", outputFile.getAbsolutePath()));
+                    }
+                } catch (ParserConfigurationException | TransformerException e) {
+                    throw new MXFException(e);
                 }
-            } catch (ParserConfigurationException | TransformerException e) {
-                throw new MXFException(e);
             }
         }
         List<ErrorLogger.ErrorObject> errors = imfErrorLogger.getErrors();
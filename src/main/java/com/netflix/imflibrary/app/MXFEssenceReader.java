@@ -13,9 +13,8 @@ import com.netflix.imflibrary.st0377.PartitionPack;
 import com.netflix.imflibrary.st0377.PrimerPack;
 import com.netflix.imflibrary.st0377.RandomIndexPack;
 import com.netflix.imflibrary.st0377.header.InterchangeObject;
-import com.netflix.imflibrary.utils.ByteArrayDataProvider;
 import com.netflix.imflibrary.utils.ByteProvider;
-import com.netflix.imflibrary.utils.FileDataProvider;
+import com.netflix.imflibrary.utils.MXFBootstrapReader;
 import com.netflix.imflibrary.utils.ResourceByteRangeProvider;
 import com.netflix.imflibrary.writerTools.RegXMLLibHelper;
 import com.sandflow.smpte.klv.Triplet;
@@ -29,8 +28,6 @@ import javax.xml.parsers.ParserConfigurationException;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -38,17 +35,16 @@ public class MXFEssenceReader {
 
     private final IMFErrorLogger imfErrorLogger;
     private final ResourceByteRangeProvider resourceByteRangeProvider;
-    private final File workingDirectory;
+    private volatile MXFBootstrapReader bootstrapReader = null;
 
     /**
      * A constructor for the MXFEssenceReader object
-     * @param workingDirectory the working directory
+     * @param workingDirectory the working directory, byte ranges of the MXF file are read into memory and are not staged in it
      * @param resourceByteRangeProvider corresponding to the MXF essence, referred to as the essence in the rest of the documentation
      */
     public MXFEssenceReader(File workingDirectory, ResourceByteRangeProvider resourceByteRangeProvider)
     {
         this.imfErrorLogger = new IMFErrorLoggerImpl();
-        this.workingDirectory = workingDirectory;
         this.resourceByteRangeProvider = resourceByteRangeProvider;
 
     }
@@ -59,37 +55,21 @@ public class MXFEssenceReader {
      * @throws IOException - any I/O related error will be exposed through an IOException
      */
     public RandomIndexPack getRandomIndexPack()throws IOException {
-        long archiveFileSize = this.resourceByteRangeProvider.getResourceSize();
-        long randomIndexPackSize;
-        {//logic to provide as an input stream the portion of the archive that contains randomIndexPack size
-            long rangeEnd = archiveFileSize - 1;
-            long rangeStart = archiveFileSize - 4;
-
-            File fileWithRandomIndexPackSize = this.resourceByteRangeProvider.getByteRange(rangeStart, rangeEnd, this.workingDirectory);
-            byte[] bytes = Files.readAllBytes(Paths.get(fileWithRandomIndexPackSize.toURI()));
-            randomIndexPackSize = (long)(ByteBuffer.wrap(bytes).getInt());
-        }
-
-        RandomIndexPack randomIndexPack;
-        {//logic to provide as an input stream the portion of the archive that contains randomIndexPack
-            long rangeEnd = archiveFileSize - 1;
-            long rangeStart = archiveFileSize - randomIndexPackSize;
-            if (rangeStart < 0)
-            {
-                throw new MXFException(String.format("randomIndexPackSize = %d obtained from last 4 bytes of the MXF file is larger than archiveFile size = %d, implying that this file does not contain a RandomIndexPack",
-                        randomIndexPackSize, archiveFileSize));
-            }
+        return this.getBootstrapReader().getRandomIndexPack();
+    }
 
-            File fileWithRandomIndexPack = this.resourceByteRangeProvider.getByteRange(rangeStart, rangeEnd, this.workingDirectory);
-            ByteProvider byteProvider = this.getByteProvider(fileWithRandomIndexPack);
-            randomIndexPack = new RandomIndexPack(byteProvider, rangeStart, randomIndexPackSize);
+    private MXFBootstrapReader getBootstrapReader() throws IOException
+    {
+        if (this.bootstrapReader == null)
+        {
+            this.bootstrapReader = new MXFBootstrapReader(this.resourceByteRangeProvider);
         }
-
-        return randomIndexPack;
+        return this.bootstrapReader;
     }
 
     /**
-     * A method that returns an object model of the HeaderPartition in the Essence
+     * A method that returns an object model of the HeaderPartition in the Essence. The header partition is materialized lazily,
+     * so that callers that only need the essence descriptors do not pay for building its complete object model
      * @return Header partition in the essence
      * @throws IOException - any I/O related error will be exposed through an IOException
      */
@@ -99,9 +79,15 @@ public class MXFEssenceReader {
         long inclusiveRangeStart = allPartitionByteOffsets.get(0);
         long inclusiveRangeEnd = allPartitionByteOffsets.get(1) - 1;
 
-        File fileWithHeaderPartition = this.resourceByteRangeProvider.getByteRange(inclusiveRangeStart, inclusiveRangeEnd, this.workingDirectory);
-        ByteProvider byteProvider = this.getByteProvider(fileWithHeaderPartition);
-        HeaderPartition headerPartition = new HeaderPartition(byteProvider, inclusiveRangeStart, inclusiveRangeEnd - inclusiveRangeStart + 1, this.imfErrorLogger);
+        long headerPartitionSize = inclusiveRangeEnd - inclusiveRangeStart + 1;
+        if (headerPartitionSize > Integer.MAX_VALUE)
+        {//a header partition that does not fit in a ByteBuffer is streamed and materialized eagerly
+            ByteProvider byteProvider = this.resourceByteRangeProvider.getByteRangeAsByteProvider(inclusiveRangeStart, inclusiveRangeEnd);
+            return new HeaderPartition(byteProvider, inclusiveRangeStart, headerPartitionSize, this.imfErrorLogger);
+        }
+
+        ByteBuffer byteBuffer = this.resourceByteRangeProvider.getByteRangeAsByteBuffer(inclusiveRangeStart, inclusiveRangeEnd);
+        HeaderPartition headerPartition = HeaderPartition.createLazyHeaderPartition(byteBuffer, inclusiveRangeStart, headerPartitionSize, this.imfErrorLogger);
 
         return headerPartition;
     }
@@ -112,14 +98,11 @@ public class MXFEssenceReader {
      * @throws IOException - any I/O related error will be exposed through an IOException
      */
     public List<PartitionPack> getPartitionPacks() throws IOException{
-        RandomIndexPack randomIndexPack = getRandomIndexPack();
+        //the randomIndexPack and the partition packs are read through a single read at the end of the essence and a vectored read
+        MXFBootstrapReader bootstrapReader = this.getBootstrapReader();
+        RandomIndexPack randomIndexPack = bootstrapReader.getRandomIndexPack();
 
-        List<PartitionPack> partitionPacks = new ArrayList<>();
-        List<Long> allPartitionByteOffsets = randomIndexPack.getAllPartitionByteOffsets();
-        for (long offset : allPartitionByteOffsets)
-        {
-            partitionPacks.add(getPartitionPack(offset));
-        }
+        List<PartitionPack> partitionPacks = new ArrayList<>(bootstrapReader.getPartitionPacks(randomIndexPack.getAllPartitionByteOffsets()));
 
         try {
             //validate partition packs
@@ -197,38 +180,6 @@ public class MXFEssenceReader {
         return this.getHeaderPartition().getAudioEssenceSpokenLanguage();
     }
 
-    private PartitionPack getPartitionPack(long resourceOffset) throws IOException
-    {
-        long archiveFileSize = this.resourceByteRangeProvider.getResourceSize();
-        KLVPacket.Header header;
-        {//logic to provide as an input stream the portion of the archive that contains PartitionPack KLVPacker Header
-            long rangeEnd = resourceOffset +
-                    (KLVPacket.KEY_FIELD_SIZE + KLVPacket.LENGTH_FIELD_SUFFIX_MAX_SIZE) -1;
-            rangeEnd = rangeEnd < (archiveFileSize - 1) ? rangeEnd : (archiveFileSize - 1);
-
-            File fileWithPartitionPackKLVPacketHeader = this.resourceByteRangeProvider.getByteRange(resourceOffset, rangeEnd, this.workingDirectory);
-            ByteProvider byteProvider = this.getByteProvider(fileWithPartitionPackKLVPacketHeader);
-            header = new KLVPacket.Header(byteProvider, resourceOffset);
-        }
-
-        PartitionPack partitionPack;
-        {//logic to provide as an input stream the portion of the archive that contains a PartitionPack and next KLV header
-
-            long rangeEnd = resourceOffset +
-                    (KLVPacket.KEY_FIELD_SIZE + header.getLSize() + header.getVSize()) +
-                    (KLVPacket.KEY_FIELD_SIZE + KLVPacket.LENGTH_FIELD_SUFFIX_MAX_SIZE) +
-                    -1;
-            rangeEnd = rangeEnd < (archiveFileSize - 1) ? rangeEnd : (archiveFileSize - 1);
-
-            File fileWithPartitionPack = this.resourceByteRangeProvider.getByteRange(resourceOffset, rangeEnd, this.workingDirectory);
-            ByteProvider byteProvider = this.getByteProvider(fileWithPartitionPack);
-            partitionPack = new PartitionPack(byteProvider, resourceOffset, true);
-
-        }
-
-        return partitionPack;
-    }
-
     private List<KLVPacket.Header> getSubDescriptorKLVHeader(InterchangeObject.InterchangeObjectBO essenceDescriptor) throws IOException {
         List<KLVPacket.Header> subDescriptorHeaders = new ArrayList<>();
         List<InterchangeObject.InterchangeObjectBO>subDescriptors = this.getHeaderPartition().getSubDescriptors(essenceDescriptor);
@@ -260,23 +211,6 @@ public class MXFEssenceReader {
     }
 
     private ByteProvider getByteProvider(KLVPacket.Header header) throws IOException {
-        File file = this.resourceByteRangeProvider.getByteRange(header.getByteOffset(), header.getByteOffset() + header.getKLSize() + header.getVSize(), this.workingDirectory);
-        return this.getByteProvider(file);
-    }
-
-    private ByteProvider getByteProvider(File file) throws IOException {
-        ByteProvider byteProvider;
-        Long size = file.length();
-        if(size <= 0){
-            throw new IOException(String.format("Range of bytes (%d) has to be +ve and non-zero", size));
-        }
-        if(size <= Integer.MAX_VALUE) {
-            byte[] bytes = Files.readAllBytes(Paths.get(file.toURI()));
-            byteProvider = new ByteArrayDataProvider(bytes);
-        }
-        else{
-            byteProvider = new FileDataProvider(file);
-        }
-        return byteProvider;
+        return this.resourceByteRangeProvider.getByteRangeAsByteProvider(header.getByteOffset(), header.getByteOffset() + header.getKLSize() + header.getVSize());
     }
 }
@@ -2,6 +2,7 @@ package com.netflix.imflibrary.app;
 
 import com.netflix.imflibrary.IMFConstraints;
 import com.netflix.imflibrary.IMFErrorLogger;
+import com.netflix.imflibrary.IMFErrorListener;
 import com.netflix.imflibrary.IMFErrorLoggerImpl;
 import com.netflix.imflibrary.MXFOperationalPattern1A;
 import com.netflix.imflibrary.RESTfulInterfaces.IMPValidator;
@@ -17,6 +18,7 @@ import com.netflix.imflibrary.st0429_9.AssetMap;
 import com.netflix.imflibrary.st0429_9.BasicMapProfileV2MappedFileSet;
 import com.netflix.imflibrary.st2067_2.ApplicationCompositionFactory;
 import com.netflix.imflibrary.st2067_2.Composition;
+import com.netflix.imflibrary.st2067_2.EssenceDescriptorCache;
 import com.netflix.imflibrary.st2067_2.ApplicationComposition;
 import com.netflix.imflibrary.st2067_2.IMFEssenceComponentVirtualTrack;
 import com.netflix.imflibrary.utils.*;
@@ -26,8 +28,15 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.URI;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static com.netflix.imflibrary.RESTfulInterfaces.IMPValidator.*;
 
@@ -38,6 +47,10 @@ public class PhotonIMPAnalyzer {
 
     private static final String CONFORMANCE_LOGGER_PREFIX = "Virtual Track Conformance";
     private static final Logger logger = LoggerFactory.getLogger(PhotonIMPAnalyzer.class);
+    private static final String VERIFY_HASH_OPTION = "--verify-hash";
+    private static final String HASH_CACHE_OPTION = "--hash-cache";
+    /*Hashing is bound by I/O, reading a few assets at a time keeps the disk busy without thrashing it*/
+    private static final int DEFAULT_HASH_VERIFICATION_PARALLELISM = 4;
 
     private static Map<UUID, PayloadRecord> getTrackFileIdToHeaderPartitionPayLoadMap(List<PayloadRecord>
                                                                                 headerPartitionPayloadRecords) throws
@@ -148,14 +161,120 @@ public class PhotonIMPAnalyzer {
         return imfErrorLogger.getErrors();
     }
 
+    /**
+     * A method that analyzes an IMF package, track files and Compositions are analyzed one after the other on the calling thread
+     * @param rootFile the directory of the IMF package
+     * @return a map of the name of every asset analyzed to the list of errors encountered while analyzing it
+     * @throws IOException - any I/O related error is exposed through an IOException
+     */
     public static Map<String, List<ErrorLogger.ErrorObject>> analyzePackage(File rootFile) throws IOException {
+        return analyzePackage(rootFile, null);
+    }
+
+    /**
+     * A method that analyzes an IMF package, the track files and then the Compositions of every PackingList are analyzed
+     * concurrently on an executor. The result does not depend on the executor, since the results of the analyses are merged
+     * in the order in which the assets appear in the PackingLists
+     * @param rootFile the directory of the IMF package
+     * @param executorService the executor on which to analyze the track files and Compositions, which should be bounded
+     *                        since the header partitions of all the track files being analyzed are held in memory, null to
+     *                        analyze them on the calling thread
+     * @return a map of the name of every asset analyzed to the list of errors encountered while analyzing it
+     * @throws IOException - any I/O related error is exposed through an IOException
+     */
+    public static Map<String, List<ErrorLogger.ErrorObject>> analyzePackage(File rootFile, @Nullable ExecutorService executorService) throws IOException {
+        return analyzePackage(rootFile, executorService, null);
+    }
+
+    /**
+     * A method that analyzes an IMF package as {@link #analyzePackage(File, ExecutorService)} does, and that notifies a
+     * listener of every error as soon as it is recorded for an asset. The listener can end the analysis early by throwing an
+     * IMFValidationTerminatedException, in which case the analyses that are still running on the executor are cancelled
+     * @param rootFile the directory of the IMF package
+     * @param executorService the executor on which to analyze the track files and Compositions, null to analyze them on the
+     *                        calling thread
+     * @param errorListener a listener to notify of errors as they are recorded, which should be thread-safe if an executor is
+     *                      used, null if there is none
+     * @return a map of the name of every asset analyzed to the list of errors encountered while analyzing it
+     * @throws IOException - any I/O related error is exposed through an IOException
+     * @throws com.netflix.imflibrary.exceptions.IMFValidationTerminatedException - if the listener ends the analysis
+     */
+    public static Map<String, List<ErrorLogger.ErrorObject>> analyzePackage(File rootFile, @Nullable ExecutorService executorService,
+                                                                            @Nullable IMFErrorListener errorListener) throws IOException {
+        return analyzePackage(rootFile, executorService, errorListener, 0);
+    }
+
+    /**
+     * A method that analyzes an IMF package as {@link #analyzePackage(File, ExecutorService, IMFErrorListener)} does, and
+     * that optionally verifies the hash of every asset of every PackingList against the content of the asset. The assets of
+     * a PackingList are hashed concurrently, with the declared hash algorithm, on a pool of threads that bounds the number
+     * of assets being read at any time, and a mismatch is reported as an error of the PackingList
+     * @param rootFile the directory of the IMF package
+     * @param executorService the executor on which to analyze the track files and Compositions, null to analyze them on the
+     *                        calling thread
+     * @param errorListener a listener to notify of errors as they are recorded, which should be thread-safe if an executor is
+     *                      used, null if there is none
+     * @param hashVerificationParallelism the maximum number of assets to hash concurrently, 0 to not verify the hashes of the
+     *                                    assets
+     * @return a map of the name of every asset analyzed to the list of errors encountered while analyzing it
+     * @throws IOException - any I/O related error is exposed through an IOException
+     * @throws com.netflix.imflibrary.exceptions.IMFValidationTerminatedException - if the listener ends the analysis
+     */
+    public static Map<String, List<ErrorLogger.ErrorObject>> analyzePackage(File rootFile, @Nullable ExecutorService executorService,
+                                                                            @Nullable IMFErrorListener errorListener,
+                                                                            int hashVerificationParallelism) throws IOException {
+        return analyzePackage(rootFile, executorService, errorListener, hashVerificationParallelism, null);
+    }
+
+    /**
+     * A method that analyzes an IMF package as {@link #analyzePackage(File, ExecutorService, IMFErrorListener, int)} does,
+     * and that looks up the hashes of the assets in a cache before computing them, so that verifying the hashes of a package
+     * whose assets have not changed since it was last verified does not read the assets again
+     * @param rootFile the directory of the IMF package
+     * @param executorService the executor on which to analyze the track files and Compositions, null to analyze them on the
+     *                        calling thread
+     * @param errorListener a listener to notify of errors as they are recorded, which should be thread-safe if an executor is
+     *                      used, null if there is none
+     * @param hashVerificationParallelism the maximum number of assets to hash concurrently, 0 to not verify the hashes of the
+     *                                    assets
+     * @param digestCache the cache of the hashes of the assets, null if there is none
+     * @return a map of the name of every asset analyzed to the list of errors encountered while analyzing it
+     * @throws IOException - any I/O related error is exposed through an IOException
+     * @throws com.netflix.imflibrary.exceptions.IMFValidationTerminatedException - if the listener ends the analysis
+     */
+    public static Map<String, List<ErrorLogger.ErrorObject>> analyzePackage(File rootFile, @Nullable ExecutorService executorService,
+                                                                            @Nullable IMFErrorListener errorListener,
+                                                                            int hashVerificationParallelism,
+                                                                            @Nullable DigestCache digestCache) throws IOException {
+        if (hashVerificationParallelism < 0) {
+            throw new IllegalArgumentException(String.format("hashVerificationParallelism = %d is < 0", hashVerificationParallelism));
+        }
+        ExecutorService hashVerificationExecutorService = (hashVerificationParallelism > 0)
+                ? Executors.newFixedThreadPool(hashVerificationParallelism)
+                : null;
+        try {
+            return analyzePackage(rootFile, executorService, errorListener, hashVerificationExecutorService, digestCache);
+        }
+        finally {
+            if (hashVerificationExecutorService != null) {
+                hashVerificationExecutorService.shutdownNow();
+            }
+        }
+    }
+
+    private static Map<String, List<ErrorLogger.ErrorObject>> analyzePackage(File rootFile, @Nullable ExecutorService executorService,
+                                                                             @Nullable IMFErrorListener errorListener,
+                                                                             @Nullable ExecutorService hashVerificationExecutorService,
+                                                                             @Nullable DigestCache digestCache) throws IOException {
         Map<String, List<ErrorLogger.ErrorObject>> errorMap = new HashMap<>();
-        IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl();
+        IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl(errorListener);
         List<PayloadRecord> headerPartitionPayloadRecords = new ArrayList<>();
+        /*Every Composition in the package is conformed against the same HeaderPartitions*/
+        EssenceDescriptorCache essenceDescriptorCache = new EssenceDescriptorCache();
         try {
             BasicMapProfileV2MappedFileSet mapProfileV2MappedFileSet = new BasicMapProfileV2MappedFileSet(rootFile);
             imfErrorLogger.addAllErrors(mapProfileV2MappedFileSet.getErrors());
-            IMFErrorLogger assetMapErrorLogger = new IMFErrorLoggerImpl();
+            IMFErrorLogger assetMapErrorLogger = new IMFErrorLoggerImpl(errorListener);
 
             try {
 
@@ -164,11 +283,13 @@ public class PhotonIMPAnalyzer {
 
 
                 for (AssetMap.Asset packingListAsset : assetMap.getPackingListAssets()) {
-                    IMFErrorLogger packingListErrorLogger = new IMFErrorLoggerImpl();
+                    IMFErrorLogger packingListErrorLogger = new IMFErrorLoggerImpl(errorListener);
                     try {
                         PackingList packingList = new PackingList(new File(rootFile, packingListAsset.getPath().toString()));
                         packingListErrorLogger.addAllErrors(packingList.getErrors());
 
+                        List<File> trackFiles = new ArrayList<>();
+                        List<Callable<TrackFileAnalysis>> trackFileAnalysisTasks = new ArrayList<>();
                         for (PackingList.Asset asset : packingList.getAssets()) {
                             if (asset.getType().equals(PackingList.Asset.APPLICATION_MXF_TYPE)) {
                                 URI path = assetMap.getPath(asset.getUUID());
@@ -177,37 +298,27 @@ public class PhotonIMPAnalyzer {
                                             IMFErrorLogger.IMFErrors.ErrorLevels.FATAL, String.format("Failed to get path for Asset with ID = %s", asset.getUUID().toString()));
                                     continue;
                                 }
-                                File assetFile = new File(rootFile, assetMap.getPath(asset.getUUID()).toString());
-                                ResourceByteRangeProvider resourceByteRangeProvider = new FileByteRangeProvider(assetFile);
-
-                                IMFErrorLogger trackFileErrorLogger = new IMFErrorLoggerImpl();
-
-                                try {
-                                    PayloadRecord headerPartitionPayloadRecord = getHeaderPartitionPayloadRecord(resourceByteRangeProvider, trackFileErrorLogger);
-                                    if (headerPartitionPayloadRecord == null) {
-                                        trackFileErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMP_VALIDATOR_PAYLOAD_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.FATAL,
-                                                String.format("Failed to get header partition for %s", assetFile.getPath()));
-                                    } else {
-                                        List<PayloadRecord> payloadRecords = new ArrayList<>();
-                                        payloadRecords.add(headerPartitionPayloadRecord);
-                                        trackFileErrorLogger.addAllErrors(IMPValidator.validateIMFTrackFileHeaderMetadata(payloadRecords));
-                                        headerPartitionPayloadRecords.add(headerPartitionPayloadRecord);
-                                    }
-                                } catch( MXFException e) {
-                                    trackFileErrorLogger.addAllErrors(e.getErrors());
-                                }
-                                catch( IMFException e) {
-                                    trackFileErrorLogger.addAllErrors(e.getErrors());
-                                }
-                                finally {
-                                    errorMap.put(assetFile.getName(), trackFileErrorLogger.getErrors());
-                                }
+                                File assetFile = new File(rootFile, path.toString());
+                                trackFiles.add(assetFile);
+                                trackFileAnalysisTasks.add(() -> analyzeTrackFile(assetFile, errorListener));
+                            }
+                        }
+
+                        List<TrackFileAnalysis> trackFileAnalyses = runTasks(executorService, trackFileAnalysisTasks);
+                        for (int i = 0; i < trackFiles.size(); i++) {
+                            TrackFileAnalysis trackFileAnalysis = trackFileAnalyses.get(i);
+                            if (trackFileAnalysis.headerPartitionPayloadRecord != null) {
+                                headerPartitionPayloadRecords.add(trackFileAnalysis.headerPartitionPayloadRecord);
                             }
+                            errorMap.put(trackFiles.get(i).getName(), trackFileAnalysis.errors);
                         }
 
                         Map<UUID, PayloadRecord> trackFileIDToHeaderPartitionPayLoadMap =
                                 getTrackFileIdToHeaderPartitionPayLoadMap(headerPartitionPayloadRecords);
+                        List<PayloadRecord> packageHeaderPartitionPayloadRecords = Collections.unmodifiableList(new ArrayList<>(headerPartitionPayloadRecords));
 
+                        List<File> compositionFiles = new ArrayList<>();
+                        List<Callable<CompositionAnalysis>> compositionAnalysisTasks = new ArrayList<>();
                         for (PackingList.Asset asset : packingList.getAssets()) {
                             if (asset.getType().equals(PackingList.Asset.TEXT_XML_TYPE)) {
                                 URI path = assetMap.getPath(asset.getUUID());
@@ -215,52 +326,26 @@ public class PhotonIMPAnalyzer {
                                     packingListErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_PKL_ERROR,
                                             IMFErrorLogger.IMFErrors.ErrorLevels.FATAL, String.format("Failed to get path for Asset with ID = %s", asset.getUUID().toString()));
                                     continue;
-                                }                                File assetFile = new File(rootFile, assetMap.getPath(asset.getUUID()).toString());
-                                ResourceByteRangeProvider resourceByteRangeProvider = new FileByteRangeProvider(assetFile);
-                                if (ApplicationComposition.isCompositionPlaylist(resourceByteRangeProvider)) {
-                                    IMFErrorLogger compositionErrorLogger = new IMFErrorLoggerImpl();
-                                    IMFErrorLogger compositionConformanceErrorLogger = new IMFErrorLoggerImpl();
-                                    PayloadRecord cplPayloadRecord = new PayloadRecord(resourceByteRangeProvider.getByteRangeAsBytes(0, resourceByteRangeProvider.getResourceSize() - 1),
-                                            PayloadRecord.PayloadAssetType.CompositionPlaylist, 0L, resourceByteRangeProvider.getResourceSize());
-
-                                    try {
-                                        ApplicationComposition applicationComposition = ApplicationCompositionFactory.getApplicationComposition(resourceByteRangeProvider, compositionErrorLogger);
-                                        Set<UUID> trackFileIDsSet = trackFileIDToHeaderPartitionPayLoadMap
-                                                .keySet();
-
-                                        try {
-                                            if (!isCompositionComplete(applicationComposition, trackFileIDsSet, compositionConformanceErrorLogger)) {
-                                                for (IMFEssenceComponentVirtualTrack virtualTrack : applicationComposition.getEssenceVirtualTracks()) {
-                                                    Set<UUID> trackFileIds = virtualTrack.getTrackResourceIds();
-                                                    List<PayloadRecord> trackHeaderPartitionPayloads = new ArrayList<>();
-                                                    for (UUID trackFileId : trackFileIds) {
-                                                        if (trackFileIDToHeaderPartitionPayLoadMap.containsKey(trackFileId))
-                                                            trackHeaderPartitionPayloads.add
-                                                                    (trackFileIDToHeaderPartitionPayLoadMap.get(trackFileId));
-                                                    }
-
-                                                    if (isVirtualTrackComplete(virtualTrack, trackFileIDsSet)) {
-                                                        compositionConformanceErrorLogger.addAllErrors(IMPValidator.isVirtualTrackInCPLConformed(cplPayloadRecord, virtualTrack, trackHeaderPartitionPayloads));
-                                                    } else if (trackHeaderPartitionPayloads.size() != 0) {
-                                                        compositionConformanceErrorLogger.addAllErrors(IMPValidator.conformVirtualTracksInCPL(cplPayloadRecord, trackHeaderPartitionPayloads, false));
-                                                    }
-                                                }
-                                            } else {
-                                                compositionConformanceErrorLogger.addAllErrors(IMPValidator.areAllVirtualTracksInCPLConformed(cplPayloadRecord, headerPartitionPayloadRecords));
-                                            }
-                                        } catch (IMFException e) {
-                                            compositionConformanceErrorLogger.addAllErrors(e.getErrors());
-                                        } finally {
-                                            errorMap.put(assetFile.getName() + " " + CONFORMANCE_LOGGER_PREFIX, compositionConformanceErrorLogger.getErrors());
-                                        }
-                                    } catch (IMFException e) {
-                                        compositionErrorLogger.addAllErrors(e.getErrors());
-                                    } finally {
-                                        errorMap.put(assetFile.getName(), compositionErrorLogger.getErrors());
-                                    }
                                 }
+                                File assetFile = new File(rootFile, path.toString());
+                                compositionFiles.add(assetFile);
+                                compositionAnalysisTasks.add(() -> analyzeComposition(assetFile, trackFileIDToHeaderPartitionPayLoadMap,
+                                        packageHeaderPartitionPayloadRecords, essenceDescriptorCache, errorListener));
                             }
                         }
+
+                        List<CompositionAnalysis> compositionAnalyses = runTasks(executorService, compositionAnalysisTasks);
+                        for (int i = 0; i < compositionFiles.size(); i++) {
+                            CompositionAnalysis compositionAnalysis = compositionAnalyses.get(i);
+                            if (compositionAnalysis != null) {
+                                errorMap.put(compositionFiles.get(i).getName() + " " + CONFORMANCE_LOGGER_PREFIX, compositionAnalysis.conformanceErrors);
+                                errorMap.put(compositionFiles.get(i).getName(), compositionAnalysis.errors);
+                            }
+                        }
+
+                        if (hashVerificationExecutorService != null) {
+                            verifyAssetHashes(rootFile, assetMap, packingList, hashVerificationExecutorService, digestCache, packingListErrorLogger);
+                        }
                     } catch (IMFException e) {
                         packingListErrorLogger.addAllErrors(e.getErrors());
                     }
@@ -283,6 +368,228 @@ public class PhotonIMPAnalyzer {
         return errorMap;
     }
 
+    private static void verifyAssetHashes(File rootFile, AssetMap assetMap, PackingList packingList,
+                                          ExecutorService hashVerificationExecutorService, @Nullable DigestCache digestCache,
+                                          IMFErrorLogger packingListErrorLogger) throws IOException {
+        List<PackingList.Asset> assets = new ArrayList<>();
+        List<Callable<AssetHashVerification>> assetHashVerificationTasks = new ArrayList<>();
+        for (PackingList.Asset asset : packingList.getAssets()) {
+            URI path = assetMap.getPath(asset.getUUID());
+            if (path == null) {
+                /*Assets of type application/mxf and text/xml without a path have been reported already*/
+                if (!asset.getType().equals(PackingList.Asset.APPLICATION_MXF_TYPE) && !asset.getType().equals(PackingList.Asset.TEXT_XML_TYPE)) {
+                    packingListErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_PKL_ERROR,
+                            IMFErrorLogger.IMFErrors.ErrorLevels.FATAL, String.format("Failed to get path for Asset with ID = %s", asset.getUUID().toString()));
+                }
+                continue;
+            }
+            File assetFile = new File(rootFile, path.toString());
+            assets.add(asset);
+            assetHashVerificationTasks.add(() -> verifyAssetHash(assetFile, asset, digestCache));
+        }
+
+        List<AssetHashVerification> assetHashVerifications = runTasks(hashVerificationExecutorService, assetHashVerificationTasks);
+        for (int i = 0; i < assets.size(); i++) {
+            AssetHashVerification assetHashVerification = assetHashVerifications.get(i);
+            if (assetHashVerification.errorMessage != null) {
+                packingListErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_PKL_ERROR,
+                        IMFErrorLogger.IMFErrors.ErrorLevels.FATAL, assetHashVerification.errorMessage);
+            }
+            if (assetHashVerification.digest != null && assetHashVerification.digest.isCached()) {
+                logger.info(String.format("Found hash of Asset with ID = %s in the hash cache", assets.get(i).getUUID().toString()));
+            }
+            else if (assetHashVerification.digest != null) {
+                logger.info(String.format("Hashed Asset with ID = %s, %d bytes at %.2f MB/s", assets.get(i).getUUID().toString(),
+                        assetHashVerification.digest.getNumBytesDigested(), assetHashVerification.digest.getBytesPerSecond() / (1024 * 1024)));
+            }
+        }
+    }
+
+    private static AssetHashVerification verifyAssetHash(File assetFile, PackingList.Asset asset, @Nullable DigestCache digestCache) {
+        String algorithm = DigestEngine.getAlgorithm(asset.getHashAlgorithm());
+        if (algorithm == null) {
+            return new AssetHashVerification(String.format("Asset with ID = %s has a hash computed with the unsupported algorithm %s",
+                    asset.getUUID().toString(), asset.getHashAlgorithm()), null);
+        }
+        DigestEngine.Digest digest;
+        try {
+            digest = new DigestEngine(algorithm, digestCache).digest(assetFile);
+        }
+        catch (NoSuchAlgorithmException | IOException e) {
+            return new AssetHashVerification(String.format("Failed to hash Asset with ID = %s in %s : %s",
+                    asset.getUUID().toString(), assetFile.getPath(), e.getMessage()), null);
+        }
+        String expectedHash = Base64.getEncoder().encodeToString(asset.getHash());
+        if (!digest.getBase64EncodedDigest().equals(expectedHash)) {
+            return new AssetHashVerification(String.format("Asset with ID = %s has hash %s in the PackingList, but the %s hash of %s is %s",
+                    asset.getUUID().toString(), expectedHash, algorithm, assetFile.getPath(), digest.getBase64EncodedDigest()), digest);
+        }
+        return new AssetHashVerification(null, digest);
+    }
+
+    private static TrackFileAnalysis analyzeTrackFile(File assetFile, @Nullable IMFErrorListener errorListener) throws IOException {
+        IMFErrorLogger trackFileErrorLogger = new IMFErrorLoggerImpl(errorListener);
+        //the header partition is only conformed against the CPL if its validation completed
+        PayloadRecord validatedHeaderPartitionPayloadRecord = null;
+
+        try (FileChannelByteRangeProvider resourceByteRangeProvider = new FileChannelByteRangeProvider(assetFile)) {
+            PayloadRecord headerPartitionPayloadRecord = getHeaderPartitionPayloadRecord(resourceByteRangeProvider, trackFileErrorLogger);
+            if (headerPartitionPayloadRecord == null) {
+                trackFileErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMP_VALIDATOR_PAYLOAD_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.FATAL,
+                        String.format("Failed to get header partition for %s", assetFile.getPath()));
+            } else {
+                List<PayloadRecord> payloadRecords = new ArrayList<>();
+                payloadRecords.add(headerPartitionPayloadRecord);
+                trackFileErrorLogger.addAllErrors(IMPValidator.validateIMFTrackFileHeaderMetadata(payloadRecords));
+                validatedHeaderPartitionPayloadRecord = headerPartitionPayloadRecord;
+            }
+        } catch( MXFException e) {
+            trackFileErrorLogger.addAllErrors(e.getErrors());
+        }
+        catch( IMFException e) {
+            trackFileErrorLogger.addAllErrors(e.getErrors());
+        }
+        return new TrackFileAnalysis(trackFileErrorLogger.getErrors(), validatedHeaderPartitionPayloadRecord);
+    }
+
+    @Nullable
+    private static CompositionAnalysis analyzeComposition(File assetFile, Map<UUID, PayloadRecord> trackFileIDToHeaderPartitionPayLoadMap,
+                                                          List<PayloadRecord> headerPartitionPayloadRecords,
+                                                          EssenceDescriptorCache essenceDescriptorCache,
+                                                          @Nullable IMFErrorListener errorListener) throws IOException {
+        ResourceByteRangeProvider resourceByteRangeProvider = new FileByteRangeProvider(assetFile);
+        if (!ApplicationComposition.isCompositionPlaylist(resourceByteRangeProvider)) {
+            return null;
+        }
+        IMFErrorLogger compositionErrorLogger = new IMFErrorLoggerImpl(errorListener);
+        IMFErrorLogger compositionConformanceErrorLogger = new IMFErrorLoggerImpl(errorListener);
+        PayloadRecord cplPayloadRecord = new PayloadRecord(resourceByteRangeProvider.getByteRangeAsBytes(0, resourceByteRangeProvider.getResourceSize() - 1),
+                PayloadRecord.PayloadAssetType.CompositionPlaylist, 0L, resourceByteRangeProvider.getResourceSize());
+
+        try {
+            ApplicationComposition applicationComposition = ApplicationCompositionFactory.getApplicationComposition(resourceByteRangeProvider, compositionErrorLogger);
+            Set<UUID> trackFileIDsSet = trackFileIDToHeaderPartitionPayLoadMap
+                    .keySet();
+
+            try {
+                if (!isCompositionComplete(applicationComposition, trackFileIDsSet, compositionConformanceErrorLogger)) {
+                    for (IMFEssenceComponentVirtualTrack virtualTrack : applicationComposition.getEssenceVirtualTracks()) {
+                        Set<UUID> trackFileIds = virtualTrack.getTrackResourceIds();
+                        List<PayloadRecord> trackHeaderPartitionPayloads = new ArrayList<>();
+                        for (UUID trackFileId : trackFileIds) {
+                            if (trackFileIDToHeaderPartitionPayLoadMap.containsKey(trackFileId))
+                                trackHeaderPartitionPayloads.add
+                                        (trackFileIDToHeaderPartitionPayLoadMap.get(trackFileId));
+                        }
+
+                        if (isVirtualTrackComplete(virtualTrack, trackFileIDsSet)) {
+                            compositionConformanceErrorLogger.addAllErrors(IMPValidator.isVirtualTrackInCPLConformed(cplPayloadRecord, virtualTrack, trackHeaderPartitionPayloads));
+                        } else if (trackHeaderPartitionPayloads.size() != 0) {
+                            compositionConformanceErrorLogger.addAllErrors(IMPValidator.conformVirtualTracksInCPL(cplPayloadRecord, trackHeaderPartitionPayloads, false, essenceDescriptorCache));
+                        }
+                    }
+                } else {
+                    compositionConformanceErrorLogger.addAllErrors(IMPValidator.areAllVirtualTracksInCPLConformed(cplPayloadRecord, headerPartitionPayloadRecords, essenceDescriptorCache));
+                }
+            } catch (IMFException e) {
+                compositionConformanceErrorLogger.addAllErrors(e.getErrors());
+            }
+        } catch (IMFException e) {
+            compositionErrorLogger.addAllErrors(e.getErrors());
+        }
+        return new CompositionAnalysis(compositionErrorLogger.getErrors(), compositionConformanceErrorLogger.getErrors());
+    }
+
+    /*
+     * Runs the tasks on the executor, or on the calling thread if there is none, and returns their results in the order of
+     * the tasks. If a task fails, for e.g. because an error listener ended the analysis, the tasks that are still pending or
+     * running are cancelled
+     */
+    private static <T> List<T> runTasks(@Nullable ExecutorService executorService, List<Callable<T>> tasks) throws IOException {
+        List<T> results = new ArrayList<>();
+        try {
+            if (executorService == null) {
+                for (Callable<T> task : tasks) {
+                    results.add(task.call());
+                }
+                return results;
+            }
+            List<Future<T>> futures = new ArrayList<>();
+            try {
+                for (Callable<T> task : tasks) {
+                    futures.add(executorService.submit(task));
+                }
+                for (Future<T> future : futures) {
+                    results.add(future.get());
+                }
+            }
+            finally {
+                if (results.size() < futures.size()) {
+                    for (Future<T> future : futures) {
+                        future.cancel(true);
+                    }
+                }
+            }
+            return results;
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while analyzing the IMF package");
+        }
+        catch (IOException | RuntimeException e) {
+            throw e;
+        }
+        catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static final class TrackFileAnalysis {
+        private final List<ErrorLogger.ErrorObject> errors;
+        @Nullable
+        private final PayloadRecord headerPartitionPayloadRecord;
+
+        private TrackFileAnalysis(List<ErrorLogger.ErrorObject> errors, @Nullable PayloadRecord headerPartitionPayloadRecord) {
+            this.errors = errors;
+            this.headerPartitionPayloadRecord = headerPartitionPayloadRecord;
+        }
+    }
+
+    private static final class CompositionAnalysis {
+        private final List<ErrorLogger.ErrorObject> errors;
+        private final List<ErrorLogger.ErrorObject> conformanceErrors;
+
+        private CompositionAnalysis(List<ErrorLogger.ErrorObject> errors, List<ErrorLogger.ErrorObject> conformanceErrors) {
+            this.errors = errors;
+            this.conformanceErrors = conformanceErrors;
+        }
+    }
+
+    private static final class AssetHashVerification {
+        @Nullable
+        private final String errorMessage;
+        @Nullable
+        private final DigestEngine.Digest digest;
+
+        private AssetHashVerification(@Nullable String errorMessage, @Nullable DigestEngine.Digest digest) {
+            this.errorMessage = errorMessage;
+            this.digest = digest;
+        }
+    }
+
     public static List<ErrorLogger.ErrorObject> validateEssencePartition(ResourceByteRangeProvider resourceByteRangeProvider) throws IOException {
 
             IMFErrorLogger trackFileErrorLogger = new IMFErrorLoggerImpl();
@@ -304,16 +611,18 @@ public class PhotonIMPAnalyzer {
     public static List<ErrorLogger.ErrorObject> analyzeFile(File inputFile) throws IOException {
         IMFErrorLogger errorLogger = new IMFErrorLoggerImpl();
 
-        ResourceByteRangeProvider resourceByteRangeProvider = new FileByteRangeProvider(inputFile);
-
         if(inputFile.getName().lastIndexOf('.') > 0) {
             String extension = inputFile.getName().substring(inputFile.getName().lastIndexOf('.')+1);
             if(extension.equalsIgnoreCase("mxf")) {
-                errorLogger.addAllErrors(validateEssencePartition(resourceByteRangeProvider));
+                try(FileChannelByteRangeProvider mxfByteRangeProvider = new FileChannelByteRangeProvider(inputFile)) {
+                    errorLogger.addAllErrors(validateEssencePartition(mxfByteRangeProvider));
+                }
                 return errorLogger.getErrors();
             }
         }
 
+        ResourceByteRangeProvider resourceByteRangeProvider = new FileByteRangeProvider(inputFile);
+
         byte[] bytes = resourceByteRangeProvider.getByteRangeAsBytes(0, resourceByteRangeProvider.getResourceSize() - 1);
         PayloadRecord payloadRecord = new PayloadRecord(bytes, PayloadRecord.PayloadAssetType.Unknown, 0L, resourceByteRangeProvider.getResourceSize());
         PayloadRecord.PayloadAssetType payloadAssetType = IMPValidator.getPayloadType(payloadRecord);
@@ -344,7 +653,7 @@ public class PhotonIMPAnalyzer {
     private static String usage() {
         StringBuilder sb = new StringBuilder();
         sb.append(String.format("Usage:%n"));
-        sb.append(String.format("%s <package_directory>%n", PhotonIMPAnalyzer.class.getName()));
+        sb.append(String.format("%s <package_directory> [%s [%s <hash_cache_file>]]%n", PhotonIMPAnalyzer.class.getName(), VERIFY_HASH_OPTION, HASH_CACHE_OPTION));
         sb.append(String.format("%s <cpl_file>%n", PhotonIMPAnalyzer.class.getName()));
         sb.append(String.format("%s <asset_map_file>%n", PhotonIMPAnalyzer.class.getName()));
         sb.append(String.format("%s <pkl_file>%n", PhotonIMPAnalyzer.class.getName()));
@@ -381,11 +690,15 @@ public class PhotonIMPAnalyzer {
 
     public static void main(String args[]) throws IOException
     {
-        if (args.length != 1)
+        if (args.length != 1 && args.length != 2 && args.length != 4
+                || (args.length >= 2 && !args[1].equals(VERIFY_HASH_OPTION))
+                || (args.length == 4 && !args[2].equals(HASH_CACHE_OPTION)))
         {
             logger.error(usage());
             System.exit(-1);
         }
+        boolean verifyHash = (args.length >= 2);
+        File hashCacheFile = (args.length == 4) ? new File(args[3]) : null;
 
         String inputFileName = args[0];
         File inputFile = new File(inputFileName);
@@ -399,7 +712,18 @@ public class PhotonIMPAnalyzer {
             logger.info(String.format("Analyzing IMF package %s", inputFile.getName()));
             logger.info("==========================================================================");
 
-            Map<String, List<ErrorLogger.ErrorObject>> errorMap = analyzePackage(inputFile);
+            Map<String, List<ErrorLogger.ErrorObject>> errorMap;
+            ExecutorService executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+            DigestCache digestCache = (hashCacheFile != null) ? new DigestCache(hashCacheFile) : null;
+            try {
+                errorMap = analyzePackage(inputFile, executorService, null, verifyHash ? DEFAULT_HASH_VERIFICATION_PARALLELISM : 0, digestCache);
+            }
+            finally {
+                executorService.shutdown();
+                if (digestCache != null) {
+                    digestCache.close();
+                }
+            }
             for(Map.Entry<String, List<ErrorLogger.ErrorObject>> entry: errorMap.entrySet()) {
                 if(!entry.getKey().contains(CONFORMANCE_LOGGER_PREFIX)) {
                     logErrors(entry.getKey(), entry.getValue());
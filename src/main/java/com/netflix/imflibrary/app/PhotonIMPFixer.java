@@ -21,7 +21,6 @@ import com.netflix.imflibrary.st2067_2.IMFEssenceComponentVirtualTrack;
 import com.netflix.imflibrary.utils.*;
 import com.netflix.imflibrary.writerTools.CompositionPlaylistBuilder_2016;
 import com.netflix.imflibrary.writerTools.IMPBuilder;
-import com.netflix.imflibrary.writerTools.utils.IMFUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.SAXException;
@@ -32,12 +31,12 @@ import javax.xml.parsers.ParserConfigurationException;
 import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
 
-import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
-
 /**
  * Created by svenkatrav on 9/2/16.
  */
@@ -179,6 +178,34 @@ public class PhotonIMPFixer {
 
     public static List<ErrorLogger.ErrorObject> analyzePackageAndWrite(File rootFile, File targetFile, String versionCPLSchema, Boolean copyTrackfile, Boolean generateHash) throws
             IOException, ParserConfigurationException, SAXException, JAXBException, URISyntaxException, NoSuchAlgorithmException {
+        return analyzePackageAndWrite(rootFile, targetFile, versionCPLSchema, copyTrackfile, generateHash, false, null);
+    }
+
+    /**
+     * A method that analyzes an IMF package and writes a fixed version of it to a target directory. When the track files are
+     * both copied and hashed, every track file is read once, its digest being computed as it is copied. When they are copied
+     * without being hashed, they are copied without going through the heap, or hard linked if requested
+     * @param rootFile the directory of the IMF package
+     * @param targetFile the directory to write the fixed IMF package to
+     * @param versionCPLSchema the version of the CPL schema of the fixed IMF package, 2013 or 2016, empty to keep the version
+     *                         of the input package
+     * @param copyTrackfile whether the track files are to be copied to the target directory
+     * @param generateHash whether the hashes of the track files in the PackingList are to be regenerated
+     * @param linkTrackfile whether the track files are to be hard linked into the target directory, rather than copied, when
+     *                      the file system supports it
+     * @param digestCache the cache of the hashes of the track files, which is looked up before a track file is hashed, null if
+     *                    there is none
+     * @return a list of errors encountered while fixing the IMF package
+     * @throws IOException - any I/O related error is exposed through an IOException
+     * @throws ParserConfigurationException if a DocumentBuilder cannot be created which satisfies the configuration requested
+     * @throws SAXException - exposes any issues with instantiating a {@link javax.xml.validation.Schema Schema} object
+     * @throws JAXBException - any issues in serializing the XML document using JAXB are exposed through a JAXBException
+     * @throws URISyntaxException exposes any issues instantiating a {@link java.net.URI URI} object
+     * @throws NoSuchAlgorithmException - if no Provider supports a MessageDigestSpi implementation for SHA-1
+     */
+    public static List<ErrorLogger.ErrorObject> analyzePackageAndWrite(File rootFile, File targetFile, String versionCPLSchema, Boolean copyTrackfile, Boolean generateHash,
+                                                                       Boolean linkTrackfile, @Nullable DigestCache digestCache) throws
+            IOException, ParserConfigurationException, SAXException, JAXBException, URISyntaxException, NoSuchAlgorithmException {
         IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl();
         List<PayloadRecord> headerPartitionPayloadRecords = new ArrayList<>();
         BasicMapProfileV2MappedFileSet mapProfileV2MappedFileSet = new BasicMapProfileV2MappedFileSet(rootFile);
@@ -189,26 +216,49 @@ public class PhotonIMPFixer {
 
             for (PackingList.Asset asset : packingList.getAssets()) {
                 File assetFile = new File(rootFile, assetMap.getPath(asset.getUUID()).toString());
-                ResourceByteRangeProvider resourceByteRangeProvider = new FileByteRangeProvider(assetFile);
 
                 if (asset.getType().equals(PackingList.Asset.APPLICATION_MXF_TYPE)) {
-                    PayloadRecord headerPartitionPayloadRecord = getHeaderPartitionPayloadRecord(resourceByteRangeProvider, new IMFErrorLoggerImpl());
-                    headerPartitionPayloadRecords.add(headerPartitionPayloadRecord);
-                    byte[] bytes = headerPartitionPayloadRecord.getPayload();
-                    byte[] hash = asset.getHash();
-                    if( generateHash) {
-                        hash = IMFUtils.generateSHA1Hash(resourceByteRangeProvider);
-                    }
-                    imfTrackFileMetadataMap.put(getTrackFileId(headerPartitionPayloadRecord),
-                            new IMPBuilder.IMFTrackFileMetadata(bytes,
-                                    hash,
-                                    CompositionPlaylistBuilder_2016.defaultHashAlgorithm,
-                                    assetFile.getName(),
-                                    resourceByteRangeProvider.getResourceSize())
-                    );
-                    if(copyTrackfile) {
+                    try (FileChannelByteRangeProvider resourceByteRangeProvider = new FileChannelByteRangeProvider(assetFile)) {
+                        PayloadRecord headerPartitionPayloadRecord = getHeaderPartitionPayloadRecord(resourceByteRangeProvider, new IMFErrorLoggerImpl());
+                        headerPartitionPayloadRecords.add(headerPartitionPayloadRecord);
+                        byte[] bytes = headerPartitionPayloadRecord.getPayload();
+                        byte[] hash = asset.getHash();
                         File outputFile = new File(targetFile.toString() + File.separator + assetFile.getName());
-                        Files.copy(assetFile.toPath(), outputFile.toPath(), REPLACE_EXISTING);
+                        /*A track file that is fixed in place is already where it would be copied to*/
+                        boolean copied = isSameFile(assetFile, outputFile);
+                        if(copyTrackfile && linkTrackfile && !copied) {
+                            copied = linkTrackFile(assetFile, outputFile);
+                        }
+                        if( generateHash) {
+                            DigestEngine digestEngine = new DigestEngine(DigestEngine.SHA1_ALGORITHM, digestCache);
+                            DigestEngine.Digest digest;
+                            if(copyTrackfile && !copied && (digestCache == null || digestCache.get(assetFile, DigestEngine.SHA1_ALGORITHM) == null)) {
+                                /*Hash the track file as it is copied, rather than reading it once for each*/
+                                digest = digestEngine.digestAndCopy(assetFile, outputFile);
+                                copied = true;
+                            }
+                            else {
+                                digest = digestEngine.digest(assetFile);
+                            }
+                            hash = digest.getDigest();
+                            if(digest.isCached()) {
+                                logger.info(String.format("Found hash of %s in the hash cache", assetFile.getName()));
+                            }
+                            else {
+                                logger.info(String.format("Generated hash of %s, %d bytes at %.2f MB/s", assetFile.getName(),
+                                        digest.getNumBytesDigested(), digest.getBytesPerSecond() / (1024 * 1024)));
+                            }
+                        }
+                        imfTrackFileMetadataMap.put(getTrackFileId(headerPartitionPayloadRecord),
+                                new IMPBuilder.IMFTrackFileMetadata(bytes,
+                                        hash,
+                                        CompositionPlaylistBuilder_2016.defaultHashAlgorithm,
+                                        assetFile.getName(),
+                                        resourceByteRangeProvider.getResourceSize())
+                        );
+                        if(copyTrackfile && !copied) {
+                            copyTrackFile(assetFile, outputFile);
+                        }
                     }
                 }
             }
@@ -269,6 +319,47 @@ public class PhotonIMPFixer {
         return imfErrorLogger.getErrors();
     }
 
+    /*
+     * Checks if the output file is the track file itself, as is the case when the output directory is the input directory, in
+     * which case the track file must neither be replaced by a link nor truncated by a copy
+     */
+    private static boolean isSameFile(File assetFile, File outputFile) throws IOException {
+        return outputFile.exists() && Files.isSameFile(assetFile.toPath(), outputFile.toPath());
+    }
+
+    /*
+     * Hard links the track file into the output directory, returns false if the file system does not support hard links or
+     * the output directory is on a different file system, in which case the track file has to be copied
+     */
+    private static boolean linkTrackFile(File assetFile, File outputFile) throws IOException {
+        Files.deleteIfExists(outputFile.toPath());
+        try {
+            Files.createLink(outputFile.toPath(), assetFile.toPath());
+            return true;
+        }
+        catch (UnsupportedOperationException | IOException e) {
+            logger.info(String.format("Failed to link %s to %s, it will be copied instead : %s", assetFile.getName(),
+                    outputFile.getAbsolutePath(), e.getMessage()));
+            return false;
+        }
+    }
+
+    /*
+     * Copies the track file with FileChannel.transferTo, which lets the operating system copy the bytes without moving them
+     * through the heap
+     */
+    private static void copyTrackFile(File assetFile, File outputFile) throws IOException {
+        try (FileChannel sourceChannel = FileChannel.open(assetFile.toPath(), StandardOpenOption.READ);
+             FileChannel destinationChannel = FileChannel.open(outputFile.toPath(), StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long size = sourceChannel.size();
+            long position = 0;
+            while (position < size) {
+                position += sourceChannel.transferTo(position, size - position, destinationChannel);
+            }
+        }
+    }
+
     public static List<ErrorLogger.ErrorObject> validateEssencePartition(ResourceByteRangeProvider resourceByteRangeProvider) throws IOException {
 
         IMFErrorLogger trackFileErrorLogger = new IMFErrorLoggerImpl();
@@ -295,6 +386,8 @@ public class PhotonIMPFixer {
         sb.append(String.format("-cs, --cpl-schema=VERSION      CPL schema version for output IMP, supported values are 2013 or 2016%n"));
         sb.append(String.format("-nc, --no-copy                 don't copy track files     %n"));
         sb.append(String.format("-nh, --no-hash                 No update for trackfile hash in PKL %n"));
+        sb.append(String.format("-ln, --link                    hard link track files instead of copying them when possible %n"));
+        sb.append(String.format("-hc, --hash-cache=FILE         look up trackfile hashes in a cache persisted in FILE %n"));
 
 
         return sb.toString();
@@ -326,6 +419,8 @@ public class PhotonIMPFixer {
         String versionCPLSchema = "";
         Boolean copyTrackFile = true;
         Boolean generateHash = true;
+        Boolean linkTrackFile = false;
+        File hashCacheFile = null;
 
         for(int argIdx = 2; argIdx < args.length; ++argIdx)
         {
@@ -344,6 +439,17 @@ public class PhotonIMPFixer {
             else if(curArg.equalsIgnoreCase("--no-hash") || curArg.equalsIgnoreCase("-nh")) {
                 generateHash = false;
             }
+            else if(curArg.equalsIgnoreCase("--link") || curArg.equalsIgnoreCase("-ln")) {
+                linkTrackFile = true;
+            }
+            else if(curArg.equalsIgnoreCase("--hash-cache") || curArg.equalsIgnoreCase("-hc")) {
+                if(nextArg.length() == 0 || nextArg.charAt(0) == '-') {
+                    logger.error(usage());
+                    System.exit(-1);
+                }
+                hashCacheFile = new File(nextArg);
+                ++argIdx;
+            }
             else {
                 logger.error(usage());
                 System.exit(-1);
@@ -355,7 +461,10 @@ public class PhotonIMPFixer {
         }
         else
         {
-            List<ErrorLogger.ErrorObject> errors = analyzePackageAndWrite(inputFile, outputFile, versionCPLSchema, copyTrackFile, generateHash);
+            List<ErrorLogger.ErrorObject> errors;
+            try (DigestCache digestCache = (hashCacheFile != null) ? new DigestCache(hashCacheFile) : null) {
+                errors = analyzePackageAndWrite(inputFile, outputFile, versionCPLSchema, copyTrackFile, generateHash, linkTrackFile, digestCache);
+            }
             if (errors.size() > 0) {
                 logger.info(String.format("IMPWriter encountered errors:"));
                 for (ErrorLogger.ErrorObject errorObject : errors) {
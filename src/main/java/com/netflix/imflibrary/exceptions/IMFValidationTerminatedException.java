@@ -0,0 +1,32 @@
+/*
+ *
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.netflix.imflibrary.exceptions;
+
+/**
+ * Unchecked exception class that is used by an IMFErrorListener to end a validation before all of it has been performed. It
+ * intentionally does not extend IMFException, so that it is not handled by the validation code that recovers from errors in
+ * the IMF layer.
+ */
+public class IMFValidationTerminatedException extends RuntimeException
+{
+    public IMFValidationTerminatedException(String s)
+    {
+        super(s);
+    }
+}
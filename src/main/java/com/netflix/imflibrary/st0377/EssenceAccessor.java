@@ -0,0 +1,312 @@
+/*
+ *
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.netflix.imflibrary.st0377;
+
+import com.netflix.imflibrary.KLVPacket;
+import com.netflix.imflibrary.exceptions.MXFException;
+import com.netflix.imflibrary.utils.ByteProvider;
+import com.netflix.imflibrary.utils.ResourceByteRangeProvider;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A class that provides random access to the edit units of the essence container of an MXF file, i.e., it resolves an edit
+ * unit to the absolute byte range of its essence in the file using the IndexTableSegments and the body offsets
+ * (see st377-1:2011, section 7.1) of the PartitionPacks that carry the essence container. Both frame-wrapped essence, that is
+ * typically indexed by index entries, and clip-wrapped essence, that is typically indexed by a constant edit unit byte count,
+ * are supported. An edit unit of a composition can be resolved to an edit unit of a track file using
+ * {@link com.netflix.imflibrary.st2067_2.IMFEssenceComponentVirtualTrack#getTrackFileEditUnit(long)}.
+ */
+@ThreadSafe
+public final class EssenceAccessor
+{
+    private final ResourceByteRangeProvider resourceByteRangeProvider;
+    private final IndexTable indexTable;
+    private final long[] partitionStreamOffsets;
+    private final long[] partitionEssenceByteOffsets;
+    private final KLVPacket.Header clipHeader;
+
+    /**
+     * Instantiates a new EssenceAccessor for the first essence container of an MXF file, which is the only one in an IMF track
+     * file
+     *
+     * @param resourceByteRangeProvider the MXF file represented as a {@link com.netflix.imflibrary.utils.ResourceByteRangeProvider}
+     * @param partitionPacks the partition packs of the MXF file, in any order
+     * @param indexTableSegments the index table segments of the MXF file, in any order
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     * @throws MXFException if the MXF file does not contain an essence container, or if the essence container is not indexed
+     */
+    public EssenceAccessor(ResourceByteRangeProvider resourceByteRangeProvider, List<PartitionPack> partitionPacks,
+                           List<IndexTableSegment> indexTableSegments) throws IOException
+    {
+        this.resourceByteRangeProvider = resourceByteRangeProvider;
+
+        List<PartitionPack> sortedPartitionPacks = new ArrayList<>(partitionPacks);
+        sortedPartitionPacks.sort(Comparator.comparingLong(PartitionPack::getPartitionByteOffset));
+        List<PartitionPack> essencePartitionPacks = new ArrayList<>();
+        for (PartitionPack partitionPack : sortedPartitionPacks)
+        {
+            if (partitionPack.hasEssenceContainer()
+                    && (essencePartitionPacks.isEmpty() || partitionPack.getBodySID() == essencePartitionPacks.get(0).getBodySID()))
+            {
+                essencePartitionPacks.add(partitionPack);
+            }
+        }
+        if (essencePartitionPacks.isEmpty())
+        {
+            throw new MXFException("No partition of this MXF file contains essence data");
+        }
+        long bodySID = essencePartitionPacks.get(0).getBodySID();
+
+        List<IndexTableSegment> essenceIndexTableSegments = new ArrayList<>();
+        for (IndexTableSegment indexTableSegment : indexTableSegments)
+        {//a segment without a body SID is taken to index the only essence container
+            if (indexTableSegment.getBodySID() == bodySID || indexTableSegment.getBodySID() == 0)
+            {
+                essenceIndexTableSegments.add(indexTableSegment);
+            }
+        }
+        this.indexTable = new IndexTable(essenceIndexTableSegments, -1L);
+        if (this.indexTable.getNumberOfSegments() == 0)
+        {
+            throw new MXFException(String.format("The essence container with body SID %d is not indexed", bodySID));
+        }
+
+        this.partitionStreamOffsets = new long[essencePartitionPacks.size()];
+        this.partitionEssenceByteOffsets = new long[essencePartitionPacks.size()];
+        for (int i=0; i<essencePartitionPacks.size(); i++)
+        {
+            this.partitionStreamOffsets[i] = essencePartitionPacks.get(i).getEssenceStreamSegmentStartStreamPosition();
+            this.partitionEssenceByteOffsets[i] = getEssenceByteOffset(essencePartitionPacks.get(i));
+        }
+
+        //clip-wrapped essence is a single essence element that is at least as large as the first edit unit, whereas the first
+        //edit unit of frame-wrapped essence is at least as large as the essence element that it starts with
+        KLVPacket.Header firstHeader = getHeader(getByteOffset(0L));
+        IndexTable.EditUnitLocation firstEditUnitLocation = this.indexTable.getEditUnitLocation(0L);
+        this.clipHeader = (firstEditUnitLocation.getSize() >= 0 && firstHeader.getVSize() >= firstEditUnitLocation.getSize()) ? firstHeader : null;
+    }
+
+    /**
+     * Checks if the essence container is clip-wrapped
+     *
+     * @return true if the essence container is clip-wrapped, false if it is frame-wrapped
+     */
+    public boolean isClipWrapped()
+    {
+        return this.clipHeader != null;
+    }
+
+    /**
+     * Getter for the index table of the essence container
+     *
+     * @return the index table
+     */
+    public IndexTable getIndexTable()
+    {
+        return this.indexTable;
+    }
+
+    /**
+     * Getter for the location of the essence of an edit unit in the MXF file
+     *
+     * @param editUnit the zero-indexed position of the edit unit
+     * @return the location of the essence of the edit unit
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     * @throws MXFException if the edit unit is not indexed, or if it does not resolve to essence data
+     */
+    public EssenceElement getEssenceElement(long editUnit) throws IOException
+    {
+        IndexTable.EditUnitLocation editUnitLocation = this.indexTable.getEditUnitLocation(editUnit);
+        if (this.clipHeader != null)
+        {
+            long clipValueSize = this.clipHeader.getVSize();
+            long size = (editUnitLocation.getSize() >= 0) ? editUnitLocation.getSize() : clipValueSize - editUnitLocation.getStreamOffset();
+            if (editUnitLocation.getStreamOffset() + size > clipValueSize)
+            {
+                throw new MXFException(String.format("Edit unit %d lies beyond the end of the clip-wrapped essence element", editUnit));
+            }
+            return new EssenceElement(editUnitLocation, this.clipHeader.getByteOffset(),
+                    this.clipHeader.getByteOffset() + this.clipHeader.getKLSize() + editUnitLocation.getStreamOffset(), size);
+        }
+
+        KLVPacket.Header header = getHeader(getByteOffset(editUnitLocation.getStreamOffset()));
+        if (KLVPacket.isKLVFillItem(header.getKey()) || IndexTableSegment.isValidKey(header.getKey()))
+        {
+            throw new MXFException(String.format("Edit unit %d does not resolve to an essence element", editUnit));
+        }
+        return new EssenceElement(editUnitLocation, header.getByteOffset(), header.getByteOffset() + header.getKLSize(), header.getVSize());
+    }
+
+    /**
+     * Getter for the essence of an edit unit, i.e., the value of its essence element for frame-wrapped essence or its byte range
+     * within the value of the essence element for clip-wrapped essence. The essence is not copied when the resource byte range
+     * provider maps the file into memory.
+     *
+     * @param editUnit the zero-indexed position of the edit unit
+     * @return a read-only ByteBuffer containing the essence of the edit unit
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     * @throws MXFException if the edit unit is not indexed, or if it does not resolve to essence data
+     */
+    public ByteBuffer getEssencePayload(long editUnit) throws IOException
+    {
+        EssenceElement essenceElement = getEssenceElement(editUnit);
+        if (essenceElement.getSize() == 0)
+        {
+            return ByteBuffer.allocate(0).asReadOnlyBuffer();
+        }
+        return this.resourceByteRangeProvider.getByteRangeAsByteBuffer(essenceElement.getByteOffset(),
+                essenceElement.getByteOffset() + essenceElement.getSize() - 1).asReadOnlyBuffer();
+    }
+
+    /*
+     * Resolves an offset in the essence container to an offset in the file, using the partition with the largest body offset
+     * that does not exceed it, the last of several such partitions being the one that carries the essence
+     */
+    private long getByteOffset(long streamOffset)
+    {
+        int partitionIndex = -1;
+        for (int i=0; i<this.partitionStreamOffsets.length && this.partitionStreamOffsets[i] <= streamOffset; i++)
+        {
+            partitionIndex = i;
+        }
+        if (partitionIndex < 0)
+        {
+            throw new MXFException(String.format("Stream offset %d is not within the essence container", streamOffset));
+        }
+        return this.partitionEssenceByteOffsets[partitionIndex] + (streamOffset - this.partitionStreamOffsets[partitionIndex]);
+    }
+
+    /*
+     * Locates the first byte of the essence container in a partition, which follows the partition pack, the header metadata,
+     * the index table segments and any KLV fill items
+     */
+    private long getEssenceByteOffset(PartitionPack partitionPack) throws IOException
+    {
+        long byteOffset = partitionPack.getPartitionByteOffset() + partitionPack.getSize();
+        KLVPacket.Header header = getHeader(byteOffset);
+        if (KLVPacket.isKLVFillItem(header.getKey()))
+        {
+            byteOffset += header.getKLSize() + header.getVSize();
+        }
+        byteOffset += partitionPack.getHeaderByteCount() + partitionPack.getIndexByteCount();
+
+        long resourceSize = this.resourceByteRangeProvider.getResourceSize();
+        while (byteOffset < resourceSize)
+        {
+            header = getHeader(byteOffset);
+            if (!KLVPacket.isKLVFillItem(header.getKey()) && !IndexTableSegment.isValidKey(header.getKey()))
+            {
+                break;
+            }
+            byteOffset += header.getKLSize() + header.getVSize();
+        }
+        return byteOffset;
+    }
+
+    private KLVPacket.Header getHeader(long byteOffset) throws IOException
+    {
+        long resourceSize = this.resourceByteRangeProvider.getResourceSize();
+        if (byteOffset >= resourceSize)
+        {
+            throw new MXFException(String.format("Byte offset %d is beyond the end of the file of size %d", byteOffset, resourceSize));
+        }
+        long rangeEnd = byteOffset + (KLVPacket.KEY_FIELD_SIZE + KLVPacket.LENGTH_FIELD_SUFFIX_MAX_SIZE) - 1;
+        rangeEnd = rangeEnd < (resourceSize - 1) ? rangeEnd : (resourceSize - 1);
+        ByteProvider byteProvider = this.resourceByteRangeProvider.getByteRangeAsByteProvider(byteOffset, rangeEnd);
+        return new KLVPacket.Header(byteProvider, byteOffset);
+    }
+
+    /**
+     * Object model corresponding to the location of the essence of an edit unit in an MXF file
+     */
+    @Immutable
+    public static final class EssenceElement
+    {
+        private final IndexTable.EditUnitLocation editUnitLocation;
+        private final long klvPacketByteOffset;
+        private final long byteOffset;
+        private final long size;
+
+        private EssenceElement(IndexTable.EditUnitLocation editUnitLocation, long klvPacketByteOffset, long byteOffset, long size)
+        {
+            this.editUnitLocation = editUnitLocation;
+            this.klvPacketByteOffset = klvPacketByteOffset;
+            this.byteOffset = byteOffset;
+            this.size = size;
+        }
+
+        /**
+         * Getter for the location of the edit unit within the essence container
+         *
+         * @return the location of the edit unit, including its key frame offset and flags
+         */
+        public IndexTable.EditUnitLocation getEditUnitLocation()
+        {
+            return this.editUnitLocation;
+        }
+
+        /**
+         * Getter for the byte offset of the essence element, which is shared by all the edit units of clip-wrapped essence
+         *
+         * @return the byte offset of the KLV packet of the essence element from the start of the file
+         */
+        public long getKLVPacketByteOffset()
+        {
+            return this.klvPacketByteOffset;
+        }
+
+        /**
+         * Getter for the byte offset of the essence of the edit unit
+         *
+         * @return the byte offset of the essence from the start of the file
+         */
+        public long getByteOffset()
+        {
+            return this.byteOffset;
+        }
+
+        /**
+         * Getter for the size of the essence of the edit unit
+         *
+         * @return the size in bytes of the essence
+         */
+        public long getSize()
+        {
+            return this.size;
+        }
+
+        /**
+         * A method that returns a string representation of an EssenceElement object
+         *
+         * @return string representing the object
+         */
+        public String toString()
+        {
+            return String.format("edit_unit = %d, klv_packet_byte_offset = 0x%x, byte_offset = 0x%x, size = %d%n",
+                    this.editUnitLocation.getEditUnit(), this.klvPacketByteOffset, this.byteOffset, this.size);
+        }
+    }
+}
@@ -22,6 +22,7 @@ import com.netflix.imflibrary.IMFErrorLogger;
 import com.netflix.imflibrary.MXFUID;
 import com.netflix.imflibrary.st0377.header.JPEG2000PictureSubDescriptor;
 import com.netflix.imflibrary.st2067_2.Composition;
+import com.netflix.imflibrary.utils.ByteBufferDataProvider;
 import com.netflix.imflibrary.utils.ByteProvider;
 import com.netflix.imflibrary.exceptions.MXFException;
 import com.netflix.imflibrary.MXFPropertyPopulator;
@@ -51,17 +52,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
-import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -69,8 +72,21 @@ import java.util.HashMap;
 
 /**
  * This class corresponds to an object model for the Header Partition construct defined in st377-1:2011
+ *
+ * A header partition is either materialized eagerly by its constructor, or lazily when it is obtained from
+ * {@link #createLazyHeaderPartition(ByteBuffer, long, long, IMFErrorLogger)}. A lazy header partition only reads the partition pack,
+ * the primer pack and the KLV headers of the structural metadata sets at construction time. The structural metadata sets are parsed
+ * the first time any of them is requested, and the object model linking them together is built the first time a typed object such
+ * as the Preface is requested. The object model results from a dependency sort over all the sets, so it is built as a whole: a
+ * caller that requests the Preface, for e.g. to check the operational pattern and the IMF constraints, still pays for every set.
+ * Lazy materialization saves that cost for callers that only need the sets, such as essence descriptor and spoken language
+ * lookups, and for header partitions that are rejected before their sets are requested.
+ *
+ * A lazy header partition is therefore not immutable: its maps are filled in place when it is materialized. Materialization
+ * happens in synchronized methods that every accessor calls before reading the maps, which are not modified afterwards, so a
+ * header partition is safe for use by concurrent callers.
  */
-@Immutable
+@ThreadSafe
 @SuppressWarnings({"PMD.SingularField"})
 public final class HeaderPartition
 {
@@ -84,6 +100,10 @@ public final class HeaderPartition
     private final Map<MXFUID, InterchangeObject> uidToMetadataSets = new LinkedHashMap<>();
     private final Map<MXFUID, InterchangeObject.InterchangeObjectBO> uidToBOs = new LinkedHashMap<>();
     private final IMFErrorLogger imfErrorLogger;
+    private final ByteBuffer byteBuffer; //bytes of a lazily materialized header partition, null otherwise
+    private List<KLVPacket.Header> unparsedSetHeaders; //KLV headers of the structural metadata sets that remain to be parsed, null once they are parsed, guarded by this
+    private boolean objectModelBuilt; //guarded by this
+    private MXFException materializationException; //failure of a lazy materialization, rethrown by later accesses, guarded by this
 
     private static final Logger logger = LoggerFactory.getLogger(HeaderPartition.class);
 
@@ -97,8 +117,34 @@ public final class HeaderPartition
      * @throws IOException - any I/O related error will be exposed through an IOException
      */
     public HeaderPartition(ByteProvider byteProvider, long byteOffset, long maxPartitionSize, IMFErrorLogger imfErrorLogger) throws IOException
+    {
+        this(byteProvider, byteOffset, maxPartitionSize, imfErrorLogger, null);
+    }
+
+    /**
+     * A factory method that instantiates a lazily materialized MXF Header partition. Structural metadata sets are parsed the first
+     * time any of them is requested, and the object model is built the first time a typed object is requested, errors encountered
+     * at that point are exposed through an MXFException. The buffer contents are not copied and should not be modified afterwards.
+     *
+     * @param byteBuffer the buffer whose remaining bytes are the header partition
+     * @param byteOffset the byte offset corresponding to the HeaderPartition
+     * @param maxPartitionSize the size of the header partition
+     * @param imfErrorLogger an IMFErrorLogger dedicated to this header partition
+     * @return a header partition whose structural metadata sets are only indexed
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public static HeaderPartition createLazyHeaderPartition(ByteBuffer byteBuffer, long byteOffset, long maxPartitionSize, IMFErrorLogger imfErrorLogger) throws IOException
+    {
+        ByteBuffer headerPartitionBuffer = byteBuffer.slice();
+        return new HeaderPartition(new ByteBufferDataProvider(headerPartitionBuffer), byteOffset, maxPartitionSize, imfErrorLogger, headerPartitionBuffer);
+    }
+
+    private HeaderPartition(ByteProvider byteProvider, long byteOffset, long maxPartitionSize, IMFErrorLogger imfErrorLogger, @Nullable ByteBuffer byteBuffer) throws IOException
     {
         this.imfErrorLogger = imfErrorLogger;
+        this.byteBuffer = byteBuffer;
+        List<KLVPacket.Header> setHeaders = new ArrayList<>();
+        int prefaceSetCount = 0;
         long numBytesRead = 0;
         int numErrors = imfErrorLogger.getNumberOfErrors(); //Number of errors prior to parsing and reading the HeaderPartition
 
@@ -158,21 +204,18 @@ public final class HeaderPartition
             if (StructuralMetadata.isStructuralMetadata(Arrays.copyOf(header.getKey(), header.getKey().length)))
             {
                 Class clazz = StructuralMetadata.getStructuralMetadataSetClass(key);
-                if(!clazz.getSimpleName().equals(Object.class.getSimpleName())){
+                if(!clazz.getSimpleName().equals(Object.class.getSimpleName()) && this.byteBuffer != null){
+                    //only the location of the set is recorded, it is parsed on demand
+                    setHeaders.add(header);
+                    if(clazz.equals(Preface.PrefaceBO.class)){
+                        prefaceSetCount++;
+                    }
+                    byteProvider.skipBytes(header.getVSize());
+                }
+                else if(!clazz.getSimpleName().equals(Object.class.getSimpleName())){
                     //logger.info(String.format("KLV item with key = %s corresponds to class %s", new MXFUID(header.getKey()), clazz.getSimpleName()));
                     InterchangeObject.InterchangeObjectBO interchangeObjectBO = this.constructInterchangeObjectBO(clazz, header, byteProvider, this.primerPack.getLocalTagEntryBatch().getLocalTagToUIDMap(), imfErrorLogger);
-                    List<InterchangeObject.InterchangeObjectBO> list = this.interchangeObjectBOsMap.get(interchangeObjectBO.getClass().getSimpleName());
-                    if(list == null){
-                        list = new ArrayList<>();
-                        this.interchangeObjectBOsMap.put(interchangeObjectBO.getClass().getSimpleName(), list);
-                    }
-                    list.add(interchangeObjectBO);
-                    uidToBOs.put(interchangeObjectBO.getInstanceUID(), interchangeObjectBO);
-                    if(interchangeObjectBO instanceof MaterialPackage.MaterialPackageBO
-                            || interchangeObjectBO instanceof SourcePackage.SourcePackageBO){
-                        GenericPackage.GenericPackageBO genericPackageBO = (GenericPackage.GenericPackageBO)interchangeObjectBO;
-                        uidToBOs.put(genericPackageBO.getPackageUID(), genericPackageBO);
-                    }
+                    this.cacheInterchangeObjectBO(interchangeObjectBO);
                 }
                 else
                 {
@@ -189,7 +232,7 @@ public final class HeaderPartition
         }
 
         //header partition validation
-        int prefaceSetCount = (this.interchangeObjectBOsMap.containsKey(Preface.PrefaceBO.class.getSimpleName()) && this.interchangeObjectBOsMap.get(Preface.PrefaceBO.class.getSimpleName()) != null)
+        prefaceSetCount += (this.interchangeObjectBOsMap.containsKey(Preface.PrefaceBO.class.getSimpleName()) && this.interchangeObjectBOsMap.get(Preface.PrefaceBO.class.getSimpleName()) != null)
                 ? this.interchangeObjectBOsMap.get(Preface.PrefaceBO.class.getSimpleName()).size() : 0;
 
         if (prefaceSetCount != 1)
@@ -208,6 +251,100 @@ public final class HeaderPartition
             throw new MXFException(String.format("%d errors encountered when reading header partition", imfErrorLogger.getNumberOfErrors() - numErrors));
         }
 
+        if (this.byteBuffer != null)
+        {
+            this.unparsedSetHeaders = setHeaders;
+            this.objectModelBuilt = false;
+        }
+        else
+        {
+            this.buildObjectModel();
+            this.objectModelBuilt = true;
+        }
+    }
+
+    /**
+     * A method that parses the structural metadata sets of a lazily materialized header partition, unless it was done already
+     */
+    private synchronized void ensureStructuralMetadata()
+    {
+        if (this.materializationException != null)
+        {
+            throw this.materializationException;
+        }
+        if (this.unparsedSetHeaders == null)
+        {
+            return;
+        }
+
+        int numErrors = this.imfErrorLogger.getNumberOfErrors();
+        List<InterchangeObject.InterchangeObjectBO> interchangeObjectBOs = new ArrayList<>(this.unparsedSetHeaders.size());
+        try
+        {
+            for (KLVPacket.Header header : this.unparsedSetHeaders)
+            {
+                ByteBuffer setBuffer = this.byteBuffer.duplicate();
+                int valueOffset = (int)(header.getByteOffset() + header.getKLSize());
+                setBuffer.limit((int)(valueOffset + header.getVSize()));
+                setBuffer.position(valueOffset);
+                Class clazz = StructuralMetadata.getStructuralMetadataSetClass(header.getKey());
+                interchangeObjectBOs.add(this.constructInterchangeObjectBO(clazz, header, new ByteBufferDataProvider(setBuffer), this.primerPack.getLocalTagEntryBatch().getLocalTagToUIDMap(), this.imfErrorLogger));
+            }
+        }
+        catch (IOException e)
+        {
+            this.materializationException = new MXFException("Could not parse the structural metadata sets in the header partition", e);
+            throw this.materializationException;
+        }
+
+        if (this.imfErrorLogger.getNumberOfErrors() > numErrors)
+        {//the errors are only reported to the error logger once, later accesses rethrow the same exception
+            List<ErrorLogger.ErrorObject> errorObjectList = this.imfErrorLogger.getErrors();
+            for(int i=numErrors; i< errorObjectList.size(); i++) {
+                logger.error(errorObjectList.get(i).getErrorDescription());
+            }
+            this.materializationException = new MXFException(String.format("%d errors encountered when reading header partition", this.imfErrorLogger.getNumberOfErrors() - numErrors));
+            throw this.materializationException;
+        }
+
+        for (InterchangeObject.InterchangeObjectBO interchangeObjectBO : interchangeObjectBOs)
+        {
+            this.cacheInterchangeObjectBO(interchangeObjectBO);
+        }
+        this.unparsedSetHeaders = null;
+    }
+
+    /**
+     * A method that builds the object model of a lazily materialized header partition, unless it was done already
+     */
+    private synchronized void ensureObjectModel()
+    {
+        if (this.objectModelBuilt)
+        {
+            return;
+        }
+
+        this.ensureStructuralMetadata();
+        try
+        {
+            this.buildObjectModel();
+        }
+        catch (IOException | RuntimeException e)
+        {
+            //leave no partially built object model behind, later accesses fail the same way
+            this.interchangeObjectsMap.clear();
+            this.uidToMetadataSets.clear();
+            this.materializationException = (e instanceof MXFException) ? (MXFException)e : new MXFException("Could not build the object model of the header partition", e);
+            throw this.materializationException;
+        }
+        this.objectModelBuilt = true;
+    }
+
+    /**
+     * A method that resolves the dependencies between the structural metadata sets and constructs the corresponding InterchangeObjects
+     */
+    private void buildObjectModel() throws IOException
+    {
         Set<InterchangeObject.InterchangeObjectBO> parsedInterchangeObjectBOs = new LinkedHashSet<>();
         for (Map.Entry<MXFUID, InterchangeObject.InterchangeObjectBO> entry : uidToBOs.entrySet())
         {
@@ -421,6 +558,24 @@ public final class HeaderPartition
 
     }
 
+    /**
+     * A helper method to cache an InterchangeObjectBO
+     */
+    private void cacheInterchangeObjectBO(InterchangeObject.InterchangeObjectBO interchangeObjectBO){
+        List<InterchangeObject.InterchangeObjectBO> list = this.interchangeObjectBOsMap.get(interchangeObjectBO.getClass().getSimpleName());
+        if(list == null){
+            list = new ArrayList<>();
+            this.interchangeObjectBOsMap.put(interchangeObjectBO.getClass().getSimpleName(), list);
+        }
+        list.add(interchangeObjectBO);
+        uidToBOs.put(interchangeObjectBO.getInstanceUID(), interchangeObjectBO);
+        if(interchangeObjectBO instanceof MaterialPackage.MaterialPackageBO
+                || interchangeObjectBO instanceof SourcePackage.SourcePackageBO){
+            GenericPackage.GenericPackageBO genericPackageBO = (GenericPackage.GenericPackageBO)interchangeObjectBO;
+            uidToBOs.put(genericPackageBO.getPackageUID(), genericPackageBO);
+        }
+    }
+
     /**
      * A factory method to reflectively construct InterchangeObjectBO types by classname and argument list
      * @return the constructed InterchangeBO
@@ -474,6 +629,7 @@ public final class HeaderPartition
     @Nullable
     public Preface getPreface()
     {
+        this.ensureObjectModel();
         List<InterchangeObject> list = this.interchangeObjectsMap.get(Preface.class.getSimpleName());
         Preface preface = null;
         if(list != null) {
@@ -534,6 +690,7 @@ public final class HeaderPartition
      * @return list of EssenceDescriptor objects referenced by the Source Packages in this HeaderPartition
      */
     public List<InterchangeObject.InterchangeObjectBO> getEssenceDescriptors(){
+        this.ensureStructuralMetadata();
         List<InterchangeObject.InterchangeObjectBO> sourcePackageBOs = this.interchangeObjectBOsMap.get(SourcePackage.SourcePackageBO.class.getSimpleName());
         List<InterchangeObject.InterchangeObjectBO> essenceDescriptors = new ArrayList<>();
         for(int i=0; i<sourcePackageBOs.size(); i++){
@@ -551,6 +708,7 @@ public final class HeaderPartition
      * @return list of SubDescriptor objects referenced by the Source Packages in this HeaderPartition
      */
     public List<InterchangeObject.InterchangeObjectBO> getSubDescriptors(){
+        this.ensureStructuralMetadata();
         List<InterchangeObject.InterchangeObjectBO> sourcePackageBOs = this.interchangeObjectBOsMap.get(SourcePackage.SourcePackageBO.class.getSimpleName());
         List<InterchangeObject.InterchangeObjectBO>subDescriptors = new ArrayList<>();
         for(int i=0; i<sourcePackageBOs.size(); i++){
@@ -585,6 +743,7 @@ public final class HeaderPartition
      * @return list of SubDescriptors corresponding to the collection of strong references passed in
      */
     List<InterchangeObject.InterchangeObjectBO> getSubDescriptors(CompoundDataTypes.MXFCollections.MXFCollection<InterchangeObject.InterchangeObjectBO.StrongRef> strongRefCollection){
+        this.ensureStructuralMetadata();
         List<InterchangeObject.InterchangeObjectBO>subDescriptors = new ArrayList<>();
         if(strongRefCollection != null) { /*There might be essences that have no SubDescriptors*/
             List<InterchangeObject.InterchangeObjectBO.StrongRef> strongRefList = strongRefCollection.getEntries();
@@ -635,9 +794,11 @@ public final class HeaderPartition
     public String getAudioEssenceSpokenLanguage() throws IOException {
         String rfc5646SpokenLanguage = null;
         if(this.hasWaveAudioEssenceDescriptor()){
-            List<InterchangeObject> soundfieldGroupLabelSubDescriptors = this.getSoundFieldGroupLabelSubDescriptors();
-            for (InterchangeObject subDescriptor : soundfieldGroupLabelSubDescriptors) {
-                SoundFieldGroupLabelSubDescriptor soundFieldGroupLabelSubDescriptor = (SoundFieldGroupLabelSubDescriptor) subDescriptor;
+            //the sub descriptors are read from their structural metadata sets, so that a lazily materialized header partition does not build its object model for this
+            this.ensureStructuralMetadata();
+            List<InterchangeObject.InterchangeObjectBO> soundfieldGroupLabelSubDescriptorBOs = this.interchangeObjectBOsMap.get(SoundFieldGroupLabelSubDescriptor.SoundFieldGroupLabelSubDescriptorBO.class.getSimpleName());
+            for (InterchangeObject.InterchangeObjectBO subDescriptorBO : (soundfieldGroupLabelSubDescriptorBOs != null) ? soundfieldGroupLabelSubDescriptorBOs : Collections.<InterchangeObject.InterchangeObjectBO>emptyList()) {
+                SoundFieldGroupLabelSubDescriptor soundFieldGroupLabelSubDescriptor = new SoundFieldGroupLabelSubDescriptor((SoundFieldGroupLabelSubDescriptor.SoundFieldGroupLabelSubDescriptorBO) subDescriptorBO);
                 if (rfc5646SpokenLanguage == null) {
                     rfc5646SpokenLanguage = soundFieldGroupLabelSubDescriptor.getRFC5646SpokenLanguage();
                 } else if (!rfc5646SpokenLanguage.equals(soundFieldGroupLabelSubDescriptor.getRFC5646SpokenLanguage())) {
@@ -683,6 +844,7 @@ public final class HeaderPartition
      * @return the InterchangeObjectBO corresponding to the class name
      */
     public List<InterchangeObject.InterchangeObjectBO> getStructuralMetadata(StructuralMetadataID structuralMetadataID){
+        this.ensureStructuralMetadata();
         String key = structuralMetadataID.getName() + "BO";
         return this.interchangeObjectBOsMap.get(key);
     }
@@ -781,6 +943,7 @@ public final class HeaderPartition
      */
     public @Nullable TimelineTrack getTimelineTrack(MXFUID MXFUID)
     {
+        this.ensureObjectModel();
         Object object = this.uidToMetadataSets.get(MXFUID);
 
         TimelineTrack timelineTrack = null;
@@ -799,6 +962,7 @@ public final class HeaderPartition
      */
     public @Nullable Sequence getSequence(MXFUID MXFUID)
     {
+        this.ensureObjectModel();
         Object object = this.uidToMetadataSets.get(MXFUID);
 
         Sequence sequence = null;
@@ -817,6 +981,7 @@ public final class HeaderPartition
      */
     public @Nullable SourceClip getSourceClip(MXFUID MXFUID)
     {
+        this.ensureObjectModel();
         Object object = this.uidToMetadataSets.get(MXFUID);
 
         SourceClip sourceClip = null;
@@ -835,6 +1000,7 @@ public final class HeaderPartition
      */
     public @Nullable MaterialPackage getMaterialPackage(MXFUID MXFUID)
     {
+        this.ensureObjectModel();
         Object object = this.uidToMetadataSets.get(MXFUID);
 
         MaterialPackage materialPackage = null;
@@ -853,6 +1019,7 @@ public final class HeaderPartition
      */
     public @Nullable SourcePackage getSourcePackage(MXFUID MXFUID)
     {
+        this.ensureObjectModel();
         Object object = this.uidToMetadataSets.get(MXFUID);
 
         SourcePackage sourcePackage = null;
@@ -871,6 +1038,7 @@ public final class HeaderPartition
      */
     public @Nullable EssenceContainerData getEssenceContainerData(MXFUID MXFUID)
     {
+        this.ensureObjectModel();
         Object object = this.uidToMetadataSets.get(MXFUID);
 
         EssenceContainerData essenceContainerData = null;
@@ -895,12 +1063,35 @@ public final class HeaderPartition
      * A method to verify the presence of an InterchangeObject
      * @boolean
      */
-    private boolean hasInterchangeObject(Class clazz){
+    private synchronized boolean hasInterchangeObject(Class clazz){
+        if (!this.objectModelBuilt)
+        {//answered from the structural metadata sets, so that a lazily materialized header partition does not build its object model for this
+            if (this.unparsedSetHeaders != null)
+            {
+                for (KLVPacket.Header header : this.unparsedSetHeaders)
+                {
+                    if (clazz.equals(StructuralMetadata.getStructuralMetadataSetClass(header.getKey()).getEnclosingClass()))
+                    {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            for (List<InterchangeObject.InterchangeObjectBO> interchangeObjectBOs : this.interchangeObjectBOsMap.values())
+            {
+                if (clazz.equals(interchangeObjectBOs.get(0).getClass().getEnclosingClass()))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
         String simpleName = clazz.getSimpleName();
         return  (this.interchangeObjectsMap.containsKey(simpleName) && (this.interchangeObjectsMap.get(simpleName) != null && this.interchangeObjectsMap.get(simpleName).size() > 0));
     }
 
     private List<InterchangeObject> getInterchangeObjects(Class clazz){
+        this.ensureObjectModel();
         String simpleName = clazz.getSimpleName();
         if(this.interchangeObjectsMap.get(simpleName) == null){
             return Collections.unmodifiableList(new ArrayList<InterchangeObject>());
@@ -926,48 +1117,45 @@ function visit(node n)
      */
     private static List<Node> resolve(List<Node> adjacencyList)
     {
-        List<Node> sortedList = new LinkedList<>();
+        //iterative form of the algorithm above, so that long dependency chains cannot overflow the call stack; every
+        //node and edge is visited exactly once
+        List<Node> sortedList = new ArrayList<>(adjacencyList.size());
+        Deque<Node> stack = new ArrayDeque<>();
 
-        Node node = getUnmarkedNode(adjacencyList);
-        while(node != null)
+        for (Node unmarkedNode : adjacencyList)
         {
-            visit(node, sortedList);
-            node = getUnmarkedNode(adjacencyList);
-        }
-
-         return sortedList;
-    }
-
-    private static void visit(Node node, List<Node> sortedList)
-    {
-        if (node.mark.equals(Mark.TEMPORARY))
-        {
-            throw new MXFException("Cycle detected");
-        }
-        else if (node.mark.equals(Mark.NONE))
-        {
-            node.mark = Mark.TEMPORARY;
-            for (Node neighbor : node.depends)
+            if (unmarkedNode.mark != Mark.NONE)
             {
-                visit(neighbor, sortedList);
+                continue;
             }
-            node.mark = Mark.PERMANENT;
-            sortedList.add(node);
-        }
-    }
-
-    private static Node getUnmarkedNode(List<Node> adjacencyList)
-    {
-        Node unmarkedNode = null;
-        for (Node node : adjacencyList)
-        {
-            if (node.mark.equals(Mark.NONE))
+            unmarkedNode.mark = Mark.TEMPORARY;
+            stack.push(unmarkedNode);
+            while (!stack.isEmpty())
             {
-                unmarkedNode = node;
-                break;
+                Node node = stack.peek();
+                if (node.nextDependsIndex < node.depends.size())
+                {
+                    Node neighbor = node.depends.get(node.nextDependsIndex++);
+                    if (neighbor.mark == Mark.TEMPORARY)
+                    {
+                        throw new MXFException("Cycle detected");
+                    }
+                    else if (neighbor.mark == Mark.NONE)
+                    {
+                        neighbor.mark = Mark.TEMPORARY;
+                        stack.push(neighbor);
+                    }
+                }
+                else
+                {
+                    stack.pop();
+                    node.mark = Mark.PERMANENT;
+                    sortedList.add(node);
+                }
             }
         }
-        return unmarkedNode;
+
+        return sortedList;
     }
 
     private static class Node
@@ -975,12 +1163,14 @@ function visit(node n)
         private final MXFUID uid;
         private final List<Node> depends;
         private Mark mark;
+        private int nextDependsIndex;
 
         private Node(MXFUID uid)
         {
             this.uid = uid;
             this.mark = Mark.NONE;
-            this.depends = new LinkedList<>();
+            this.depends = new ArrayList<>();
+            this.nextDependsIndex = 0;
         }
     }
 
@@ -1122,6 +1312,7 @@ function visit(node n)
      */
     public String toString()
     {
+        this.ensureObjectModel();
         StringBuilder sb = new StringBuilder();
         sb.append("================== HeaderPartition ======================\n");
         sb.append(this.getPartitionPack().toString());
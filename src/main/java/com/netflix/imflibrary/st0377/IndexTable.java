@@ -0,0 +1,263 @@
+/*
+ *
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.netflix.imflibrary.st0377;
+
+import com.netflix.imflibrary.exceptions.MXFException;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Object model corresponding to an Index Table as defined in st377-1:2011, i.e., the IndexTableSegments of a single essence
+ * container ordered by their index start position. It maps an edit unit to its byte range within the essence container,
+ * locating the segment that indexes the edit unit by binary search.
+ */
+@Immutable
+public final class IndexTable
+{
+    private final IndexTableSegment[] indexTableSegments;
+    private final long[] indexStartPositions;
+    private final long[] segmentStreamOffsets;
+    private final long essenceContainerSize;
+
+    /**
+     * Instantiates a new Index table.
+     *
+     * @param indexTableSegments the index table segments of a single essence container, in any order. Repeated copies of a
+     *                           segment, as found for instance in the header and footer partitions, are ignored
+     * @param essenceContainerSize the size in bytes of the essence container, a negative value when it is not known in which
+     *                             case the size of the last edit unit of a variable byte count index is not known either
+     */
+    public IndexTable(List<IndexTableSegment> indexTableSegments, long essenceContainerSize)
+    {
+        List<IndexTableSegment> sortedSegments = new ArrayList<>(indexTableSegments);
+        sortedSegments.sort(Comparator.comparingLong(IndexTableSegment::getIndexStartPosition));
+
+        List<IndexTableSegment> segments = new ArrayList<>();
+        for (IndexTableSegment indexTableSegment : sortedSegments)
+        {
+            if (indexTableSegment.getEditUnitByteCount() == 0 && indexTableSegment.getIndexEntryArray() == null)
+            {//neither a constant byte count nor index entries, nothing to look up in this segment
+                continue;
+            }
+            if (!segments.isEmpty()
+                    && segments.get(segments.size() - 1).getIndexStartPosition() == indexTableSegment.getIndexStartPosition())
+            {//a repeated copy of the previous segment
+                continue;
+            }
+            segments.add(indexTableSegment);
+        }
+
+        this.indexTableSegments = segments.toArray(new IndexTableSegment[segments.size()]);
+        this.indexStartPositions = new long[this.indexTableSegments.length];
+        for (int i=0; i<this.indexTableSegments.length; i++)
+        {
+            this.indexStartPositions[i] = this.indexTableSegments[i].getIndexStartPosition();
+        }
+
+        //the stream offset of the first edit unit of each constant byte count segment is the byte length of the edit units that
+        //precede it, which is only known when they are indexed by constant byte count segments as well
+        this.segmentStreamOffsets = new long[this.indexTableSegments.length];
+        for (int i=0; i<this.indexTableSegments.length; i++)
+        {
+            if (i == 0)
+            {
+                this.segmentStreamOffsets[i] = this.indexStartPositions[i] * this.indexTableSegments[i].getEditUnitByteCount();
+            }
+            else if (this.indexTableSegments[i - 1].getEditUnitByteCount() > 0 && this.segmentStreamOffsets[i - 1] >= 0)
+            {
+                this.segmentStreamOffsets[i] = this.segmentStreamOffsets[i - 1]
+                        + (this.indexStartPositions[i] - this.indexStartPositions[i - 1]) * this.indexTableSegments[i - 1].getEditUnitByteCount();
+            }
+            else
+            {
+                this.segmentStreamOffsets[i] = -1L;
+            }
+        }
+        this.essenceContainerSize = essenceContainerSize;
+    }
+
+    /**
+     * Getter for the location of an edit unit within the essence container
+     *
+     * @param editUnit the zero-indexed position of the edit unit
+     * @return the location of the edit unit
+     * @throws MXFException if this index table does not index the edit unit
+     */
+    public EditUnitLocation getEditUnitLocation(long editUnit)
+    {
+        int segmentIndex = Arrays.binarySearch(this.indexStartPositions, editUnit);
+        if (segmentIndex < 0)
+        {//the segment with the largest start position that is smaller than the edit unit
+            segmentIndex = -segmentIndex - 2;
+        }
+        if (segmentIndex < 0)
+        {
+            throw new MXFException(String.format("Edit unit %d is not indexed by this index table", editUnit));
+        }
+
+        IndexTableSegment indexTableSegment = this.indexTableSegments[segmentIndex];
+        long positionInSegment = editUnit - indexTableSegment.getIndexStartPosition();
+        long editUnitByteCount = indexTableSegment.getEditUnitByteCount();
+        if (editUnitByteCount > 0)
+        {//a zero duration indicates that the constant byte count applies to all the remaining edit units
+            if (indexTableSegment.getIndexDuration() > 0 && positionInSegment >= indexTableSegment.getIndexDuration())
+            {
+                throw new MXFException(String.format("Edit unit %d is not indexed by this index table", editUnit));
+            }
+            if (this.segmentStreamOffsets[segmentIndex] < 0)
+            {
+                throw new MXFException(String.format("The stream offset of edit unit %d cannot be determined, since it follows edit units indexed by index entries", editUnit));
+            }
+            return new EditUnitLocation(editUnit, this.segmentStreamOffsets[segmentIndex] + positionInSegment * editUnitByteCount,
+                    editUnitByteCount, 0, (byte)0);
+        }
+
+        IndexTableSegment.IndexEntryArray indexEntryArray = indexTableSegment.getIndexEntryArray();
+        if (positionInSegment >= indexEntryArray.size())
+        {
+            throw new MXFException(String.format("Edit unit %d is not indexed by this index table", editUnit));
+        }
+        int index = (int)positionInSegment;
+        long streamOffset = indexEntryArray.getStreamOffset(index);
+        long nextStreamOffset;
+        if (index + 1 < indexEntryArray.size())
+        {
+            nextStreamOffset = indexEntryArray.getStreamOffset(index + 1);
+        }
+        else if (segmentIndex + 1 < this.indexTableSegments.length
+                && this.indexTableSegments[segmentIndex + 1].getIndexEntryArray() != null
+                && this.indexTableSegments[segmentIndex + 1].getIndexEntryArray().size() > 0)
+        {
+            nextStreamOffset = this.indexTableSegments[segmentIndex + 1].getIndexEntryArray().getStreamOffset(0);
+        }
+        else
+        {
+            nextStreamOffset = this.essenceContainerSize;
+        }
+        long size = (nextStreamOffset >= streamOffset) ? nextStreamOffset - streamOffset : -1L;
+        return new EditUnitLocation(editUnit, streamOffset, size, indexEntryArray.getKeyFrameOffset(index), indexEntryArray.getFlags(index));
+    }
+
+    /**
+     * Getter for the number of segments in this index table, repeated copies of a segment are not counted
+     *
+     * @return the number of index table segments
+     */
+    public int getNumberOfSegments()
+    {
+        return this.indexTableSegments.length;
+    }
+
+    /**
+     * Object model corresponding to the location of an edit unit within an essence container
+     */
+    @Immutable
+    public static final class EditUnitLocation
+    {
+        private final long editUnit;
+        private final long streamOffset;
+        private final long size;
+        private final int keyFrameOffset;
+        private final byte flags;
+
+        private EditUnitLocation(long editUnit, long streamOffset, long size, int keyFrameOffset, byte flags)
+        {
+            this.editUnit = editUnit;
+            this.streamOffset = streamOffset;
+            this.size = size;
+            this.keyFrameOffset = keyFrameOffset;
+            this.flags = flags;
+        }
+
+        /**
+         * Getter for the position of the edit unit
+         *
+         * @return the zero-indexed position of the edit unit
+         */
+        public long getEditUnit()
+        {
+            return this.editUnit;
+        }
+
+        /**
+         * Getter for the offset of the edit unit from the start of the essence container
+         *
+         * @return the stream offset of the edit unit
+         */
+        public long getStreamOffset()
+        {
+            return this.streamOffset;
+        }
+
+        /**
+         * Getter for the size of the edit unit
+         *
+         * @return the size in bytes of the edit unit, -1 when it is not known
+         */
+        public long getSize()
+        {
+            return this.size;
+        }
+
+        /**
+         * Getter for the key frame offset of the edit unit
+         *
+         * @return the signed offset in edit units to the key frame that the edit unit depends on, 0 for a key frame
+         */
+        public int getKeyFrameOffset()
+        {
+            return this.keyFrameOffset;
+        }
+
+        /**
+         * Getter for the position of the key frame that the edit unit depends on
+         *
+         * @return the zero-indexed position of the key frame
+         */
+        public long getKeyFrameEditUnit()
+        {
+            return this.editUnit + this.keyFrameOffset;
+        }
+
+        /**
+         * Getter for the flags of the edit unit
+         *
+         * @return the edit unit flags, 0 for a constant byte count index
+         */
+        public byte getFlags()
+        {
+            return this.flags;
+        }
+
+        /**
+         * A method that returns a string representation of an EditUnitLocation object
+         *
+         * @return string representing the object
+         */
+        public String toString()
+        {
+            return String.format("edit_unit = %d, stream_offset = 0x%x, size = %d, key_frame_offset = %d, flags = 0x%x%n",
+                    this.editUnit, this.streamOffset, this.size, this.keyFrameOffset, this.flags);
+        }
+    }
+}
@@ -24,9 +24,10 @@ import com.netflix.imflibrary.annotations.MXFProperty;
 import com.netflix.imflibrary.MXFPropertyPopulator;
 import com.netflix.imflibrary.KLVPacket;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -103,13 +104,13 @@ public final class IndexTableSegment
         IndexEntryArray indexEntryArray = null;
         while (numBytesRead < numBytesToRead)
         {
-            Integer itemTag = MXFPropertyPopulator.getUnsignedShortAsInt(byteProvider.getBytes(2), KLVPacket.BYTE_ORDER);
+            int itemTag = byteProvider.getUnsignedShort();
             numBytesRead += 2;
 
             long itemSize;
             if (this.header.getKey()[5] == 0x53)
             {
-                itemSize = MXFPropertyPopulator.getUnsignedShortAsInt(byteProvider.getBytes(2), KLVPacket.BYTE_ORDER);
+                itemSize = byteProvider.getUnsignedShort();
                 numBytesRead += 2;
             }
             else
@@ -138,7 +139,7 @@ public final class IndexTableSegment
             }
             else if (itemTag == 0x3f0a)
             {
-                indexEntryArray = new IndexEntryArray(byteProvider);
+                indexEntryArray = new IndexEntryArray(byteProvider, Math.min(itemSize, numBytesToRead - numBytesRead));
                 numBytesRead += itemSize;
             }
             else
@@ -189,13 +190,14 @@ public final class IndexTableSegment
     /**
      * Getter for the index entries.
      *
-     * @return a read-only copy of a list of IndexTableSegment.IndexEntryArray.IndexEntry or null when not present
+     * @return a read-only list of IndexTableSegment.IndexEntryArray.IndexEntry or null when not present, the entries are
+     * created on access from the compact representation held by this segment
      */
     public List<IndexEntryArray.IndexEntry> getIndexEntries()
     {
         if (this.indexEntryArray != null)
         {
-            return Collections.unmodifiableList(this.indexEntryArray.indexEntries);
+            return this.indexEntryArray.getIndexEntries();
         }
         else
         {
@@ -203,6 +205,67 @@ public final class IndexTableSegment
         }
     }
 
+    /**
+     * Getter for the index entry array.
+     *
+     * @return the collection of index entries in this segment or null when not present
+     */
+    @Nullable
+    public IndexEntryArray getIndexEntryArray()
+    {
+        return this.indexEntryArray;
+    }
+
+    /**
+     * Getter for the position of the first edit unit indexed by this segment
+     *
+     * @return the index start position, 0 when not present
+     */
+    public long getIndexStartPosition()
+    {
+        return (this.index_start_position != null) ? this.index_start_position : 0L;
+    }
+
+    /**
+     * Getter for the number of edit units indexed by this segment
+     *
+     * @return the index duration, 0 when not present or when a constant edit unit byte count applies to the whole essence
+     */
+    public long getIndexDuration()
+    {
+        return (this.index_duration != null) ? this.index_duration : 0L;
+    }
+
+    /**
+     * Getter for the byte count of every edit unit, when it is constant
+     *
+     * @return the edit unit byte count, 0 when not present or when edit units have a variable byte count
+     */
+    public long getEditUnitByteCount()
+    {
+        return (this.edit_unit_byte_count != null) ? this.edit_unit_byte_count : 0L;
+    }
+
+    /**
+     * Getter for the stream identifier of this index table
+     *
+     * @return the index SID, 0 when not present
+     */
+    public long getIndexSID()
+    {
+        return (this.index_SID != null) ? this.index_SID : 0L;
+    }
+
+    /**
+     * Getter for the stream identifier of the essence container indexed by this index table
+     *
+     * @return the body SID, 0 when not present
+     */
+    public long getBodySID()
+    {
+        return (this.body_SID != null) ? this.body_SID : 0L;
+    }
+
     /**
      * Checks if the key passed in corresponds to a IndexTable segment
      *
@@ -222,28 +285,132 @@ public final class IndexTableSegment
     }
 
     /**
-     * Object model corresponding to a collection of Index Table entries
+     * Object model corresponding to a collection of Index Table entries. The entries are held in parallel primitive arrays,
+     * so that the index of a long essence does not cost one object per edit unit
      */
     @Immutable
     public static final class IndexEntryArray
     {
+        private static final int INDEX_ENTRY_SIZE = 11; //temporal offset, key frame offset, flags and stream offset
+        private static final int COLLECTION_HEADER_SIZE = 8; //number of elements and size of element
+
         private final CompoundDataTypes.MXFCollections.Header header;
-        private final List<IndexEntry> indexEntries = new ArrayList<>();
+        private final byte[] temporalOffsets;
+        private final byte[] keyFrameOffsets;
+        private final byte[] flags;
+        private final long[] streamOffsets;
 
         /**
          * Instantiates a new Index entry array.
          *
          * @param byteProvider the mxf byte provider
+         * @param size the size in bytes of the index entry array item, including the collection header
          * @throws IOException the iO exception
          */
-        IndexEntryArray(ByteProvider byteProvider) throws IOException
+        IndexEntryArray(ByteProvider byteProvider, long size) throws IOException
         {
             this.header = new CompoundDataTypes.MXFCollections.Header(byteProvider);
-            for (long i=0; i<header.getNumberOfElements(); i++)
+            if (this.header.getNumberOfElements() > Integer.MAX_VALUE || this.header.getSizeOfElement() < INDEX_ENTRY_SIZE)
             {
-                indexEntries.add(new IndexEntry(byteProvider));
-                byteProvider.skipBytes(this.header.getSizeOfElement() - 11);
+                throw new MXFException(String.format("Found index entry array with %d entries of size %d, only up to %d entries of at least %d bytes are supported",
+                        this.header.getNumberOfElements(), this.header.getSizeOfElement(), Integer.MAX_VALUE, INDEX_ENTRY_SIZE));
             }
+            //checked before the entries are allocated, so that a corrupt number of entries is not trusted
+            if (this.header.getNumberOfElements() > (size - COLLECTION_HEADER_SIZE) / this.header.getSizeOfElement())
+            {
+                throw new MXFException(String.format("Found index entry array with %d entries of size %d, which exceeds the %d bytes of the array",
+                        this.header.getNumberOfElements(), this.header.getSizeOfElement(), size));
+            }
+            int numberOfElements = (int)this.header.getNumberOfElements();
+            this.temporalOffsets = new byte[numberOfElements];
+            this.keyFrameOffsets = new byte[numberOfElements];
+            this.flags = new byte[numberOfElements];
+            this.streamOffsets = new long[numberOfElements];
+            for (int i=0; i<numberOfElements; i++)
+            {
+                this.temporalOffsets[i] = (byte)byteProvider.getUnsignedByte();
+                this.keyFrameOffsets[i] = (byte)byteProvider.getUnsignedByte();
+                this.flags[i] = (byte)byteProvider.getUnsignedByte();
+                this.streamOffsets[i] = byteProvider.getLong();
+                byteProvider.skipBytes(this.header.getSizeOfElement() - INDEX_ENTRY_SIZE);
+            }
+        }
+
+        /**
+         * Getter for the number of index entries
+         *
+         * @return the number of index entries in this array
+         */
+        public int size()
+        {
+            return this.streamOffsets.length;
+        }
+
+        /**
+         * Getter for the temporal offset of an index entry
+         *
+         * @param index zero-indexed position of the entry in this array
+         * @return the signed offset in edit units from the display order to the stored order of the edit unit
+         */
+        public byte getTemporalOffset(int index)
+        {
+            return this.temporalOffsets[index];
+        }
+
+        /**
+         * Getter for the key frame offset of an index entry
+         *
+         * @param index zero-indexed position of the entry in this array
+         * @return the signed offset in edit units to the key frame that the edit unit depends on
+         */
+        public byte getKeyFrameOffset(int index)
+        {
+            return this.keyFrameOffsets[index];
+        }
+
+        /**
+         * Getter for the flags of an index entry
+         *
+         * @param index zero-indexed position of the entry in this array
+         * @return the edit unit flags
+         */
+        public byte getFlags(int index)
+        {
+            return this.flags[index];
+        }
+
+        /**
+         * Getter for the stream offset of an index entry
+         *
+         * @param index zero-indexed position of the entry in this array
+         * @return the offset of the edit unit from the start of the essence container
+         */
+        public long getStreamOffset(int index)
+        {
+            return this.streamOffsets[index];
+        }
+
+        /**
+         * Getter for the index entries
+         *
+         * @return a read-only list view of the index entries in this array
+         */
+        public List<IndexEntry> getIndexEntries()
+        {
+            return new AbstractList<IndexEntry>()
+            {
+                @Override
+                public IndexEntry get(int index)
+                {
+                    return new IndexEntry(getTemporalOffset(index), getKeyFrameOffset(index), getFlags(index), getStreamOffset(index));
+                }
+
+                @Override
+                public int size()
+                {
+                    return IndexEntryArray.this.size();
+                }
+            };
         }
 
         /**
@@ -256,7 +423,7 @@ public final class IndexTableSegment
             StringBuilder sb = new StringBuilder();
             sb.append("================== IndexEntryArray ======================\n");
             sb.append(this.header.toString());
-            for (IndexEntry indexEntry : indexEntries)
+            for (IndexEntry indexEntry : this.getIndexEntries())
             {
                 sb.append(indexEntry.toString());
             }
@@ -269,23 +436,47 @@ public final class IndexTableSegment
         @Immutable
         public static final class IndexEntry
         {
-            @MXFProperty(size=1) private final Byte temporal_offset = null;
-            @MXFProperty(size=1) private final Byte key_frame_offset = null;
-            @MXFProperty(size=1) private final Byte flags = null;
-            @MXFProperty(size=8) private final Long stream_offset = null;
+            private final byte temporal_offset;
+            private final byte key_frame_offset;
+            private final byte flags;
+            private final long stream_offset;
+
+            private IndexEntry(byte temporal_offset, byte key_frame_offset, byte flags, long stream_offset)
+            {
+                this.temporal_offset = temporal_offset;
+                this.key_frame_offset = key_frame_offset;
+                this.flags = flags;
+                this.stream_offset = stream_offset;
+            }
+
+            /**
+             * Gets temporal offset.
+             *
+             * @return the temporal offset
+             */
+            public byte getTemporalOffset()
+            {
+                return this.temporal_offset;
+            }
+
+            /**
+             * Gets key frame offset.
+             *
+             * @return the key frame offset
+             */
+            public byte getKeyFrameOffset()
+            {
+                return this.key_frame_offset;
+            }
 
             /**
-             * Instantiates a new Index entry.
+             * Gets flags.
              *
-             * @param byteProvider the mxf byte provider
-             * @throws IOException the iO exception
+             * @return the flags
              */
-            IndexEntry(ByteProvider byteProvider) throws IOException
+            public byte getFlags()
             {
-                MXFPropertyPopulator.populateField(byteProvider, this, "temporal_offset");
-                MXFPropertyPopulator.populateField(byteProvider, this, "key_frame_offset");
-                MXFPropertyPopulator.populateField(byteProvider, this, "flags");
-                MXFPropertyPopulator.populateField(byteProvider, this, "stream_offset");
+                return this.flags;
             }
 
             /**
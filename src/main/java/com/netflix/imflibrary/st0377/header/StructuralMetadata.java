@@ -596,14 +596,14 @@ public final class StructuralMetadata
             /*From smpte st 377-1:2011 section 9.6, all structural header metadata objects shall be implemented as MXF Local Sets
             which implies that the data item local tag is always 2 bytes long*/
             //read local tag
-            int localTag = MXFPropertyPopulator.getUnsignedShortAsInt(byteProvider.getBytes(2), KLVPacket.BYTE_ORDER);
+            int localTag = byteProvider.getUnsignedShort();
             numBytesRead += 2;
 
             //read length
             long length;
             if (object.getHeader().getRegistryDesignator() == 0x53)
             {
-                length = MXFPropertyPopulator.getUnsignedShortAsInt(byteProvider.getBytes(2), KLVPacket.BYTE_ORDER);
+                length = byteProvider.getUnsignedShort();
                 numBytesRead += 2;
             }
             else if (object.getHeader().getRegistryDesignator() == 0x13)
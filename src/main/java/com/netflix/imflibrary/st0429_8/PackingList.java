@@ -27,6 +27,7 @@ import com.netflix.imflibrary.utils.ErrorLogger;
 import com.netflix.imflibrary.utils.FileByteRangeProvider;
 import com.netflix.imflibrary.utils.ResourceByteRangeProvider;
 import com.netflix.imflibrary.utils.UUIDHelper;
+import com.netflix.imflibrary.utils.XMLSchemaRegistry;
 import com.netflix.imflibrary.writerTools.utils.ValidationEventHandlerImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,7 +41,6 @@ import org.xml.sax.SAXParseException;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
-import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
@@ -50,7 +50,6 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
 import java.io.File;
 import java.io.IOException;
@@ -126,21 +125,13 @@ public final class PackingList
             throw new IMFException(message, imfErrorLogger);
         }
 
-        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
         try {
             try (InputStream inputStream = resourceByteRangeProvider.getByteRangeAsStream(0, resourceByteRangeProvider.getResourceSize() - 1);
-                 InputStream xmldsig_core_is = contextClassLoader.getResourceAsStream(PackingList.xmldsig_core_schema_path);
-                 InputStream pkl_is = contextClassLoader.getResourceAsStream(pklSchema.getPKLSchemaPath());
             ) {
-                StreamSource[] streamSources = new StreamSource[2];
-                streamSources[0] = new StreamSource(xmldsig_core_is);
-                streamSources[1] = new StreamSource(pkl_is);
-
-                SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-                Schema schema = schemaFactory.newSchema(streamSources);
+                Schema schema = XMLSchemaRegistry.getSchema(PackingList.xmldsig_core_schema_path, pklSchema.getPKLSchemaPath());
 
                 ValidationEventHandlerImpl validationEventHandlerImpl = new ValidationEventHandlerImpl(true);
-                JAXBContext jaxbContext = JAXBContext.newInstance(pklSchema.getPKLContext());
+                JAXBContext jaxbContext = XMLSchemaRegistry.getJAXBContext(pklSchema.getPKLContext());
                 Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
                 unmarshaller.setEventHandler(validationEventHandlerImpl);
                 unmarshaller.setSchema(schema);
@@ -372,7 +363,7 @@ public final class PackingList
     {
         public static final String APPLICATION_MXF_TYPE = "application/mxf";
         public static final String TEXT_XML_TYPE = "text/xml";
-        private static final String DEFAULT_HASH_ALGORITHM = "http://www.w3.org/2000/09/xmldig#sha1";
+        private static final String DEFAULT_HASH_ALGORITHM = "http://www.w3.org/2000/09/xmldsig#sha1";
 
         private final UUID uuid;
         private final byte[] hash;
@@ -485,20 +476,12 @@ public final class PackingList
             throw new IMFException(message, imfErrorLogger);
         }
 
-        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
         try (InputStream inputStream = resourceByteRangeProvider.getByteRangeAsStream(0, resourceByteRangeProvider.getResourceSize() - 1);
-             InputStream xmldsig_core_is = contextClassLoader.getResourceAsStream(PackingList.xmldsig_core_schema_path);
-             InputStream pkl_is = contextClassLoader.getResourceAsStream(pklSchema.getPKLSchemaPath());
         )
         {
             StreamSource inputSource = new StreamSource(inputStream);
 
-            StreamSource[] streamSources = new StreamSource[2];
-            streamSources[0] = new StreamSource(xmldsig_core_is);
-            streamSources[1] = new StreamSource(pkl_is);
-
-            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            Schema schema = schemaFactory.newSchema(streamSources);
+            Schema schema = XMLSchemaRegistry.getSchema(PackingList.xmldsig_core_schema_path, pklSchema.getPKLSchemaPath());
 
             Validator validator = schema.newValidator();
             validator.setErrorHandler(new ErrorHandler() {
@@ -599,6 +599,25 @@ public abstract class AbstractApplicationComposition implements ApplicationCompo
     public List<ErrorLogger.ErrorObject> conformVirtualTracksInComposition(List<Composition.HeaderPartitionTuple>
                                                                    headerPartitionTuples,
                                                      boolean conformAllVirtualTracksInCpl) throws IOException {
+        return conformVirtualTracksInComposition(headerPartitionTuples, conformAllVirtualTracksInCpl, new EssenceDescriptorCache());
+    }
+
+    /**
+     * This method can be used to determine if a Composition is conformant. Conformance checks
+     * perform deeper inspection of the Composition and the EssenceDescriptors corresponding to the
+     * resources referenced by the Composition.
+     *
+     * @param headerPartitionTuples        list of HeaderPartitionTuples corresponding to the IMF essences referenced in the Composition
+     * @param conformAllVirtualTracksInCpl a boolean that turns on/off conforming all the VirtualTracks in the Composition
+     * @param essenceDescriptorCache       a cache of the EssenceDescriptors of the IMF essences, that can be shared by the
+     *                                     conformance checks of Compositions that use the same HeaderPartitionTuples
+     * @return boolean to indicate of the Composition is conformant or not
+     * @throws IOException        - any I/O related error is exposed through an IOException.
+     */
+    public List<ErrorLogger.ErrorObject> conformVirtualTracksInComposition(List<Composition.HeaderPartitionTuple>
+                                                                   headerPartitionTuples,
+                                                     boolean conformAllVirtualTracksInCpl,
+                                                     EssenceDescriptorCache essenceDescriptorCache) throws IOException {
         /*
          * The algorithm for conformance checking a Composition (CPL) would be
          * 1) Verify that every EssenceDescriptor element in the EssenceDescriptor list (EDL) is referenced through its id element if conformAllVirtualTracks is enabled
@@ -645,7 +664,7 @@ public abstract class AbstractApplicationComposition implements ApplicationCompo
         }
 
         try {
-            resourceEssenceDescriptorMap = this.getResourcesEssenceDescriptorsMap(headerPartitionTuples);
+            resourceEssenceDescriptorMap = this.getResourcesEssenceDescriptorsMap(headerPartitionTuples, essenceDescriptorCache);
         }
         catch(IMFException e)
         {
@@ -689,7 +708,7 @@ public abstract class AbstractApplicationComposition implements ApplicationCompo
     }
 
     private Map<UUID, List<DOMNodeObjectModel>> getResourcesEssenceDescriptorsMap(List<Composition
-            .HeaderPartitionTuple> headerPartitionTuples) throws IOException {
+            .HeaderPartitionTuple> headerPartitionTuples, EssenceDescriptorCache essenceDescriptorCache) throws IOException {
         int previousNumberOfErrors = imfErrorLogger.getErrors().size();
         Map<UUID, List<DOMNodeObjectModel>> resourcesEssenceDescriptorMap = new LinkedHashMap<>();
 
@@ -734,22 +753,33 @@ public abstract class AbstractApplicationComposition implements ApplicationCompo
             {
                 try
                 {
+                    /*Many resources typically reference the same IMFTrackFile, whose EssenceDescriptors are converted only once*/
+                    List<DOMNodeObjectModel> domNodeObjectModels = essenceDescriptorCache.getEssenceDescriptors(resourceIdTuple.getTrackFileId());
                     Composition.HeaderPartitionTuple headerPartitionTuple = resourceUUIDHeaderPartitionMap.get(resourceIdTuple.getTrackFileId());
-                    if (headerPartitionTuple != null)
+                    if (domNodeObjectModels == null && headerPartitionTuple != null)
                     {
                         /*Create a DOM Node representation of the EssenceDescriptors present in this header partition
                         corresponding to an IMFTrackFile*/
                         List<Node> essenceDescriptorDOMNodes = getEssenceDescriptorDOMNodes(headerPartitionTuple);
-                        List<DOMNodeObjectModel> domNodeObjectModels = new ArrayList<>();
+                        domNodeObjectModels = new ArrayList<>();
+                        boolean conversionFailed = false;
                         for (Node node : essenceDescriptorDOMNodes) {
                             try {
                                 domNodeObjectModels.add(new DOMNodeObjectModel(node));
                             }
                             catch( IMFException e) {
+                                conversionFailed = true;
                                 imfErrorLogger.addAllErrors(e.getErrors());
                             }
 
                         }
+                        /*Incomplete conversions are not cached, so that their errors are reported by every conformance check*/
+                        if (!conversionFailed) {
+                            domNodeObjectModels = essenceDescriptorCache.putEssenceDescriptors(resourceIdTuple.getTrackFileId(), domNodeObjectModels);
+                        }
+                    }
+                    if (domNodeObjectModels != null && headerPartitionTuple != null)
+                    {
                         resourcesEssenceDescriptorMap.put(resourceIdTuple.getSourceEncoding(), domNodeObjectModels);
                     }
                 }
@@ -888,16 +918,17 @@ public abstract class AbstractApplicationComposition implements ApplicationCompo
                         "Element %s in a track does not have a corresponding entry in the CPL's Essence Descriptor List.", entry.getKey().toString()));
             }
             else {
-                referenceDOMNodeObjectModel = DOMNodeObjectModel.createDOMNodeObjectModelIgnoreSet(eDLMap.get(entry.getKey()), ignoreSet);
                 boolean intermediateResult = false;
-
-                List<DOMNodeObjectModel> domNodeObjectModelsIgnoreSet = new ArrayList<>();
                 for (DOMNodeObjectModel domNodeObjectModel : domNodeObjectModels) {
-                    domNodeObjectModel = DOMNodeObjectModel.createDOMNodeObjectModelIgnoreSet(domNodeObjectModel, ignoreSet);
-                    domNodeObjectModelsIgnoreSet.add(domNodeObjectModel);
-                    intermediateResult |= referenceDOMNodeObjectModel.equals(domNodeObjectModel);
+                    intermediateResult |= referenceDOMNodeObjectModel.equals(domNodeObjectModel, ignoreSet);
                 }
                 if (!intermediateResult) {
+                    /*The models without the ignored fields are only created to report the mismatch*/
+                    referenceDOMNodeObjectModel = DOMNodeObjectModel.createDOMNodeObjectModelIgnoreSet(referenceDOMNodeObjectModel, ignoreSet);
+                    List<DOMNodeObjectModel> domNodeObjectModelsIgnoreSet = new ArrayList<>();
+                    for (DOMNodeObjectModel domNodeObjectModel : domNodeObjectModels) {
+                        domNodeObjectModelsIgnoreSet.add(DOMNodeObjectModel.createDOMNodeObjectModelIgnoreSet(domNodeObjectModel, ignoreSet));
+                    }
                     DOMNodeObjectModel matchingDOMNodeObjectModel = DOMNodeObjectModel.getMatchingDOMNodeObjectModel(referenceDOMNodeObjectModel, domNodeObjectModelsIgnoreSet);
                     imfErrorLogger.addAllErrors(DOMNodeObjectModel.getNamespaceURIMismatchErrors(referenceDOMNodeObjectModel, matchingDOMNodeObjectModel));
                     imfErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_CPL_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.NON_FATAL, String.format("EssenceDescriptor with Id %s in the CPL's " +
@@ -0,0 +1,80 @@
+/*
+ *
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.netflix.imflibrary.st2067_2;
+
+import com.netflix.imflibrary.utils.DOMNodeObjectModel;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A cache of the DOMNodeObjectModels of the EssenceDescriptors present in the HeaderPartitions of IMF track files, keyed by
+ * the ID of the track file. Converting an EssenceDescriptor to its RegXML representation is expensive, so that conformance
+ * checking a Composition converts the EssenceDescriptors of a track file once, however many resources reference the track
+ * file. A cache can also be shared by the conformance checks of several Compositions, as long as all of them are checked
+ * against the same set of HeaderPartitions.
+ */
+@ThreadSafe
+public final class EssenceDescriptorCache
+{
+    private final ConcurrentMap<UUID, List<DOMNodeObjectModel>> essenceDescriptorsMap = new ConcurrentHashMap<>();
+
+    /**
+     * Getter for the EssenceDescriptors of a track file
+     *
+     * @param trackFileId the ID of the track file, i.e. the UUID of its top level file package
+     * @return an unmodifiable list of the DOMNodeObjectModels of the EssenceDescriptors of the track file, null if they are not cached
+     */
+    @Nullable
+    List<DOMNodeObjectModel> getEssenceDescriptors(UUID trackFileId)
+    {
+        return this.essenceDescriptorsMap.get(trackFileId);
+    }
+
+    /**
+     * Caches the EssenceDescriptors of a track file
+     *
+     * @param trackFileId the ID of the track file, i.e. the UUID of its top level file package
+     * @param essenceDescriptors the DOMNodeObjectModels of the EssenceDescriptors of the track file
+     * @return an unmodifiable list of the cached DOMNodeObjectModels, which are the ones cached first if several threads
+     * cache the EssenceDescriptors of the same track file concurrently
+     */
+    List<DOMNodeObjectModel> putEssenceDescriptors(UUID trackFileId, List<DOMNodeObjectModel> essenceDescriptors)
+    {
+        List<DOMNodeObjectModel> cachedEssenceDescriptors = Collections.unmodifiableList(new ArrayList<>(essenceDescriptors));
+        List<DOMNodeObjectModel> existingEssenceDescriptors = this.essenceDescriptorsMap.putIfAbsent(trackFileId, cachedEssenceDescriptors);
+        return (existingEssenceDescriptors != null) ? existingEssenceDescriptors : cachedEssenceDescriptors;
+    }
+
+    /**
+     * Getter for the number of track files whose EssenceDescriptors are cached
+     *
+     * @return the number of track files in the cache
+     */
+    public int size()
+    {
+        return this.essenceDescriptorsMap.size();
+    }
+}
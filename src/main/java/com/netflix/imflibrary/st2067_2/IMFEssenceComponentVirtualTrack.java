@@ -21,6 +21,7 @@ package com.netflix.imflibrary.st2067_2;
 import com.netflix.imflibrary.utils.UUIDHelper;
 
 import javax.annotation.concurrent.Immutable;
+import java.math.BigInteger;
 import java.util.*;
 
 /**
@@ -57,4 +58,85 @@ public final class IMFEssenceComponentVirtualTrack extends Composition.VirtualTr
         return (List<IMFTrackFileResourceType>)this.getResourceList();
     }
 
+    /**
+     * A method to resolve an edit unit of the composition to the edit unit of the track file that is presented at that time
+     * in this virtual track, accounting for the EntryPoint, SourceDuration and RepeatCount of every resource
+     * @param compositionEditUnit the zero-indexed position of the edit unit in units of the Composition Edit Rate
+     * @return the track file edit unit presented at the start of the composition edit unit
+     * @throws IllegalArgumentException if the composition edit unit is not within the duration of this virtual track
+     */
+    public TrackFileEditUnit getTrackFileEditUnit(long compositionEditUnit)
+    {
+        List<IMFTrackFileResourceType> resourceList = this.getTrackFileResourceList();
+        if (compositionEditUnit < 0 || resourceList.isEmpty())
+        {
+            throw new IllegalArgumentException(String.format("Composition edit unit %d is not within virtual track %s", compositionEditUnit, this.trackID));
+        }
+
+        //all the resources of a virtual track have the same edit rate, the conversion is exact up to the truncation to a whole edit unit
+        Composition.EditRate resourceEditRate = resourceList.get(0).getEditRate();
+        long trackEditUnit = BigInteger.valueOf(compositionEditUnit)
+                .multiply(BigInteger.valueOf(this.compositionEditRate.getDenominator()))
+                .multiply(BigInteger.valueOf(resourceEditRate.getNumerator()))
+                .divide(BigInteger.valueOf(this.compositionEditRate.getNumerator()).multiply(BigInteger.valueOf(resourceEditRate.getDenominator())))
+                .longValue();
+
+        long resourceStart = 0;
+        for (IMFTrackFileResourceType trackFileResource : resourceList)
+        {
+            long resourceDuration = trackFileResource.getDuration();
+            if (trackEditUnit < resourceStart + resourceDuration)
+            {
+                long positionInResource = (trackEditUnit - resourceStart) % trackFileResource.getSourceDuration().longValue();
+                return new TrackFileEditUnit(UUIDHelper.fromUUIDAsURNStringToUUID(trackFileResource.getTrackFileId()),
+                        trackFileResource.getEntryPoint().longValue() + positionInResource);
+            }
+            resourceStart += resourceDuration;
+        }
+        throw new IllegalArgumentException(String.format("Composition edit unit %d is not within virtual track %s", compositionEditUnit, this.trackID));
+    }
+
+    /**
+     * A class that represents an edit unit of a track file referenced by a virtual track
+     */
+    @Immutable
+    public static final class TrackFileEditUnit
+    {
+        private final UUID trackFileId;
+        private final long editUnit;
+
+        private TrackFileEditUnit(UUID trackFileId, long editUnit)
+        {
+            this.trackFileId = trackFileId;
+            this.editUnit = editUnit;
+        }
+
+        /**
+         * Getter for the ID of the track file
+         * @return the UUID of the track file
+         */
+        public UUID getTrackFileId()
+        {
+            return this.trackFileId;
+        }
+
+        /**
+         * Getter for the position of the edit unit within the track file
+         * @return the zero-indexed position of the edit unit in units of the track file's edit rate
+         */
+        public long getEditUnit()
+        {
+            return this.editUnit;
+        }
+
+        /**
+         * A method that returns a string representation of a TrackFileEditUnit object
+         * @return string representing the object
+         */
+        public String toString()
+        {
+            return String.format("track_file_id = %s, edit_unit = %d", this.trackFileId, this.editUnit);
+        }
+    }
+
 }
@@ -8,6 +8,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -151,4 +152,18 @@ public class ByteArrayByteRangeProvider implements ResourceByteRangeProvider {
         byte[] bytes = this.getByteRangeAsBytes(rangeStart, rangeEnd);
         return new ByteArrayInputStream(bytes);
     }
+
+    /**
+     * This method provides a read-only view of a byte range of the underlying byte[] without copying it
+     *
+     * @param rangeStart zero indexed inclusive start offset; ranges from 0 through (resourceSize -1) both included
+     * @param rangeEnd zero indexed inclusive end offset; ranges from 0 through (resourceSize -1) both included
+     * @return a read-only ByteBuffer whose remaining bytes are the desired byte range
+     */
+    public ByteBuffer getByteRangeAsByteBuffer(long rangeStart, long rangeEnd)
+    {
+        //validation of range request guarantees that 0 <= rangeStart <= rangeEnd <= (resourceSize - 1)
+        ResourceByteRangeProvider.Utilities.validateRangeRequest(this.resourceSize, rangeStart, rangeEnd);
+        return ByteBuffer.wrap(this.bytes, (int)rangeStart, (int)(rangeEnd - rangeStart + 1)).slice().asReadOnlyBuffer();
+    }
 }
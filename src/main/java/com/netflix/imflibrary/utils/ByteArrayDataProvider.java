@@ -53,15 +53,68 @@ public final class ByteArrayDataProvider implements ByteProvider {
      */
     public byte[] getBytes(int totalNumBytesToRead) throws IOException
     {
-        if ((this.position + totalNumBytesToRead) > bytes.length)
-        {
-            throw new IOException(String.format("Cannot read %d bytes from zero-index position %d as total length = %d",
-                    totalNumBytesToRead, this.position, bytes.length));
-        }
+        this.checkRemaining(totalNumBytesToRead);
         this.position += totalNumBytesToRead;
         return Arrays.copyOfRange(this.bytes, this.position - totalNumBytesToRead, this.position);
     }
 
+    /**
+     * A method that reads the next totalNumBytesToRead bytes from the byte[] that this data provider encapsulates into
+     * an existing array
+     *
+     * @param bytes the array that the bytes are read into
+     * @param offset the zero-indexed position in the array of the first byte read
+     * @param totalNumBytesToRead the total num bytes to read
+     * @throws IOException - any I/O related error is exposed through an IOException
+     */
+    @Override
+    public void getBytes(byte[] bytes, int offset, int totalNumBytesToRead) throws IOException
+    {
+        this.checkRemaining(totalNumBytesToRead);
+        System.arraycopy(this.bytes, this.position, bytes, offset, totalNumBytesToRead);
+        this.position += totalNumBytesToRead;
+    }
+
+    @Override
+    public int getUnsignedByte() throws IOException
+    {
+        this.checkRemaining(1);
+        return this.bytes[this.position++] & 0xff;
+    }
+
+    @Override
+    public int getUnsignedShort() throws IOException
+    {
+        this.checkRemaining(2);
+        int value = ((this.bytes[this.position] & 0xff) << 8) | (this.bytes[this.position + 1] & 0xff);
+        this.position += 2;
+        return value;
+    }
+
+    @Override
+    public long getUnsignedInt() throws IOException
+    {
+        this.checkRemaining(4);
+        long value = 0;
+        for (int i = 0; i < 4; i++)
+        {
+            value = (value << 8) | (this.bytes[this.position++] & 0xff);
+        }
+        return value;
+    }
+
+    @Override
+    public long getLong() throws IOException
+    {
+        this.checkRemaining(8);
+        long value = 0;
+        for (int i = 0; i < 8; i++)
+        {
+            value = (value << 8) | (this.bytes[this.position++] & 0xff);
+        }
+        return value;
+    }
+
     /**
      * A method that lets the caller skip bytes in the encapsulated byte[]
      *
@@ -78,4 +131,13 @@ public final class ByteArrayDataProvider implements ByteProvider {
 
         this.position += totalNumBytesToSkip;
     }
+
+    private void checkRemaining(int totalNumBytesToRead) throws IOException
+    {
+        if ((this.position + totalNumBytesToRead) > bytes.length)
+        {
+            throw new IOException(String.format("Cannot read %d bytes from zero-index position %d as total length = %d",
+                    totalNumBytesToRead, this.position, bytes.length));
+        }
+    }
 }
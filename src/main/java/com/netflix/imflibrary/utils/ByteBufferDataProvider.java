@@ -0,0 +1,128 @@
+/*
+ *
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.netflix.imflibrary.utils;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * This class is a non-thread-safe implementation of {@link com.netflix.imflibrary.utils.ByteProvider}. The underlying input
+ * sequence of bytes is sourced from the remaining bytes of a {@link java.nio.ByteBuffer}. The buffer contents are not copied,
+ * this data provider reads through its own view of the buffer and leaves the position and limit of the buffer passed in untouched.
+ */
+@NotThreadSafe
+public final class ByteBufferDataProvider implements ByteProvider {
+
+    private final ByteBuffer byteBuffer;
+
+    /**
+     * Instantiates a new ByteBufferDataProvider object
+     *
+     * @param byteBuffer the buffer whose remaining bytes will be read by this data provider
+     */
+    public ByteBufferDataProvider(ByteBuffer byteBuffer)
+    {
+        this.byteBuffer = byteBuffer.slice();
+    }
+
+    /**
+     * Getter for the raw bytes from the ByteBuffer that this data provider encapsulates
+     *
+     * @param totalNumBytesToRead the total num bytes to read
+     * @return byte[] containing next totalNumBytesToRead number of bytes
+     * @throws IOException - any I/O related error is exposed through an IOException
+     */
+    public byte[] getBytes(int totalNumBytesToRead) throws IOException
+    {
+        this.checkRemaining(totalNumBytesToRead);
+        byte[] bytes = new byte[totalNumBytesToRead];
+        this.byteBuffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * A method that reads the next totalNumBytesToRead bytes from the ByteBuffer that this data provider encapsulates into
+     * an existing array
+     *
+     * @param bytes the array that the bytes are read into
+     * @param offset the zero-indexed position in the array of the first byte read
+     * @param totalNumBytesToRead the total num bytes to read
+     * @throws IOException - any I/O related error is exposed through an IOException
+     */
+    @Override
+    public void getBytes(byte[] bytes, int offset, int totalNumBytesToRead) throws IOException
+    {
+        this.checkRemaining(totalNumBytesToRead);
+        this.byteBuffer.get(bytes, offset, totalNumBytesToRead);
+    }
+
+    @Override
+    public int getUnsignedByte() throws IOException
+    {
+        this.checkRemaining(1);
+        return this.byteBuffer.get() & 0xff;
+    }
+
+    @Override
+    public int getUnsignedShort() throws IOException
+    {
+        this.checkRemaining(2);
+        return this.byteBuffer.getShort() & 0xffff;
+    }
+
+    @Override
+    public long getUnsignedInt() throws IOException
+    {
+        this.checkRemaining(4);
+        return this.byteBuffer.getInt() & 0xffffffffL;
+    }
+
+    @Override
+    public long getLong() throws IOException
+    {
+        this.checkRemaining(8);
+        return this.byteBuffer.getLong();
+    }
+
+    /**
+     * A method that lets the caller skip bytes in the encapsulated ByteBuffer
+     *
+     * @param totalNumBytesToSkip the total num bytes to skip from the current position
+     * @throws IOException - any I/O related error is exposed through an IOException
+     */
+    public void skipBytes(long totalNumBytesToSkip) throws IOException
+    {
+        if (totalNumBytesToSkip < 0 || totalNumBytesToSkip > this.byteBuffer.remaining())
+        {
+            throw new IOException(String.format("Cannot skip %d bytes from zero-index position %d as total length = %d",
+                    totalNumBytesToSkip, this.byteBuffer.position(), this.byteBuffer.limit()));
+        }
+        this.byteBuffer.position(this.byteBuffer.position() + (int)totalNumBytesToSkip);
+    }
+
+    private void checkRemaining(int totalNumBytesToRead) throws IOException
+    {
+        if (totalNumBytesToRead < 0 || totalNumBytesToRead > this.byteBuffer.remaining())
+        {
+            throw new IOException(String.format("Cannot read %d bytes from zero-index position %d as total length = %d",
+                    totalNumBytesToRead, this.byteBuffer.position(), this.byteBuffer.limit()));
+        }
+    }
+}
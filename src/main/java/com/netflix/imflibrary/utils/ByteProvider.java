@@ -43,4 +43,70 @@ public interface ByteProvider
      */
     public void skipBytes(long totalNumBytesToSkip) throws IOException;
 
+    /**
+     * A method that reads the next totalNumBytesToRead bytes into an existing array
+     *
+     * @param bytes the array that the bytes are read into
+     * @param offset the zero-indexed position in the array of the first byte read
+     * @param totalNumBytesToRead the total num bytes to read
+     * @throws java.io.IOException the iO exception
+     */
+    public default void getBytes(byte[] bytes, int offset, int totalNumBytesToRead) throws IOException
+    {
+        System.arraycopy(this.getBytes(totalNumBytesToRead), 0, bytes, offset, totalNumBytesToRead);
+    }
+
+    /**
+     * A method that reads the next byte as an unsigned value
+     *
+     * @return the next byte as an unsigned value in the range [0, 0xff]
+     * @throws java.io.IOException the iO exception
+     */
+    public default int getUnsignedByte() throws IOException
+    {
+        return this.getBytes(1)[0] & 0xff;
+    }
+
+    /**
+     * A method that reads the next 2 bytes as an unsigned big-endian value
+     *
+     * @return the next 2 bytes as an unsigned value in the range [0, 0xffff]
+     * @throws java.io.IOException the iO exception
+     */
+    public default int getUnsignedShort() throws IOException
+    {
+        byte[] bytes = this.getBytes(2);
+        return ((bytes[0] & 0xff) << 8) | (bytes[1] & 0xff);
+    }
+
+    /**
+     * A method that reads the next 4 bytes as an unsigned big-endian value
+     *
+     * @return the next 4 bytes as an unsigned value in the range [0, 0xffffffff]
+     * @throws java.io.IOException the iO exception
+     */
+    public default long getUnsignedInt() throws IOException
+    {
+        byte[] bytes = this.getBytes(4);
+        return ((long)(bytes[0] & 0xff) << 24) | ((bytes[1] & 0xff) << 16) | ((bytes[2] & 0xff) << 8) | (bytes[3] & 0xff);
+    }
+
+    /**
+     * A method that reads the next 8 bytes as a big-endian value. Java does not have an unsigned 64-bit type, callers
+     * that need to interpret the value as unsigned should use the unsigned methods of {@link java.lang.Long}
+     *
+     * @return the next 8 bytes as a 64-bit value
+     * @throws java.io.IOException the iO exception
+     */
+    public default long getLong() throws IOException
+    {
+        byte[] bytes = this.getBytes(8);
+        long value = 0;
+        for (byte b : bytes)
+        {
+            value = (value << 8) | (b & 0xff);
+        }
+        return value;
+    }
+
 }
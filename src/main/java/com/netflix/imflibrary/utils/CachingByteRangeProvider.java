@@ -0,0 +1,415 @@
+/*
+ *
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.netflix.imflibrary.utils;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class is a decorator of a {@link com.netflix.imflibrary.utils.ResourceByteRangeProvider} that caches the bytes
+ * read from it. The resource is divided into blocks of a fixed size, aligned on multiples of the block size, and a range
+ * request is served from the blocks it spans. The blocks that are not cached are read from the underlying provider,
+ * where consecutive missing blocks are read by a single range request, and the blocks missing for a vectored read are
+ * read by a single vectored read of the underlying provider. The cached blocks are evicted in least recently
+ * used order once their total size exceeds a budget, and a request that is larger than the budget bypasses the cache.
+ * Parsing a track file reads the same small regions, such as the partition packs, the primer pack or the random index
+ * pack, many times over, which makes this decorator worthwhile when the underlying provider is remote or slow.
+ * This implementation is safe for use by concurrent callers if the underlying provider is.
+ */
+@ThreadSafe
+public final class CachingByteRangeProvider implements ResourceByteRangeProvider, Closeable
+{
+    /**
+     * The default size in bytes of the blocks that are cached
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+    /**
+     * The default maximum number of bytes that are cached
+     */
+    public static final long DEFAULT_CACHE_SIZE = 16 * 1024 * 1024;
+
+    private final ResourceByteRangeProvider resourceByteRangeProvider;
+    private final int blockSize;
+    private final long cacheSize;
+    private final long resourceSize;
+    private final Object lock = new Object();
+    //blocks in least recently used order, guarded by lock
+    private final LinkedHashMap<Long, byte[]> blocks = new LinkedHashMap<>(16, 0.75f, true);
+    //guarded by lock
+    private long cachedBytes = 0;
+
+    /**
+     * Constructor for a CachingByteRangeProvider with the default block and cache sizes
+     * @param resourceByteRangeProvider the provider of the bytes to cache
+     */
+    public CachingByteRangeProvider(ResourceByteRangeProvider resourceByteRangeProvider)
+    {
+        this(resourceByteRangeProvider, DEFAULT_BLOCK_SIZE, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Constructor for a CachingByteRangeProvider
+     * @param resourceByteRangeProvider the provider of the bytes to cache
+     * @param blockSize the size in bytes of the blocks that are cached
+     * @param cacheSize the maximum number of bytes that are cached, which should be at least the block size
+     */
+    public CachingByteRangeProvider(ResourceByteRangeProvider resourceByteRangeProvider, int blockSize, long cacheSize)
+    {
+        if (blockSize <= 0)
+        {
+            throw new IllegalArgumentException(String.format("blockSize = %d is <= 0", blockSize));
+        }
+        if (cacheSize < blockSize)
+        {
+            throw new IllegalArgumentException(String.format("cacheSize = %d is < blockSize = %d", cacheSize, blockSize));
+        }
+        this.resourceByteRangeProvider = resourceByteRangeProvider;
+        this.blockSize = blockSize;
+        this.cacheSize = cacheSize;
+        this.resourceSize = resourceByteRangeProvider.getResourceSize();
+    }
+
+    /**
+     * A method that returns the size in bytes of the underlying resource
+     * @return the size in bytes of the underlying resource
+     */
+    public long getResourceSize()
+    {
+        return this.resourceSize;
+    }
+
+    /**
+     * A method to obtain bytes in the inclusive range [start, end] as a file
+     *
+     * @param rangeStart zero indexed inclusive start offset; range from [0, (resourceSize -1)] inclusive
+     * @param rangeEnd zero indexed inclusive end offset; range from [0, (resourceSize -1)] inclusive
+     * @param workingDirectory the working directory where the output file is placed
+     * @return file containing desired byte range
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public File getByteRange(long rangeStart, long rangeEnd, File workingDirectory) throws IOException
+    {
+        byte[] bytes = this.getByteRangeAsBytes(rangeStart, rangeEnd);
+        File rangeFile = new File(workingDirectory, "range");
+        try (FileOutputStream fileOutputStream = new FileOutputStream(rangeFile))
+        {
+            fileOutputStream.write(bytes);
+        }
+        return rangeFile;
+    }
+
+    /**
+     * This method provides a way to obtain a byte range from the resource in-memory. A limitation of this method is
+     * that the total size of the byte range request is capped at 0x7fffffff (the maximum value possible for type int
+     * in java)
+     *
+     * @param rangeStart zero indexed inclusive start offset; ranges from 0 through (resourceSize -1) both included
+     * @param rangeEnd zero indexed inclusive end offset; ranges from 0 through (resourceSize -1) both included
+     * @return byte[] containing desired byte range
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public byte[] getByteRangeAsBytes(long rangeStart, long rangeEnd) throws IOException
+    {
+        //validation of range request guarantees that 0 <= rangeStart <= rangeEnd <= (resourceSize - 1)
+        ResourceByteRangeProvider.Utilities.validateRangeRequest(this.resourceSize, rangeStart, rangeEnd);
+        if ((rangeEnd - rangeStart + 1) > Integer.MAX_VALUE)
+        {
+            throw new IOException(String.format("Number of bytes requested = %d is greater than %d", (rangeEnd - rangeStart + 1), Integer.MAX_VALUE));
+        }
+
+        long firstBlock = rangeStart / this.blockSize;
+        long lastBlock = rangeEnd / this.blockSize;
+        if ((lastBlock - firstBlock + 1) * this.blockSize > this.cacheSize)
+        {//the blocks of the range would evict each other
+            return this.resourceByteRangeProvider.getByteRangeAsBytes(rangeStart, rangeEnd);
+        }
+
+        byte[][] rangeBlocks = new byte[(int)(lastBlock - firstBlock + 1)][];
+        synchronized (this.lock)
+        {
+            for (long block = firstBlock; block <= lastBlock; block++)
+            {
+                rangeBlocks[(int)(block - firstBlock)] = this.blocks.get(block);
+            }
+        }
+
+        //consecutive missing blocks are read by a single request
+        int index = 0;
+        while (index < rangeBlocks.length)
+        {
+            if (rangeBlocks[index] != null)
+            {
+                index++;
+                continue;
+            }
+            int missingBlocksEnd = index;
+            while (missingBlocksEnd + 1 < rangeBlocks.length
+                    && rangeBlocks[missingBlocksEnd + 1] == null)
+            {
+                missingBlocksEnd++;
+            }
+            readBlocks(firstBlock + index, firstBlock + missingBlocksEnd, rangeBlocks, index);
+            index = missingBlocksEnd + 1;
+        }
+
+        return this.copyRange(rangeStart, rangeEnd, firstBlock, rangeBlocks);
+    }
+
+    /**
+     * A method to obtain several byte ranges at once, each of them in the inclusive range [start, end], as ByteBuffers. The
+     * blocks that are missing from the cache for all of the ranges are read from the underlying provider by a single
+     * vectored read, where consecutive missing blocks form a single range, and the ranges that are larger than the cache
+     * are read by the same vectored read without being cached
+     *
+     * @param rangeStarts zero indexed inclusive start offsets; range from 0 through (resourceSize -1) both included
+     * @param rangeEnds zero indexed inclusive end offsets, one for every start offset; range from 0 through (resourceSize -1) both included
+     * @return list of ByteBuffers containing the desired byte ranges, in the order of the ranges
+     * @throws IOException - any I/O related error is exposed through an IOException
+     */
+    @Override
+    public List<ByteBuffer> getByteRangesAsByteBuffers(long[] rangeStarts, long[] rangeEnds) throws IOException
+    {
+        if (rangeStarts.length != rangeEnds.length)
+        {
+            throw new IllegalArgumentException(String.format("Number of range starts = %d is different from number of range ends = %d",
+                    rangeStarts.length, rangeEnds.length));
+        }
+
+        //the blocks spanned by the ranges that are served from the cache, in ascending order
+        TreeMap<Long, byte[]> rangesBlocks = new TreeMap<>();
+        boolean[] bypassesCache = new boolean[rangeStarts.length];
+        List<Long> readStarts = new ArrayList<>();
+        List<Long> readEnds = new ArrayList<>();
+        for (int i = 0; i < rangeStarts.length; i++)
+        {
+            ResourceByteRangeProvider.Utilities.validateRangeRequest(this.resourceSize, rangeStarts[i], rangeEnds[i]);
+            if ((rangeEnds[i] - rangeStarts[i] + 1) > Integer.MAX_VALUE)
+            {
+                throw new IOException(String.format("Number of bytes requested = %d is greater than %d", (rangeEnds[i] - rangeStarts[i] + 1), Integer.MAX_VALUE));
+            }
+            long firstBlock = rangeStarts[i] / this.blockSize;
+            long lastBlock = rangeEnds[i] / this.blockSize;
+            bypassesCache[i] = (lastBlock - firstBlock + 1) * this.blockSize > this.cacheSize;
+            if (!bypassesCache[i])
+            {
+                for (long block = firstBlock; block <= lastBlock; block++)
+                {
+                    rangesBlocks.put(block, null);
+                }
+            }
+        }
+        synchronized (this.lock)
+        {
+            for (Map.Entry<Long, byte[]> entry : rangesBlocks.entrySet())
+            {
+                entry.setValue(this.blocks.get(entry.getKey()));
+            }
+        }
+
+        //consecutive missing blocks form a single range
+        List<long[]> missingBlockRuns = new ArrayList<>();
+        for (Map.Entry<Long, byte[]> entry : rangesBlocks.entrySet())
+        {
+            if (entry.getValue() != null)
+            {
+                continue;
+            }
+            long[] lastRun = missingBlockRuns.isEmpty() ? null : missingBlockRuns.get(missingBlockRuns.size() - 1);
+            if (lastRun != null
+                    && lastRun[1] + 1 == entry.getKey())
+            {
+                lastRun[1] = entry.getKey();
+            }
+            else
+            {
+                missingBlockRuns.add(new long[]{entry.getKey(), entry.getKey()});
+            }
+        }
+        for (long[] missingBlockRun : missingBlockRuns)
+        {
+            readStarts.add(missingBlockRun[0] * this.blockSize);
+            readEnds.add(Math.min((missingBlockRun[1] + 1) * this.blockSize, this.resourceSize) - 1);
+        }
+        for (int i = 0; i < rangeStarts.length; i++)
+        {
+            if (bypassesCache[i])
+            {
+                readStarts.add(rangeStarts[i]);
+                readEnds.add(rangeEnds[i]);
+            }
+        }
+
+        List<ByteBuffer> readByteBuffers = new ArrayList<>();
+        if (!readStarts.isEmpty())
+        {
+            long[] starts = new long[readStarts.size()];
+            long[] ends = new long[readEnds.size()];
+            for (int i = 0; i < starts.length; i++)
+            {
+                starts[i] = readStarts.get(i);
+                ends[i] = readEnds.get(i);
+            }
+            readByteBuffers = this.resourceByteRangeProvider.getByteRangesAsByteBuffers(starts, ends);
+        }
+        for (int i = 0; i < missingBlockRuns.size(); i++)
+        {
+            long[] missingBlockRun = missingBlockRuns.get(i);
+            byte[][] runBlocks = this.cacheBlocks(missingBlockRun[0], missingBlockRun[1], readByteBuffers.get(i));
+            for (int j = 0; j < runBlocks.length; j++)
+            {
+                rangesBlocks.put(missingBlockRun[0] + j, runBlocks[j]);
+            }
+        }
+
+        List<ByteBuffer> byteBuffers = new ArrayList<>();
+        int bypassedRangeIndex = missingBlockRuns.size();
+        for (int i = 0; i < rangeStarts.length; i++)
+        {
+            if (bypassesCache[i])
+            {
+                byteBuffers.add(readByteBuffers.get(bypassedRangeIndex++));
+                continue;
+            }
+            long firstBlock = rangeStarts[i] / this.blockSize;
+            long lastBlock = rangeEnds[i] / this.blockSize;
+            byte[][] rangeBlocks = new byte[(int)(lastBlock - firstBlock + 1)][];
+            for (long block = firstBlock; block <= lastBlock; block++)
+            {
+                rangeBlocks[(int)(block - firstBlock)] = rangesBlocks.get(block);
+            }
+            byteBuffers.add(ByteBuffer.wrap(this.copyRange(rangeStarts[i], rangeEnds[i], firstBlock, rangeBlocks)));
+        }
+        return byteBuffers;
+    }
+
+    public InputStream getByteRangeAsStream(long rangeStart, long rangeEnd) throws IOException
+    {
+        byte[] bytes = this.getByteRangeAsBytes(rangeStart, rangeEnd);
+        return new ByteArrayInputStream(bytes);
+    }
+
+    /**
+     * Getter for the number of bytes that are cached
+     * @return the number of bytes that are cached
+     */
+    public long getCachedBytes()
+    {
+        synchronized (this.lock)
+        {
+            return this.cachedBytes;
+        }
+    }
+
+    /**
+     * A method to close the underlying provider, if it holds resources that need to be released
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public void close() throws IOException
+    {
+        synchronized (this.lock)
+        {
+            this.blocks.clear();
+            this.cachedBytes = 0;
+        }
+        if (this.resourceByteRangeProvider instanceof Closeable)
+        {
+            ((Closeable) this.resourceByteRangeProvider).close();
+        }
+    }
+
+    /*
+     * Reads the blocks in the inclusive range [firstBlock, lastBlock] from the underlying provider, caches them and stores
+     * them in rangeBlocks starting at the index
+     */
+    private void readBlocks(long firstBlock, long lastBlock, byte[][] rangeBlocks, int index) throws IOException
+    {
+        long start = firstBlock * this.blockSize;
+        long end = Math.min((lastBlock + 1) * this.blockSize, this.resourceSize) - 1;
+        byte[] bytes = this.resourceByteRangeProvider.getByteRangeAsBytes(start, end);
+
+        byte[][] readBlocks = this.cacheBlocks(firstBlock, lastBlock, ByteBuffer.wrap(bytes));
+        System.arraycopy(readBlocks, 0, rangeBlocks, index, readBlocks.length);
+    }
+
+    /*
+     * Splits the bytes of the blocks in the inclusive range [firstBlock, lastBlock] into blocks, caches them and returns them
+     */
+    private byte[][] cacheBlocks(long firstBlock, long lastBlock, ByteBuffer byteBuffer)
+    {
+        ByteBuffer bytes = byteBuffer.duplicate();
+        byte[][] readBlocks = new byte[(int)(lastBlock - firstBlock + 1)][];
+        for (int i = 0; i < readBlocks.length; i++)
+        {
+            readBlocks[i] = new byte[Math.min(this.blockSize, bytes.remaining())];
+            bytes.get(readBlocks[i]);
+        }
+
+        synchronized (this.lock)
+        {
+            for (long block = firstBlock; block <= lastBlock; block++)
+            {
+                byte[] blockBytes = readBlocks[(int)(block - firstBlock)];
+                byte[] previousBlockBytes = this.blocks.put(block, blockBytes);
+                if (previousBlockBytes != null)
+                {//another thread read the same block concurrently
+                    this.cachedBytes -= previousBlockBytes.length;
+                }
+                this.cachedBytes += blockBytes.length;
+            }
+            Iterator<Map.Entry<Long, byte[]>> iterator = this.blocks.entrySet().iterator();
+            while (this.cachedBytes > this.cacheSize
+                    && iterator.hasNext())
+            {
+                this.cachedBytes -= iterator.next().getValue().length;
+                iterator.remove();
+            }
+        }
+        return readBlocks;
+    }
+
+    /*
+     * Copies the inclusive range [rangeStart, rangeEnd] out of the blocks it spans, the first of which is firstBlock
+     */
+    private byte[] copyRange(long rangeStart, long rangeEnd, long firstBlock, byte[][] rangeBlocks)
+    {
+        byte[] bytes = new byte[(int)(rangeEnd - rangeStart + 1)];
+        int offset = 0;
+        for (int i = 0; i < rangeBlocks.length; i++)
+        {
+            long blockStart = (firstBlock + i) * this.blockSize;
+            int start = (int)(Math.max(rangeStart, blockStart) - blockStart);
+            int end = (int)(Math.min(rangeEnd, blockStart + rangeBlocks[i].length - 1) - blockStart);
+            System.arraycopy(rangeBlocks[i], start, bytes, offset, end - start + 1);
+            offset += end - start + 1;
+        }
+        return bytes;
+    }
+}
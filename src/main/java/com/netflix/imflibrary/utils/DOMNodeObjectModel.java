@@ -27,6 +27,7 @@ import org.w3c.dom.Node;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
@@ -43,19 +44,29 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * A class that implements the logic of representing a DOM Node into a Hierarchical Hash Map
+ * A class that implements the logic of representing a DOM Node into a Hierarchical Hash Map. Two DOMNodeObjectModels are
+ * compared through a structural fingerprint that is computed once and cached, so that comparing, hashing or grouping
+ * DOMNodeObjectModels does not require a deep comparison of their hierarchies.
  */
 public class DOMNodeObjectModel {
     /*See definitions of NodeType in package org.w3c.dom.Node*/
@@ -73,6 +84,9 @@ public class DOMNodeObjectModel {
     private final Map<String, Map<String, Integer>> fieldsLocalNameMap = new HashMap<>();
     private static final Logger logger = LoggerFactory.getLogger(DOMNodeObjectModel.class);
     private final IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl();
+    /*Fingerprints are computed lazily, computing one more than once is harmless since it only depends on the immutable state of this model*/
+    private volatile Fingerprint fingerprint = null;
+    private final ConcurrentMap<Set<String>, Fingerprint> ignoreSetFingerprints = new ConcurrentHashMap<>();
     /**
      * A constructor for the object model of a DOM Node.
      * @param node the DOM Node whose object model is desired.
@@ -182,7 +196,8 @@ public class DOMNodeObjectModel {
                 DOMNodeObjectModel child = entry.getKey().createDOMNodeObjectModelIgnoreSet(entry.getKey(), ignoreSet);
                 if (child.getChildrenDOMNodes().size() > 0
                         || child.getFields().size() > 0) {
-                    childrenDOMNodes.put(child, entry.getValue());
+                    /*children that only differed in ignored elements are now the same child*/
+                    childrenDOMNodes.merge(child, entry.getValue(), Integer::sum);
                 }
             }
         }
@@ -351,6 +366,153 @@ public class DOMNodeObjectModel {
         return imfErrorLogger.getErrors();
     }
 
+    /**
+     * A getter for the structural fingerprint of this DOMNodeObjectModel, 2 DOMNodeObjectModels are equal if and only if
+     * their fingerprints are equal
+     * @return the fingerprint of the node type, local name, fields and children of this DOMNodeObjectModel
+     */
+    public Fingerprint getFingerprint(){
+        Fingerprint fingerprint = this.fingerprint;
+        if(fingerprint == null){
+            fingerprint = computeFingerprint(null);
+            this.fingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    /**
+     * A getter for the structural fingerprint of the DOMNodeObjectModel that would be created by
+     * {@link #createDOMNodeObjectModelIgnoreSet(DOMNodeObjectModel, Set)}, without creating it
+     * @param ignoreSet a non-null, empty or non-empty set of strings representing the local names of the DOM Node elements
+     *                  that should be excluded from the fingerprint
+     * @return the fingerprint of this DOMNodeObjectModel excluding the elements indicated in the ignore set
+     */
+    public Fingerprint getFingerprint(@Nonnull Set<String> ignoreSet){
+        Fingerprint fingerprint = this.ignoreSetFingerprints.get(ignoreSet);
+        if(fingerprint == null){
+            fingerprint = computeFingerprint(ignoreSet);
+            this.ignoreSetFingerprints.put(Collections.unmodifiableSet(new HashSet<>(ignoreSet)), fingerprint);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * A method that determines if 2 DOMNodeObjectModels have the same content, excluding the elements that are set to be ignored
+     * @param other the DOMNodeObjectModel to compare with
+     * @param ignoreSet a non-null, empty or non-empty set of strings representing the local names of the DOM Node elements
+     *                  that should be excluded from the comparison
+     * @return true if {@link #createDOMNodeObjectModelIgnoreSet(DOMNodeObjectModel, Set)} would create 2 equal DOMNodeObjectModels
+     */
+    public boolean equals(@Nonnull DOMNodeObjectModel other, @Nonnull Set<String> ignoreSet){
+        return this.getFingerprint(ignoreSet).equals(other.getFingerprint(ignoreSet));
+    }
+
+    /*
+     * The fingerprint is a digest of a canonical serialization of this model, in which the entries of the fields and children
+     * maps are sorted so that it does not depend on the iteration order of the maps. A null ignore set computes the fingerprint
+     * of this model as is, whereas an ignore set computes the fingerprint of the model that createDOMNodeObjectModelIgnoreSet()
+     * would create.
+     */
+    private Fingerprint computeFingerprint(@Nullable Set<String> ignoreSet){
+        Comparator<DOMNodeElementTuple> domNodeElementTupleComparator = Comparator.comparing(DOMNodeElementTuple::getLocalName)
+                .thenComparing(DOMNodeElementTuple::getNamespaceURI, Comparator.nullsFirst(Comparator.naturalOrder()));
+        Map<DOMNodeElementTuple, Map<String, Integer>> sortedFields = new TreeMap<>(domNodeElementTupleComparator);
+        for(Map.Entry<DOMNodeElementTuple, Map<String, Integer>> entry : this.fields.entrySet()){
+            if(ignoreSet == null
+                    || !ignoreSet.contains(entry.getKey().getLocalName())){
+                sortedFields.put(entry.getKey(), new TreeMap<>(entry.getValue()));
+            }
+        }
+
+        Map<Fingerprint, Integer> sortedChildren = new TreeMap<>();
+        for(Map.Entry<DOMNodeObjectModel, Integer> entry : this.childrenDOMNodes.entrySet()){
+            DOMNodeObjectModel child = entry.getKey();
+            if(ignoreSet == null){
+                sortedChildren.merge(child.getFingerprint(), entry.getValue(), Integer::sum);
+            }
+            else if(!ignoreSet.contains(child.getLocalName())
+                    && !child.isEmpty(ignoreSet)){
+                sortedChildren.merge(child.getFingerprint(ignoreSet), entry.getValue(), Integer::sum);
+            }
+        }
+
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        }
+        catch(NoSuchAlgorithmException e){
+            imfErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.INTERNAL_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.FATAL, e.getMessage());
+            throw new IMFException(e.getMessage(), imfErrorLogger);
+        }
+        updateDigest(messageDigest, this.nodeType);
+        updateDigest(messageDigest, this.localName);
+        updateDigest(messageDigest, sortedFields.size());
+        for(Map.Entry<DOMNodeElementTuple, Map<String, Integer>> entry : sortedFields.entrySet()){
+            updateDigest(messageDigest, entry.getKey().getLocalName());
+            updateDigest(messageDigest, entry.getKey().getNamespaceURI());
+            updateDigest(messageDigest, entry.getValue().size());
+            for(Map.Entry<String, Integer> valueEntry : entry.getValue().entrySet()){
+                updateDigest(messageDigest, valueEntry.getKey());
+                updateDigest(messageDigest, valueEntry.getValue());
+            }
+        }
+        updateDigest(messageDigest, sortedChildren.size());
+        for(Map.Entry<Fingerprint, Integer> entry : sortedChildren.entrySet()){
+            updateDigest(messageDigest, entry.getKey().getMostSignificantBits());
+            updateDigest(messageDigest, entry.getKey().getLeastSignificantBits());
+            updateDigest(messageDigest, entry.getValue());
+        }
+        byte[] digest = messageDigest.digest();
+        long mostSignificantBits = 0;
+        long leastSignificantBits = 0;
+        for(int i = 0; i < 8; i++){
+            mostSignificantBits = (mostSignificantBits << 8) | (digest[i] & 0xff);
+            leastSignificantBits = (leastSignificantBits << 8) | (digest[i + 8] & 0xff);
+        }
+        return new Fingerprint(mostSignificantBits, leastSignificantBits);
+    }
+
+    /*
+     * Determines if the model that createDOMNodeObjectModelIgnoreSet() would create has neither fields nor children, in which
+     * case it is dropped from the children of its parent
+     */
+    private boolean isEmpty(Set<String> ignoreSet){
+        for(DOMNodeElementTuple domNodeElementTuple : this.fields.keySet()){
+            if(!ignoreSet.contains(domNodeElementTuple.getLocalName())){
+                return false;
+            }
+        }
+        for(DOMNodeObjectModel child : this.childrenDOMNodes.keySet()){
+            if(!ignoreSet.contains(child.getLocalName())
+                    && !child.isEmpty(ignoreSet)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void updateDigest(MessageDigest messageDigest, @Nullable String value){
+        if(value == null){
+            updateDigest(messageDigest, -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        updateDigest(messageDigest, bytes.length);
+        messageDigest.update(bytes);
+    }
+
+    private static void updateDigest(MessageDigest messageDigest, int value){
+        for(int shift = 24; shift >= 0; shift -= 8){
+            messageDigest.update((byte)(value >>> shift));
+        }
+    }
+
+    private static void updateDigest(MessageDigest messageDigest, long value){
+        for(int shift = 56; shift >= 0; shift -= 8){
+            messageDigest.update((byte)(value >>> shift));
+        }
+    }
+
     /**
      * A method to compare 2 DOMObjectNodeModel objects to verify if 2 DOM Nodes have the same
      * content.
@@ -367,12 +529,7 @@ public class DOMNodeObjectModel {
 
         DOMNodeObjectModel otherDOMNodeObjectModel = (DOMNodeObjectModel) other;
 
-        if(this.nodeType.equals(otherDOMNodeObjectModel.nodeType) &&
-            this.fields.equals(otherDOMNodeObjectModel.fields) &&
-            this.childrenDOMNodes.equals(otherDOMNodeObjectModel.childrenDOMNodes)) {
-            return true;
-        }
-        return false;
+        return this.getFingerprint().equals(otherDOMNodeObjectModel.getFingerprint());
     }
 
     /**
@@ -381,12 +538,7 @@ public class DOMNodeObjectModel {
      */
     @Override
     public int hashCode(){
-        int hash = 1;
-        hash = hash * 31 + localName.hashCode();
-        hash = hash * 31 + this.nodeType.hashCode();
-        hash = hash * 31 + this.fields.hashCode();
-        hash = hash * 31 + this.childrenDOMNodes.hashCode();
-        return hash;
+        return this.getFingerprint().hashCode();
     }
 
     /**
@@ -532,4 +684,80 @@ public class DOMNodeObjectModel {
         }
     }
 
+    /**
+     * A 128-bit structural fingerprint of a DOMNodeObjectModel
+     */
+    @Immutable
+    public static final class Fingerprint implements Comparable<Fingerprint> {
+        private final long mostSignificantBits;
+        private final long leastSignificantBits;
+
+        private Fingerprint(long mostSignificantBits, long leastSignificantBits){
+            this.mostSignificantBits = mostSignificantBits;
+            this.leastSignificantBits = leastSignificantBits;
+        }
+
+        /**
+         * A getter for the most significant 64 bits of this fingerprint
+         * @return the most significant 64 bits of this fingerprint
+         */
+        public long getMostSignificantBits(){
+            return this.mostSignificantBits;
+        }
+
+        /**
+         * A getter for the least significant 64 bits of this fingerprint
+         * @return the least significant 64 bits of this fingerprint
+         */
+        public long getLeastSignificantBits(){
+            return this.leastSignificantBits;
+        }
+
+        /**
+         * Overriding the equals method of Object to provide a specific implementation for this class
+         * @param other the object to compared with
+         * @return a boolean result of the comparison, true if the passed in object is a Fingerprint with the same bits
+         */
+        @Override
+        public boolean equals(Object other){
+            if(other == null
+                    || other.getClass() != this.getClass()){
+                return false;
+            }
+            Fingerprint otherFingerprint = Fingerprint.class.cast(other);
+            return this.mostSignificantBits == otherFingerprint.mostSignificantBits
+                    && this.leastSignificantBits == otherFingerprint.leastSignificantBits;
+        }
+
+        /**
+         * A Java compliant implementation of the hashCode() method
+         * @return integer containing the hash code corresponding to this object
+         */
+        @Override
+        public int hashCode(){
+            return Long.hashCode(this.mostSignificantBits ^ this.leastSignificantBits);
+        }
+
+        /**
+         * A method that orders fingerprints by their bits
+         * @param other the fingerprint to compare with
+         * @return a negative integer, zero, or a positive integer as this fingerprint is less than, equal to, or greater
+         * than the other fingerprint
+         */
+        @Override
+        public int compareTo(Fingerprint other){
+            int result = Long.compare(this.mostSignificantBits, other.mostSignificantBits);
+            return (result != 0) ? result : Long.compare(this.leastSignificantBits, other.leastSignificantBits);
+        }
+
+        /**
+         * toString() method of Fingerprint
+         * @return a string representing the fingerprint as 32 hexadecimal digits
+         */
+        @Override
+        public String toString(){
+            return String.format("%016x%016x", this.mostSignificantBits, this.leastSignificantBits);
+        }
+    }
+
 }
@@ -0,0 +1,348 @@
+/*
+ *
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.netflix.imflibrary.utils;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A class that caches the digests of files on disk, so that the digests of files that have not changed since they were last
+ * digested, such as the track files of an IMF package that is validated again after its metadata is corrected, need not be
+ * computed again. A digest is keyed by the canonical path of the file, its size, its last modification time, its file key
+ * (the inode on file systems that have one) and the digest algorithm, so that a file that has changed misses the cache.
+ * The cache file is shared safely between processes, since it is merged with its current contents and replaced atomically
+ * under a file lock every time it is flushed. The cache holds at most the maximum number of entries, the least recently
+ * used ones being evicted as digests are added and as the entries flushed by other processes are merged into it. Within a
+ * process, a single instance should be used for a cache file.
+ */
+@ThreadSafe
+public final class DigestCache implements Closeable
+{
+    /**
+     * The default maximum number of digests held in a cache
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 100000;
+
+    private static final String HEADER = "#photon digest cache v1";
+    private static final String SEPARATOR = "\t";
+    private static final int NUM_FIELDS = 7;
+
+    private final File cacheFile;
+    private final File lockFile;
+    private final int maxEntries;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for a DigestCache that holds at most the default maximum number of digests
+     * @param cacheFile the file in which the digests are persisted, which is created when the cache is first flushed
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public DigestCache(File cacheFile) throws IOException
+    {
+        this(cacheFile, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Constructor for a DigestCache
+     * @param cacheFile the file in which the digests are persisted, which is created when the cache is first flushed
+     * @param maxEntries the maximum number of digests held in the cache
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public DigestCache(File cacheFile, int maxEntries) throws IOException
+    {
+        if (maxEntries <= 0)
+        {
+            throw new IllegalArgumentException(String.format("maxEntries = %d is <= 0", maxEntries));
+        }
+        this.cacheFile = cacheFile.getCanonicalFile();
+        this.lockFile = new File(this.cacheFile.getPath() + ".lock");
+        this.maxEntries = maxEntries;
+        this.entries.putAll(read(this.cacheFile));
+        evict();
+    }
+
+    /**
+     * Getter for the cached digest of a file
+     * @param file the file whose digest is to be looked up
+     * @param algorithm the name of the digest algorithm, for e.g. "SHA-1"
+     * @return a byte[] representing the digest of the file, null if the cache does not hold a digest of the file in its current
+     *          state
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    @Nullable
+    public byte[] get(File file, String algorithm) throws IOException
+    {
+        return get(Key.of(file, algorithm));
+    }
+
+    @Nullable
+    byte[] get(Key key)
+    {
+        Entry entry = this.entries.get(key);
+        if (entry == null)
+        {
+            return null;
+        }
+        entry.lastAccessTime = System.currentTimeMillis();
+        return Arrays.copyOf(entry.digest, entry.digest.length);
+    }
+
+    /*
+     * Caches the digest of a file under the key the file had before it was digested, unless the file has changed since
+     */
+    void put(File file, Key key, byte[] digest) throws IOException
+    {
+        if (key.path.indexOf('\n') < 0 && key.path.indexOf('\r') < 0
+                && key.equals(Key.of(file, key.algorithm)))
+        {
+            this.entries.put(key, new Entry(Arrays.copyOf(digest, digest.length), System.currentTimeMillis()));
+            evict();
+        }
+    }
+
+    /*
+     * Evicts the least recently used entries until the cache holds at most the maximum number of entries
+     */
+    private void evict()
+    {
+        while (this.entries.size() > this.maxEntries)
+        {
+            Map.Entry<Key, Entry> leastRecentlyUsedEntry = null;
+            for (Map.Entry<Key, Entry> entry : this.entries.entrySet())
+            {
+                if (leastRecentlyUsedEntry == null
+                        || entry.getValue().lastAccessTime < leastRecentlyUsedEntry.getValue().lastAccessTime)
+                {
+                    leastRecentlyUsedEntry = entry;
+                }
+            }
+            if (leastRecentlyUsedEntry == null)
+            {
+                return;
+            }
+            this.entries.remove(leastRecentlyUsedEntry.getKey(), leastRecentlyUsedEntry.getValue());
+        }
+    }
+
+    /**
+     * Getter for the number of digests held in the cache
+     * @return the number of digests held in the cache
+     */
+    public int size()
+    {
+        return this.entries.size();
+    }
+
+    /**
+     * A method to persist the cache, which is merged with the current contents of the cache file, in case other processes
+     * have flushed digests to it, and then trimmed to the maximum number of entries by evicting the least recently used ones
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public synchronized void flush() throws IOException
+    {
+        try (FileChannel lockChannel = FileChannel.open(this.lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE))
+        {
+            FileLock lock = lockChannel.lock();
+            try
+            {
+                for (Map.Entry<Key, Entry> persistedEntry : read(this.cacheFile).entrySet())
+                {
+                    this.entries.merge(persistedEntry.getKey(), persistedEntry.getValue(),
+                            (entry, otherEntry) -> (entry.lastAccessTime >= otherEntry.lastAccessTime) ? entry : otherEntry);
+                }
+
+                //the access times are snapshotted, since concurrent lookups update them while the entries are sorted
+                List<Map.Entry<Key, Entry>> sortedEntries = new ArrayList<>();
+                for (Map.Entry<Key, Entry> entry : this.entries.entrySet())
+                {
+                    sortedEntries.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(),
+                            new Entry(entry.getValue().digest, entry.getValue().lastAccessTime)));
+                }
+                sortedEntries.sort(Comparator.comparingLong((Map.Entry<Key, Entry> entry) -> entry.getValue().lastAccessTime).reversed());
+                for (Map.Entry<Key, Entry> evictedEntry : sortedEntries.subList(Math.min(this.maxEntries, sortedEntries.size()), sortedEntries.size()))
+                {
+                    this.entries.remove(evictedEntry.getKey());
+                }
+
+                File temporaryFile = Files.createTempFile(this.cacheFile.getParentFile().toPath(), this.cacheFile.getName(), ".tmp").toFile();
+                try
+                {
+                    try (BufferedWriter writer = Files.newBufferedWriter(temporaryFile.toPath(), StandardCharsets.UTF_8))
+                    {
+                        writer.write(HEADER);
+                        writer.newLine();
+                        for (Map.Entry<Key, Entry> entry : sortedEntries.subList(0, Math.min(this.maxEntries, sortedEntries.size())))
+                        {
+                            writer.write(format(entry.getKey(), entry.getValue()));
+                            writer.newLine();
+                        }
+                    }
+                    Files.move(temporaryFile.toPath(), this.cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+                finally
+                {
+                    Files.deleteIfExists(temporaryFile.toPath());
+                }
+            }
+            finally
+            {
+                lock.release();
+            }
+        }
+    }
+
+    /**
+     * A method to flush the cache
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    @Override
+    public void close() throws IOException
+    {
+        flush();
+    }
+
+    private static Map<Key, Entry> read(File cacheFile) throws IOException
+    {
+        Map<Key, Entry> entries = new ConcurrentHashMap<>();
+        if (!cacheFile.exists())
+        {
+            return entries;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(cacheFile.toPath(), StandardCharsets.UTF_8))
+        {
+            String line = reader.readLine();
+            if (!HEADER.equals(line))
+            {//a cache file of an unknown version is discarded
+                return entries;
+            }
+            while ((line = reader.readLine()) != null)
+            {
+                String[] fields = line.split(SEPARATOR, NUM_FIELDS);
+                if (fields.length != NUM_FIELDS)
+                {
+                    continue;
+                }
+                try
+                {
+                    Key key = new Key(fields[6], Long.parseLong(fields[1]), Long.parseLong(fields[2]), fields[3], fields[0]);
+                    entries.put(key, new Entry(Base64.getDecoder().decode(fields[5]), Long.parseLong(fields[4])));
+                }
+                catch (IllegalArgumentException e)
+                {//a corrupted entry is a cache miss
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static String format(Key key, Entry entry)
+    {
+        return String.join(SEPARATOR, key.algorithm, String.valueOf(key.size), String.valueOf(key.lastModifiedTime), key.fileKey,
+                String.valueOf(entry.lastAccessTime), Base64.getEncoder().encodeToString(entry.digest), key.path);
+    }
+
+    /*
+     * The identity of a file in a given state, under which its digest is cached
+     */
+    static final class Key
+    {
+        private final String path;
+        private final long size;
+        private final long lastModifiedTime;
+        private final String fileKey;
+        private final String algorithm;
+
+        private Key(String path, long size, long lastModifiedTime, String fileKey, String algorithm)
+        {
+            this.path = path;
+            this.size = size;
+            this.lastModifiedTime = lastModifiedTime;
+            this.fileKey = fileKey;
+            this.algorithm = algorithm;
+        }
+
+        static Key of(File file, String algorithm) throws IOException
+        {
+            File canonicalFile = file.getCanonicalFile();
+            BasicFileAttributes attributes = Files.readAttributes(canonicalFile.toPath(), BasicFileAttributes.class);
+            Object fileKey = attributes.fileKey();
+            return new Key(canonicalFile.getPath(), attributes.size(), attributes.lastModifiedTime().to(TimeUnit.MICROSECONDS),
+                    (fileKey != null) ? fileKey.toString().replace(SEPARATOR, " ") : "", algorithm);
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            if (this == other)
+            {
+                return true;
+            }
+            if (other == null || this.getClass() != other.getClass())
+            {
+                return false;
+            }
+            Key otherKey = (Key) other;
+            return this.size == otherKey.size
+                    && this.lastModifiedTime == otherKey.lastModifiedTime
+                    && this.path.equals(otherKey.path)
+                    && this.fileKey.equals(otherKey.fileKey)
+                    && this.algorithm.equals(otherKey.algorithm);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(this.path, this.size, this.lastModifiedTime, this.fileKey, this.algorithm);
+        }
+    }
+
+    private static final class Entry
+    {
+        private final byte[] digest;
+        private volatile long lastAccessTime;
+
+        private Entry(byte[] digest, long lastAccessTime)
+        {
+            this.digest = digest;
+            this.lastAccessTime = lastAccessTime;
+        }
+    }
+}
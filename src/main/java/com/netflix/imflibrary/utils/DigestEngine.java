@@ -0,0 +1,365 @@
+/*
+ *
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.netflix.imflibrary.utils;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A class that computes the digest of a resource, such as the SHA-1 hash of an asset of an IMF package, in a single pass
+ * over the resource. The resource is read in large buffers, through a single open channel in the case of a file, or
+ * through ranges aligned on multiples of the buffer size in the case of a {@link ResourceByteRangeProvider}, so that the
+ * cost of digesting a resource is proportional to its size. Every digest reports the number of bytes digested and the
+ * throughput at which they were digested.
+ */
+@ThreadSafe
+public final class DigestEngine
+{
+    /**
+     * The name of the SHA-1 algorithm, which is the hash algorithm of IMF packages
+     */
+    public static final String SHA1_ALGORITHM = "SHA-1";
+    /**
+     * The default size in bytes of the buffers in which a resource is read
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    private static final Map<String, String> hashAlgorithmURIToAlgorithm = Collections.unmodifiableMap(new HashMap<String, String>(){{
+        put("http://www.w3.org/2000/09/xmldsig#sha1", SHA1_ALGORITHM);
+        put("http://www.w3.org/2001/04/xmlenc#sha256", "SHA-256");
+        put("http://www.w3.org/2001/04/xmldsig-more#sha384", "SHA-384");
+        put("http://www.w3.org/2001/04/xmlenc#sha512", "SHA-512");
+    }});
+
+    private final String algorithm;
+    private final int bufferSize;
+    @Nullable
+    private final DigestCache digestCache;
+
+    /**
+     * Constructor for a DigestEngine that reads resources in buffers of the default size
+     * @param algorithm the name of the digest algorithm, for e.g. "SHA-1"
+     * @throws NoSuchAlgorithmException - if no Provider supports a MessageDigestSpi implementation for the
+     *          specified algorithm.
+     */
+    public DigestEngine(String algorithm) throws NoSuchAlgorithmException
+    {
+        this(algorithm, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor for a DigestEngine
+     * @param algorithm the name of the digest algorithm, for e.g. "SHA-1"
+     * @param bufferSize the size in bytes of the buffers in which resources are read
+     * @throws NoSuchAlgorithmException - if no Provider supports a MessageDigestSpi implementation for the
+     *          specified algorithm.
+     */
+    public DigestEngine(String algorithm, int bufferSize) throws NoSuchAlgorithmException
+    {
+        this(algorithm, bufferSize, null);
+    }
+
+    /**
+     * Constructor for a DigestEngine that reads resources in buffers of the default size, and that looks up the digests of
+     * files in a cache before computing them
+     * @param algorithm the name of the digest algorithm, for e.g. "SHA-1"
+     * @param digestCache the cache of the digests of files, null if there is none
+     * @throws NoSuchAlgorithmException - if no Provider supports a MessageDigestSpi implementation for the
+     *          specified algorithm.
+     */
+    public DigestEngine(String algorithm, @Nullable DigestCache digestCache) throws NoSuchAlgorithmException
+    {
+        this(algorithm, DEFAULT_BUFFER_SIZE, digestCache);
+    }
+
+    /**
+     * Constructor for a DigestEngine
+     * @param algorithm the name of the digest algorithm, for e.g. "SHA-1"
+     * @param bufferSize the size in bytes of the buffers in which resources are read
+     * @param digestCache the cache of the digests of files, which is consulted before a file is digested and updated after,
+     *                    null if there is none
+     * @throws NoSuchAlgorithmException - if no Provider supports a MessageDigestSpi implementation for the
+     *          specified algorithm.
+     */
+    public DigestEngine(String algorithm, int bufferSize, @Nullable DigestCache digestCache) throws NoSuchAlgorithmException
+    {
+        if (bufferSize <= 0)
+        {
+            throw new IllegalArgumentException(String.format("bufferSize = %d is <= 0", bufferSize));
+        }
+        //fail early if the algorithm is not supported
+        MessageDigest.getInstance(algorithm);
+        this.algorithm = algorithm;
+        this.bufferSize = bufferSize;
+        this.digestCache = digestCache;
+    }
+
+    /**
+     * A method to compute the digest of a file, which is read through a single open channel unless its digest is cached
+     * @param file the file whose digest is to be computed
+     * @return the digest of the file
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public Digest digest(File file) throws IOException
+    {
+        long startTime = System.nanoTime();
+        if (this.digestCache == null)
+        {
+            return digestFile(file, startTime);
+        }
+        DigestCache.Key key = DigestCache.Key.of(file, this.algorithm);
+        byte[] cachedDigest = this.digestCache.get(key);
+        if (cachedDigest != null)
+        {
+            return new Digest(cachedDigest, 0L, System.nanoTime() - startTime, true);
+        }
+        Digest digest = digestFile(file, startTime);
+        this.digestCache.put(file, key, digest.digest);
+        return digest;
+    }
+
+    private Digest digestFile(File file, long startTime) throws IOException
+    {
+        MessageDigest messageDigest = newMessageDigest();
+        long numBytesDigested = 0;
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            ByteBuffer byteBuffer = ByteBuffer.allocate(this.bufferSize);
+            while (fileChannel.read(byteBuffer) != -1)
+            {
+                byteBuffer.flip();
+                numBytesDigested += byteBuffer.remaining();
+                messageDigest.update(byteBuffer);
+                byteBuffer.clear();
+            }
+        }
+        return new Digest(messageDigest.digest(), numBytesDigested, System.nanoTime() - startTime, false);
+    }
+
+    /**
+     * A method to copy a file and compute its digest in a single pass, every buffer read from the source file is digested and
+     * then written to the destination file, so that the source file is read only once
+     * @param source the file to be copied and whose digest is to be computed
+     * @param destination the file to copy to, which is replaced if it exists, the source file is only digested if it is the
+     *                    same file
+     * @return the digest of the source file
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public Digest digestAndCopy(File source, File destination) throws IOException
+    {
+        if (destination.exists() && Files.isSameFile(source.toPath(), destination.toPath()))
+        {//truncating the destination would destroy the source
+            return digest(source);
+        }
+        DigestCache.Key key = (this.digestCache != null) ? DigestCache.Key.of(source, this.algorithm) : null;
+        MessageDigest messageDigest = newMessageDigest();
+        long startTime = System.nanoTime();
+        long numBytesDigested = 0;
+        try (FileChannel sourceChannel = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+             FileChannel destinationChannel = FileChannel.open(destination.toPath(), StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        {
+            ByteBuffer byteBuffer = ByteBuffer.allocate(this.bufferSize);
+            while (sourceChannel.read(byteBuffer) != -1)
+            {
+                byteBuffer.flip();
+                numBytesDigested += byteBuffer.remaining();
+                messageDigest.update(byteBuffer.array(), byteBuffer.position(), byteBuffer.remaining());
+                while (byteBuffer.hasRemaining())
+                {
+                    destinationChannel.write(byteBuffer);
+                }
+                byteBuffer.clear();
+            }
+        }
+        Digest digest = new Digest(messageDigest.digest(), numBytesDigested, System.nanoTime() - startTime, false);
+        if (this.digestCache != null)
+        {//the source file has to be read to be copied, but its digest is cached for the next time it is only digested
+            this.digestCache.put(source, key, digest.digest);
+        }
+        return digest;
+    }
+
+    /**
+     * A method to compute the digest of a resource, which is read in ranges of the buffer size
+     * @param resourceByteRangeProvider representing the resource whose digest is to be computed
+     * @return the digest of the resource
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public Digest digest(ResourceByteRangeProvider resourceByteRangeProvider) throws IOException
+    {
+        MessageDigest messageDigest = newMessageDigest();
+        long startTime = System.nanoTime();
+        long resourceSize = resourceByteRangeProvider.getResourceSize();
+        long numBytesDigested = 0;
+        for (long rangeStart = 0; rangeStart < resourceSize; rangeStart += this.bufferSize)
+        {
+            long rangeEnd = Math.min(rangeStart + this.bufferSize, resourceSize) - 1;
+            ByteBuffer byteBuffer = resourceByteRangeProvider.getByteRangeAsByteBuffer(rangeStart, rangeEnd);
+            numBytesDigested += byteBuffer.remaining();
+            messageDigest.update(byteBuffer);
+        }
+        return new Digest(messageDigest.digest(), numBytesDigested, System.nanoTime() - startTime, false);
+    }
+
+    /**
+     * A method to compute the digest of the bytes of a stream, which is read until its end but not closed
+     * @param inputStream the stream whose digest is to be computed
+     * @return the digest of the bytes of the stream
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public Digest digest(InputStream inputStream) throws IOException
+    {
+        MessageDigest messageDigest = newMessageDigest();
+        long startTime = System.nanoTime();
+        long numBytesDigested = 0;
+        byte[] bytes = new byte[this.bufferSize];
+        int numBytesRead;
+        while ((numBytesRead = inputStream.read(bytes)) != -1)
+        {
+            messageDigest.update(bytes, 0, numBytesRead);
+            numBytesDigested += numBytesRead;
+        }
+        return new Digest(messageDigest.digest(), numBytesDigested, System.nanoTime() - startTime, false);
+    }
+
+    /**
+     * A method to look up the name of the digest algorithm identified by a hash algorithm URI, such as the Algorithm attribute
+     * of the HashAlgorithm element of a PackingList asset
+     * @param hashAlgorithmURI the URI of the hash algorithm, for e.g. "http://www.w3.org/2000/09/xmldsig#sha1"
+     * @return the name of the digest algorithm, for e.g. "SHA-1", null if the URI does not identify a supported algorithm
+     */
+    @Nullable
+    public static String getAlgorithm(String hashAlgorithmURI)
+    {
+        return hashAlgorithmURIToAlgorithm.get(hashAlgorithmURI);
+    }
+
+    /**
+     * Getter for the name of the digest algorithm
+     * @return the name of the digest algorithm
+     */
+    public String getAlgorithm()
+    {
+        return this.algorithm;
+    }
+
+    private MessageDigest newMessageDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance(this.algorithm);
+        }
+        catch (NoSuchAlgorithmException e)
+        {//the algorithm is validated when the engine is constructed
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The digest of a resource, along with the number of bytes digested and the time it took to digest them
+     */
+    @Immutable
+    public static final class Digest
+    {
+        private static final long NANOSECONDS_PER_SECOND = 1000000000L;
+
+        private final byte[] digest;
+        private final long numBytesDigested;
+        private final long elapsedNanoseconds;
+        private final boolean cached;
+
+        private Digest(byte[] digest, long numBytesDigested, long elapsedNanoseconds, boolean cached)
+        {
+            this.digest = Arrays.copyOf(digest, digest.length);
+            this.numBytesDigested = numBytesDigested;
+            this.elapsedNanoseconds = elapsedNanoseconds;
+            this.cached = cached;
+        }
+
+        /**
+         * Getter for the digest
+         * @return a byte[] representing the digest
+         */
+        public byte[] getDigest()
+        {
+            return Arrays.copyOf(this.digest, this.digest.length);
+        }
+
+        /**
+         * Getter for the Base64 encoding of the digest, which is how digests are represented in IMF documents
+         * @return the Base64 encoded digest
+         */
+        public String getBase64EncodedDigest()
+        {
+            return Base64.getEncoder().encodeToString(this.digest);
+        }
+
+        /**
+         * Getter for the number of bytes digested
+         * @return the number of bytes digested
+         */
+        public long getNumBytesDigested()
+        {
+            return this.numBytesDigested;
+        }
+
+        /**
+         * Getter for the time it took to digest the resource
+         * @return the elapsed time in nanoseconds
+         */
+        public long getElapsedNanoseconds()
+        {
+            return this.elapsedNanoseconds;
+        }
+
+        /**
+         * Getter for whether the digest was found in a {@link DigestCache}, in which case no bytes were digested
+         * @return true if the digest was found in a cache
+         */
+        public boolean isCached()
+        {
+            return this.cached;
+        }
+
+        /**
+         * Getter for the throughput at which the resource was digested
+         * @return the number of bytes digested per second
+         */
+        public double getBytesPerSecond()
+        {
+            return (double)this.numBytesDigested * NANOSECONDS_PER_SECOND / Math.max(this.elapsedNanoseconds, 1L);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ *
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.netflix.imflibrary.utils;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class is an implementation of {@link com.netflix.imflibrary.utils.ResourceByteRangeProvider} - the underlying
+ * resource is a file that is kept open for the lifetime of this object. Every range request is served by a positional
+ * read on a single {@link java.nio.channels.FileChannel}, so that the cost of a request is proportional to the size of
+ * the range rather than to its offset within the file. Positional reads do not modify the position of the channel,
+ * which makes this implementation safe for use by concurrent callers. A FileChannel is closed when a thread blocked on it
+ * is interrupted, in which case the interrupted caller fails and the file is reopened for the other callers, unless this
+ * object was closed. Callers should close this object once they are done reading from the file.
+ */
+@ThreadSafe
+public final class FileChannelByteRangeProvider implements ResourceByteRangeProvider, Closeable
+{
+    private final File resourceFile;
+    private volatile FileChannel fileChannel;
+    private volatile boolean closed = false;
+    private final long fileSize;
+
+    /**
+     * Constructor for a FileChannelByteRangeProvider
+     * @param resourceFile whose data will be read by this data provider
+     * @throws IOException - any I/O related error opening the file will be exposed through an IOException
+     */
+    public FileChannelByteRangeProvider(File resourceFile) throws IOException
+    {
+        this.resourceFile = resourceFile;
+        this.fileChannel = FileChannel.open(this.resourceFile.toPath(), StandardOpenOption.READ);
+        this.fileSize = this.fileChannel.size();
+    }
+
+    /**
+     * A method that returns the size in bytes of the underlying resource, in this case a File
+     * @return the size in bytes of the underlying resource, in this case a File
+     */
+    public long getResourceSize()
+    {
+        return this.fileSize;
+    }
+
+    /**
+     * A method to obtain bytes in the inclusive range [start, endOfFile] as a file
+     *
+     * @param rangeStart zero indexed inclusive start offset; ranges from 0 through (resourceSize -1) both included
+     * @param workingDirectory the working directory where the output file is placed
+     * @return file containing desired byte range from rangeStart through end of file
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public File getByteRange(long rangeStart, File workingDirectory) throws IOException
+    {
+        return this.getByteRange(rangeStart, this.fileSize - 1, workingDirectory);
+    }
+
+    /**
+     * A method to obtain bytes in the inclusive range [start, end] as a file
+     *
+     * @param rangeStart zero indexed inclusive start offset; range from [0, (resourceSize -1)] inclusive
+     * @param rangeEnd zero indexed inclusive end offset; range from [0, (resourceSize -1)] inclusive
+     * @param workingDirectory the working directory where the output file is placed
+     * @return file containing desired byte range
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public File getByteRange(long rangeStart, long rangeEnd, File workingDirectory) throws IOException
+    {
+        //validation of range request guarantees that 0 <= rangeStart <= rangeEnd <= (resourceSize - 1)
+        ResourceByteRangeProvider.Utilities.validateRangeRequest(this.fileSize, rangeStart, rangeEnd);
+
+        File rangeFile = new File(workingDirectory, "range");
+
+        try(FileOutputStream fileOutputStream = new FileOutputStream(rangeFile);
+            FileChannel outputChannel = fileOutputStream.getChannel())
+        {
+            long totalNumBytesToTransfer = rangeEnd - rangeStart + 1;
+            long totalNumBytesTransferred = 0;
+            FileChannel fileChannel = this.fileChannel;
+            while (totalNumBytesTransferred < totalNumBytesToTransfer)
+            {
+                long numBytesTransferred;
+                try
+                {
+                    numBytesTransferred = fileChannel.transferTo(rangeStart + totalNumBytesTransferred,
+                            totalNumBytesToTransfer - totalNumBytesTransferred, outputChannel);
+                }
+                catch (ClosedByInterruptException e)
+                {
+                    throw e;
+                }
+                catch (ClosedChannelException e)
+                {
+                    fileChannel = this.reopenFileChannel(fileChannel);
+                    continue;
+                }
+                if (numBytesTransferred <= 0)
+                {
+                    throw new EOFException(String.format("Tried to transfer %d bytes from %s, which ended after transferring %d bytes",
+                            totalNumBytesToTransfer, this.resourceFile.getName(), totalNumBytesTransferred));
+                }
+                totalNumBytesTransferred += numBytesTransferred;
+            }
+        }
+
+        return rangeFile;
+    }
+
+    /**
+     * This method provides a way to obtain a byte range from the resource in-memory. A limitation of this method is
+     * that the total size of the byte range request is capped at 0x7fffffff (the maximum value possible for type int
+     * in java)
+     *
+     * @param rangeStart zero indexed inclusive start offset; ranges from 0 through (resourceSize -1) both included
+     * @param rangeEnd zero indexed inclusive end offset; ranges from 0 through (resourceSize -1) both included
+     * @return byte[] containing desired byte range
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public byte[] getByteRangeAsBytes(long rangeStart, long rangeEnd) throws IOException
+    {
+        //validation of range request guarantees that 0 <= rangeStart <= rangeEnd <= (resourceSize - 1)
+        ResourceByteRangeProvider.Utilities.validateRangeRequest(this.fileSize, rangeStart, rangeEnd);
+        if((rangeEnd - rangeStart + 1) > Integer.MAX_VALUE){
+            throw new IOException(String.format("Number of bytes requested = %d is greater than %d", (rangeEnd - rangeStart + 1), Integer.MAX_VALUE));
+        }
+
+        int totalNumBytesToRead = (int)(rangeEnd - rangeStart + 1);
+        byte[] bytes = new byte[totalNumBytesToRead];
+        ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+        FileChannel fileChannel = this.fileChannel;
+        while (byteBuffer.hasRemaining())
+        {
+            int numBytesRead;
+            try
+            {
+                numBytesRead = fileChannel.read(byteBuffer, rangeStart + byteBuffer.position());
+            }
+            catch (ClosedByInterruptException e)
+            {
+                throw e;
+            }
+            catch (ClosedChannelException e)
+            {//the channel was closed by the interrupt of another caller, bytes that were read into the buffer remain valid
+                fileChannel = this.reopenFileChannel(fileChannel);
+                continue;
+            }
+            if (numBytesRead == -1)
+            {
+                throw new EOFException(String.format("Tried to read %d bytes from %s, which ended after reading %d bytes",
+                        totalNumBytesToRead, this.resourceFile.getName(), byteBuffer.position()));
+            }
+        }
+
+        return bytes;
+    }
+
+    public InputStream getByteRangeAsStream(long rangeStart, long rangeEnd) throws IOException {
+        byte[] bytes = this.getByteRangeAsBytes(rangeStart, rangeEnd);
+        return new ByteArrayInputStream(bytes);
+    }
+
+    /**
+     * A method to release the file handle held by this object
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public synchronized void close() throws IOException
+    {
+        this.closed = true;
+        this.fileChannel.close();
+    }
+
+    private synchronized FileChannel reopenFileChannel(FileChannel closedFileChannel) throws IOException
+    {
+        if (this.closed)
+        {
+            throw new ClosedChannelException();
+        }
+        if (this.fileChannel == closedFileChannel)
+        {//another caller may already have reopened the file
+            this.fileChannel = FileChannel.open(this.resourceFile.toPath(), StandardOpenOption.READ);
+        }
+        return this.fileChannel;
+    }
+}
@@ -19,18 +19,31 @@
 package com.netflix.imflibrary.utils;
 
 import javax.annotation.concurrent.NotThreadSafe;
-import java.io.*;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.StandardOpenOption;
 
 /**
  * This class is an non-thread-safe implementation of {@link com.netflix.imflibrary.utils.ByteProvider}. The underlying input
  * sequence of bytes is sourced from a file. While this implementation could be enhanced to make it thread-safe, it is
- * difficult to envision an application scenario where an input stream could be shared meaningfully among multiple callers
+ * difficult to envision an application scenario where an input stream could be shared meaningfully among multiple callers.
+ * The file is opened on first access and kept open until this object is closed, reads are served from a sliding buffer
+ * so that a sequence of small reads and skips costs a bounded number of reads on the underlying channel.
  */
 @NotThreadSafe
-public final class FileDataProvider implements ByteProvider {
+public final class FileDataProvider implements ByteProvider, Closeable {
+
+    static final int BUFFER_SIZE = 65536;
 
     private final File inputFile;
-    private Long position = 0L;
+    private SeekableByteChannel channel;
+    private final boolean isSharedChannel; //a shared channel is read by position and is not closed by this object
+    private final ByteBuffer buffer;
+    private long bufferPosition = 0L; //position in the file corresponding to the start of the buffer
 
     /**
      * Instantiates a new FileDataProvider object
@@ -40,6 +53,46 @@ public final class FileDataProvider implements ByteProvider {
     public FileDataProvider(File file)
     {
         this.inputFile = file;
+        this.channel = null;
+        this.isSharedChannel = false;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.buffer.limit(0);
+    }
+
+    /**
+     * Instantiates a new FileDataProvider object that reads from an already open channel, starting at its current position
+     *
+     * @param channel the input channel
+     * @param bufferSize the size in bytes of the read buffer
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    FileDataProvider(SeekableByteChannel channel, int bufferSize) throws IOException
+    {
+        this.inputFile = null;
+        this.channel = channel;
+        this.isSharedChannel = false;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.limit(0);
+        this.bufferPosition = channel.position();
+    }
+
+    /**
+     * Instantiates a new FileDataProvider object that reads from a channel shared with other readers, starting at a given
+     * position. The channel is read with positional reads, which leave its position unchanged, and it is not closed when
+     * this object is closed
+     *
+     * @param fileChannel the input channel
+     * @param position the position in the file of the first byte to be read
+     * @param bufferSize the size in bytes of the read buffer
+     */
+    FileDataProvider(FileChannel fileChannel, long position, int bufferSize)
+    {
+        this.inputFile = null;
+        this.channel = fileChannel;
+        this.isSharedChannel = true;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.limit(0);
+        this.bufferPosition = position;
     }
 
     /**
@@ -55,25 +108,85 @@ public final class FileDataProvider implements ByteProvider {
             throw new IOException(String.format("Cannot read %d bytes, should be non-negative and non-zero", totalNumBytesToRead));
         }
         byte[] bytes = new byte[totalNumBytesToRead];
-        Integer bytesRead = 0;
-        Integer totalBytesRead = 0;
-        try(BufferedInputStream inputStream = new BufferedInputStream(new FileInputStream(this.inputFile))) {
-            skipBytes(inputStream, this.position); //reach current position
-            while (bytesRead != -1
-                    && totalBytesRead < totalNumBytesToRead) {
-                bytesRead = inputStream.read(bytes, totalBytesRead, totalNumBytesToRead - totalBytesRead);
-                if (bytesRead != -1) {
-                    totalBytesRead += bytesRead;
-                }
+        int totalBytesRead = Math.min(totalNumBytesToRead, this.buffer.remaining());
+        this.buffer.get(bytes, 0, totalBytesRead);
+
+        if (totalBytesRead < totalNumBytesToRead)
+        {
+            if (totalNumBytesToRead - totalBytesRead >= this.buffer.capacity())
+            {//large reads bypass the buffer
+                long position = this.getPosition();
+                ByteBuffer byteBuffer = ByteBuffer.wrap(bytes, totalBytesRead, totalNumBytesToRead - totalBytesRead);
+                this.readFully(position, byteBuffer);
+                this.bufferPosition = position + (byteBuffer.position() - totalBytesRead);
+                this.buffer.limit(0);
+                totalBytesRead = byteBuffer.position();
+            }
+            else
+            {
+                this.fillBuffer();
+                int numBytesToCopy = Math.min(totalNumBytesToRead - totalBytesRead, this.buffer.remaining());
+                this.buffer.get(bytes, totalBytesRead, numBytesToCopy);
+                totalBytesRead += numBytesToCopy;
             }
         }
+
         if(totalBytesRead < totalNumBytesToRead) {
             throw new IOException(String.format("Could not read %d bytes of data, only read %d bytes of data, possible truncated data", totalNumBytesToRead, totalBytesRead));
         }
-        this.position += totalBytesRead;
         return bytes;
     }
 
+    /**
+     * A method that reads the next totalNumBytesToRead bytes from the file into an existing array
+     *
+     * @param bytes the array that the bytes are read into
+     * @param offset the zero-indexed position in the array of the first byte read
+     * @param totalNumBytesToRead the total num bytes to read
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    @Override
+    public void getBytes(byte[] bytes, int offset, int totalNumBytesToRead) throws IOException
+    {
+        if (totalNumBytesToRead <= this.buffer.capacity())
+        {
+            this.ensureBuffered(totalNumBytesToRead);
+            this.buffer.get(bytes, offset, totalNumBytesToRead);
+        }
+        else
+        {
+            System.arraycopy(this.getBytes(totalNumBytesToRead), 0, bytes, offset, totalNumBytesToRead);
+        }
+    }
+
+    @Override
+    public int getUnsignedByte() throws IOException
+    {
+        this.ensureBuffered(1);
+        return this.buffer.get() & 0xff;
+    }
+
+    @Override
+    public int getUnsignedShort() throws IOException
+    {
+        this.ensureBuffered(2);
+        return this.buffer.getShort() & 0xffff;
+    }
+
+    @Override
+    public long getUnsignedInt() throws IOException
+    {
+        this.ensureBuffered(4);
+        return this.buffer.getInt() & 0xffffffffL;
+    }
+
+    @Override
+    public long getLong() throws IOException
+    {
+        this.ensureBuffered(8);
+        return this.buffer.getLong();
+    }
+
     /**
      * A method that lets the caller skip bytes in the encapsulated resource in this case a file
      *
@@ -82,27 +195,93 @@ public final class FileDataProvider implements ByteProvider {
      */
     public void skipBytes(long totalNumBytesToSkip) throws IOException
     {
-        try(BufferedInputStream inputStream = new BufferedInputStream(new FileInputStream(this.inputFile)))
+        if(totalNumBytesToSkip < 0){
+            throw new IOException(String.format("Cannot skip %d bytes, should be non-negative", totalNumBytesToSkip));
+        }
+        if (totalNumBytesToSkip <= this.buffer.remaining())
+        {
+            this.buffer.position(this.buffer.position() + (int)totalNumBytesToSkip);
+        }
+        else
+        {//skipping past the buffered bytes does not require any I/O, the buffer is refilled on the next read
+            this.bufferPosition = this.getPosition() + totalNumBytesToSkip;
+            this.buffer.limit(0);
+        }
+    }
+
+    /**
+     * A method to release the file handle held by this object
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public void close() throws IOException
+    {
+        if (this.channel != null && !this.isSharedChannel)
+        {
+            this.channel.close();
+        }
+    }
+
+    private long getPosition()
+    {
+        return this.bufferPosition + this.buffer.position();
+    }
+
+    private void ensureBuffered(int totalNumBytesToRead) throws IOException
+    {
+        if (totalNumBytesToRead < 0){
+            throw new IOException(String.format("Cannot read %d bytes, should be non-negative and non-zero", totalNumBytesToRead));
+        }
+        if (this.buffer.remaining() < totalNumBytesToRead)
         {
-            skipBytes(inputStream, this.position + totalNumBytesToSkip);
-            this.position += totalNumBytesToSkip;
+            this.fillBuffer();
+            if (this.buffer.remaining() < totalNumBytesToRead)
+            {
+                throw new IOException(String.format("Could not read %d bytes of data, only read %d bytes of data, possible truncated data", totalNumBytesToRead, this.buffer.remaining()));
+            }
         }
     }
 
-    private void skipBytes(InputStream inputStream, long totalNumBytesToSkip) throws IOException
+    private void fillBuffer() throws IOException
     {
-        long bytesSkipped = 0;
-        long totalBytesSkipped = 0;
-        while ((bytesSkipped != -1) && (totalBytesSkipped < totalNumBytesToSkip))
+        long position = this.getPosition();
+        this.buffer.clear();
+        this.readFully(position, this.buffer);
+        this.buffer.flip();
+        this.bufferPosition = position;
+    }
+
+    private void readFully(long position, ByteBuffer byteBuffer) throws IOException
+    {
+        if (this.isSharedChannel)
         {
-            bytesSkipped = inputStream.skip(totalNumBytesToSkip - totalBytesSkipped);
+            FileChannel fileChannel = (FileChannel) this.channel;
+            int startPosition = byteBuffer.position();
+            while (byteBuffer.hasRemaining())
             {
-                totalBytesSkipped += bytesSkipped;
+                if (fileChannel.read(byteBuffer, position + byteBuffer.position() - startPosition) == -1)
+                {
+                    break;
+                }
             }
+            return;
         }
-        if(totalBytesSkipped != totalNumBytesToSkip){
-            throw new IOException(String.format("Could not skip %d bytes of data, possible truncated data", totalNumBytesToSkip));
+        SeekableByteChannel seekableByteChannel = this.getChannel();
+        seekableByteChannel.position(position);
+        while (byteBuffer.hasRemaining())
+        {
+            if (seekableByteChannel.read(byteBuffer) == -1)
+            {
+                break;
+            }
         }
+    }
 
+    private SeekableByteChannel getChannel() throws IOException
+    {
+        if (this.channel == null)
+        {
+            this.channel = FileChannel.open(this.inputFile.toPath(), StandardOpenOption.READ);
+        }
+        return this.channel;
     }
 }
@@ -0,0 +1,583 @@
+/*
+ *
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.netflix.imflibrary.utils;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This class is an implementation of {@link com.netflix.imflibrary.utils.ResourceByteRangeProvider} - the underlying
+ * resource is served over HTTP, for e.g. by an object store, and every range request is served by HTTP requests carrying
+ * a Range header. Connections are reused across requests through the keep-alive cache of {@link java.net.HttpURLConnection},
+ * which requires every response to be read completely. A range that is larger than the chunk size is split into
+ * requests for chunks that are aligned on multiples of the chunk size, which are fetched in parallel on an executor if
+ * one is provided. Concurrent requests for the same range, or for the same chunk of overlapping ranges, are coalesced
+ * into a single HTTP request. The small ranges of a vectored read that overlap or lie close to each other are merged into
+ * a single HTTP request, as long as the merged range fits in a chunk. This implementation is safe for use by concurrent
+ * callers.
+ */
+@ThreadSafe
+public final class HttpByteRangeProvider implements ResourceByteRangeProvider
+{
+    /**
+     * The default size in bytes of the chunks in which large ranges are fetched
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+    private static final int CONNECT_TIMEOUT_MILLISECONDS = 30000;
+    private static final int READ_TIMEOUT_MILLISECONDS = 60000;
+    private static final int BUFFER_SIZE = 8192;
+    //the largest number of bytes between two ranges of a vectored read that are fetched by a single request
+    private static final int MAX_MERGED_RANGES_GAP = 64 * 1024;
+    private static final Pattern CONTENT_RANGE_PATTERN = Pattern.compile("^bytes\\s+(\\d+)-(\\d+)/(\\d+|\\*)$");
+    private static final Pattern UNSATISFIED_CONTENT_RANGE_PATTERN = Pattern.compile("^bytes\\s+\\*/(\\d+)$");
+
+    private final URL resourceURL;
+    @Nullable
+    private final ExecutorService executorService;
+    private final int chunkSize;
+    private final long resourceSize;
+    private final ConcurrentMap<Range, FetchTask> inFlightFetches = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for an HttpByteRangeProvider that fetches ranges on the calling thread
+     * @param resourceURL the HTTP or HTTPS URL of the resource
+     * @throws IOException - any I/O related error in obtaining the size of the resource will be exposed through an IOException
+     */
+    public HttpByteRangeProvider(URL resourceURL) throws IOException
+    {
+        this(resourceURL, null, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor for an HttpByteRangeProvider
+     * @param resourceURL the HTTP or HTTPS URL of the resource
+     * @param executorService the executor on which the chunks of large ranges are fetched in parallel, null to fetch them
+     *                        one after the other on the calling thread. The calling thread fetches chunks as well, so that
+     *                        a request does not wait on the executor if all of its threads are busy
+     * @param chunkSize the size in bytes of the chunks in which ranges larger than it are fetched
+     * @throws IOException - any I/O related error in obtaining the size of the resource will be exposed through an IOException
+     */
+    public HttpByteRangeProvider(URL resourceURL, @Nullable ExecutorService executorService, int chunkSize) throws IOException
+    {
+        if (!resourceURL.getProtocol().equalsIgnoreCase("http")
+                && !resourceURL.getProtocol().equalsIgnoreCase("https"))
+        {
+            throw new IllegalArgumentException(String.format("URL %s is not an HTTP URL", resourceURL));
+        }
+        if (chunkSize <= 0)
+        {
+            throw new IllegalArgumentException(String.format("chunkSize = %d is <= 0", chunkSize));
+        }
+        this.resourceURL = resourceURL;
+        this.executorService = executorService;
+        this.chunkSize = chunkSize;
+        this.resourceSize = fetchResourceSize();
+    }
+
+    /**
+     * A method that returns the size in bytes of the underlying resource
+     * @return the size in bytes of the underlying resource
+     */
+    public long getResourceSize()
+    {
+        return this.resourceSize;
+    }
+
+    /**
+     * A method to obtain bytes in the inclusive range [start, end] as a file
+     *
+     * @param rangeStart zero indexed inclusive start offset; range from [0, (resourceSize -1)] inclusive
+     * @param rangeEnd zero indexed inclusive end offset; range from [0, (resourceSize -1)] inclusive
+     * @param workingDirectory the working directory where the output file is placed
+     * @return file containing desired byte range
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public File getByteRange(long rangeStart, long rangeEnd, File workingDirectory) throws IOException
+    {
+        byte[] bytes = this.getByteRangeAsBytes(rangeStart, rangeEnd);
+        File rangeFile = new File(workingDirectory, "range");
+        try (FileOutputStream fileOutputStream = new FileOutputStream(rangeFile))
+        {
+            fileOutputStream.write(bytes);
+        }
+        return rangeFile;
+    }
+
+    /**
+     * This method provides a way to obtain a byte range from the resource in-memory. A limitation of this method is
+     * that the total size of the byte range request is capped at 0x7fffffff (the maximum value possible for type int
+     * in java)
+     *
+     * @param rangeStart zero indexed inclusive start offset; ranges from 0 through (resourceSize -1) both included
+     * @param rangeEnd zero indexed inclusive end offset; ranges from 0 through (resourceSize -1) both included
+     * @return byte[] containing desired byte range
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public byte[] getByteRangeAsBytes(long rangeStart, long rangeEnd) throws IOException
+    {
+        //validation of range request guarantees that 0 <= rangeStart <= rangeEnd <= (resourceSize - 1)
+        ResourceByteRangeProvider.Utilities.validateRangeRequest(this.resourceSize, rangeStart, rangeEnd);
+        if ((rangeEnd - rangeStart + 1) > Integer.MAX_VALUE)
+        {
+            throw new IOException(String.format("Number of bytes requested = %d is greater than %d", (rangeEnd - rangeStart + 1), Integer.MAX_VALUE));
+        }
+
+        if ((rangeEnd - rangeStart + 1) <= this.chunkSize)
+        {
+            //the bytes of a coalesced request are shared with other callers, which may modify their copy
+            return runFetchTasks(Collections.singletonList(getFetchTask(new Range(rangeStart, rangeEnd)))).get(0).clone();
+        }
+
+        List<Range> chunks = new ArrayList<>();
+        long chunkStart = rangeStart;
+        while (chunkStart <= rangeEnd)
+        {
+            //chunks are aligned on multiples of the chunk size, so that overlapping ranges share chunks
+            long chunkEnd = Math.min(((chunkStart / this.chunkSize) + 1) * this.chunkSize - 1, rangeEnd);
+            chunks.add(new Range(chunkStart, chunkEnd));
+            chunkStart = chunkEnd + 1;
+        }
+        List<FetchTask> fetchTasks = new ArrayList<>();
+        for (Range chunk : chunks)
+        {
+            fetchTasks.add(getFetchTask(chunk));
+        }
+
+        List<byte[]> chunksBytes = runFetchTasks(fetchTasks);
+        byte[] bytes = new byte[(int)(rangeEnd - rangeStart + 1)];
+        int offset = 0;
+        for (byte[] chunkBytes : chunksBytes)
+        {
+            System.arraycopy(chunkBytes, 0, bytes, offset, chunkBytes.length);
+            offset += chunkBytes.length;
+        }
+        return bytes;
+    }
+
+    public InputStream getByteRangeAsStream(long rangeStart, long rangeEnd) throws IOException
+    {
+        byte[] bytes = this.getByteRangeAsBytes(rangeStart, rangeEnd);
+        return new ByteArrayInputStream(bytes);
+    }
+
+    /**
+     * A method to obtain several byte ranges at once as ByteBuffers. The ranges that are not larger than the chunk size are
+     * merged with the ranges that overlap them or lie within a short distance of them, as long as the merged range is not
+     * larger than the chunk size either, and the merged ranges are fetched in parallel on the executor, if there is one, so
+     * that they cost a single round trip
+     *
+     * @param rangeStarts zero indexed inclusive start offsets; range from 0 through (resourceSize -1) both included
+     * @param rangeEnds zero indexed inclusive end offsets, one for every start offset; range from 0 through (resourceSize -1) both included
+     * @return list of ByteBuffers containing the desired byte ranges, in the order of the ranges
+     * @throws IOException - any I/O related error is exposed through an IOException
+     */
+    @Override
+    public List<ByteBuffer> getByteRangesAsByteBuffers(long[] rangeStarts, long[] rangeEnds) throws IOException
+    {
+        if (rangeStarts.length != rangeEnds.length)
+        {
+            throw new IllegalArgumentException(String.format("Number of range starts = %d is different from number of range ends = %d",
+                    rangeStarts.length, rangeEnds.length));
+        }
+        List<Integer> smallRanges = new ArrayList<>();
+        for (int i = 0; i < rangeStarts.length; i++)
+        {
+            ResourceByteRangeProvider.Utilities.validateRangeRequest(this.resourceSize, rangeStarts[i], rangeEnds[i]);
+            if ((rangeEnds[i] - rangeStarts[i] + 1) <= this.chunkSize)
+            {
+                smallRanges.add(i);
+            }
+        }
+
+        //the small ranges are merged in the order of their start offsets
+        smallRanges.sort(Comparator.comparingLong(i -> rangeStarts[i]));
+        List<long[]> mergedRanges = new ArrayList<>();
+        int[] mergedRangeIndices = new int[rangeStarts.length];
+        for (int i : smallRanges)
+        {
+            long[] lastMergedRange = mergedRanges.isEmpty() ? null : mergedRanges.get(mergedRanges.size() - 1);
+            if (lastMergedRange != null
+                    && rangeStarts[i] <= lastMergedRange[1] + MAX_MERGED_RANGES_GAP + 1
+                    && Math.max(lastMergedRange[1], rangeEnds[i]) - lastMergedRange[0] + 1 <= this.chunkSize)
+            {
+                lastMergedRange[1] = Math.max(lastMergedRange[1], rangeEnds[i]);
+            }
+            else
+            {
+                mergedRanges.add(new long[]{rangeStarts[i], rangeEnds[i]});
+            }
+            mergedRangeIndices[i] = mergedRanges.size() - 1;
+        }
+        List<FetchTask> fetchTasks = new ArrayList<>();
+        for (long[] mergedRange : mergedRanges)
+        {
+            fetchTasks.add(getFetchTask(new Range(mergedRange[0], mergedRange[1])));
+        }
+        List<byte[]> fetchedBytes = runFetchTasks(fetchTasks);
+
+        List<ByteBuffer> byteBuffers = new ArrayList<>();
+        for (int i = 0; i < rangeStarts.length; i++)
+        {
+            if ((rangeEnds[i] - rangeStarts[i] + 1) <= this.chunkSize)
+            {//the bytes of a coalesced request are shared with other callers, which may modify their copy
+                long mergedRangeStart = mergedRanges.get(mergedRangeIndices[i])[0];
+                byteBuffers.add(ByteBuffer.wrap(Arrays.copyOfRange(fetchedBytes.get(mergedRangeIndices[i]),
+                        (int)(rangeStarts[i] - mergedRangeStart), (int)(rangeEnds[i] - mergedRangeStart + 1))));
+            }
+            else
+            {
+                byteBuffers.add(ByteBuffer.wrap(this.getByteRangeAsBytes(rangeStarts[i], rangeEnds[i])));
+            }
+        }
+        return byteBuffers;
+    }
+
+    /*
+     * Returns the task fetching a range, which is shared with the concurrent callers requesting the same range
+     */
+    private FetchTask getFetchTask(Range range)
+    {
+        FetchTask fetchTask = new FetchTask(range);
+        FetchTask inFlightFetchTask = this.inFlightFetches.putIfAbsent(range, fetchTask);
+        return (inFlightFetchTask != null) ? inFlightFetchTask : fetchTask;
+    }
+
+    /*
+     * Runs the tasks and returns their results in the order of the tasks. The tasks are submitted to the executor, if there
+     * is one, and the calling thread runs every task that no other thread has started yet
+     */
+    private List<byte[]> runFetchTasks(List<FetchTask> fetchTasks) throws IOException
+    {
+        if (this.executorService != null
+                && fetchTasks.size() > 1)
+        {
+            //the first task is run by the calling thread
+            for (FetchTask fetchTask : fetchTasks.subList(1, fetchTasks.size()))
+            {
+                try
+                {
+                    this.executorService.execute(fetchTask);
+                }
+                catch (RejectedExecutionException e)
+                {
+                    //the calling thread runs the task
+                    break;
+                }
+            }
+        }
+
+        List<byte[]> results = new ArrayList<>();
+        try
+        {
+            for (FetchTask fetchTask : fetchTasks)
+            {
+                //running a task that was already started by another thread is a no-op
+                fetchTask.run();
+            }
+            for (FetchTask fetchTask : fetchTasks)
+            {
+                results.add(fetchTask.get());
+            }
+            return results;
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+            {
+                throw new IOException(cause.getMessage(), cause);
+            }
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("Interrupted while fetching a range of %s", this.resourceURL));
+        }
+    }
+
+    private long fetchResourceSize() throws IOException
+    {
+        HttpURLConnection connection = openConnection(new Range(0, 0));
+        try
+        {
+            if (connection.getResponseCode() == HttpURLConnection.HTTP_PARTIAL)
+            {
+                long[] contentRange = parseContentRange(connection);
+                if (contentRange[2] < 0)
+                {
+                    throw new IOException(String.format("The size of %s is unknown, Content-Range = %s",
+                            this.resourceURL, connection.getHeaderField("Content-Range")));
+                }
+                readBody(connection, (int)(contentRange[1] - contentRange[0] + 1));
+                return contentRange[2];
+            }
+            if (connection.getResponseCode() == 416)
+            {//Range Not Satisfiable, which is the response for an empty resource
+                long[] contentRange = parseContentRange(connection);
+                discardErrorBody(connection);
+                return contentRange[2];
+            }
+            discardErrorBody(connection);
+            throw new IOException(String.format("Server for %s does not support range requests, HTTP response code = %d",
+                    this.resourceURL, connection.getResponseCode()));
+        }
+        catch (IOException e)
+        {
+            connection.disconnect();
+            throw e;
+        }
+    }
+
+    private byte[] fetchRange(Range range) throws IOException
+    {
+        HttpURLConnection connection = openConnection(range);
+        try
+        {
+            int responseCode = connection.getResponseCode();
+            int size = (int)(range.end - range.start + 1);
+            if (responseCode == HttpURLConnection.HTTP_PARTIAL)
+            {
+                long[] contentRange = parseContentRange(connection);
+                if (contentRange[0] != range.start
+                        || contentRange[1] != range.end)
+                {
+                    discardBody(connection);
+                    throw new IOException(String.format("Requested bytes %d-%d of %s, received Content-Range = %s",
+                            range.start, range.end, this.resourceURL, connection.getHeaderField("Content-Range")));
+                }
+                return readBody(connection, size);
+            }
+            if (responseCode == HttpURLConnection.HTTP_OK
+                    && range.start == 0
+                    && range.end == this.resourceSize - 1)
+            {//a server may respond with the whole resource to a range request covering all of it
+                return readBody(connection, size);
+            }
+            discardErrorBody(connection);
+            throw new IOException(String.format("Failed to fetch bytes %d-%d of %s, HTTP response code = %d",
+                    range.start, range.end, this.resourceURL, responseCode));
+        }
+        catch (IOException e)
+        {
+            connection.disconnect();
+            throw e;
+        }
+    }
+
+    private HttpURLConnection openConnection(Range range) throws IOException
+    {
+        URLConnection urlConnection = this.resourceURL.openConnection();
+        if (!(urlConnection instanceof HttpURLConnection))
+        {
+            throw new IOException(String.format("URL %s did not open an HTTP connection", this.resourceURL));
+        }
+        HttpURLConnection connection = (HttpURLConnection) urlConnection;
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLISECONDS);
+        connection.setReadTimeout(READ_TIMEOUT_MILLISECONDS);
+        connection.setUseCaches(false);
+        //the content is not decoded by HttpURLConnection, so that byte offsets refer to the resource itself
+        connection.setRequestProperty("Accept-Encoding", "identity");
+        connection.setRequestProperty("Range", String.format("bytes=%d-%d", range.start, range.end));
+        return connection;
+    }
+
+    /*
+     * Returns the first byte offset, the last byte offset and the size of the resource, -1 if unknown, of a Content-Range header
+     */
+    private long[] parseContentRange(HttpURLConnection connection) throws IOException
+    {
+        String contentRange = connection.getHeaderField("Content-Range");
+        if (contentRange != null)
+        {
+            Matcher matcher = CONTENT_RANGE_PATTERN.matcher(contentRange.trim());
+            if (matcher.matches())
+            {
+                return new long[]{Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)),
+                        matcher.group(3).equals("*") ? -1L : Long.parseLong(matcher.group(3))};
+            }
+            Matcher unsatisfiedMatcher = UNSATISFIED_CONTENT_RANGE_PATTERN.matcher(contentRange.trim());
+            if (unsatisfiedMatcher.matches())
+            {
+                return new long[]{-1L, -1L, Long.parseLong(unsatisfiedMatcher.group(1))};
+            }
+        }
+        discardBody(connection);
+        throw new IOException(String.format("Invalid Content-Range = %s in the response for %s", contentRange, this.resourceURL));
+    }
+
+    /*
+     * Reads the body of a response completely, so that the connection is returned to the keep-alive cache
+     */
+    private byte[] readBody(HttpURLConnection connection, int size) throws IOException
+    {
+        byte[] bytes = new byte[size];
+        try (InputStream inputStream = connection.getInputStream())
+        {
+            int offset = 0;
+            while (offset < size)
+            {
+                int numBytesRead = inputStream.read(bytes, offset, size - offset);
+                if (numBytesRead == -1)
+                {
+                    throw new EOFException(String.format("Tried to read %d bytes from %s, which ended after reading %d bytes",
+                            size, this.resourceURL, offset));
+                }
+                offset += numBytesRead;
+            }
+            if (inputStream.read() != -1)
+            {
+                throw new IOException(String.format("The response for %s is larger than the %d bytes requested", this.resourceURL, size));
+            }
+        }
+        return bytes;
+    }
+
+    private void discardBody(HttpURLConnection connection) throws IOException
+    {
+        try (InputStream inputStream = connection.getInputStream())
+        {
+            drain(inputStream);
+        }
+    }
+
+    private void discardErrorBody(HttpURLConnection connection) throws IOException
+    {
+        InputStream errorStream = connection.getErrorStream();
+        if (errorStream == null)
+        {
+            discardBody(connection);
+            return;
+        }
+        try (InputStream inputStream = errorStream)
+        {
+            drain(inputStream);
+        }
+    }
+
+    private static void drain(InputStream inputStream) throws IOException
+    {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        while (inputStream.read(buffer) != -1)
+        {
+            //discard the bytes
+        }
+    }
+
+    /*
+     * An inclusive range of bytes, which identifies an HTTP request
+     */
+    private static final class Range
+    {
+        private final long start;
+        private final long end;
+
+        private Range(long start, long end)
+        {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            if (!(other instanceof Range))
+            {
+                return false;
+            }
+            Range otherRange = (Range) other;
+            return this.start == otherRange.start && this.end == otherRange.end;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * Long.hashCode(this.start) + Long.hashCode(this.end);
+        }
+    }
+
+    /*
+     * The fetch of a range, which stops being shared with new callers once it is done
+     */
+    private final class FetchTask extends FutureTask<byte[]>
+    {
+        private final Range range;
+
+        private FetchTask(Range range)
+        {
+            super(new RangeFetch(range));
+            this.range = range;
+        }
+
+        @Override
+        protected void done()
+        {
+            HttpByteRangeProvider.this.inFlightFetches.remove(this.range, this);
+        }
+    }
+
+    private final class RangeFetch implements Callable<byte[]>
+    {
+        private final Range range;
+
+        private RangeFetch(Range range)
+        {
+            this.range = range;
+        }
+
+        @Override
+        public byte[] call() throws IOException
+        {
+            return fetchRange(this.range);
+        }
+    }
+}
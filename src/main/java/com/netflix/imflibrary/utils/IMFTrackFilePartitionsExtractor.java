@@ -1,15 +1,11 @@
 package com.netflix.imflibrary.utils;
 
-import com.netflix.imflibrary.exceptions.MXFException;
 import com.netflix.imflibrary.st0377.RandomIndexPack;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.List;
 
 /**
@@ -24,29 +20,7 @@ public class IMFTrackFilePartitionsExtractor {
 
         //Code to extract the HeaderPartition and write to a file
         ResourceByteRangeProvider resourceByteRangeProvider = new FileByteRangeProvider(input);
-        Long archiveFileSize = resourceByteRangeProvider.getResourceSize();
-        Long randomIndexPackSize;
-        {//logic to provide as an input stream the portion of the archive that contains randomIndexPack size
-            long rangeEnd = archiveFileSize - 1;
-            long rangeStart = archiveFileSize - 4;
-
-            File fileWithRandomIndexPackSize = resourceByteRangeProvider.getByteRange(rangeStart, rangeEnd, workingDirectory);
-            byte[] bytes = Files.readAllBytes(Paths.get(fileWithRandomIndexPackSize.toURI()));
-            randomIndexPackSize = (long)(ByteBuffer.wrap(bytes).getInt());
-        }
-
-        RandomIndexPack randomIndexPack;
-        //logic to provide as an input stream the portion of the archive that contains randomIndexPack
-        long rangeEnd = archiveFileSize - 1;
-        long rangeStart = archiveFileSize - randomIndexPackSize;
-        if (rangeStart < 0) {
-            throw new MXFException(String.format("randomIndexPackSize = %d obtained from last 4 bytes of the MXF file is larger than archiveFile size = %d, implying that this file does not contain a RandomIndexPack",
-                    randomIndexPackSize, archiveFileSize));
-        }
-
-        File fileWithRandomIndexPack = resourceByteRangeProvider.getByteRange(rangeStart, rangeEnd, workingDirectory);
-        ByteProvider byteProvider = new FileDataProvider(fileWithRandomIndexPack);
-        randomIndexPack = new RandomIndexPack(byteProvider, rangeStart, randomIndexPackSize);
+        RandomIndexPack randomIndexPack = new MXFBootstrapReader(resourceByteRangeProvider).getRandomIndexPack();
         List<Long> partitionByteOffsets = randomIndexPack.getAllPartitionByteOffsets();
 
         File headerPartition = resourceByteRangeProvider.getByteRange(partitionByteOffsets.get(0), partitionByteOffsets.get(1) - 1, workingDirectory);
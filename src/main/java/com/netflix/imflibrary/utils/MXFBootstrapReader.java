@@ -0,0 +1,306 @@
+/*
+ *
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.netflix.imflibrary.utils;
+
+import com.netflix.imflibrary.KLVPacket;
+import com.netflix.imflibrary.exceptions.MXFException;
+import com.netflix.imflibrary.st0377.PartitionPack;
+import com.netflix.imflibrary.st0377.RandomIndexPack;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * A reader of the structures of an MXF file that are needed to locate its partitions, i.e. the random index pack and the
+ * partition packs, which reads them in as few requests as possible. Locating them one structure at a time takes a read
+ * for the size of the random index pack, another one for the random index pack, and two reads for every partition pack,
+ * which is costly when the file is served by a high latency {@link com.netflix.imflibrary.utils.ResourceByteRangeProvider}.
+ * Instead, this reader speculatively reads a window at the end of the file, which usually contains the random index pack
+ * and the footer partition pack, and then reads a speculative range for every other partition pack through a single
+ * vectored read, where overlapping ranges are coalesced. A partition pack that does not fit in its speculative range is
+ * read on its own.
+ */
+@ThreadSafe
+public final class MXFBootstrapReader
+{
+    /**
+     * The default size in bytes of the window at the end of the file that is read speculatively
+     */
+    public static final int DEFAULT_TAIL_WINDOW_SIZE = 64 * 1024;
+    /**
+     * The number of bytes that are read speculatively for every partition pack, which accommodates a partition pack
+     * listing several essence containers, and the KLV header following it
+     */
+    static final int PARTITION_PACK_READ_SIZE = 1024;
+    private static final int RANDOM_INDEX_PACK_SIZE_FIELD_SIZE = 4;
+
+    private final ResourceByteRangeProvider resourceByteRangeProvider;
+    private final long resourceSize;
+    private final long tailWindowStart;
+    private final ByteBuffer tailWindow;
+    private final int partitionPackReadSize;
+
+    /**
+     * Constructor for an MXFBootstrapReader that reads a window of the default size at the end of the file
+     * @param resourceByteRangeProvider the MXF file represented as a {@link com.netflix.imflibrary.utils.ResourceByteRangeProvider}
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public MXFBootstrapReader(ResourceByteRangeProvider resourceByteRangeProvider) throws IOException
+    {
+        this(resourceByteRangeProvider, DEFAULT_TAIL_WINDOW_SIZE);
+    }
+
+    /**
+     * Constructor for an MXFBootstrapReader, which reads the window at the end of the file
+     * @param resourceByteRangeProvider the MXF file represented as a {@link com.netflix.imflibrary.utils.ResourceByteRangeProvider}
+     * @param tailWindowSize the size in bytes of the window at the end of the file that is read speculatively
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public MXFBootstrapReader(ResourceByteRangeProvider resourceByteRangeProvider, int tailWindowSize) throws IOException
+    {
+        this(resourceByteRangeProvider, tailWindowSize, PARTITION_PACK_READ_SIZE);
+    }
+
+    MXFBootstrapReader(ResourceByteRangeProvider resourceByteRangeProvider, int tailWindowSize, int partitionPackReadSize) throws IOException
+    {
+        if (tailWindowSize < RANDOM_INDEX_PACK_SIZE_FIELD_SIZE)
+        {
+            throw new IllegalArgumentException(String.format("tailWindowSize = %d is < %d", tailWindowSize, RANDOM_INDEX_PACK_SIZE_FIELD_SIZE));
+        }
+        this.resourceByteRangeProvider = resourceByteRangeProvider;
+        this.partitionPackReadSize = partitionPackReadSize;
+        this.resourceSize = resourceByteRangeProvider.getResourceSize();
+        //the file should at least contain the size of the random index pack
+        ResourceByteRangeProvider.Utilities.validateRangeRequest(this.resourceSize, this.resourceSize - RANDOM_INDEX_PACK_SIZE_FIELD_SIZE, this.resourceSize - 1);
+        this.tailWindowStart = Math.max(0, this.resourceSize - tailWindowSize);
+        this.tailWindow = resourceByteRangeProvider.getByteRangeAsByteBuffer(this.tailWindowStart, this.resourceSize - 1).slice();
+    }
+
+    /**
+     * Getter for the size of the random index pack, as recorded in the last 4 bytes of the file
+     * @return the size of the random index pack
+     */
+    public long getRandomIndexPackSize()
+    {
+        return (long)this.tailWindow.getInt((int)(this.resourceSize - RANDOM_INDEX_PACK_SIZE_FIELD_SIZE - this.tailWindowStart));
+    }
+
+    /**
+     * Getter for the random index pack, which is read from the window at the end of the file if it fits in it
+     * @return the random index pack of the file
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public RandomIndexPack getRandomIndexPack() throws IOException
+    {
+        long randomIndexPackSize = getRandomIndexPackSize();
+        long rangeEnd = this.resourceSize - 1;
+        long rangeStart = this.resourceSize - randomIndexPackSize;
+        if (rangeStart < 0)
+        {
+            throw new MXFException(String.format("randomIndexPackSize = %d obtained from last 4 bytes of the MXF file is larger than archiveFile size = %d, implying that this file does not contain a RandomIndexPack",
+                    randomIndexPackSize, this.resourceSize));
+        }
+
+        return new RandomIndexPack(getByteProvider(rangeStart, rangeEnd), rangeStart, randomIndexPackSize);
+    }
+
+    /**
+     * A method to obtain bytes in the inclusive range [start, end], which are not read again if they lie in the window at
+     * the end of the file
+     * @param rangeStart zero indexed inclusive start offset; ranges from 0 through (resourceSize -1) both included
+     * @param rangeEnd zero indexed inclusive end offset; ranges from 0 through (resourceSize -1) both included
+     * @return ByteProvider for the desired byte range
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public ByteProvider getByteProvider(long rangeStart, long rangeEnd) throws IOException
+    {
+        //validation of range request guarantees that 0 <= rangeStart <= rangeEnd <= (resourceSize - 1)
+        ResourceByteRangeProvider.Utilities.validateRangeRequest(this.resourceSize, rangeStart, rangeEnd);
+        if (rangeStart >= this.tailWindowStart)
+        {
+            return new ByteBufferDataProvider(slice(this.tailWindow, this.tailWindowStart, rangeStart, rangeEnd));
+        }
+        return this.resourceByteRangeProvider.getByteRangeAsByteProvider(rangeStart, rangeEnd);
+    }
+
+    /**
+     * Getter for the partition packs at a list of byte offsets, for e.g. the ones listed by the random index pack. The
+     * partition packs that are not in the window at the end of the file are read through a single vectored read, and the
+     * few that do not fit in their speculative range through a second one, so that the number of requests does not depend
+     * on the number of partitions
+     * @param partitionByteOffsets the byte offsets of the partition packs
+     * @return the partition packs, in the order of the byte offsets
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public List<PartitionPack> getPartitionPacks(List<Long> partitionByteOffsets) throws IOException
+    {
+        //plan a speculative range for every partition pack that is not in the window, coalescing overlapping ranges
+        List<long[]> plannedRanges = new ArrayList<>();
+        for (long offset : new TreeSet<>(partitionByteOffsets))
+        {
+            if (offset < 0
+                    || offset >= this.tailWindowStart)
+            {
+                continue;
+            }
+            addRange(plannedRanges, offset, Math.min(offset + this.partitionPackReadSize - 1, this.resourceSize - 1));
+        }
+        PlannedReads plannedReads = read(plannedRanges);
+
+        //the range of a partition pack and the next KLV header is known once its KLV header is read
+        Map<Long, Long> partitionPackRangeEnds = new HashMap<>();
+        List<long[]> overflowRanges = new ArrayList<>();
+        for (long offset : new TreeSet<>(partitionByteOffsets))
+        {
+            long rangeEnd = getPartitionPackRangeEnd(plannedReads, offset);
+            partitionPackRangeEnds.put(offset, rangeEnd);
+            if (offset >= 0
+                    && offset < this.tailWindowStart
+                    && plannedReads.get(offset, rangeEnd) == null)
+            {
+                addRange(overflowRanges, offset, rangeEnd);
+            }
+        }
+        PlannedReads overflowReads = read(overflowRanges);
+
+        List<PartitionPack> partitionPacks = new ArrayList<>();
+        for (long offset : partitionByteOffsets)
+        {
+            //the portion of the archive that contains a PartitionPack and next KLV header
+            long rangeEnd = partitionPackRangeEnds.get(offset);
+            ByteBuffer byteBuffer = plannedReads.get(offset, rangeEnd);
+            if (byteBuffer == null)
+            {
+                byteBuffer = overflowReads.get(offset, rangeEnd);
+            }
+            ByteProvider byteProvider = (byteBuffer != null) ? new ByteBufferDataProvider(byteBuffer) : getByteProvider(offset, rangeEnd);
+            partitionPacks.add(new PartitionPack(byteProvider, offset, true));
+        }
+        return partitionPacks;
+    }
+
+    private long getPartitionPackRangeEnd(PlannedReads plannedReads, long offset) throws IOException
+    {
+        KLVPacket.Header header;
+        {//the portion of the archive that contains the PartitionPack KLV Header
+            long rangeEnd = offset +
+                    (KLVPacket.KEY_FIELD_SIZE + KLVPacket.LENGTH_FIELD_SUFFIX_MAX_SIZE) -1;
+            rangeEnd = rangeEnd < (this.resourceSize - 1) ? rangeEnd : (this.resourceSize - 1);
+
+            ByteBuffer byteBuffer = plannedReads.get(offset, rangeEnd);
+            header = new KLVPacket.Header((byteBuffer != null) ? new ByteBufferDataProvider(byteBuffer) : getByteProvider(offset, rangeEnd), offset);
+        }
+
+        long rangeEnd = offset +
+                (KLVPacket.KEY_FIELD_SIZE + header.getLSize() + header.getVSize()) +
+                (KLVPacket.KEY_FIELD_SIZE + KLVPacket.LENGTH_FIELD_SUFFIX_MAX_SIZE) +
+                -1;
+        return rangeEnd < (this.resourceSize - 1) ? rangeEnd : (this.resourceSize - 1);
+    }
+
+    /*
+     * Adds a range to a list of ranges sorted by their start, merging it with the last range if they overlap or are adjacent
+     */
+    private static void addRange(List<long[]> ranges, long rangeStart, long rangeEnd)
+    {
+        long[] lastRange = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+        if (lastRange != null
+                && rangeStart <= lastRange[1] + 1)
+        {
+            lastRange[1] = Math.max(lastRange[1], rangeEnd);
+        }
+        else
+        {
+            ranges.add(new long[]{rangeStart, rangeEnd});
+        }
+    }
+
+    private PlannedReads read(List<long[]> ranges) throws IOException
+    {
+        long[] rangeStarts = new long[ranges.size()];
+        long[] rangeEnds = new long[ranges.size()];
+        for (int i = 0; i < ranges.size(); i++)
+        {
+            rangeStarts[i] = ranges.get(i)[0];
+            rangeEnds[i] = ranges.get(i)[1];
+        }
+        List<ByteBuffer> byteBuffers = new ArrayList<>();
+        if (ranges.size() > 0)
+        {
+            for (ByteBuffer byteBuffer : this.resourceByteRangeProvider.getByteRangesAsByteBuffers(rangeStarts, rangeEnds))
+            {
+                byteBuffers.add(byteBuffer.slice());
+            }
+        }
+        return new PlannedReads(rangeStarts, rangeEnds, byteBuffers);
+    }
+
+    /*
+     * The ranges read through a vectored read, which are sorted and disjoint so that the one containing a given range is
+     * found through a binary search
+     */
+    private static final class PlannedReads
+    {
+        private final long[] rangeStarts;
+        private final long[] rangeEnds;
+        private final List<ByteBuffer> byteBuffers;
+
+        private PlannedReads(long[] rangeStarts, long[] rangeEnds, List<ByteBuffer> byteBuffers)
+        {
+            this.rangeStarts = rangeStarts;
+            this.rangeEnds = rangeEnds;
+            this.byteBuffers = byteBuffers;
+        }
+
+        @Nullable
+        private ByteBuffer get(long rangeStart, long rangeEnd)
+        {
+            if (rangeStart > rangeEnd)
+            {
+                return null;
+            }
+            int index = Arrays.binarySearch(this.rangeStarts, rangeStart);
+            //otherwise the range starts in the preceding planned range, if any
+            index = (index >= 0) ? index : -index - 2;
+            if (index < 0
+                    || rangeEnd > this.rangeEnds[index])
+            {
+                return null;
+            }
+            return slice(this.byteBuffers.get(index), this.rangeStarts[index], rangeStart, rangeEnd);
+        }
+    }
+
+    private static ByteBuffer slice(ByteBuffer byteBuffer, long byteBufferStart, long rangeStart, long rangeEnd)
+    {
+        ByteBuffer duplicate = byteBuffer.duplicate();
+        int position = (int)(rangeStart - byteBufferStart);
+        duplicate.limit(position + (int)(rangeEnd - rangeStart + 1));
+        duplicate.position(position);
+        return duplicate.slice();
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ *
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.netflix.imflibrary.utils;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class is an implementation of {@link com.netflix.imflibrary.utils.ResourceByteRangeProvider} - the underlying
+ * resource is a local file that is memory-mapped in read-only {@link java.nio.MappedByteBuffer} segments. Since a single
+ * mapping cannot exceed 2 GB, segments start every {@value #SEGMENT_STRIDE} bytes and each of them extends up to
+ * Integer.MAX_VALUE bytes, so any range of up to {@value #SEGMENT_STRIDE} bytes lies entirely within one segment and is
+ * exposed by {@link #getByteRangeAsByteBuffer(long, long)} and {@link #getByteRangeAsByteProvider(long, long)} as a
+ * slice of the mapping, without copying. Larger ranges are copied. Segments are mapped on first use, which keeps the
+ * footprint of a large file in the address space limited to the regions that are actually read.
+ *
+ * Mappings are released by the garbage collector once this object and all the slices handed out by it are unreachable,
+ * closing this object only releases the file handle.
+ */
+@ThreadSafe
+public final class MappedResourceByteRangeProvider implements ResourceByteRangeProvider, Closeable
+{
+    private static final long SEGMENT_STRIDE = 1L << 30;
+
+    private final File resourceFile;
+    private final FileChannel fileChannel;
+    private final long fileSize;
+    private final long segmentStride;
+    private final int segmentSize;
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * Constructor for a MappedResourceByteRangeProvider
+     * @param resourceFile whose data will be read by this data provider
+     * @throws IOException - any I/O related error opening the file will be exposed through an IOException
+     */
+    public MappedResourceByteRangeProvider(File resourceFile) throws IOException
+    {
+        this(resourceFile, SEGMENT_STRIDE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructor for a MappedResourceByteRangeProvider with a custom segment layout
+     * @param resourceFile whose data will be read by this data provider
+     * @param segmentStride the distance in bytes between the start offsets of consecutive segments
+     * @param segmentSize the maximum size in bytes of a segment, should not be smaller than segmentStride
+     * @throws IOException - any I/O related error opening the file will be exposed through an IOException
+     */
+    MappedResourceByteRangeProvider(File resourceFile, long segmentStride, int segmentSize) throws IOException
+    {
+        if (segmentSize < segmentStride)
+        {
+            throw new IllegalArgumentException(String.format("Segment size = %d is smaller than segment stride = %d", segmentSize, segmentStride));
+        }
+        this.resourceFile = resourceFile;
+        this.segmentStride = segmentStride;
+        this.segmentSize = segmentSize;
+        this.fileChannel = FileChannel.open(this.resourceFile.toPath(), StandardOpenOption.READ);
+        this.fileSize = this.fileChannel.size();
+        this.segments = new MappedByteBuffer[(int)((this.fileSize + this.segmentStride - 1) / this.segmentStride)];
+    }
+
+    /**
+     * A method that returns the size in bytes of the underlying resource, in this case a File
+     * @return the size in bytes of the underlying resource, in this case a File
+     */
+    public long getResourceSize()
+    {
+        return this.fileSize;
+    }
+
+    /**
+     * A method to obtain bytes in the inclusive range [start, endOfFile] as a file
+     *
+     * @param rangeStart zero indexed inclusive start offset; ranges from 0 through (resourceSize -1) both included
+     * @param workingDirectory the working directory where the output file is placed
+     * @return file containing desired byte range from rangeStart through end of file
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public File getByteRange(long rangeStart, File workingDirectory) throws IOException
+    {
+        return this.getByteRange(rangeStart, this.fileSize - 1, workingDirectory);
+    }
+
+    /**
+     * A method to obtain bytes in the inclusive range [start, end] as a file
+     *
+     * @param rangeStart zero indexed inclusive start offset; range from [0, (resourceSize -1)] inclusive
+     * @param rangeEnd zero indexed inclusive end offset; range from [0, (resourceSize -1)] inclusive
+     * @param workingDirectory the working directory where the output file is placed
+     * @return file containing desired byte range
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public File getByteRange(long rangeStart, long rangeEnd, File workingDirectory) throws IOException
+    {
+        //validation of range request guarantees that 0 <= rangeStart <= rangeEnd <= (resourceSize - 1)
+        ResourceByteRangeProvider.Utilities.validateRangeRequest(this.fileSize, rangeStart, rangeEnd);
+
+        File rangeFile = new File(workingDirectory, "range");
+
+        try(FileOutputStream fileOutputStream = new FileOutputStream(rangeFile);
+            FileChannel outputChannel = fileOutputStream.getChannel())
+        {
+            long totalNumBytesToTransfer = rangeEnd - rangeStart + 1;
+            long totalNumBytesTransferred = 0;
+            while (totalNumBytesTransferred < totalNumBytesToTransfer)
+            {
+                long numBytesTransferred = this.fileChannel.transferTo(rangeStart + totalNumBytesTransferred,
+                        totalNumBytesToTransfer - totalNumBytesTransferred, outputChannel);
+                if (numBytesTransferred <= 0)
+                {
+                    throw new EOFException(String.format("Tried to transfer %d bytes from %s, which ended after transferring %d bytes",
+                            totalNumBytesToTransfer, this.resourceFile.getName(), totalNumBytesTransferred));
+                }
+                totalNumBytesTransferred += numBytesTransferred;
+            }
+        }
+
+        return rangeFile;
+    }
+
+    /**
+     * This method provides a way to obtain a byte range from the resource in-memory. A limitation of this method is
+     * that the total size of the byte range request is capped at 0x7fffffff (the maximum value possible for type int
+     * in java)
+     *
+     * @param rangeStart zero indexed inclusive start offset; ranges from 0 through (resourceSize -1) both included
+     * @param rangeEnd zero indexed inclusive end offset; ranges from 0 through (resourceSize -1) both included
+     * @return byte[] containing desired byte range
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public byte[] getByteRangeAsBytes(long rangeStart, long rangeEnd) throws IOException
+    {
+        ByteBuffer byteBuffer = this.getByteRangeAsByteBuffer(rangeStart, rangeEnd);
+        if (byteBuffer.hasArray())
+        {//large ranges are already copied into a heap buffer of the exact size
+            return byteBuffer.array();
+        }
+        byte[] bytes = new byte[byteBuffer.remaining()];
+        byteBuffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * A method to obtain bytes in the inclusive range [start, end] as a {@link com.netflix.imflibrary.utils.ByteProvider}.
+     * Ranges larger than 0x7fffffff bytes (the maximum value possible for type int in java) are streamed from the open file,
+     * without being staged in a temporary file
+     *
+     * @param rangeStart zero indexed inclusive start offset; ranges from 0 through (resourceSize -1) both included
+     * @param rangeEnd zero indexed inclusive end offset; ranges from 0 through (resourceSize -1) both included
+     * @return ByteProvider for the desired byte range
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    @Override
+    public ByteProvider getByteRangeAsByteProvider(long rangeStart, long rangeEnd) throws IOException
+    {
+        //validation of range request guarantees that 0 <= rangeStart <= rangeEnd <= (resourceSize - 1)
+        ResourceByteRangeProvider.Utilities.validateRangeRequest(this.fileSize, rangeStart, rangeEnd);
+        if ((rangeEnd - rangeStart + 1) > Integer.MAX_VALUE)
+        {
+            return new FileDataProvider(this.fileChannel, rangeStart, FileDataProvider.BUFFER_SIZE);
+        }
+        return ResourceByteRangeProvider.super.getByteRangeAsByteProvider(rangeStart, rangeEnd);
+    }
+
+    /**
+     * This method provides a way to obtain a byte range from the resource as a read-only ByteBuffer. Ranges that fit within
+     * a single mapped segment are returned as a slice of the mapping, without copying. A limitation of this method is that
+     * the total size of the byte range request is capped at 0x7fffffff (the maximum value possible for type int in java)
+     *
+     * @param rangeStart zero indexed inclusive start offset; ranges from 0 through (resourceSize -1) both included
+     * @param rangeEnd zero indexed inclusive end offset; ranges from 0 through (resourceSize -1) both included
+     * @return ByteBuffer whose remaining bytes are the desired byte range
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    @Override
+    public ByteBuffer getByteRangeAsByteBuffer(long rangeStart, long rangeEnd) throws IOException
+    {
+        //validation of range request guarantees that 0 <= rangeStart <= rangeEnd <= (resourceSize - 1)
+        ResourceByteRangeProvider.Utilities.validateRangeRequest(this.fileSize, rangeStart, rangeEnd);
+        if((rangeEnd - rangeStart + 1) > Integer.MAX_VALUE){
+            throw new IOException(String.format("Number of bytes requested = %d is greater than %d", (rangeEnd - rangeStart + 1), Integer.MAX_VALUE));
+        }
+
+        int segmentIndex = (int)(rangeStart / this.segmentStride);
+        ByteBuffer segment = this.getSegment(segmentIndex).duplicate();
+        long segmentStart = segmentIndex * this.segmentStride;
+        if (rangeEnd < segmentStart + segment.capacity())
+        {
+            segment.limit((int)(rangeEnd - segmentStart + 1));
+            segment.position((int)(rangeStart - segmentStart));
+            return segment.slice().asReadOnlyBuffer();
+        }
+
+        //the range straddles two segments, copy it into a heap buffer
+        ByteBuffer byteBuffer = ByteBuffer.allocate((int)(rangeEnd - rangeStart + 1));
+        long position = rangeStart;
+        while (byteBuffer.hasRemaining())
+        {
+            segmentIndex = (int)(position / this.segmentStride);
+            segment = this.getSegment(segmentIndex).duplicate();
+            segmentStart = segmentIndex * this.segmentStride;
+            segment.position((int)(position - segmentStart));
+            segment.limit(segment.position() + (int)Math.min(this.segmentStride - segment.position(), byteBuffer.remaining()));
+            position += segment.remaining();
+            byteBuffer.put(segment);
+        }
+        byteBuffer.flip();
+        return byteBuffer;
+    }
+
+    public InputStream getByteRangeAsStream(long rangeStart, long rangeEnd) throws IOException {
+        byte[] bytes = this.getByteRangeAsBytes(rangeStart, rangeEnd);
+        return new ByteArrayInputStream(bytes);
+    }
+
+    /**
+     * A method to release the file handle held by this object
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public void close() throws IOException
+    {
+        this.fileChannel.close();
+    }
+
+    private synchronized MappedByteBuffer getSegment(int segmentIndex) throws IOException
+    {
+        if (this.segments[segmentIndex] == null)
+        {
+            long segmentStart = segmentIndex * this.segmentStride;
+            long segmentSize = Math.min(this.fileSize - segmentStart, this.segmentSize);
+            this.segments[segmentIndex] = this.fileChannel.map(FileChannel.MapMode.READ_ONLY, segmentStart, segmentSize);
+        }
+        return this.segments[segmentIndex];
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ *
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.netflix.imflibrary.utils;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * This class is a non-thread-safe implementation of {@link com.netflix.imflibrary.utils.ByteProvider}. The underlying input
+ * sequence of bytes is a byte range of a {@link com.netflix.imflibrary.utils.ResourceByteRangeProvider}, which is requested
+ * from the resource one chunk at a time as it is read. This allows ranges larger than 0x7fffffff bytes (the maximum value
+ * possible for type int in java) to be read without staging them in a file, and no resource such as a file handle or a
+ * connection is held in between requests, so this data provider does not need to be closed.
+ */
+@NotThreadSafe
+final class ResourceByteRangeDataProvider implements ByteProvider
+{
+    static final int CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private final ResourceByteRangeProvider resourceByteRangeProvider;
+    private final long rangeEnd;
+    private final int chunkSize;
+    private ByteBuffer chunk = ByteBuffer.allocate(0);
+    private long chunkPosition; //position in the resource corresponding to the start of the chunk
+
+    /**
+     * Instantiates a new ResourceByteRangeDataProvider object
+     *
+     * @param resourceByteRangeProvider the resource whose byte range will be read by this data provider
+     * @param rangeStart zero indexed inclusive start offset of the byte range
+     * @param rangeEnd zero indexed inclusive end offset of the byte range
+     * @param chunkSize the maximum size in bytes of each request made to the resource, at least the size of a long
+     */
+    ResourceByteRangeDataProvider(ResourceByteRangeProvider resourceByteRangeProvider, long rangeStart, long rangeEnd, int chunkSize)
+    {
+        this.resourceByteRangeProvider = resourceByteRangeProvider;
+        this.rangeEnd = rangeEnd;
+        this.chunkSize = chunkSize;
+        this.chunkPosition = rangeStart;
+    }
+
+    /**
+     * Getter for the raw bytes from the byte range that this data provider encapsulates
+     *
+     * @param totalNumBytesToRead the total num bytes to read
+     * @return byte[] containing next totalNumBytesToRead number of bytes
+     * @throws IOException - any I/O related error is exposed through an IOException
+     */
+    public byte[] getBytes(int totalNumBytesToRead) throws IOException
+    {
+        byte[] bytes = new byte[totalNumBytesToRead];
+        this.getBytes(bytes, 0, totalNumBytesToRead);
+        return bytes;
+    }
+
+    /**
+     * A method that reads the next totalNumBytesToRead bytes from the byte range that this data provider encapsulates into
+     * an existing array
+     *
+     * @param bytes the array that the bytes are read into
+     * @param offset the zero-indexed position in the array of the first byte read
+     * @param totalNumBytesToRead the total num bytes to read
+     * @throws IOException - any I/O related error is exposed through an IOException
+     */
+    @Override
+    public void getBytes(byte[] bytes, int offset, int totalNumBytesToRead) throws IOException
+    {
+        this.checkRemaining(totalNumBytesToRead);
+        int totalNumBytesRead = 0;
+        while (totalNumBytesRead < totalNumBytesToRead)
+        {
+            if (!this.chunk.hasRemaining())
+            {
+                this.fillChunk();
+            }
+            int numBytesToCopy = Math.min(totalNumBytesToRead - totalNumBytesRead, this.chunk.remaining());
+            this.chunk.get(bytes, offset + totalNumBytesRead, numBytesToCopy);
+            totalNumBytesRead += numBytesToCopy;
+        }
+    }
+
+    @Override
+    public int getUnsignedByte() throws IOException
+    {
+        this.ensureBuffered(1);
+        return this.chunk.get() & 0xff;
+    }
+
+    @Override
+    public int getUnsignedShort() throws IOException
+    {
+        this.ensureBuffered(2);
+        return this.chunk.getShort() & 0xffff;
+    }
+
+    @Override
+    public long getUnsignedInt() throws IOException
+    {
+        this.ensureBuffered(4);
+        return this.chunk.getInt() & 0xffffffffL;
+    }
+
+    @Override
+    public long getLong() throws IOException
+    {
+        this.ensureBuffered(8);
+        return this.chunk.getLong();
+    }
+
+    /**
+     * A method that lets the caller skip bytes in the byte range that this data provider encapsulates
+     *
+     * @param totalNumBytesToSkip the total num bytes to skip from the current position
+     * @throws IOException - any I/O related error is exposed through an IOException
+     */
+    public void skipBytes(long totalNumBytesToSkip) throws IOException
+    {
+        this.checkRemaining(totalNumBytesToSkip);
+        if (totalNumBytesToSkip <= this.chunk.remaining())
+        {
+            this.chunk.position(this.chunk.position() + (int)totalNumBytesToSkip);
+        }
+        else
+        {//skipping past the current chunk does not require any I/O, the next chunk is requested on the next read
+            this.chunkPosition = this.getPosition() + totalNumBytesToSkip;
+            this.chunk = ByteBuffer.allocate(0);
+        }
+    }
+
+    private long getPosition()
+    {
+        return this.chunkPosition + this.chunk.position();
+    }
+
+    private void checkRemaining(long totalNumBytes) throws IOException
+    {
+        if (totalNumBytes < 0 || totalNumBytes > this.rangeEnd - this.getPosition() + 1)
+        {
+            throw new IOException(String.format("Cannot read or skip %d bytes from position %d as the byte range ends at %d",
+                    totalNumBytes, this.getPosition(), this.rangeEnd));
+        }
+    }
+
+    private void ensureBuffered(int totalNumBytesToRead) throws IOException
+    {
+        this.checkRemaining(totalNumBytesToRead);
+        if (this.chunk.remaining() < totalNumBytesToRead)
+        {//the next chunk starts at the current position, so that a value straddling the end of the chunk is read whole
+            this.fillChunk();
+        }
+    }
+
+    private void fillChunk() throws IOException
+    {
+        long position = this.getPosition();
+        long chunkEnd = Math.min(position + this.chunkSize - 1, this.rangeEnd);
+        ByteBuffer byteBuffer = this.resourceByteRangeProvider.getByteRangeAsByteBuffer(position, chunkEnd);
+        if (byteBuffer.remaining() != chunkEnd - position + 1)
+        {
+            throw new IOException(String.format("Requested %d bytes at position %d, received %d bytes, possible truncated data",
+                    chunkEnd - position + 1, position, byteBuffer.remaining()));
+        }
+        this.chunk = byteBuffer.slice();
+        this.chunkPosition = position;
+    }
+}
@@ -21,6 +21,9 @@ package com.netflix.imflibrary.utils;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * This interface is a supertype of classes that represent resources to which byte range requests can be made
@@ -64,6 +67,67 @@ public interface ResourceByteRangeProvider
      */
     InputStream getByteRangeAsStream(long rangeStart, long rangeEnd) throws IOException;
 
+    /**
+     * A method to obtain bytes in the inclusive range [start, end] as a ByteBuffer, without staging them in a file. The
+     * returned buffer is positioned at the first byte of the range and its remaining bytes are the requested range.
+     * Implementations that already hold the resource in memory may return a read-only view rather than a copy.
+     *
+     * @param rangeStart zero indexed inclusive start offset; ranges from 0 through (resourceSize -1) both included
+     * @param rangeEnd zero indexed inclusive end offset; ranges from 0 through (resourceSize -1) both included
+     * @return ByteBuffer containing the desired byte range
+     * @throws IOException - any I/O related error is exposed through an IOException
+     */
+    default ByteBuffer getByteRangeAsByteBuffer(long rangeStart, long rangeEnd) throws IOException
+    {
+        return ByteBuffer.wrap(this.getByteRangeAsBytes(rangeStart, rangeEnd));
+    }
+
+    /**
+     * A method to obtain bytes in the inclusive range [start, end] as a {@link com.netflix.imflibrary.utils.ByteProvider}
+     * backed by memory, without staging them in a file. Ranges larger than 0x7fffffff bytes (the maximum value possible for
+     * type int in java) do not fit in a ByteBuffer, the default implementation requests them from this resource in chunks as
+     * they are read
+     *
+     * @param rangeStart zero indexed inclusive start offset; ranges from 0 through (resourceSize -1) both included
+     * @param rangeEnd zero indexed inclusive end offset; ranges from 0 through (resourceSize -1) both included
+     * @return ByteProvider for the desired byte range
+     * @throws IOException - any I/O related error is exposed through an IOException
+     */
+    default ByteProvider getByteRangeAsByteProvider(long rangeStart, long rangeEnd) throws IOException
+    {
+        if ((rangeEnd - rangeStart + 1) > Integer.MAX_VALUE)
+        {
+            ResourceByteRangeProvider.Utilities.validateRangeRequest(this.getResourceSize(), rangeStart, rangeEnd);
+            return new ResourceByteRangeDataProvider(this, rangeStart, rangeEnd, ResourceByteRangeDataProvider.CHUNK_SIZE);
+        }
+        return new ByteBufferDataProvider(this.getByteRangeAsByteBuffer(rangeStart, rangeEnd));
+    }
+
+    /**
+     * A method to obtain several byte ranges at once, each of them in the inclusive range [start, end], as ByteBuffers. This
+     * is a vectored read, which implementations backed by a high latency resource may serve concurrently or through fewer
+     * requests, whereas the default implementation obtains the ranges one after the other.
+     *
+     * @param rangeStarts zero indexed inclusive start offsets; range from 0 through (resourceSize -1) both included
+     * @param rangeEnds zero indexed inclusive end offsets, one for every start offset; range from 0 through (resourceSize -1) both included
+     * @return list of ByteBuffers containing the desired byte ranges, in the order of the ranges
+     * @throws IOException - any I/O related error is exposed through an IOException
+     */
+    default List<ByteBuffer> getByteRangesAsByteBuffers(long[] rangeStarts, long[] rangeEnds) throws IOException
+    {
+        if (rangeStarts.length != rangeEnds.length)
+        {
+            throw new IllegalArgumentException(String.format("Number of range starts = %d is different from number of range ends = %d",
+                    rangeStarts.length, rangeEnds.length));
+        }
+        List<ByteBuffer> byteBuffers = new ArrayList<>();
+        for (int i = 0; i < rangeStarts.length; i++)
+        {
+            byteBuffers.add(this.getByteRangeAsByteBuffer(rangeStarts[i], rangeEnds[i]));
+        }
+        return byteBuffers;
+    }
+
     class Utilities
     {
         public static void validateRangeRequest(long resourceSize, long rangeStart, long rangeEnd)
@@ -0,0 +1,128 @@
+/*
+ *
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.netflix.imflibrary.utils;
+
+import org.xml.sax.SAXException;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.xml.XMLConstants;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A registry of the JAXBContext and Schema objects used to read and write IMF XML documents. Creating either of them is
+ * expensive, since it involves introspecting the generated JAXB classes or compiling XSDs, whereas both are thread-safe once
+ * created. This registry therefore creates each of them once per JAXB context path or per ordered list of XSD resource paths,
+ * and callers obtain their own Unmarshaller, Marshaller or Validator from the shared objects for every document, since those
+ * are not thread-safe.
+ */
+@ThreadSafe
+public final class XMLSchemaRegistry
+{
+    private static final ConcurrentMap<String, JAXBContext> jaxbContexts = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<List<String>, Schema> schemas = new ConcurrentHashMap<>();
+
+    private XMLSchemaRegistry()
+    {
+        //to prevent instantiation
+    }
+
+    /**
+     * Getter for the JAXBContext corresponding to a context path, it is created the first time it is requested
+     *
+     * @param contextPath the package names of the JAXB generated classes, for e.g. "org.smpte_ra.schemas.st2067_2_2016"
+     * @return the JAXBContext corresponding to the context path
+     * @throws JAXBException - any issues in creating the JAXBContext will be exposed through a JAXBException
+     */
+    public static JAXBContext getJAXBContext(String contextPath) throws JAXBException
+    {
+        JAXBContext jaxbContext = jaxbContexts.get(contextPath);
+        if (jaxbContext == null)
+        {//two threads may create the same context concurrently, only one of them is kept
+            jaxbContext = JAXBContext.newInstance(contextPath);
+            JAXBContext existingJAXBContext = jaxbContexts.putIfAbsent(contextPath, jaxbContext);
+            if (existingJAXBContext != null)
+            {
+                jaxbContext = existingJAXBContext;
+            }
+        }
+        return jaxbContext;
+    }
+
+    /**
+     * Getter for the Schema compiled from a list of XSD resources, it is compiled the first time it is requested
+     *
+     * @param schemaResourcePaths the paths of the XSD resources in the classpath, in the order in which they should be
+     *                            compiled since a schema can depend on types defined in the schemas preceding it
+     * @return the Schema compiled from the XSD resources
+     * @throws IOException - any I/O related error in reading the XSD resources will be exposed through an IOException
+     * @throws SAXException - any issues in compiling the XSD resources will be exposed through a SAXException
+     */
+    public static Schema getSchema(String... schemaResourcePaths) throws IOException, SAXException
+    {
+        List<String> key = Arrays.asList(Arrays.copyOf(schemaResourcePaths, schemaResourcePaths.length));
+        Schema schema = schemas.get(key);
+        if (schema == null)
+        {//two threads may compile the same schema concurrently, only one of them is kept
+            schema = compileSchema(schemaResourcePaths);
+            Schema existingSchema = schemas.putIfAbsent(key, schema);
+            if (existingSchema != null)
+            {
+                schema = existingSchema;
+            }
+        }
+        return schema;
+    }
+
+    private static Schema compileSchema(String... schemaResourcePaths) throws IOException, SAXException
+    {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        InputStream[] inputStreams = new InputStream[schemaResourcePaths.length];
+        try
+        {
+            StreamSource[] schemaSources = new StreamSource[schemaResourcePaths.length];
+            for (int i=0; i<schemaResourcePaths.length; i++)
+            {
+                inputStreams[i] = contextClassLoader.getResourceAsStream(schemaResourcePaths[i]);
+                schemaSources[i] = new StreamSource(inputStreams[i]);
+            }
+            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+            return schemaFactory.newSchema(schemaSources);
+        }
+        finally
+        {
+            for (InputStream inputStream : inputStreams)
+            {
+                if (inputStream != null)
+                {
+                    inputStream.close();
+                }
+            }
+        }
+    }
+}
@@ -36,6 +36,7 @@ import com.netflix.imflibrary.utils.ByteProvider;
 import com.netflix.imflibrary.utils.ErrorLogger;
 import com.netflix.imflibrary.utils.ResourceByteRangeProvider;
 import com.netflix.imflibrary.utils.UUIDHelper;
+import com.netflix.imflibrary.utils.XMLSchemaRegistry;
 import com.netflix.imflibrary.writerTools.utils.IMFUUIDGenerator;
 import com.netflix.imflibrary.writerTools.utils.IMFUtils;
 import com.netflix.imflibrary.writerTools.utils.ValidationEventHandlerImpl;
@@ -48,7 +49,6 @@ import org.w3c.dom.Node;
 import org.xml.sax.SAXException;
 
 import javax.annotation.Nonnull;
-import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
@@ -58,9 +58,7 @@ import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
 import java.io.*;
 import java.math.BigInteger;
 import java.net.URISyntaxException;
@@ -321,25 +319,16 @@ public class CompositionPlaylistBuilder_2013 {
         IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl();
         boolean formatted = true;
 
-        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
-        InputStream cplSchemaAsAStream = contextClassLoader.getResourceAsStream("org/smpte_ra/schemas/st2067_3_2013/imf-cpl.xsd");
-        InputStream dcmlSchemaAsAStream = contextClassLoader.getResourceAsStream("org/smpte_ra/schemas/st0433_2008/dcmlTypes/dcmlTypes.xsd");
-        try(InputStream dsigSchemaAsAStream = contextClassLoader.getResourceAsStream
-                ("org/w3/_2000_09/xmldsig/xmldsig-core-schema.xsd");
-        InputStream coreConstraintsSchemaAsAStream = contextClassLoader.getResourceAsStream("org/smpte_ra/schemas/st2067_2_2013/imf-core-constraints-20130620-pal.xsd");
-        OutputStream outputStream = new FileOutputStream(outputFile);)
+        try(OutputStream outputStream = new FileOutputStream(outputFile);)
         {
             try
             {
-                SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-                StreamSource[] schemaSources = new StreamSource[4];
-                schemaSources[0] = new StreamSource(dsigSchemaAsAStream);
-                schemaSources[1] = new StreamSource(dcmlSchemaAsAStream);
-                schemaSources[2] = new StreamSource(cplSchemaAsAStream);
-                schemaSources[3] = new StreamSource(coreConstraintsSchemaAsAStream);
-                Schema schema = schemaFactory.newSchema(schemaSources);
-
-                JAXBContext jaxbContext = JAXBContext.newInstance("org.smpte_ra.schemas.st2067_2_2013");
+                Schema schema = XMLSchemaRegistry.getSchema("org/w3/_2000_09/xmldsig/xmldsig-core-schema.xsd",
+                        "org/smpte_ra/schemas/st0433_2008/dcmlTypes/dcmlTypes.xsd",
+                        "org/smpte_ra/schemas/st2067_3_2013/imf-cpl.xsd",
+                        "org/smpte_ra/schemas/st2067_2_2013/imf-core-constraints-20130620-pal.xsd");
+
+                JAXBContext jaxbContext = XMLSchemaRegistry.getJAXBContext("org.smpte_ra.schemas.st2067_2_2013");
                 Marshaller marshaller = jaxbContext.createMarshaller();
                 ValidationEventHandlerImpl validationEventHandler = new ValidationEventHandlerImpl(true);
                 marshaller.setEventHandler(validationEventHandler);
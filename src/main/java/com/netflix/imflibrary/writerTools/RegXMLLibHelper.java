@@ -41,7 +41,6 @@ import org.w3c.dom.DocumentFragment;
 
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.Charset;
@@ -53,9 +52,15 @@ import static com.sandflow.smpte.regxml.dict.importers.RegisterImporter.fromRegi
 
 /**
  * A utility class that provides the methods to obtain a RegXML representation of a MXF metadata set
+ *
+ * The metadictionary built from the SMPTE reference registers is the same for every MXF file, it is therefore built once, the
+ * first time a RegXMLLibHelper is instantiated, and shared by all the instances. Only the local tag register corresponding to the
+ * primer pack of an MXF file is built per instance.
  */
 public final class RegXMLLibHelper {
 
+    private static MetaDictionaryCollection sharedMetaDictionaryCollection = null; //guarded by RegXMLLibHelper.class
+
     private final MetaDictionaryCollection metaDictionaryCollection;
     private final LocalTagRegister localTagRegister;
 
@@ -70,32 +75,40 @@ public final class RegXMLLibHelper {
 
         try
         {
-            ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
-            InputStream in = contextClassLoader.getResourceAsStream("reference-registers/Elements.xml");
-            Reader elementsRegister = new InputStreamReader(in, Charset.forName("UTF-8"));
-
-            in = contextClassLoader.getResourceAsStream("reference-registers/Types.xml");
-            Reader typesRegister = new InputStreamReader(in, Charset.forName("UTF-8"));
-
-            in = contextClassLoader.getResourceAsStream("reference-registers/Groups.xml");
-            Reader groupsRegister = new InputStreamReader(in, Charset.forName("UTF-8"));
-
-            /*in = ClassLoader.getSystemResourceAsStream("reference-registers/Labels.xml");
-            Reader labelsRegister = new InputStreamReader(in, Charset.forName("UTF-8"));*/
-
-            ElementsRegister ereg = ElementsRegister.fromXML(elementsRegister);
-            GroupsRegister greg = GroupsRegister.fromXML(groupsRegister);
-            TypesRegister treg = TypesRegister.fromXML(typesRegister);
-
-            this.metaDictionaryCollection = fromRegister(treg, greg, ereg);
+            this.metaDictionaryCollection = getMetaDictionaryCollection();
             this.localTagRegister = PrimerPack.createLocalTagRegister(this.getTripletFromKLVHeader(primerPack, primerPackByteProvider));
-            in.close();
         }
         catch (Exception e){
             throw new IOException(String.format("Unable to load resources corresponding to registers"));
         }
     }
 
+    /**
+     * A method that returns the metadictionary built from the SMPTE reference registers, the registers are parsed the first
+     * time this method is invoked
+     */
+    private static synchronized MetaDictionaryCollection getMetaDictionaryCollection() throws Exception
+    {
+        if (sharedMetaDictionaryCollection == null)
+        {
+            ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+            try (Reader elementsRegister = new InputStreamReader(contextClassLoader.getResourceAsStream("reference-registers/Elements.xml"), Charset.forName("UTF-8"));
+                 Reader typesRegister = new InputStreamReader(contextClassLoader.getResourceAsStream("reference-registers/Types.xml"), Charset.forName("UTF-8"));
+                 Reader groupsRegister = new InputStreamReader(contextClassLoader.getResourceAsStream("reference-registers/Groups.xml"), Charset.forName("UTF-8")))
+            {
+                /*in = ClassLoader.getSystemResourceAsStream("reference-registers/Labels.xml");
+                Reader labelsRegister = new InputStreamReader(in, Charset.forName("UTF-8"));*/
+
+                ElementsRegister ereg = ElementsRegister.fromXML(elementsRegister);
+                GroupsRegister greg = GroupsRegister.fromXML(groupsRegister);
+                TypesRegister treg = TypesRegister.fromXML(typesRegister);
+
+                sharedMetaDictionaryCollection = fromRegister(treg, greg, ereg);
+            }
+        }
+        return sharedMetaDictionaryCollection;
+    }
+
     /**
      * A utility method that provides an XML Document fragment representing an MXF KLV triplet
      * @param triplet the KLV triplet that needs to be serialized to an XML document fragment
@@ -20,6 +20,8 @@ package com.netflix.imflibrary.writerTools.utils;
 
 import com.netflix.imflibrary.IMFErrorLoggerImpl;
 import com.netflix.imflibrary.exceptions.IMFException;
+import com.netflix.imflibrary.utils.DigestCache;
+import com.netflix.imflibrary.utils.DigestEngine;
 import com.netflix.imflibrary.utils.ResourceByteRangeProvider;
 import org.smpte_ra.schemas.st2067_2_2013.BaseResourceType;
 import org.smpte_ra.schemas.st2067_2_2013.CompositionPlaylistType;
@@ -31,11 +33,11 @@ import javax.xml.datatype.DatatypeConfigurationException;
 import javax.xml.datatype.DatatypeFactory;
 import javax.xml.datatype.XMLGregorianCalendar;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.security.MessageDigest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Base64;
@@ -97,20 +99,24 @@ public class IMFUtils {
      * @throws IOException - any I/O related error will be exposed through an IOException
      */
     public static byte[] generateSHA1HashAndBase64Encode(File file) throws IOException {
+        return generateSHA1HashAndBase64Encode(file, null);
+    }
+
+    /**
+     * A method that generates a SHA-1 hash of the file and Base64 encode the result, the hash is looked up in a cache
+     * before it is generated.
+     *
+     * @param file - the file whose SHA-1 hash is to be generated
+     * @param digestCache - the cache of the hashes of files, null if there is none
+     * @return a byte[] representing the generated base64 encoded hash of the file
+     * @throws IOException - any I/O related error will be exposed through an IOException
+     */
+    public static byte[] generateSHA1HashAndBase64Encode(File file, @Nullable DigestCache digestCache) throws IOException {
         try {
-            MessageDigest messageDigest = MessageDigest.getInstance("SHA1");
-            FileInputStream fileInputStream = new FileInputStream(file);
-            byte[] bytes = new byte[1024];
-            int bytesRead = 0;
-            while((bytesRead = fileInputStream.read(bytes)) != -1){
-                messageDigest.update(bytes, 0, bytesRead);
-            }
-            byte[] digest = messageDigest.digest();
-            byte[] base64EncodedDigest = Base64.getEncoder().encodeToString(digest).getBytes("UTF-8");
-            fileInputStream.close();
-            return base64EncodedDigest;
+            DigestEngine digestEngine = new DigestEngine(DigestEngine.SHA1_ALGORITHM, digestCache);
+            return digestEngine.digest(file).getBase64EncodedDigest().getBytes(StandardCharsets.UTF_8);
         }
-        catch (NoSuchAlgorithmException | FileNotFoundException e){
+        catch (NoSuchAlgorithmException | NoSuchFileException e){
             throw new IMFException(e);
         }
     }
@@ -134,27 +140,8 @@ public class IMFUtils {
      * @throws IOException - any I/O related error will be exposed through an IOException
      */
     public static byte[] generateSHA1Hash(ResourceByteRangeProvider resourceByteRangeProvider) throws NoSuchAlgorithmException, IOException {
-        MessageDigest md = MessageDigest.getInstance("SHA1");
-        long rangeStart = 0;
-        long rangeEnd = (rangeStart + 1023 > resourceByteRangeProvider.getResourceSize()-1)
-                ? resourceByteRangeProvider.getResourceSize()-1
-                : rangeStart + 1023;
-
-        int nread = 0;
-
-        while (rangeStart < resourceByteRangeProvider.getResourceSize()
-                && rangeEnd < resourceByteRangeProvider.getResourceSize()) {
-            byte[] dataBytes = resourceByteRangeProvider.getByteRangeAsBytes(rangeStart, rangeEnd);
-            nread = (int)(rangeEnd - rangeStart + 1);
-            md.update(dataBytes, 0, nread);
-            rangeStart = rangeEnd+1;
-            rangeEnd = (rangeStart + 1023 > resourceByteRangeProvider.getResourceSize()-1)
-                    ? resourceByteRangeProvider.getResourceSize()-1
-                    : rangeStart + 1023;
-        };
-
-        byte[] mdbytes = md.digest();
-        return Arrays.copyOf(mdbytes, mdbytes.length);
+        DigestEngine digestEngine = new DigestEngine(DigestEngine.SHA1_ALGORITHM);
+        return digestEngine.digest(resourceByteRangeProvider).getDigest();
     }
 
     /**
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.imflibrary;
+
+import com.netflix.imflibrary.exceptions.IMFValidationTerminatedException;
+import com.netflix.imflibrary.utils.ErrorLogger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Test(groups = "unit")
+public class IMFErrorLoggerImplTest
+{
+    @Test
+    public void insertionOrderTest()
+    {
+        IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl();
+        for (int i=0; i<100; i++)
+        {
+            imfErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_CPL_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.WARNING, String.format("error %d", i));
+        }
+        List<ErrorLogger.ErrorObject> errors = imfErrorLogger.getErrors();
+        Assert.assertEquals(errors.size(), 100);
+        for (int i=0; i<100; i++)
+        {
+            Assert.assertEquals(errors.get(i).getErrorDescription(), String.format("error %d", i));
+        }
+    }
+
+    @Test
+    public void errorLevelsTest()
+    {
+        IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl();
+        imfErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_CPL_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.WARNING, "warning");
+        imfErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_PKL_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.FATAL, "fatal");
+        imfErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_CPL_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.NON_FATAL, "non fatal");
+
+        Assert.assertTrue(imfErrorLogger.hasFatalErrors());
+        Assert.assertFalse(imfErrorLogger.hasFatalErrors(0, 1));
+        Assert.assertTrue(imfErrorLogger.hasFatalErrors(1, 2));
+        Assert.assertFalse(imfErrorLogger.hasFatalErrors(2, 3));
+        Assert.assertEquals(imfErrorLogger.getErrors(IMFErrorLogger.IMFErrors.ErrorLevels.FATAL).get(0).getErrorDescription(), "fatal");
+        Assert.assertEquals(imfErrorLogger.getErrors(IMFErrorLogger.IMFErrors.ErrorLevels.WARNING).get(0).getErrorDescription(), "warning");
+        Assert.assertEquals(imfErrorLogger.getErrors(IMFErrorLogger.IMFErrors.ErrorLevels.NON_FATAL, 0, 2).size(), 0);
+        Assert.assertEquals(imfErrorLogger.getErrors(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_CPL_ERROR).size(), 2);
+        Assert.assertEquals(imfErrorLogger.getErrors(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_PKL_ERROR, 0, 1).size(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void invalidRangeTest()
+    {
+        IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl();
+        imfErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_CPL_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.FATAL, "fatal");
+        imfErrorLogger.hasFatalErrors(0, 2);
+    }
+
+    @Test
+    public void deduplicationTest()
+    {
+        IMFErrorLoggerImpl imfErrorLogger = new IMFErrorLoggerImpl();
+        IMFErrorLoggerImpl duplicatesErrorLogger = new IMFErrorLoggerImpl(false);
+        ErrorLogger.ErrorObject errorObject = new ErrorLogger.ErrorObject(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_CPL_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.FATAL, "fatal");
+        for (int i=0; i<3; i++)
+        {
+            imfErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_CPL_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.FATAL, "fatal");
+            duplicatesErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_CPL_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.FATAL, "fatal");
+        }
+        Assert.assertEquals(imfErrorLogger.getNumberOfErrors(), 1);
+        Assert.assertEquals(imfErrorLogger.getNumberOfOccurrences(errorObject), 3);
+        Assert.assertEquals(duplicatesErrorLogger.getNumberOfErrors(), 3);
+        Assert.assertEquals(duplicatesErrorLogger.getNumberOfOccurrences(errorObject), 3);
+        Assert.assertEquals(duplicatesErrorLogger.getNumberOfErrors(IMFErrorLogger.IMFErrors.ErrorLevels.FATAL, 1, 3), 2);
+    }
+
+    @Test
+    public void concurrentAddTest() throws Exception
+    {
+        IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl();
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread=0; thread<8; thread++)
+            {
+                final int threadIndex = thread;
+                futures.add(executorService.submit(() -> {
+                    for (int i=0; i<1000; i++)
+                    {
+                        //every thread adds the same errors, and errors of its own
+                        imfErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_CPL_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.NON_FATAL, String.format("shared %d", i));
+                        imfErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_CPL_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.FATAL, String.format("thread %d error %d", threadIndex, i));
+                        Assert.assertTrue(imfErrorLogger.hasFatalErrors());
+                    }
+                }));
+            }
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executorService.shutdown();
+        }
+
+        List<ErrorLogger.ErrorObject> errors = imfErrorLogger.getErrors();
+        Assert.assertEquals(imfErrorLogger.getNumberOfErrors(), 9000);
+        Assert.assertEquals(new HashSet<>(errors).size(), 9000);
+        Assert.assertEquals(imfErrorLogger.getErrors(IMFErrorLogger.IMFErrors.ErrorLevels.FATAL).size(), 8000);
+        Set<String> descriptions = new HashSet<>();
+        for (ErrorLogger.ErrorObject errorObject : errors)
+        {
+            descriptions.add(errorObject.getErrorDescription());
+        }
+        Assert.assertTrue(descriptions.contains("shared 999"));
+    }
+
+    @Test
+    public void errorListenerTest()
+    {
+        List<ErrorLogger.ErrorObject> notifiedErrors = new ArrayList<>();
+        TerminatingIMFErrorListener errorListener = new TerminatingIMFErrorListener(notifiedErrors::add, true, 0);
+        IMFErrorLoggerImpl imfErrorLogger = new IMFErrorLoggerImpl(errorListener);
+        imfErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_CPL_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.WARNING, "warning");
+        imfErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_CPL_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.WARNING, "warning");
+        imfErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_CPL_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.NON_FATAL, "non fatal");
+        Assert.assertEquals(notifiedErrors.size(), 2);
+        Assert.assertFalse(errorListener.isTerminated());
+
+        try
+        {
+            imfErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_PKL_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.FATAL, "fatal");
+            Assert.fail("The validation was not terminated at the first fatal error");
+        }
+        catch (IMFValidationTerminatedException e)
+        {
+            Assert.assertTrue(errorListener.isTerminated());
+        }
+        //the error that ended the validation is recorded and notified
+        Assert.assertEquals(imfErrorLogger.getNumberOfErrors(), 3);
+        Assert.assertEquals(notifiedErrors.get(2).getErrorDescription(), "fatal");
+    }
+
+    @Test(expectedExceptions = IMFValidationTerminatedException.class)
+    public void maxNumberOfErrorsTest()
+    {
+        IMFErrorLoggerImpl imfErrorLogger = new IMFErrorLoggerImpl(new TerminatingIMFErrorListener(null, false, 5));
+        for (int i=0; i<4; i++)
+        {
+            imfErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_CPL_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.FATAL, String.format("error %d", i));
+        }
+        Assert.assertEquals(imfErrorLogger.getNumberOfErrors(), 4);
+        imfErrorLogger.addError(IMFErrorLogger.IMFErrors.ErrorCodes.IMF_CPL_ERROR, IMFErrorLogger.IMFErrors.ErrorLevels.WARNING, "error 4");
+    }
+}
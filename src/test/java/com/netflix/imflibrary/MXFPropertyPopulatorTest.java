@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.imflibrary;
+
+import com.netflix.imflibrary.annotations.MXFProperty;
+import com.netflix.imflibrary.exceptions.MXFException;
+import com.netflix.imflibrary.utils.ByteArrayDataProvider;
+import com.netflix.imflibrary.utils.ByteProvider;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+@Test(groups = "unit")
+public class MXFPropertyPopulatorTest
+{
+    private static class Base
+    {
+        @MXFProperty(size=4) protected final Long base_value = null;
+    }
+
+    private static final class Properties extends Base
+    {
+        @MXFProperty(size=8) private final Long long_value = null;
+        @MXFProperty(size=4) private final Integer int_value = null;
+        @MXFProperty(size=2) private final Integer unsigned_short_value = null;
+        @MXFProperty(size=2) private final Short short_value = null;
+        @MXFProperty(size=1) private final Short unsigned_byte_value = null;
+        @MXFProperty(size=1) private final Byte byte_value = null;
+        @MXFProperty(size=1) private final Boolean boolean_value = null;
+        @MXFProperty(size=4) private final Float float_value = null;
+        @MXFProperty(size=0, charset="UTF-16") private final String string_value = null;
+        private final Long unannotated_value = null;
+    }
+
+    @Test
+    public void testPopulateField() throws IOException
+    {
+        byte[] bytes = {
+                (byte)0xff, (byte)0xff, (byte)0xff, (byte)0xfe,
+                (byte)0x80, 0, 0, 0, 0, 0, 0, 1,
+                (byte)0xff, (byte)0xff, (byte)0xff, (byte)0xff,
+                (byte)0xff, (byte)0xfe,
+                (byte)0xff, (byte)0xfe,
+                (byte)0xff,
+                (byte)0xff,
+                0x01,
+                0x3f, (byte)0x80, 0, 0,
+                0, 0x41, 0, 0x42};
+        ByteProvider byteProvider = new ByteArrayDataProvider(bytes);
+        Properties properties = new Properties();
+        MXFPropertyPopulator.populateField(byteProvider, properties, "base_value");
+        MXFPropertyPopulator.populateField(byteProvider, properties, "long_value");
+        MXFPropertyPopulator.populateField(byteProvider, properties, "int_value");
+        MXFPropertyPopulator.populateField(byteProvider, properties, "unsigned_short_value");
+        MXFPropertyPopulator.populateField(byteProvider, properties, "short_value");
+        MXFPropertyPopulator.populateField(byteProvider, properties, "unsigned_byte_value");
+        MXFPropertyPopulator.populateField(byteProvider, properties, "byte_value");
+        MXFPropertyPopulator.populateField(byteProvider, properties, "boolean_value");
+        MXFPropertyPopulator.populateField(byteProvider, properties, "float_value");
+        MXFPropertyPopulator.populateField(4, byteProvider, properties, "string_value");
+
+        Assert.assertEquals(properties.base_value, Long.valueOf(0xfffffffeL));
+        Assert.assertEquals(properties.long_value, Long.valueOf(0x8000000000000001L));
+        Assert.assertEquals(properties.int_value, Integer.valueOf(-1));
+        Assert.assertEquals(properties.unsigned_short_value, Integer.valueOf(0xfffe));
+        Assert.assertEquals(properties.short_value, Short.valueOf((short)-2));
+        Assert.assertEquals(properties.unsigned_byte_value, Short.valueOf((short)0xff));
+        Assert.assertEquals(properties.byte_value, Byte.valueOf((byte)-1));
+        Assert.assertEquals(properties.boolean_value, Boolean.TRUE);
+        Assert.assertEquals(properties.float_value, 1.0f);
+        Assert.assertEquals(properties.string_value, "AB");
+    }
+
+    @Test
+    public void testFieldMetadata()
+    {
+        Properties properties = new Properties();
+        Assert.assertEquals(MXFPropertyPopulator.getFieldSizeInBytes(properties, "base_value"), 4);
+        Assert.assertEquals(MXFPropertyPopulator.getFieldSizeInBytes(properties, "long_value"), 8);
+        Assert.assertEquals(MXFPropertyPopulator.getFieldCharset(properties, "string_value"), StandardCharsets.UTF_16);
+    }
+
+    @Test(expectedExceptions = MXFException.class, expectedExceptionsMessageRegExp = "field unannotated_value is not annotated with MXFProperty")
+    public void testUnannotatedField()
+    {
+        MXFPropertyPopulator.getFieldSizeInBytes(new Properties(), "unannotated_value");
+    }
+
+    @Test(expectedExceptions = MXFException.class, expectedExceptionsMessageRegExp = "unknown type = .*, size = 3 combination encountered for field int_value")
+    public void testUnknownTypeAndSize() throws IOException
+    {
+        MXFPropertyPopulator.populateField(3, new ByteArrayDataProvider(new byte[3]), new Properties(), "int_value");
+    }
+
+    @Test(expectedExceptions = MXFException.class)
+    public void testMissingField() throws IOException
+    {
+        MXFPropertyPopulator.populateField(new ByteArrayDataProvider(new byte[4]), new Properties(), "missing_value");
+    }
+}
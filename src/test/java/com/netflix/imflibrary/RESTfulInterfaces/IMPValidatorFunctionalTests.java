@@ -28,6 +28,7 @@ import com.netflix.imflibrary.st0377.header.SourcePackage;
 import com.netflix.imflibrary.st2067_2.ApplicationComposition;
 import com.netflix.imflibrary.st2067_2.Composition;
 import com.netflix.imflibrary.st2067_2.ApplicationCompositionFactory;
+import com.netflix.imflibrary.st2067_2.EssenceDescriptorCache;
 import com.netflix.imflibrary.utils.ByteArrayByteRangeProvider;
 import com.netflix.imflibrary.utils.ByteArrayDataProvider;
 import com.netflix.imflibrary.utils.ByteProvider;
@@ -302,7 +303,17 @@ public class IMPValidatorFunctionalTests {
         List<ErrorLogger.ErrorObject> errors = IMPValidator.areAllVirtualTracksInCPLConformed(cplPayloadRecord, essencesHeaderPartition);
         Assert.assertTrue(errors.size() == 8);
         //The following error occurs because we do not yet support TimedText Virtual Tracks in Photon and the EssenceDescriptor in the EDL corresponds to a TimedText Virtual Track whose entry is commented out in the CPL.
-        Assert.assertTrue(errors.get(0).toString().contains("ERROR-EssenceDescriptorID 3febc096-8727-495d-8715-bb5398d98cfe in the CPL EssenceDescriptorList is not referenced by any resource in any of the Virtual tracks in the CPL"));
+        //Errors are reported in the order in which they are found, the track file header partitions are validated before the conformance checks.
+        Assert.assertTrue(errors.get(4).toString().contains("ERROR-EssenceDescriptorID 3febc096-8727-495d-8715-bb5398d98cfe in the CPL EssenceDescriptorList is not referenced by any resource in any of the Virtual tracks in the CPL"));
+
+        //the EssenceDescriptors of every track file are converted once, and reused when the Composition is conformed again
+        EssenceDescriptorCache essenceDescriptorCache = new EssenceDescriptorCache();
+        List<ErrorLogger.ErrorObject> cachedErrors = IMPValidator.areAllVirtualTracksInCPLConformed(cplPayloadRecord, essencesHeaderPartition, essenceDescriptorCache);
+        Assert.assertEquals(essenceDescriptorCache.size(), 3);
+        Assert.assertEquals(cachedErrors.toString(), errors.toString());
+        cachedErrors = IMPValidator.areAllVirtualTracksInCPLConformed(cplPayloadRecord, essencesHeaderPartition, essenceDescriptorCache);
+        Assert.assertEquals(essenceDescriptorCache.size(), 3);
+        Assert.assertEquals(cachedErrors.toString(), errors.toString());
     }
 
     @Test
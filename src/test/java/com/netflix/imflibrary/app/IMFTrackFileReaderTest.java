@@ -19,15 +19,20 @@ package com.netflix.imflibrary.app;
 import com.netflix.imflibrary.IMFErrorLogger;
 import com.netflix.imflibrary.IMFErrorLoggerImpl;
 import com.netflix.imflibrary.exceptions.MXFException;
+import com.netflix.imflibrary.st0377.EssenceAccessor;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 import testUtils.TestHelper;
 import com.netflix.imflibrary.utils.FileByteRangeProvider;
+import com.netflix.imflibrary.utils.FileChannelByteRangeProvider;
+import com.netflix.imflibrary.utils.MappedResourceByteRangeProvider;
 import com.netflix.imflibrary.utils.ResourceByteRangeProvider;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
+import java.util.Arrays;
 
 import static org.mockito.Mockito.*;
 
@@ -44,6 +49,66 @@ public class IMFTrackFileReaderTest
         Assert.assertTrue(imfTrackFileReader.toString().length() > 0);
     }
 
+    @Test
+    public void IMFTrackFileReaderMappedTest() throws IOException
+    {
+        File inputFile = TestHelper.findResourceByPath("TearsOfSteel_4k_Test_Master_Audio_002.mxf");
+        File workingDirectory = Files.createTempDirectory(null).toFile();
+        try (MappedResourceByteRangeProvider mappedResourceByteRangeProvider = new MappedResourceByteRangeProvider(inputFile))
+        {
+            IMFTrackFileReader mappedReader = new IMFTrackFileReader(workingDirectory, mappedResourceByteRangeProvider);
+            IMFTrackFileReader fileReader = new IMFTrackFileReader(workingDirectory, new FileByteRangeProvider(inputFile));
+            Assert.assertEquals(mappedReader.toString(), fileReader.toString());
+        }
+    }
+
+    @Test
+    public void essenceAccessorTest() throws IOException
+    {
+        File inputFile = TestHelper.findResourceByPath("TearsOfSteel_4k_Test_Master_Audio_002.mxf");
+        File workingDirectory = Files.createTempDirectory(null).toFile();
+        byte[] bytes = Files.readAllBytes(inputFile.toPath());
+        try (MappedResourceByteRangeProvider mappedResourceByteRangeProvider = new MappedResourceByteRangeProvider(inputFile))
+        {
+            IMFTrackFileReader imfTrackFileReader = new IMFTrackFileReader(workingDirectory, mappedResourceByteRangeProvider);
+            EssenceAccessor essenceAccessor = imfTrackFileReader.getEssenceAccessor(new IMFErrorLoggerImpl());
+            //the clip-wrapped audio essence element starts at byte offset 12228 with a 24 byte key and length, each edit unit is 6 bytes
+            Assert.assertTrue(essenceAccessor.isClipWrapped());
+            EssenceAccessor.EssenceElement essenceElement = essenceAccessor.getEssenceElement(1000);
+            Assert.assertEquals(essenceElement.getKLVPacketByteOffset(), 12228L);
+            Assert.assertEquals(essenceElement.getByteOffset(), 12228L + 24L + 6000L);
+            Assert.assertEquals(essenceElement.getSize(), 6L);
+
+            ByteBuffer payload = essenceAccessor.getEssencePayload(1000);
+            byte[] payloadBytes = new byte[payload.remaining()];
+            payload.get(payloadBytes);
+            Assert.assertEquals(payloadBytes, Arrays.copyOfRange(bytes, 12228 + 24 + 6000, 12228 + 24 + 6006));
+
+            //the last edit unit of the 211392 byte clip
+            Assert.assertEquals(essenceAccessor.getEssenceElement(211392 / 6 - 1).getByteOffset(), 12228L + 24L + 211392L - 6L);
+        }
+        finally
+        {
+            Assert.assertTrue(workingDirectory.delete());
+        }
+    }
+
+    @Test(expectedExceptions = MXFException.class)
+    public void essenceAccessorBeyondClipTest() throws IOException
+    {
+        File inputFile = TestHelper.findResourceByPath("TearsOfSteel_4k_Test_Master_Audio_002.mxf");
+        File workingDirectory = Files.createTempDirectory(null).toFile();
+        try (FileChannelByteRangeProvider fileChannelByteRangeProvider = new FileChannelByteRangeProvider(inputFile))
+        {
+            IMFTrackFileReader imfTrackFileReader = new IMFTrackFileReader(workingDirectory, fileChannelByteRangeProvider);
+            imfTrackFileReader.getEssenceAccessor(new IMFErrorLoggerImpl()).getEssenceElement(211392 / 6);
+        }
+        finally
+        {
+            Assert.assertTrue(workingDirectory.delete());
+        }
+    }
+
     @Test(expectedExceptions = MXFException.class, expectedExceptionsMessageRegExp = "RandomIndexPackSize = .*")
     public void badRandomIndexPackLength() throws IOException
     {
@@ -51,7 +116,7 @@ public class IMFTrackFileReaderTest
         File workingDirectory = Files.createTempDirectory(null).toFile();
         ResourceByteRangeProvider resourceByteRangeProvider = mock(ResourceByteRangeProvider.class);
         when(resourceByteRangeProvider.getResourceSize()).thenReturn(16L);
-        when(resourceByteRangeProvider.getByteRange(anyLong(), anyLong(), any(File.class))).thenReturn(inputFile);
+        when(resourceByteRangeProvider.getByteRangeAsByteBuffer(anyLong(), anyLong())).thenReturn(ByteBuffer.wrap(Files.readAllBytes(inputFile.toPath())));
         IMFTrackFileReader imfTrackFileReader = new IMFTrackFileReader(workingDirectory, resourceByteRangeProvider);
         IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl();
         imfTrackFileReader.getRandomIndexPack(imfErrorLogger);
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.imflibrary.app;
+
+import com.netflix.imflibrary.TerminatingIMFErrorListener;
+import com.netflix.imflibrary.exceptions.IMFValidationTerminatedException;
+import com.netflix.imflibrary.utils.ErrorLogger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import testUtils.TestHelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Test(groups = "unit")
+public class PhotonIMPAnalyzerTest
+{
+    /*
+     * Copies the test_mapped_file_set package into a temporary directory, with a real track file in place of each of its empty
+     * track files, so that the header partitions of the track files are analyzed along with the CPL
+     */
+    private static File createPackage() throws IOException
+    {
+        File packageDirectory = Files.createTempDirectory(null).toFile();
+        File rootFile = TestHelper.findResourceByPath("test_mapped_file_set");
+        File trackFile = TestHelper.findResourceByPath("TearsOfSteel_4k_Test_Master_Audio_002.mxf");
+        for (File file : rootFile.listFiles())
+        {
+            File sourceFile = file.getName().endsWith(".mxf") ? trackFile : file;
+            Files.copy(sourceFile.toPath(), new File(packageDirectory, file.getName()).toPath());
+        }
+        return packageDirectory;
+    }
+
+    private static void deletePackage(File packageDirectory)
+    {
+        for (File file : packageDirectory.listFiles())
+        {
+            Assert.assertTrue(file.delete());
+        }
+        Assert.assertTrue(packageDirectory.delete());
+    }
+
+    @Test
+    public void parallelAnalysisTest() throws IOException
+    {
+        File packageDirectory = createPackage();
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try
+        {
+            Map<String, List<ErrorLogger.ErrorObject>> errorMap = PhotonIMPAnalyzer.analyzePackage(packageDirectory);
+            //the header partitions of both track files are read and validated, as is the CPL
+            for (String trackFileName : new String[]{"0311b323-564c-1857-a294-c0822db99baa.mxf", "93c158aa-b9e8-152e-9f17-0e9a350ff9ac.mxf"})
+            {
+                Assert.assertFalse(errorMap.get(trackFileName).toString().contains("Failed to get header partition"));
+                Assert.assertTrue(errorMap.get(trackFileName).toString().contains("cfbcf3b9-6250-467c-bd18-9f5de0df9ffb"));
+            }
+            Assert.assertTrue(errorMap.containsKey("CPL_682feecb-7516-4d93-b533-f40d4ce60539.xml"));
+
+            Map<String, List<ErrorLogger.ErrorObject>> parallelErrorMap = PhotonIMPAnalyzer.analyzePackage(packageDirectory, executorService);
+            Assert.assertEquals(parallelErrorMap.keySet(), errorMap.keySet());
+            for (Map.Entry<String, List<ErrorLogger.ErrorObject>> entry : errorMap.entrySet())
+            {
+                Assert.assertEquals(parallelErrorMap.get(entry.getKey()).toString(), entry.getValue().toString());
+            }
+        }
+        finally
+        {
+            executorService.shutdown();
+            deletePackage(packageDirectory);
+        }
+    }
+
+    @Test
+    public void invalidHeaderPartitionTest() throws IOException
+    {
+        File packageDirectory = createPackage();
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try
+        {
+            //the random index pack still locates the header partition, but the length of its partition pack is corrupted, so
+            //that the validation of the header partition fails to read it rather than the header partition being conformed
+            File trackFile = new File(packageDirectory, "0311b323-564c-1857-a294-c0822db99baa.mxf");
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(trackFile, "rw"))
+            {
+                randomAccessFile.seek(19);
+                randomAccessFile.write(0);
+            }
+
+            for (ExecutorService analysisExecutorService : new ExecutorService[]{null, executorService})
+            {
+                try
+                {
+                    PhotonIMPAnalyzer.analyzePackage(packageDirectory, analysisExecutorService);
+                    Assert.fail("The failure to read the header partition was not propagated");
+                }
+                catch (IOException e)
+                {
+                    Assert.assertTrue(e.getMessage().contains("Cannot read"));
+                }
+            }
+        }
+        finally
+        {
+            executorService.shutdown();
+            deletePackage(packageDirectory);
+        }
+    }
+
+    @Test
+    public void errorListenerTest() throws IOException
+    {
+        File rootFile = TestHelper.findResourceByPath("test_mapped_file_set");
+        List<ErrorLogger.ErrorObject> notifiedErrors = Collections.synchronizedList(new ArrayList<>());
+        Map<String, List<ErrorLogger.ErrorObject>> errorMap = PhotonIMPAnalyzer.analyzePackage(rootFile, null, notifiedErrors::add);
+        int numberOfErrors = 0;
+        for (List<ErrorLogger.ErrorObject> errors : errorMap.values())
+        {
+            numberOfErrors += errors.size();
+        }
+        Assert.assertEquals(notifiedErrors.size(), numberOfErrors);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try
+        {
+            TerminatingIMFErrorListener errorListener = new TerminatingIMFErrorListener(null, true, 0);
+            PhotonIMPAnalyzer.analyzePackage(rootFile, executorService, errorListener);
+            Assert.fail("The analysis was not terminated at the first fatal error");
+        }
+        catch (IMFValidationTerminatedException e)
+        {
+            Assert.assertTrue(e.getMessage().contains("Failed to get header partition"));
+        }
+        finally
+        {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void hashVerificationTest() throws IOException
+    {
+        File rootFile = TestHelper.findResourceByPath("test_mapped_file_set");
+        String packingListName = "PKL_51edd4be-4506-494d-a58e-516553055c33.xml";
+        Map<String, List<ErrorLogger.ErrorObject>> errorMap = PhotonIMPAnalyzer.analyzePackage(rootFile, null, null, 0);
+        int numberOfErrors = errorMap.get(packingListName).size();
+
+        //none of the hashes in the PackingList match the content of the assets
+        Map<String, List<ErrorLogger.ErrorObject>> hashVerificationErrorMap = PhotonIMPAnalyzer.analyzePackage(rootFile, null, null, 2);
+        List<ErrorLogger.ErrorObject> packingListErrors = hashVerificationErrorMap.get(packingListName);
+        Assert.assertEquals(packingListErrors.size(), numberOfErrors + 3);
+        Assert.assertTrue(packingListErrors.get(numberOfErrors).toString().contains("93c158aa-b9e8-152e-9f17-0e9a350ff9ac"));
+        Assert.assertTrue(packingListErrors.get(numberOfErrors).toString().contains("2jmj7l5rSw0yVb/vlWAYkK/YBwk="));
+        Assert.assertTrue(packingListErrors.get(numberOfErrors + 2).toString().contains("up3jSJoT34L8X11s5spN+IvEroc="));
+    }
+
+    @Test
+    public void matchingHashVerificationTest() throws Exception
+    {
+        File packageDirectory = createPackage();
+        try
+        {
+            //the hashes in the PackingList are replaced by the hashes of the assets in the package
+            String packingListName = "PKL_51edd4be-4506-494d-a58e-516553055c33.xml";
+            File packingListFile = new File(packageDirectory, packingListName);
+            String packingList = new String(Files.readAllBytes(packingListFile.toPath()), StandardCharsets.UTF_8);
+            packingList = packingList.replace("B3+P/c+Fp+x7/ppjac7AazbN4b4=", getHash(new File(packageDirectory, "93c158aa-b9e8-152e-9f17-0e9a350ff9ac.mxf")))
+                    .replace("NnT7nF401l6soJKv5IWlZjhpD88=", getHash(new File(packageDirectory, "0311b323-564c-1857-a294-c0822db99baa.mxf")))
+                    .replace("pqWcG02X8JJILpLgQZN9lG9JEGo=", getHash(new File(packageDirectory, "CPL_682feecb-7516-4d93-b533-f40d4ce60539.xml")));
+            Files.write(packingListFile.toPath(), packingList.getBytes(StandardCharsets.UTF_8));
+
+            Map<String, List<ErrorLogger.ErrorObject>> errorMap = PhotonIMPAnalyzer.analyzePackage(packageDirectory, null, null, 0);
+            Map<String, List<ErrorLogger.ErrorObject>> hashVerificationErrorMap = PhotonIMPAnalyzer.analyzePackage(packageDirectory, null, null, 2);
+            Assert.assertEquals(hashVerificationErrorMap.get(packingListName).toString(), errorMap.get(packingListName).toString());
+            Assert.assertFalse(hashVerificationErrorMap.get(packingListName).toString().contains("hash"));
+        }
+        finally
+        {
+            deletePackage(packageDirectory);
+        }
+    }
+
+    private static String getHash(File file) throws Exception
+    {
+        MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+        return Base64.getEncoder().encodeToString(messageDigest.digest(Files.readAllBytes(file.toPath())));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.imflibrary.app;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import testUtils.TestHelper;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+@Test(groups = "unit")
+public class PhotonIMPFixerTest
+{
+    private static final String PACKING_LIST_NAME = "PKL_51edd4be-4506-494d-a58e-516553055c33.xml";
+    private static final String[] TRACK_FILE_NAMES = {"93c158aa-b9e8-152e-9f17-0e9a350ff9ac.mxf", "0311b323-564c-1857-a294-c0822db99baa.mxf"};
+
+    /*
+     * Copies the test_mapped_file_set package into a temporary directory, with a real track file in place of each of its empty
+     * track files and without the CPL in its PackingList, so that only the track files are fixed
+     */
+    private static File createPackage() throws Exception
+    {
+        File packageDirectory = Files.createTempDirectory(null).toFile();
+        File rootFile = TestHelper.findResourceByPath("test_mapped_file_set");
+        for (File file : rootFile.listFiles())
+        {
+            Files.copy(file.toPath(), new File(packageDirectory, file.getName()).toPath());
+        }
+        File trackFile = TestHelper.findResourceByPath("TearsOfSteel_4k_Test_Master_Audio_002.mxf");
+        for (String trackFileName : TRACK_FILE_NAMES)
+        {
+            Files.copy(trackFile.toPath(), new File(packageDirectory, trackFileName).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        File packingListFile = new File(packageDirectory, PACKING_LIST_NAME);
+        String packingList = new String(Files.readAllBytes(packingListFile.toPath()), StandardCharsets.UTF_8);
+        packingList = packingList.replaceAll("(?s)\\s*<Asset>\\s*<Id>urn:uuid:682feecb-7516-4d93-b533-f40d4ce60539</Id>.*?</Asset>", "");
+        Files.write(packingListFile.toPath(), packingList.getBytes(StandardCharsets.UTF_8));
+        return packageDirectory;
+    }
+
+    private static void deletePackage(File packageDirectory)
+    {
+        for (File file : packageDirectory.listFiles())
+        {
+            Assert.assertTrue(file.delete());
+        }
+        Assert.assertTrue(packageDirectory.delete());
+    }
+
+    @Test
+    public void inPlaceFixTest() throws Exception
+    {
+        byte[] trackFileBytes = Files.readAllBytes(TestHelper.findResourceByPath("TearsOfSteel_4k_Test_Master_Audio_002.mxf").toPath());
+        File packageDirectory = createPackage();
+        try
+        {
+            //copied and hashed in a single pass
+            PhotonIMPFixer.analyzePackageAndWrite(packageDirectory, packageDirectory, "", true, true);
+            for (String trackFileName : TRACK_FILE_NAMES)
+            {
+                Assert.assertEquals(Files.readAllBytes(new File(packageDirectory, trackFileName).toPath()), trackFileBytes);
+            }
+
+            //copied without being hashed
+            PhotonIMPFixer.analyzePackageAndWrite(packageDirectory, packageDirectory, "", true, false);
+            for (String trackFileName : TRACK_FILE_NAMES)
+            {
+                Assert.assertEquals(Files.readAllBytes(new File(packageDirectory, trackFileName).toPath()), trackFileBytes);
+            }
+
+            //linked
+            PhotonIMPFixer.analyzePackageAndWrite(packageDirectory, packageDirectory, "", true, true, true, null);
+            for (String trackFileName : TRACK_FILE_NAMES)
+            {
+                Assert.assertEquals(Files.readAllBytes(new File(packageDirectory, trackFileName).toPath()), trackFileBytes);
+            }
+        }
+        finally
+        {
+            deletePackage(packageDirectory);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ *
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.netflix.imflibrary.st0377;
+
+import com.netflix.imflibrary.KLVPacket;
+import com.netflix.imflibrary.exceptions.MXFException;
+import com.netflix.imflibrary.utils.ByteArrayByteRangeProvider;
+import com.netflix.imflibrary.utils.ByteArrayDataProvider;
+import com.netflix.imflibrary.utils.ByteProvider;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@Test(groups = "unit")
+public class EssenceAccessorTest
+{
+    private static final byte[] PARTITION_PACK_KEY = {0x06, 0x0e, 0x2b, 0x34, 0x02, 0x05, 0x01, 0x01, 0x0d, 0x01, 0x02, 0x01, 0x01, 0x00, 0x04, 0x00};
+    private static final byte[] KLV_FILL_ITEM_KEY = {0x06, 0x0e, 0x2b, 0x34, 0x01, 0x01, 0x01, 0x02, 0x03, 0x01, 0x02, 0x10, 0x01, 0x00, 0x00, 0x00};
+    private static final byte[] ESSENCE_ELEMENT_KEY = {0x06, 0x0e, 0x2b, 0x34, 0x01, 0x02, 0x01, 0x01, 0x0d, 0x01, 0x03, 0x01, 0x16, 0x01, 0x01, 0x01};
+    private static final byte[] INDEX_TABLE_SEGMENT_KEY = {0x06, 0x0e, 0x2b, 0x34, 0x02, 0x53, 0x01, 0x01, 0x0d, 0x01, 0x02, 0x01, 0x01, 0x10, 0x01, 0x00};
+    private static final int PARTITION_PACK_VALUE_SIZE = 88;
+    //the essence elements of the five edit units, the first three in the first body partition and the last two in the second one
+    private static final int[] ESSENCE_ELEMENT_SIZES = {100, 50, 200, 30, 70};
+    private static final long[] STREAM_OFFSETS = {0, 120, 190, 410, 460};
+
+    private static void putKLVHeader(ByteBuffer byteBuffer, byte[] key, int valueSize)
+    {
+        byteBuffer.put(key).put((byte)0x83).put((byte)(valueSize >> 16)).put((byte)(valueSize >> 8)).put((byte)valueSize);
+    }
+
+    private static void putPartitionPack(ByteBuffer byteBuffer, byte partitionType, long bodyOffset, long bodySID)
+    {
+        long thisPartition = byteBuffer.position();
+        byte[] key = Arrays.copyOf(PARTITION_PACK_KEY, PARTITION_PACK_KEY.length);
+        key[13] = partitionType;
+        putKLVHeader(byteBuffer, key, PARTITION_PACK_VALUE_SIZE);
+        byteBuffer.putShort((short)1).putShort((short)3).putInt(1);
+        byteBuffer.putLong(thisPartition).putLong(0L).putLong(0L).putLong(0L).putLong(0L);
+        byteBuffer.putInt(0).putLong(bodyOffset).putInt((int)bodySID);
+        byteBuffer.put(new byte[16]);
+        byteBuffer.putInt(0).putInt(16);
+    }
+
+    private static void putEssenceElement(ByteBuffer byteBuffer, int size)
+    {
+        putKLVHeader(byteBuffer, ESSENCE_ELEMENT_KEY, size);
+        for (int i=0; i<size; i++)
+        {
+            byteBuffer.put((byte)size);
+        }
+    }
+
+    /*
+     * A frame-wrapped essence container with body SID 1 in two body partitions, the second of which has a KLV fill item
+     * between its partition pack and its essence
+     */
+    private static byte[] getFrameWrappedBytes()
+    {
+        ByteBuffer byteBuffer = ByteBuffer.allocate(906);
+        putPartitionPack(byteBuffer, (byte)0x02, 0L, 0L);
+        putPartitionPack(byteBuffer, (byte)0x03, 0L, 1L);
+        for (int i=0; i<3; i++)
+        {
+            putEssenceElement(byteBuffer, ESSENCE_ELEMENT_SIZES[i]);
+        }
+        putPartitionPack(byteBuffer, (byte)0x03, STREAM_OFFSETS[3], 1L);
+        putKLVHeader(byteBuffer, KLV_FILL_ITEM_KEY, 12);
+        byteBuffer.put(new byte[12]);
+        for (int i=3; i<5; i++)
+        {
+            putEssenceElement(byteBuffer, ESSENCE_ELEMENT_SIZES[i]);
+        }
+        Assert.assertEquals(byteBuffer.remaining(), 0);
+        return byteBuffer.array();
+    }
+
+    private static IndexTableSegment getVariableByteCountIndexTableSegment() throws IOException
+    {
+        ByteBuffer byteBuffer = ByteBuffer.allocate(20 + 115);
+        putKLVHeader(byteBuffer, INDEX_TABLE_SEGMENT_KEY, 115);
+        byteBuffer.putShort((short)0x3f0c).putShort((short)8).putLong(0L);
+        byteBuffer.putShort((short)0x3f0d).putShort((short)8).putLong(STREAM_OFFSETS.length);
+        byteBuffer.putShort((short)0x3f05).putShort((short)4).putInt(0);
+        byteBuffer.putShort((short)0x3f06).putShort((short)4).putInt(2);
+        byteBuffer.putShort((short)0x3f07).putShort((short)4).putInt(1);
+        byteBuffer.putShort((short)0x3f0a).putShort((short)(8 + 11 * STREAM_OFFSETS.length));
+        byteBuffer.putInt(STREAM_OFFSETS.length).putInt(11);
+        for (long streamOffset : STREAM_OFFSETS)
+        {
+            byteBuffer.put((byte)0).put((byte)0).put((byte)0x80).putLong(streamOffset);
+        }
+        ByteProvider byteProvider = new ByteArrayDataProvider(byteBuffer.array());
+        return new IndexTableSegment(byteProvider, new KLVPacket.Header(byteProvider, 0L));
+    }
+
+    private static EssenceAccessor getFrameWrappedEssenceAccessor(byte[] bytes) throws IOException
+    {
+        List<PartitionPack> partitionPacks = new ArrayList<>();
+        for (long byteOffset : new long[]{626L, 0L, 108L})
+        {
+            partitionPacks.add(new PartitionPack(new ByteArrayDataProvider(Arrays.copyOfRange(bytes, (int)byteOffset, bytes.length)), byteOffset, false));
+        }
+        return new EssenceAccessor(new ByteArrayByteRangeProvider(bytes), partitionPacks,
+                Collections.singletonList(getVariableByteCountIndexTableSegment()));
+    }
+
+    @Test
+    public void frameWrappedTest() throws IOException
+    {
+        byte[] bytes = getFrameWrappedBytes();
+        EssenceAccessor essenceAccessor = getFrameWrappedEssenceAccessor(bytes);
+        Assert.assertFalse(essenceAccessor.isClipWrapped());
+
+        //the size of an edit unit indexed by an index entry extends to the stream offset of the next edit unit
+        Assert.assertEquals(essenceAccessor.getIndexTable().getEditUnitLocation(0).getSize(), 120L);
+
+        //the essence of the body partition at byte offset 108 follows its 108 byte partition pack, whereas the essence of the
+        //body partition at byte offset 626 follows its partition pack and a 32 byte KLV fill item
+        long[] klvPacketByteOffsets = {216L, 336L, 406L, 766L, 816L};
+        for (int i=0; i<STREAM_OFFSETS.length; i++)
+        {
+            EssenceAccessor.EssenceElement essenceElement = essenceAccessor.getEssenceElement(i);
+            Assert.assertEquals(essenceElement.getEditUnitLocation().getStreamOffset(), STREAM_OFFSETS[i]);
+            Assert.assertEquals(essenceElement.getKLVPacketByteOffset(), klvPacketByteOffsets[i]);
+            Assert.assertEquals(essenceElement.getByteOffset(), klvPacketByteOffsets[i] + 20L);
+            Assert.assertEquals(essenceElement.getSize(), (long)ESSENCE_ELEMENT_SIZES[i]);
+
+            ByteBuffer payload = essenceAccessor.getEssencePayload(i);
+            byte[] payloadBytes = new byte[payload.remaining()];
+            payload.get(payloadBytes);
+            Assert.assertEquals(payloadBytes, Arrays.copyOfRange(bytes, (int)klvPacketByteOffsets[i] + 20, (int)klvPacketByteOffsets[i] + 20 + ESSENCE_ELEMENT_SIZES[i]));
+        }
+    }
+
+    @Test(expectedExceptions = MXFException.class)
+    public void editUnitNotIndexedTest() throws IOException
+    {
+        getFrameWrappedEssenceAccessor(getFrameWrappedBytes()).getEssenceElement(STREAM_OFFSETS.length);
+    }
+}
@@ -18,6 +18,7 @@ package com.netflix.imflibrary.st0377;
 
 import com.netflix.imflibrary.IMFErrorLogger;
 import com.netflix.imflibrary.IMFErrorLoggerImpl;
+import com.netflix.imflibrary.KLVPacket;
 import com.netflix.imflibrary.MXFUID;
 import com.netflix.imflibrary.exceptions.MXFException;
 import com.netflix.imflibrary.st0377.header.*;
@@ -27,10 +28,13 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 import testUtils.TestHelper;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
 
 public class HeaderPartitionTest
@@ -216,4 +220,182 @@ public class HeaderPartitionTest
     }));
 
     }
+
+    @Test
+    public void lazyHeaderPartitionTest() throws IOException
+    {
+        for (String resource : Arrays.asList("TearsOfSteel_4k_Test_Master_Audio_002.mxf.hdr", "CHIMERA_NETFLIX_2398.mxf.hdr", "NMPC_6000ms_6Ch_ch_id.mxf.hdr"))
+        {
+            File inputFile = TestHelper.findResourceByPath(resource);
+            byte[] bytes = Files.readAllBytes(Paths.get(inputFile.toURI()));
+            HeaderPartition headerPartition = new HeaderPartition(new ByteArrayDataProvider(bytes), 0L, inputFile.length(), new IMFErrorLoggerImpl());
+            HeaderPartition lazyHeaderPartition = HeaderPartition.createLazyHeaderPartition(ByteBuffer.wrap(bytes), 0L, inputFile.length(), new IMFErrorLoggerImpl());
+
+            //checks answered before the structural metadata sets are parsed
+            Assert.assertEquals(lazyHeaderPartition.hasWaveAudioEssenceDescriptor(), headerPartition.hasWaveAudioEssenceDescriptor());
+            Assert.assertEquals(lazyHeaderPartition.hasCDCIPictureEssenceDescriptor(), headerPartition.hasCDCIPictureEssenceDescriptor());
+            Assert.assertEquals(lazyHeaderPartition.hasRGBAPictureEssenceDescriptor(), headerPartition.hasRGBAPictureEssenceDescriptor());
+            Assert.assertEquals(lazyHeaderPartition.hasAudioChannelLabelSubDescriptors(), headerPartition.hasAudioChannelLabelSubDescriptors());
+            Assert.assertEquals(lazyHeaderPartition.hasSoundFieldGroupLabelSubDescriptor(), headerPartition.hasSoundFieldGroupLabelSubDescriptor());
+            Assert.assertEquals(lazyHeaderPartition.getPartitionPack().toString(), headerPartition.getPartitionPack().toString());
+
+            //checks answered before the object model is built
+            Assert.assertEquals(lazyHeaderPartition.getEssenceTypes(), headerPartition.getEssenceTypes());
+            Assert.assertEquals(lazyHeaderPartition.getEssenceDescriptors().size(), headerPartition.getEssenceDescriptors().size());
+            Assert.assertEquals(lazyHeaderPartition.getEssenceDescriptors().get(0).toString(), headerPartition.getEssenceDescriptors().get(0).toString());
+            Assert.assertEquals(lazyHeaderPartition.getSubDescriptors().size(), headerPartition.getSubDescriptors().size());
+            Assert.assertEquals(lazyHeaderPartition.hasSoundFieldGroupLabelSubDescriptor(), headerPartition.hasSoundFieldGroupLabelSubDescriptor());
+            Assert.assertEquals(lazyHeaderPartition.getAudioEssenceSpokenLanguage(), headerPartition.getAudioEssenceSpokenLanguage());
+
+            Assert.assertEquals(lazyHeaderPartition.getEssenceDuration(), headerPartition.getEssenceDuration());
+            //some sets print the identity hash codes of their members
+            Assert.assertEquals(lazyHeaderPartition.toString().replaceAll("@[0-9a-f]+", ""), headerPartition.toString().replaceAll("@[0-9a-f]+", ""));
+        }
+    }
+
+    @Test(expectedExceptions = MXFException.class)
+    public void lazyHeaderPartitionWithoutPrefaceTest() throws IOException
+    {
+        File inputFile = TestHelper.findResourceByPath("TearsOfSteel_4k_Test_Master_Audio_002.mxf.hdr");
+        byte[] bytes = Files.readAllBytes(Paths.get(inputFile.toURI()));
+        //the Preface set count is validated from the KLV keys when the header partition is indexed
+        HeaderPartition.createLazyHeaderPartition(ByteBuffer.wrap(bytes), 0L, 0L, new IMFErrorLoggerImpl());
+    }
+
+    @Test
+    public void lazyHeaderPartitionWithInvalidSetTest() throws IOException
+    {
+        File inputFile = TestHelper.findResourceByPath("TearsOfSteel_4k_Test_Master_Audio_002.mxf.hdr");
+        byte[] bytes = Files.readAllBytes(Paths.get(inputFile.toURI()));
+        //the corrupted byte leaves the data definition of a Sequence set null, which is only found when the sets are parsed
+        bytes[152] = 0;
+        IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl();
+        HeaderPartition lazyHeaderPartition = HeaderPartition.createLazyHeaderPartition(ByteBuffer.wrap(bytes), 0L, inputFile.length(), imfErrorLogger);
+        Assert.assertEquals(imfErrorLogger.getNumberOfErrors(), 0);
+
+        MXFException mxfException = null;
+        try
+        {
+            lazyHeaderPartition.getEssenceDescriptors();
+        }
+        catch (MXFException e)
+        {
+            mxfException = e;
+        }
+        Assert.assertNotNull(mxfException);
+        Assert.assertEquals(imfErrorLogger.getNumberOfErrors(), 1);
+
+        //later accesses fail the same way, without reporting the errors again
+        try
+        {
+            lazyHeaderPartition.getPreface();
+            Assert.fail("The object model of an invalid header partition was built");
+        }
+        catch (MXFException e)
+        {
+            Assert.assertSame(e, mxfException);
+        }
+        Assert.assertEquals(imfErrorLogger.getNumberOfErrors(), 1);
+    }
+
+    @Test(timeOut = 20000)
+    public void headerPartitionWithManySetsTest() throws IOException
+    {
+        File inputFile = TestHelper.findResourceByPath("TearsOfSteel_4k_Test_Master_Audio_002.mxf.hdr");
+        byte[] bytes = Files.readAllBytes(Paths.get(inputFile.toURI()));
+
+        //find a SourceClip set and a Sequence set to use as templates
+        byte[] sourceClipKey = null;
+        byte[] sourceClipValue = null;
+        byte[] sequenceKey = null;
+        byte[] sequenceValue = null;
+        ByteProvider byteProvider = new ByteArrayDataProvider(bytes);
+        long byteOffset = 0;
+        while (byteOffset < bytes.length)
+        {
+            KLVPacket.Header header = new KLVPacket.Header(byteProvider, byteOffset);
+            byte[] value = byteProvider.getBytes((int)header.getVSize());
+            Class clazz = StructuralMetadata.getStructuralMetadataSetClass(header.getKey());
+            if (clazz == SourceClip.SourceClipBO.class)
+            {
+                sourceClipKey = header.getKey();
+                sourceClipValue = value;
+            }
+            else if (clazz == Sequence.SequenceBO.class)
+            {
+                sequenceKey = header.getKey();
+                sequenceValue = value;
+            }
+            byteOffset += header.getKLSize() + header.getVSize();
+        }
+        Assert.assertNotNull(sourceClipValue);
+        Assert.assertNotNull(sequenceValue);
+
+        //append 100000 sets, pairs of a Sequence that references a SourceClip, that in turn references the source package
+        int numPairs = 50000;
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        byteArrayOutputStream.write(bytes);
+        byte[] sequenceUID = null;
+        byte[] sourceClipUID = null;
+        for (int i = 0; i < numPairs; i++)
+        {
+            sourceClipUID = getUID(2 * i);
+            sequenceUID = getUID(2 * i + 1);
+            byte[] structuralComponents = ByteBuffer.allocate(8 + 16).putInt(1).putInt(16).put(sourceClipUID).array();
+            writeKLV(byteArrayOutputStream, sourceClipKey, replaceLocalSetItem(sourceClipValue, 0x3c0a, sourceClipUID));
+            writeKLV(byteArrayOutputStream, sequenceKey,
+                    replaceLocalSetItem(replaceLocalSetItem(sequenceValue, 0x3c0a, sequenceUID), 0x1001, structuralComponents));
+        }
+        bytes = byteArrayOutputStream.toByteArray();
+
+        IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl();
+        HeaderPartition headerPartition = new HeaderPartition(new ByteArrayDataProvider(bytes), 0L, bytes.length, imfErrorLogger);
+        Assert.assertEquals(headerPartition.getMaterialPackages().size(), 1);
+        Sequence sequence = headerPartition.getSequence(new MXFUID(sequenceUID));
+        Assert.assertNotNull(sequence);
+        Assert.assertEquals(sequence.getStructuralComponentInstanceUIDs().get(0), new MXFUID(sourceClipUID));
+        Assert.assertEquals(sequence.getSourceClips().size(), 1);
+        Assert.assertNotNull(headerPartition.getSourceClip(new MXFUID(sourceClipUID)));
+    }
+
+    private static byte[] getUID(int i)
+    {
+        return ByteBuffer.allocate(16).putLong(0x0123456789abcdefL).putLong(i).array();
+    }
+
+    private static void writeKLV(ByteArrayOutputStream byteArrayOutputStream, byte[] key, byte[] value) throws IOException
+    {
+        byteArrayOutputStream.write(key);
+        byteArrayOutputStream.write(new byte[]{(byte)0x83, (byte)(value.length >> 16), (byte)(value.length >> 8), (byte)value.length});
+        byteArrayOutputStream.write(value);
+    }
+
+    //returns a copy of a local set with 2-byte tags and lengths, where the item with the given tag has a new value
+    private static byte[] replaceLocalSetItem(byte[] localSet, int tag, byte[] itemValue)
+    {
+        ByteBuffer input = ByteBuffer.wrap(localSet);
+        ByteBuffer output = ByteBuffer.allocate(localSet.length + itemValue.length + 4);
+        boolean found = false;
+        while (input.hasRemaining())
+        {
+            int itemTag = input.getShort() & 0xffff;
+            int itemLength = input.getShort() & 0xffff;
+            output.putShort((short)itemTag);
+            if (itemTag == tag)
+            {
+                output.putShort((short)itemValue.length).put(itemValue);
+                input.position(input.position() + itemLength);
+                found = true;
+            }
+            else
+            {
+                byte[] value = new byte[itemLength];
+                input.get(value);
+                output.putShort((short)itemLength).put(value);
+            }
+        }
+        Assert.assertTrue(found);
+        return Arrays.copyOf(output.array(), output.position());
+    }
+
 }
@@ -17,6 +17,7 @@
 package com.netflix.imflibrary.st0377;
 
 import com.netflix.imflibrary.KLVPacket;
+import com.netflix.imflibrary.exceptions.MXFException;
 import com.netflix.imflibrary.utils.ByteArrayDataProvider;
 import com.netflix.imflibrary.utils.ByteProvider;
 import org.testng.Assert;
@@ -25,6 +26,7 @@ import testUtils.TestHelper;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 
@@ -41,5 +43,29 @@ public class IndexTableSegmentTest
         Assert.assertTrue(indexTableSegment.toString().length() > 0);
         Assert.assertEquals(indexTableSegment.getIndexEntries().size(), 96);
         Assert.assertEquals(indexTableSegment.getIndexEntries().get(1).getStreamOffset(), 28127L);
+        Assert.assertEquals(indexTableSegment.getIndexEntryArray().size(), 96);
+        Assert.assertEquals(indexTableSegment.getIndexEntryArray().getStreamOffset(1), 28127L);
+        Assert.assertEquals(indexTableSegment.getIndexEntryArray().getKeyFrameOffset(1), 0);
+        Assert.assertEquals(indexTableSegment.getIndexStartPosition(), 0L);
+        Assert.assertEquals(indexTableSegment.getIndexDuration(), 96L);
+    }
+
+    @Test(expectedExceptions = MXFException.class, expectedExceptionsMessageRegExp = "Found index entry array with 2147483647 entries .*")
+    public void corruptIndexEntryArrayTest() throws IOException
+    {
+        File inputFile = TestHelper.findResourceByPath("Netflix_Ident_23976_3840x2160_177AR.mxf.idx");
+        byte[] bytes = Files.readAllBytes(Paths.get(inputFile.toURI()));
+        //patch the number of entries of the index entry array, which follows its local tag and length
+        for (int i=0; i<bytes.length - 8; i++)
+        {
+            if (bytes[i] == 0x3f && bytes[i + 1] == 0x0a)
+            {
+                ByteBuffer.wrap(bytes, i + 4, 4).putInt(Integer.MAX_VALUE);
+                break;
+            }
+        }
+        ByteProvider byteProvider = new ByteArrayDataProvider(bytes);
+        KLVPacket.Header header = new KLVPacket.Header(byteProvider, 0L);
+        new IndexTableSegment(byteProvider, header);
     }
 }
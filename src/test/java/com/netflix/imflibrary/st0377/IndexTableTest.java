@@ -0,0 +1,151 @@
+/*
+ *
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.netflix.imflibrary.st0377;
+
+import com.netflix.imflibrary.KLVPacket;
+import com.netflix.imflibrary.exceptions.MXFException;
+import com.netflix.imflibrary.utils.ByteArrayDataProvider;
+import com.netflix.imflibrary.utils.ByteProvider;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import testUtils.TestHelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+
+@Test(groups = "unit")
+public class IndexTableTest
+{
+    private static IndexTableSegment getIndexTableSegment(byte[] bytes) throws IOException
+    {
+        ByteProvider byteProvider = new ByteArrayDataProvider(bytes);
+        KLVPacket.Header header = new KLVPacket.Header(byteProvider, 0L);
+        return new IndexTableSegment(byteProvider, header);
+    }
+
+    private static byte[] getVBEIndexTableSegmentBytes() throws IOException
+    {
+        File inputFile = TestHelper.findResourceByPath("Netflix_Ident_23976_3840x2160_177AR.mxf.idx");
+        return Files.readAllBytes(Paths.get(inputFile.toURI()));
+    }
+
+    @Test
+    public void variableByteCountTest() throws IOException
+    {
+        IndexTableSegment indexTableSegment = getIndexTableSegment(getVBEIndexTableSegmentBytes());
+        //the same segment repeated, as in the header and footer partitions
+        IndexTable indexTable = new IndexTable(Arrays.asList(indexTableSegment, indexTableSegment), 0x915287 + 1000);
+        Assert.assertEquals(indexTable.getNumberOfSegments(), 1);
+
+        IndexTable.EditUnitLocation editUnitLocation = indexTable.getEditUnitLocation(1);
+        Assert.assertEquals(editUnitLocation.getStreamOffset(), 28127L);
+        Assert.assertEquals(editUnitLocation.getSize(), 0xdbde - 0x6ddf);
+        Assert.assertEquals(editUnitLocation.getKeyFrameEditUnit(), 1L);
+
+        editUnitLocation = indexTable.getEditUnitLocation(95);
+        Assert.assertEquals(editUnitLocation.getStreamOffset(), 0x915287L);
+        Assert.assertEquals(editUnitLocation.getSize(), 1000L);
+
+        IndexTable indexTableWithUnknownSize = new IndexTable(Collections.singletonList(indexTableSegment), -1L);
+        Assert.assertEquals(indexTableWithUnknownSize.getEditUnitLocation(95).getSize(), -1L);
+    }
+
+    @Test
+    public void multipleSegmentsTest() throws IOException
+    {
+        byte[] bytes = getVBEIndexTableSegmentBytes();
+        IndexTableSegment firstSegment = getIndexTableSegment(bytes);
+
+        //patch the index start position of a copy of the segment, so that it indexes edit units 96 through 191
+        byte[] secondSegmentBytes = Arrays.copyOf(bytes, bytes.length);
+        for (int i=0; i<secondSegmentBytes.length - 12; i++)
+        {
+            if (secondSegmentBytes[i] == 0x3f && secondSegmentBytes[i + 1] == 0x0c && secondSegmentBytes[i + 2] == 0 && secondSegmentBytes[i + 3] == 8)
+            {
+                ByteBuffer.wrap(secondSegmentBytes, i + 4, 8).putLong(96L);
+                break;
+            }
+        }
+        IndexTableSegment secondSegment = getIndexTableSegment(secondSegmentBytes);
+        Assert.assertEquals(secondSegment.getIndexStartPosition(), 96L);
+
+        IndexTable indexTable = new IndexTable(Arrays.asList(secondSegment, firstSegment), -1L);
+        Assert.assertEquals(indexTable.getNumberOfSegments(), 2);
+        Assert.assertEquals(indexTable.getEditUnitLocation(1).getStreamOffset(), 28127L);
+        Assert.assertEquals(indexTable.getEditUnitLocation(96).getStreamOffset(), 0L);
+        Assert.assertEquals(indexTable.getEditUnitLocation(99).getStreamOffset(), 0x14a3dL);
+        Assert.assertEquals(indexTable.getEditUnitLocation(99).getEditUnit(), 99L);
+    }
+
+    @Test(expectedExceptions = MXFException.class)
+    public void editUnitNotIndexedTest() throws IOException
+    {
+        IndexTable indexTable = new IndexTable(Collections.singletonList(getIndexTableSegment(getVBEIndexTableSegmentBytes())), -1L);
+        indexTable.getEditUnitLocation(96);
+    }
+
+    private static IndexTableSegment getConstantByteCountIndexTableSegment(int editUnitByteCount, long indexStartPosition, long indexDuration)
+            throws IOException
+    {
+        ByteBuffer byteBuffer = ByteBuffer.allocate(52);
+        byteBuffer.put(new byte[]{0x06, 0x0e, 0x2b, 0x34, 0x02, 0x53, 0x01, 0x01, 0x0d, 0x01, 0x02, 0x01, 0x01, 0x10, 0x01, 0x00});
+        byteBuffer.put((byte)0x83).put((byte)0).put((byte)0).put((byte)32);
+        byteBuffer.putShort((short)0x3f05).putShort((short)4).putInt(editUnitByteCount);
+        byteBuffer.putShort((short)0x3f0c).putShort((short)8).putLong(indexStartPosition);
+        byteBuffer.putShort((short)0x3f0d).putShort((short)8).putLong(indexDuration);
+        return getIndexTableSegment(byteBuffer.array());
+    }
+
+    @Test
+    public void multipleConstantByteCountSegmentsTest() throws IOException
+    {
+        //edit units 0 through 99 are 6 bytes long, 100 through 149 are 4 bytes long and the remaining ones are 8 bytes long
+        IndexTable indexTable = new IndexTable(Arrays.asList(
+                getConstantByteCountIndexTableSegment(8, 150L, 0L),
+                getConstantByteCountIndexTableSegment(6, 0L, 100L),
+                getConstantByteCountIndexTableSegment(4, 100L, 50L)), -1L);
+        Assert.assertEquals(indexTable.getNumberOfSegments(), 3);
+        Assert.assertEquals(indexTable.getEditUnitLocation(99).getStreamOffset(), 594L);
+        Assert.assertEquals(indexTable.getEditUnitLocation(100).getStreamOffset(), 600L);
+        Assert.assertEquals(indexTable.getEditUnitLocation(101).getStreamOffset(), 604L);
+        Assert.assertEquals(indexTable.getEditUnitLocation(101).getSize(), 4L);
+        Assert.assertEquals(indexTable.getEditUnitLocation(150).getStreamOffset(), 800L);
+        Assert.assertEquals(indexTable.getEditUnitLocation(160).getStreamOffset(), 880L);
+        Assert.assertEquals(indexTable.getEditUnitLocation(160).getSize(), 8L);
+    }
+
+    @Test
+    public void constantByteCountTest() throws IOException
+    {
+        IndexTableSegment indexTableSegment = getConstantByteCountIndexTableSegment(6, 0L, 48000L);
+        Assert.assertNull(indexTableSegment.getIndexEntries());
+        Assert.assertEquals(indexTableSegment.getEditUnitByteCount(), 6L);
+
+        IndexTable indexTable = new IndexTable(Collections.singletonList(indexTableSegment), -1L);
+        IndexTable.EditUnitLocation editUnitLocation = indexTable.getEditUnitLocation(1000);
+        Assert.assertEquals(editUnitLocation.getStreamOffset(), 6000L);
+        Assert.assertEquals(editUnitLocation.getSize(), 6L);
+        Assert.assertEquals(editUnitLocation.getKeyFrameOffset(), 0);
+    }
+}
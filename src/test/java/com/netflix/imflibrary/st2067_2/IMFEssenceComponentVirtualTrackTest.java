@@ -30,6 +30,40 @@ public class IMFEssenceComponentVirtualTrackTest
         Assert.assertEquals(virtualTrack.getTrackFileResourceList().size(), 7);
     }
 
+    @Test
+    public void testGetTrackFileEditUnit() throws Exception
+    {
+        File inputFile = TestHelper.findResourceByPath("TestIMP/Netflix_Sony_Plugfest_2015/CPL_BLACKL_202_HD_REC709_178_LAS_8fad47bb-ab01-4f0d-a08c-d1e6c6cb62b4_corrected.xml");
+        ApplicationComposition applicationComposition = ApplicationCompositionFactory.getApplicationComposition(inputFile, new IMFErrorLoggerImpl());
+
+        IMFEssenceComponentVirtualTrack videoVirtualTrack = applicationComposition.getVideoVirtualTrack();
+        IMFEssenceComponentVirtualTrack.TrackFileEditUnit trackFileEditUnit = videoVirtualTrack.getTrackFileEditUnit(0);
+        Assert.assertEquals(trackFileEditUnit.getTrackFileId(), UUID.fromString("ea05e7ab-5ee2-4ac7-ab41-6c3a2cf78a0b"));
+        Assert.assertEquals(trackFileEditUnit.getEditUnit(), 696L);
+        Assert.assertEquals(videoVirtualTrack.getTrackFileEditUnit(899).getEditUnit(), 1595L);
+        trackFileEditUnit = videoVirtualTrack.getTrackFileEditUnit(900);
+        Assert.assertEquals(trackFileEditUnit.getTrackFileId(), UUID.fromString("0bcc714a-8c35-47ae-9fb4-b8394e19c980"));
+        Assert.assertEquals(trackFileEditUnit.getEditUnit(), 0L);
+        trackFileEditUnit = videoVirtualTrack.getTrackFileEditUnit(950);
+        Assert.assertEquals(trackFileEditUnit.getTrackFileId(), UUID.fromString("ea05e7ab-5ee2-4ac7-ab41-6c3a2cf78a0b"));
+        Assert.assertEquals(trackFileEditUnit.getEditUnit(), 1646L);
+
+        //the audio edit rate of 48000 differs from the composition edit rate of 24000/1001
+        IMFEssenceComponentVirtualTrack audioVirtualTrack = applicationComposition.getAudioVirtualTracks().get(0);
+        trackFileEditUnit = audioVirtualTrack.getTrackFileEditUnit(24);
+        Assert.assertEquals(trackFileEditUnit.getTrackFileId(), UUID.fromString("ef574631-93e7-49f0-9a7b-f74ecbdf6be0"));
+        Assert.assertEquals(trackFileEditUnit.getEditUnit(), 2834832L + 48048L);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetTrackFileEditUnitOutOfRange() throws Exception
+    {
+        File inputFile = TestHelper.findResourceByPath("TestIMP/Netflix_Sony_Plugfest_2015/CPL_BLACKL_202_HD_REC709_178_LAS_8fad47bb-ab01-4f0d-a08c-d1e6c6cb62b4_corrected.xml");
+        ApplicationComposition applicationComposition = ApplicationCompositionFactory.getApplicationComposition(inputFile, new IMFErrorLoggerImpl());
+        IMFEssenceComponentVirtualTrack videoVirtualTrack = applicationComposition.getVideoVirtualTrack();
+        videoVirtualTrack.getTrackFileEditUnit(videoVirtualTrack.getDurationInTrackEditRateUnits());
+    }
+
     @Test
     public void testEssenceComponentVirtualTrackEquivalent_2013() throws Exception
     {
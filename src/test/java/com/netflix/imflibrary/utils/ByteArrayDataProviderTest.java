@@ -24,6 +24,7 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Arrays;
@@ -95,4 +96,38 @@ public class ByteArrayDataProviderTest
         ByteProvider byteProvider = new ByteArrayDataProvider(Files.readAllBytes(Paths.get(this.inputFile.toURI())));
         byteProvider.skipBytes(length + 1);
     }
+
+    @Test
+    public void testPrimitiveReads() throws IOException
+    {
+        byte[] refBytes = TestHelper.toByteArray(inputStream);
+        ByteBuffer refBuffer = ByteBuffer.wrap(refBytes);
+        ByteProvider byteProvider = new ByteArrayDataProvider(refBytes);
+        byte[] bytes = new byte[7];
+        while (refBuffer.remaining() >= 22)
+        {
+            Assert.assertEquals(byteProvider.getUnsignedByte(), refBuffer.get() & 0xff);
+            Assert.assertEquals(byteProvider.getUnsignedShort(), refBuffer.getShort() & 0xffff);
+            Assert.assertEquals(byteProvider.getUnsignedInt(), refBuffer.getInt() & 0xffffffffL);
+            Assert.assertEquals(byteProvider.getLong(), refBuffer.getLong());
+            byteProvider.getBytes(bytes, 1, 6);
+            Assert.assertEquals(Arrays.copyOfRange(bytes, 1, 7), Arrays.copyOfRange(refBytes, refBuffer.position(), refBuffer.position() + 6));
+            refBuffer.position(refBuffer.position() + 6);
+            byteProvider.skipBytes(1);
+            refBuffer.get();
+        }
+    }
+
+    @Test
+    public void testPrimitiveReadsAreUnsigned() throws IOException
+    {
+        byte[] bytes = new byte[15];
+        Arrays.fill(bytes, (byte)0xff);
+        ByteProvider byteProvider = new ByteArrayDataProvider(bytes);
+        Assert.assertEquals(byteProvider.getUnsignedByte(), 0xff);
+        Assert.assertEquals(byteProvider.getUnsignedShort(), 0xffff);
+        Assert.assertEquals(byteProvider.getUnsignedInt(), 0xffffffffL);
+        Assert.assertEquals(byteProvider.getLong(), -1L);
+    }
+
 }
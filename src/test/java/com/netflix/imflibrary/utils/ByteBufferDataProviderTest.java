@@ -0,0 +1,121 @@
+/*
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.imflibrary.utils;
+
+import testUtils.TestHelper;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+@Test(groups = "unit")
+public class ByteBufferDataProviderTest
+{
+    File inputFile;
+    byte[] fileBytes;
+
+    @BeforeClass
+    public void beforeClass() throws IOException
+    {
+        inputFile = TestHelper.findResourceByPath("PKL_e788efe2-1782-4b09-b56d-1336da2413d5.xml");
+        fileBytes = Files.readAllBytes(Paths.get(this.inputFile.toURI()));
+    }
+
+    @Test
+    public void testGetBytes() throws IOException
+    {
+        ByteProvider byteProvider = new ByteBufferDataProvider(ByteBuffer.wrap(this.fileBytes));
+        byte[] bytes = byteProvider.getBytes(100);
+
+        Assert.assertEquals(Arrays.copyOf(this.fileBytes, 100), bytes);
+    }
+
+    @Test
+    public void testGetBytesFromSlice() throws IOException
+    {
+        ByteBuffer byteBuffer = ByteBuffer.wrap(this.fileBytes);
+        byteBuffer.position(100);
+        ByteProvider byteProvider = new ByteBufferDataProvider(byteBuffer);
+        byte[] bytes = byteProvider.getBytes(10);
+
+        Assert.assertEquals(Arrays.copyOfRange(this.fileBytes, 100, 110), bytes);
+        Assert.assertEquals(byteBuffer.position(), 100);
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "Cannot read .*")
+    public void testGetBytesLarge() throws IOException
+    {
+        ByteProvider byteProvider = new ByteBufferDataProvider(ByteBuffer.wrap(this.fileBytes));
+        byteProvider.getBytes(this.fileBytes.length + 1);
+    }
+
+    @Test
+    public void testSkipBytes() throws IOException
+    {
+        ByteProvider byteProvider = new ByteBufferDataProvider(ByteBuffer.wrap(this.fileBytes));
+        byteProvider.skipBytes(100L);
+        byte[] bytes = byteProvider.getBytes(1);
+        Assert.assertEquals(bytes.length, 1);
+        Assert.assertEquals(bytes[0], 99);
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "Cannot skip .*")
+    public void testSkipBytesLarge() throws IOException
+    {
+        ByteProvider byteProvider = new ByteBufferDataProvider(ByteBuffer.wrap(this.fileBytes));
+        byteProvider.skipBytes(this.fileBytes.length + 1);
+    }
+
+    @Test
+    public void testResourceByteRangeProviderAsByteProvider() throws IOException
+    {
+        ResourceByteRangeProvider resourceByteRangeProvider = new ByteArrayByteRangeProvider(this.fileBytes);
+        ByteProvider byteProvider = resourceByteRangeProvider.getByteRangeAsByteProvider(100, 199);
+        Assert.assertEquals(Arrays.copyOfRange(this.fileBytes, 100, 200), byteProvider.getBytes(100));
+
+        resourceByteRangeProvider = new FileByteRangeProvider(this.inputFile);
+        byteProvider = resourceByteRangeProvider.getByteRangeAsByteProvider(100, 199);
+        Assert.assertEquals(Arrays.copyOfRange(this.fileBytes, 100, 200), byteProvider.getBytes(100));
+    }
+
+    @Test
+    public void testPrimitiveReads() throws IOException
+    {
+        byte[] refBytes = this.fileBytes;
+        ByteBuffer refBuffer = ByteBuffer.wrap(refBytes);
+        ByteProvider byteProvider = new ByteBufferDataProvider(ByteBuffer.wrap(this.fileBytes));
+        byte[] bytes = new byte[7];
+        while (refBuffer.remaining() >= 22)
+        {
+            Assert.assertEquals(byteProvider.getUnsignedByte(), refBuffer.get() & 0xff);
+            Assert.assertEquals(byteProvider.getUnsignedShort(), refBuffer.getShort() & 0xffff);
+            Assert.assertEquals(byteProvider.getUnsignedInt(), refBuffer.getInt() & 0xffffffffL);
+            Assert.assertEquals(byteProvider.getLong(), refBuffer.getLong());
+            byteProvider.getBytes(bytes, 1, 6);
+            Assert.assertEquals(Arrays.copyOfRange(bytes, 1, 7), Arrays.copyOfRange(refBytes, refBuffer.position(), refBuffer.position() + 6));
+            refBuffer.position(refBuffer.position() + 6);
+            byteProvider.skipBytes(1);
+            refBuffer.get();
+        }
+    }
+
+}
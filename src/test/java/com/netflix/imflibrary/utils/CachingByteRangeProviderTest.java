@@ -0,0 +1,147 @@
+/*
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.imflibrary.utils;
+
+import com.netflix.imflibrary.app.PhotonIMPAnalyzer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import testUtils.TestHelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Test(groups = "unit")
+public class CachingByteRangeProviderTest
+{
+    private static final class CountingByteRangeProvider extends ByteArrayByteRangeProvider
+    {
+        private final List<String> requestedRanges = new ArrayList<>();
+        private int vectoredReads = 0;
+
+        private CountingByteRangeProvider(byte[] bytes)
+        {
+            super(bytes);
+        }
+
+        @Override
+        public byte[] getByteRangeAsBytes(long rangeStart, long rangeEnd) throws IOException
+        {
+            this.requestedRanges.add(String.format("%d-%d", rangeStart, rangeEnd));
+            return super.getByteRangeAsBytes(rangeStart, rangeEnd);
+        }
+
+        @Override
+        public List<ByteBuffer> getByteRangesAsByteBuffers(long[] rangeStarts, long[] rangeEnds) throws IOException
+        {
+            this.vectoredReads++;
+            for (int i=0; i<rangeStarts.length; i++)
+            {
+                this.requestedRanges.add(String.format("%d-%d", rangeStarts[i], rangeEnds[i]));
+            }
+            return super.getByteRangesAsByteBuffers(rangeStarts, rangeEnds);
+        }
+    }
+
+    @Test
+    public void blockCacheTest() throws IOException
+    {
+        byte[] bytes = new byte[10000];
+        for (int i=0; i<bytes.length; i++)
+        {
+            bytes[i] = (byte)i;
+        }
+        CountingByteRangeProvider countingByteRangeProvider = new CountingByteRangeProvider(bytes);
+        CachingByteRangeProvider cachingByteRangeProvider = new CachingByteRangeProvider(countingByteRangeProvider, 1000, 4000);
+        Assert.assertEquals(cachingByteRangeProvider.getResourceSize(), 10000L);
+
+        Assert.assertEquals(cachingByteRangeProvider.getByteRangeAsBytes(10, 20), Arrays.copyOfRange(bytes, 10, 21));
+        Assert.assertEquals(cachingByteRangeProvider.getByteRangeAsBytes(100, 900), Arrays.copyOfRange(bytes, 100, 901));
+        Assert.assertEquals(countingByteRangeProvider.requestedRanges, Arrays.asList("0-999"));
+
+        //the missing blocks on either side of the cached block are read by two requests
+        Assert.assertEquals(cachingByteRangeProvider.getByteRangeAsBytes(2500, 2600), Arrays.copyOfRange(bytes, 2500, 2601));
+        Assert.assertEquals(cachingByteRangeProvider.getByteRangeAsBytes(500, 3999), Arrays.copyOfRange(bytes, 500, 4000));
+        Assert.assertEquals(countingByteRangeProvider.requestedRanges, Arrays.asList("0-999", "2000-2999", "1000-1999", "3000-3999"));
+        Assert.assertEquals(cachingByteRangeProvider.getCachedBytes(), 4000L);
+
+        //the last block is shorter than the block size
+        Assert.assertEquals(cachingByteRangeProvider.getByteRangeAsBytes(9990, 9999), Arrays.copyOfRange(bytes, 9990, 10000));
+        Assert.assertEquals(countingByteRangeProvider.requestedRanges.get(4), "9000-9999");
+        //the least recently used block was evicted
+        Assert.assertEquals(cachingByteRangeProvider.getCachedBytes(), 4000L);
+        Assert.assertEquals(cachingByteRangeProvider.getByteRangeAsBytes(0, 0), Arrays.copyOfRange(bytes, 0, 1));
+        Assert.assertEquals(countingByteRangeProvider.requestedRanges.get(5), "0-999");
+
+        //a range larger than the cache bypasses it
+        Assert.assertEquals(cachingByteRangeProvider.getByteRangeAsBytes(0, 9999), bytes);
+        Assert.assertEquals(countingByteRangeProvider.requestedRanges.get(6), "0-9999");
+    }
+
+    @Test
+    public void vectoredReadTest() throws IOException
+    {
+        byte[] bytes = new byte[10000];
+        for (int i=0; i<bytes.length; i++)
+        {
+            bytes[i] = (byte)i;
+        }
+        CountingByteRangeProvider countingByteRangeProvider = new CountingByteRangeProvider(bytes);
+        CachingByteRangeProvider cachingByteRangeProvider = new CachingByteRangeProvider(countingByteRangeProvider, 1000, 4000);
+        Assert.assertEquals(cachingByteRangeProvider.getByteRangeAsBytes(2100, 2200), Arrays.copyOfRange(bytes, 2100, 2201));
+
+        //the missing blocks of all of the ranges, and the range larger than the cache, are read by a single vectored read
+        List<ByteBuffer> byteBuffers = cachingByteRangeProvider.getByteRangesAsByteBuffers(new long[]{10, 900, 2500, 3500, 4000},
+                new long[]{20, 1500, 3100, 3600, 9999});
+        Assert.assertEquals(byteBuffers.size(), 5);
+        Assert.assertEquals(byteBuffers.get(0), ByteBuffer.wrap(bytes, 10, 11));
+        Assert.assertEquals(byteBuffers.get(1), ByteBuffer.wrap(bytes, 900, 601));
+        Assert.assertEquals(byteBuffers.get(2), ByteBuffer.wrap(bytes, 2500, 601));
+        Assert.assertEquals(byteBuffers.get(3), ByteBuffer.wrap(bytes, 3500, 101));
+        Assert.assertEquals(byteBuffers.get(4), ByteBuffer.wrap(bytes, 4000, 6000));
+        Assert.assertEquals(countingByteRangeProvider.vectoredReads, 1);
+        Assert.assertEquals(countingByteRangeProvider.requestedRanges, Arrays.asList("2000-2999", "0-1999", "3000-3999", "4000-9999"));
+        Assert.assertEquals(cachingByteRangeProvider.getCachedBytes(), 4000L);
+
+        //the cached blocks are not read again
+        byteBuffers = cachingByteRangeProvider.getByteRangesAsByteBuffers(new long[]{0, 3000}, new long[]{1999, 3999});
+        Assert.assertEquals(byteBuffers.get(0), ByteBuffer.wrap(bytes, 0, 2000));
+        Assert.assertEquals(byteBuffers.get(1), ByteBuffer.wrap(bytes, 3000, 1000));
+        Assert.assertEquals(countingByteRangeProvider.vectoredReads, 1);
+        Assert.assertEquals(countingByteRangeProvider.requestedRanges.size(), 4);
+    }
+
+    @Test
+    public void essencePartitionTest() throws IOException
+    {
+        File inputFile = TestHelper.findResourceByPath("TearsOfSteel_4k_Test_Master_Audio_002.mxf");
+        byte[] bytes = Files.readAllBytes(inputFile.toPath());
+        CountingByteRangeProvider countingByteRangeProvider = new CountingByteRangeProvider(bytes);
+        List<ErrorLogger.ErrorObject> errors = PhotonIMPAnalyzer.validateEssencePartition(countingByteRangeProvider);
+
+        CountingByteRangeProvider cachedCountingByteRangeProvider = new CountingByteRangeProvider(bytes);
+        List<ErrorLogger.ErrorObject> cachedErrors = PhotonIMPAnalyzer.validateEssencePartition(new CachingByteRangeProvider(cachedCountingByteRangeProvider));
+        Assert.assertEquals(cachedErrors.toString(), errors.toString());
+        //the footer, the random index pack and the partitions are read by fewer requests
+        Assert.assertTrue(cachedCountingByteRangeProvider.requestedRanges.size() < countingByteRangeProvider.requestedRanges.size(),
+                String.format("%s %s", cachedCountingByteRangeProvider.requestedRanges, countingByteRangeProvider.requestedRanges));
+    }
+}
@@ -13,6 +13,8 @@ import org.testng.annotations.Test;
 import org.w3c.dom.Document;
 import org.w3c.dom.DocumentFragment;
 import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
 import testUtils.TestHelper;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -20,6 +22,7 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.File;
 import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -120,4 +123,40 @@ public class DOMNodeObjectModelTest {
         }
         Assert.assertTrue(result == true);
     }
+
+    private DOMNodeObjectModel getDOMNodeObjectModel(String xml) throws IOException, ParserConfigurationException, SAXException {
+        DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
+        docFactory.setNamespaceAware(true);
+        Document document = docFactory.newDocumentBuilder().parse(new InputSource(new StringReader(xml)));
+        return new DOMNodeObjectModel(document.getDocumentElement());
+    }
+
+    @Test
+    public void domNodeObjectModelFingerprintTest() throws IOException, ParserConfigurationException, SAXException {
+        DOMNodeObjectModel model1 = getDOMNodeObjectModel("<r:D xmlns:r=\"urn:r\"><r:A>1</r:A><r:B>2</r:B><r:S><r:InstanceUID>x</r:InstanceUID><r:C>3</r:C></r:S></r:D>");
+        DOMNodeObjectModel model2 = getDOMNodeObjectModel("<r:D xmlns:r=\"urn:r\"><r:S><r:C>3</r:C><r:InstanceUID>y</r:InstanceUID></r:S><r:B>2</r:B><r:A>1</r:A></r:D>");
+        DOMNodeObjectModel model3 = getDOMNodeObjectModel("<r:D xmlns:r=\"urn:r\"><r:A>1</r:A><r:B>2</r:B><r:S><r:InstanceUID>y</r:InstanceUID><r:C>3</r:C></r:S></r:D>");
+
+        //the order of the elements does not matter
+        Assert.assertEquals(model2.getFingerprint(), model3.getFingerprint());
+        Assert.assertEquals(model2, model3);
+        Assert.assertEquals(model2.hashCode(), model3.hashCode());
+        Assert.assertNotEquals(model1.getFingerprint(), model2.getFingerprint());
+        Assert.assertNotEquals(model1, model2);
+
+        Set<String> ignoreSet = new HashSet<>();
+        ignoreSet.add("InstanceUID");
+        Assert.assertTrue(model1.equals(model2, ignoreSet));
+        Assert.assertEquals(model1.getFingerprint(ignoreSet), model2.getFingerprint(ignoreSet));
+        DOMNodeObjectModel model1IgnoreSet = DOMNodeObjectModel.createDOMNodeObjectModelIgnoreSet(model1, ignoreSet);
+        Assert.assertEquals(model1IgnoreSet.getFingerprint(), model1.getFingerprint(ignoreSet));
+        Assert.assertEquals(model1IgnoreSet, DOMNodeObjectModel.createDOMNodeObjectModelIgnoreSet(model2, ignoreSet));
+
+        //a child that only has ignored fields is dropped altogether
+        ignoreSet.add("C");
+        DOMNodeObjectModel model4 = getDOMNodeObjectModel("<r:D xmlns:r=\"urn:r\"><r:A>1</r:A><r:B>2</r:B></r:D>");
+        Assert.assertTrue(model1.equals(model4, ignoreSet));
+        Assert.assertEquals(DOMNodeObjectModel.createDOMNodeObjectModelIgnoreSet(model1, ignoreSet).getFingerprint(), model4.getFingerprint(ignoreSet));
+        Assert.assertFalse(model1.equals(model4, new HashSet<>()));
+    }
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.imflibrary.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+
+@Test(groups = "unit")
+public class DigestCacheTest
+{
+    private File directory;
+    private File cacheFile;
+
+    @BeforeMethod
+    public void setUp() throws Exception
+    {
+        this.directory = Files.createTempDirectory(null).toFile();
+        this.cacheFile = new File(this.directory, "digest.cache");
+    }
+
+    @AfterMethod
+    public void tearDown()
+    {
+        for (File file : this.directory.listFiles())
+        {
+            Assert.assertTrue(file.delete());
+        }
+        Assert.assertTrue(this.directory.delete());
+    }
+
+    @Test
+    public void testDigestIsCachedAcrossInstances() throws Exception
+    {
+        File file = createFile("asset.mxf", "qwertyuiopasdfghjklzxcvbnm");
+        byte[] expectedDigest = MessageDigest.getInstance("SHA-1").digest("qwertyuiopasdfghjklzxcvbnm".getBytes(StandardCharsets.UTF_8));
+
+        try (DigestCache digestCache = new DigestCache(this.cacheFile))
+        {
+            DigestEngine.Digest digest = new DigestEngine(DigestEngine.SHA1_ALGORITHM, digestCache).digest(file);
+            Assert.assertFalse(digest.isCached());
+            Assert.assertEquals(digest.getDigest(), expectedDigest);
+        }
+
+        try (DigestCache digestCache = new DigestCache(this.cacheFile))
+        {
+            Assert.assertEquals(digestCache.size(), 1);
+            Assert.assertEquals(digestCache.get(file, DigestEngine.SHA1_ALGORITHM), expectedDigest);
+            Assert.assertNull(digestCache.get(file, "SHA-256"));
+            DigestEngine.Digest digest = new DigestEngine(DigestEngine.SHA1_ALGORITHM, digestCache).digest(file);
+            Assert.assertTrue(digest.isCached());
+            Assert.assertEquals(digest.getDigest(), expectedDigest);
+        }
+    }
+
+    @Test
+    public void testChangedFileMissesCache() throws Exception
+    {
+        File file = createFile("asset.mxf", "qwertyuiop");
+        try (DigestCache digestCache = new DigestCache(this.cacheFile))
+        {
+            new DigestEngine(DigestEngine.SHA1_ALGORITHM, digestCache).digest(file);
+            Files.write(file.toPath(), "qwertyuiopasdfghjkl".getBytes(StandardCharsets.UTF_8));
+            Assert.assertNull(digestCache.get(file, DigestEngine.SHA1_ALGORITHM));
+            DigestEngine.Digest digest = new DigestEngine(DigestEngine.SHA1_ALGORITHM, digestCache).digest(file);
+            Assert.assertFalse(digest.isCached());
+            Assert.assertEquals(digest.getNumBytesDigested(), 19L);
+        }
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() throws Exception
+    {
+        File first = createFile("first.mxf", "first");
+        File second = createFile("second.mxf", "second");
+        File third = createFile("third.mxf", "third");
+        try (DigestCache digestCache = new DigestCache(this.cacheFile, 2))
+        {
+            DigestEngine digestEngine = new DigestEngine(DigestEngine.SHA1_ALGORITHM, digestCache);
+            digestEngine.digest(first);
+            Thread.sleep(5);
+            digestEngine.digest(second);
+            Thread.sleep(5);
+            //a lookup makes the first entry the most recently used one
+            Assert.assertNotNull(digestCache.get(first, DigestEngine.SHA1_ALGORITHM));
+            Thread.sleep(5);
+            //the least recently used entry is evicted as soon as the cache holds more than the maximum number of entries
+            digestEngine.digest(third);
+            Assert.assertEquals(digestCache.size(), 2);
+            Assert.assertNotNull(digestCache.get(first, DigestEngine.SHA1_ALGORITHM));
+            Assert.assertNull(digestCache.get(second, DigestEngine.SHA1_ALGORITHM));
+            Thread.sleep(5);
+            Assert.assertNotNull(digestCache.get(third, DigestEngine.SHA1_ALGORITHM));
+        }
+
+        //the persisted cache is trimmed to the maximum number of entries of the instance that reads it
+        try (DigestCache digestCache = new DigestCache(this.cacheFile, 1))
+        {
+            Assert.assertEquals(digestCache.size(), 1);
+            Assert.assertNotNull(digestCache.get(third, DigestEngine.SHA1_ALGORITHM));
+        }
+    }
+
+    @Test
+    public void testFlushMergesEntriesOfOtherInstances() throws Exception
+    {
+        File first = createFile("first.mxf", "first");
+        File second = createFile("second.mxf", "second");
+        DigestCache digestCache = new DigestCache(this.cacheFile);
+        DigestCache otherDigestCache = new DigestCache(this.cacheFile);
+        new DigestEngine(DigestEngine.SHA1_ALGORITHM, digestCache).digest(first);
+        new DigestEngine(DigestEngine.SHA1_ALGORITHM, otherDigestCache).digest(second);
+        digestCache.flush();
+        otherDigestCache.flush();
+
+        try (DigestCache mergedDigestCache = new DigestCache(this.cacheFile))
+        {
+            Assert.assertNotNull(mergedDigestCache.get(first, DigestEngine.SHA1_ALGORITHM));
+            Assert.assertNotNull(mergedDigestCache.get(second, DigestEngine.SHA1_ALGORITHM));
+        }
+    }
+
+    private File createFile(String name, String content) throws Exception
+    {
+        File file = new File(this.directory, name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.imflibrary.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Random;
+
+@Test(groups = "unit")
+public class DigestEngineTest
+{
+    private byte[] bytes;
+    private byte[] expectedDigest;
+    private File file;
+
+    @BeforeClass
+    public void setUp() throws Exception
+    {
+        this.bytes = new byte[100003];
+        new Random(7).nextBytes(this.bytes);
+        this.expectedDigest = MessageDigest.getInstance("SHA-1").digest(this.bytes);
+        this.file = File.createTempFile("test_file", ".tmp");
+        Files.write(this.file.toPath(), this.bytes);
+    }
+
+    @AfterClass
+    public void tearDown()
+    {
+        Assert.assertTrue(this.file.delete());
+    }
+
+    @Test
+    public void testDigestFile() throws Exception
+    {
+        DigestEngine.Digest digest = new DigestEngine(DigestEngine.SHA1_ALGORITHM, 4096).digest(this.file);
+        Assert.assertEquals(digest.getDigest(), this.expectedDigest);
+        Assert.assertEquals(digest.getNumBytesDigested(), this.bytes.length);
+        Assert.assertTrue(digest.getBytesPerSecond() > 0);
+    }
+
+    @Test
+    public void testDigestAndCopy() throws Exception
+    {
+        File destination = File.createTempFile("test_file_copy", ".tmp");
+        try
+        {
+            DigestEngine.Digest digest = new DigestEngine(DigestEngine.SHA1_ALGORITHM, 4096).digestAndCopy(this.file, destination);
+            Assert.assertEquals(digest.getDigest(), this.expectedDigest);
+            Assert.assertEquals(digest.getNumBytesDigested(), this.bytes.length);
+            Assert.assertEquals(Files.readAllBytes(destination.toPath()), this.bytes);
+        }
+        finally
+        {
+            Assert.assertTrue(destination.delete());
+        }
+    }
+
+    @Test
+    public void testDigestAndCopyToSameFile() throws Exception
+    {
+        DigestEngine.Digest digest = new DigestEngine(DigestEngine.SHA1_ALGORITHM, 4096).digestAndCopy(this.file, this.file);
+        Assert.assertEquals(digest.getDigest(), this.expectedDigest);
+        Assert.assertEquals(Files.readAllBytes(this.file.toPath()), this.bytes);
+    }
+
+    @Test
+    public void testDigestResourceByteRangeProvider() throws Exception
+    {
+        DigestEngine.Digest digest = new DigestEngine(DigestEngine.SHA1_ALGORITHM, 4096).digest(new ByteArrayByteRangeProvider(this.bytes));
+        Assert.assertEquals(digest.getDigest(), this.expectedDigest);
+        Assert.assertEquals(digest.getNumBytesDigested(), this.bytes.length);
+    }
+
+    @Test
+    public void testDigestInputStream() throws Exception
+    {
+        DigestEngine.Digest digest = new DigestEngine(DigestEngine.SHA1_ALGORITHM).digest(new ByteArrayInputStream(this.bytes));
+        Assert.assertEquals(digest.getDigest(), this.expectedDigest);
+        Assert.assertEquals(digest.getNumBytesDigested(), this.bytes.length);
+    }
+
+    @Test
+    public void testDigestEmptyResource() throws Exception
+    {
+        DigestEngine.Digest digest = new DigestEngine(DigestEngine.SHA1_ALGORITHM).digest(new ByteArrayByteRangeProvider(new byte[0]));
+        Assert.assertEquals(digest.getDigest(), MessageDigest.getInstance("SHA-1").digest());
+        Assert.assertEquals(digest.getNumBytesDigested(), 0L);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidBufferSize() throws Exception
+    {
+        new DigestEngine(DigestEngine.SHA1_ALGORITHM, 0);
+    }
+
+    @Test
+    public void testGetAlgorithm()
+    {
+        Assert.assertEquals(DigestEngine.getAlgorithm("http://www.w3.org/2000/09/xmldsig#sha1"), DigestEngine.SHA1_ALGORITHM);
+        Assert.assertEquals(DigestEngine.getAlgorithm("http://www.w3.org/2001/04/xmlenc#sha256"), "SHA-256");
+        Assert.assertNull(DigestEngine.getAlgorithm("http://www.w3.org/2000/09/xmldsig#md5"));
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.imflibrary.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.*;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Test(groups = "unit")
+public class FileChannelByteRangeProviderTest
+{
+    private static final String KEYBOARD = "qwertyuiopasdfghjklzxcvbnm";
+    private File file;
+    private FileChannelByteRangeProvider fileChannelByteRangeProvider;
+
+    @BeforeClass
+    public void setUp() throws Exception
+    {
+        this.file = File.createTempFile("test_file",".tmp");
+        FileWriter fileWriter = new FileWriter(this.file);
+        try
+        {
+            fileWriter.write(KEYBOARD);
+        }
+        finally
+        {
+            fileWriter.close();
+        }
+        this.fileChannelByteRangeProvider = new FileChannelByteRangeProvider(this.file);
+    }
+
+    @AfterClass
+    public void tearDown() throws Exception
+    {
+        this.fileChannelByteRangeProvider.close();
+        Assert.assertTrue(this.file.delete());
+    }
+
+    @Test
+    public void testGetResourceSize()
+    {
+        Assert.assertEquals(26L, this.fileChannelByteRangeProvider.getResourceSize());
+    }
+
+    @Test
+    public void testGetByteRangeWithRangeStart() throws IOException
+    {
+        File workingDirectory = Files.createTempDirectory(null).toFile();
+        File file = this.fileChannelByteRangeProvider.getByteRange(24, workingDirectory);
+        Assert.assertEquals(2L, file.length());
+        BufferedReader bufferedReader = new BufferedReader(new FileReader(file));
+        Assert.assertEquals("nm", bufferedReader.readLine());
+    }
+
+    @Test
+    public void testGetByteRange() throws IOException
+    {
+        File workingDirectory = Files.createTempDirectory(null).toFile();
+        File file = this.fileChannelByteRangeProvider.getByteRange(3, 9, workingDirectory);
+        Assert.assertEquals(7L, file.length());
+        BufferedReader bufferedReader = new BufferedReader(new FileReader(file));
+        Assert.assertEquals("rtyuiop", bufferedReader.readLine());
+    }
+
+    @Test
+    public void testGetByteRangeAsBytes() throws IOException
+    {
+        byte[] bytes = this.fileChannelByteRangeProvider.getByteRangeAsBytes(10, 18);
+        Assert.assertEquals(new String(bytes, StandardCharsets.US_ASCII), "asdfghjkl");
+        bytes = this.fileChannelByteRangeProvider.getByteRangeAsBytes(0, 25);
+        Assert.assertEquals(new String(bytes, StandardCharsets.US_ASCII), KEYBOARD);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetByteRangeAsBytesBeyondEndOfFile() throws IOException
+    {
+        this.fileChannelByteRangeProvider.getByteRangeAsBytes(20, 26);
+    }
+
+    @Test
+    public void testConcurrentGetByteRangeAsBytes() throws Exception
+    {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++)
+            {
+                final int rangeStart = i % KEYBOARD.length();
+                futures.add(executorService.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws IOException
+                    {
+                        byte[] bytes = fileChannelByteRangeProvider.getByteRangeAsBytes(rangeStart, KEYBOARD.length() - 1);
+                        return new String(bytes, StandardCharsets.US_ASCII).equals(KEYBOARD.substring(rangeStart));
+                    }
+                }));
+            }
+            for (Future<Boolean> future : futures)
+            {
+                Assert.assertTrue(future.get());
+            }
+        }
+        finally
+        {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testGetByteRangeAsBytesWithInterruptedCaller() throws Exception
+    {
+        FileChannelByteRangeProvider resourceByteRangeProvider = new FileChannelByteRangeProvider(this.file);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try
+        {
+            //the interrupted caller closes the channel, which is reopened for the concurrent caller
+            Future<Boolean> interruptedRead = executorService.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws IOException
+                {
+                    Thread.currentThread().interrupt();
+                    try
+                    {
+                        resourceByteRangeProvider.getByteRangeAsBytes(0, KEYBOARD.length() - 1);
+                        return false;
+                    }
+                    catch (ClosedByInterruptException e)
+                    {
+                        return true;
+                    }
+                    finally
+                    {
+                        Thread.interrupted();
+                    }
+                }
+            });
+            Future<Boolean> concurrentReads = executorService.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws IOException
+                {
+                    for (int i = 0; i < 1000; i++)
+                    {
+                        byte[] bytes = resourceByteRangeProvider.getByteRangeAsBytes(i % KEYBOARD.length(), KEYBOARD.length() - 1);
+                        if (!new String(bytes, StandardCharsets.US_ASCII).equals(KEYBOARD.substring(i % KEYBOARD.length())))
+                        {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            });
+            Assert.assertTrue(interruptedRead.get());
+            Assert.assertTrue(concurrentReads.get());
+            Assert.assertEquals(new String(resourceByteRangeProvider.getByteRangeAsBytes(10, 18), StandardCharsets.US_ASCII), "asdfghjkl");
+        }
+        finally
+        {
+            executorService.shutdown();
+            resourceByteRangeProvider.close();
+        }
+
+        //the channel is not reopened once this object is closed
+        try
+        {
+            resourceByteRangeProvider.getByteRangeAsBytes(10, 18);
+            Assert.fail("The channel was reopened after it was closed");
+        }
+        catch (ClosedChannelException e)
+        {
+            //expected
+        }
+    }
+}
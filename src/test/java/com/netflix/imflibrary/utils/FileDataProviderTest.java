@@ -16,6 +16,9 @@
 
 package com.netflix.imflibrary.utils;
 
+import com.netflix.imflibrary.IMFErrorLogger;
+import com.netflix.imflibrary.IMFErrorLoggerImpl;
+import com.netflix.imflibrary.st0377.HeaderPartition;
 import org.testng.Assert;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeClass;
@@ -24,6 +27,11 @@ import org.testng.annotations.Test;
 import testUtils.TestHelper;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 
 @Test(groups = "unit")
@@ -94,4 +102,166 @@ public class FileDataProviderTest
         byteProvider.skipBytes(length + 1);
     }
 
+    @Test
+    public void testSequentialGetBytesAcrossBufferBoundaries() throws IOException
+    {
+        byte[] refBytes = TestHelper.toByteArray(inputStream);
+
+        try (FileDataProvider fileDataProvider = new FileDataProvider(FileChannel.open(this.inputFile.toPath(), StandardOpenOption.READ), 64))
+        {
+            int offset = 0;
+            int numBytesToRead = 1;
+            while (offset + numBytesToRead <= refBytes.length)
+            {
+                //mix of reads smaller and larger than the buffer, interleaved with skips
+                Assert.assertEquals(fileDataProvider.getBytes(numBytesToRead), Arrays.copyOfRange(refBytes, offset, offset + numBytesToRead));
+                offset += numBytesToRead;
+                fileDataProvider.skipBytes(numBytesToRead % 5);
+                offset += numBytesToRead % 5;
+                numBytesToRead = (numBytesToRead * 7) % 150 + 1;
+            }
+        }
+    }
+
+    @Test
+    public void testSharedChannel() throws IOException
+    {
+        byte[] refBytes = TestHelper.toByteArray(inputStream);
+
+        try (FileChannel fileChannel = FileChannel.open(this.inputFile.toPath(), StandardOpenOption.READ))
+        {
+            FileDataProvider fileDataProvider = new FileDataProvider(fileChannel, 10L, 16);
+            Assert.assertEquals(fileDataProvider.getBytes(20), Arrays.copyOfRange(refBytes, 10, 30));
+            fileDataProvider.skipBytes(5);
+            Assert.assertEquals(fileDataProvider.getUnsignedByte(), refBytes[35] & 0xff);
+            //positional reads leave the position of the shared channel unchanged, and closing does not close it
+            Assert.assertEquals(fileChannel.position(), 0L);
+            fileDataProvider.close();
+            Assert.assertTrue(fileChannel.isOpen());
+        }
+    }
+
+    @Test
+    public void testHeaderPartitionParseIssuesBoundedNumberOfReads() throws IOException
+    {
+        //header partition followed by KLV fill items, 20 bytes each, to make up a header partition that is a few MB in size
+        byte[] fillItem = {0x06, 0x0e, 0x2b, 0x34, 0x01, 0x01, 0x01, 0x02, 0x03, 0x01, 0x02, 0x10, 0x01, 0x00, 0x00, 0x00, 0x03, 0x00, 0x00, 0x00};
+        int numFillItems = 200000;
+        File headerPartitionFile = TestHelper.findResourceByPath("TearsOfSteel_4k_Test_Master_Audio_002.mxf.hdr");
+        File file = File.createTempFile("large_header_partition", ".hdr");
+        try
+        {
+            try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file)))
+            {
+                outputStream.write(Files.readAllBytes(headerPartitionFile.toPath()));
+                for (int i = 0; i < numFillItems; i++)
+                {
+                    outputStream.write(fillItem);
+                }
+            }
+            long fileSize = file.length();
+            Assert.assertTrue(fileSize > 4000000L);
+
+            int bufferSize = 65536;
+            CountingChannel countingChannel = new CountingChannel(FileChannel.open(file.toPath(), StandardOpenOption.READ));
+            IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl();
+            try (FileDataProvider fileDataProvider = new FileDataProvider(countingChannel, bufferSize))
+            {
+                HeaderPartition headerPartition = new HeaderPartition(fileDataProvider, 0L, fileSize, imfErrorLogger);
+                Assert.assertNotNull(headerPartition.getPreface());
+            }
+            Assert.assertTrue(countingChannel.numReads <= (fileSize / bufferSize) + 2,
+                    String.format("%d reads issued for %d bytes", countingChannel.numReads, fileSize));
+        }
+        finally
+        {
+            Assert.assertTrue(file.delete());
+        }
+    }
+
+    private static final class CountingChannel implements SeekableByteChannel
+    {
+        private final SeekableByteChannel channel;
+        private int numReads = 0;
+
+        private CountingChannel(SeekableByteChannel channel)
+        {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException
+        {
+            this.numReads++;
+            return this.channel.read(dst);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException
+        {
+            return this.channel.write(src);
+        }
+
+        @Override
+        public long position() throws IOException
+        {
+            return this.channel.position();
+        }
+
+        @Override
+        public SeekableByteChannel position(long newPosition) throws IOException
+        {
+            this.channel.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException
+        {
+            return this.channel.size();
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size) throws IOException
+        {
+            this.channel.truncate(size);
+            return this;
+        }
+
+        @Override
+        public boolean isOpen()
+        {
+            return this.channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            this.channel.close();
+        }
+    }
+
+    @Test
+    public void testPrimitiveReads() throws IOException
+    {
+        byte[] refBytes = TestHelper.toByteArray(inputStream);
+        ByteBuffer refBuffer = ByteBuffer.wrap(refBytes);
+        try (FileDataProvider byteProvider = new FileDataProvider(FileChannel.open(this.inputFile.toPath(), StandardOpenOption.READ), 13))
+        {
+            byte[] bytes = new byte[7];
+            while (refBuffer.remaining() >= 22)
+            {
+                Assert.assertEquals(byteProvider.getUnsignedByte(), refBuffer.get() & 0xff);
+                Assert.assertEquals(byteProvider.getUnsignedShort(), refBuffer.getShort() & 0xffff);
+                Assert.assertEquals(byteProvider.getUnsignedInt(), refBuffer.getInt() & 0xffffffffL);
+                Assert.assertEquals(byteProvider.getLong(), refBuffer.getLong());
+                byteProvider.getBytes(bytes, 1, 6);
+                Assert.assertEquals(Arrays.copyOfRange(bytes, 1, 7), Arrays.copyOfRange(refBytes, refBuffer.position(), refBuffer.position() + 6));
+                refBuffer.position(refBuffer.position() + 6);
+                byteProvider.skipBytes(1);
+                refBuffer.get();
+            }
+        }
+    }
+
 }
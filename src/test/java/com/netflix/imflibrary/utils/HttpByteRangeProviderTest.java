@@ -0,0 +1,230 @@
+/*
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.imflibrary.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import testUtils.TestHelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Test(groups = "unit")
+public class HttpByteRangeProviderTest
+{
+    private static final Pattern RANGE_PATTERN = Pattern.compile("^bytes=(\\d+)-(\\d+)$");
+
+    private byte[] resourceBytes;
+    private HttpServer httpServer;
+    private ExecutorService httpServerExecutorService;
+    private URL resourceURL;
+    private final List<String> requestedRanges = new CopyOnWriteArrayList<>();
+    private volatile CountDownLatch requestReceived = new CountDownLatch(0);
+    private volatile CountDownLatch responseAllowed = new CountDownLatch(0);
+
+    @BeforeMethod
+    public void startServer() throws IOException
+    {
+        File inputFile = TestHelper.findResourceByPath("TearsOfSteel_4k_Test_Master_Audio_002.mxf");
+        this.resourceBytes = Files.readAllBytes(inputFile.toPath());
+        this.requestedRanges.clear();
+        this.httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.httpServer.createContext("/resource.mxf", this::handleRangeRequest);
+        this.httpServerExecutorService = Executors.newCachedThreadPool();
+        this.httpServer.setExecutor(this.httpServerExecutorService);
+        this.httpServer.start();
+        this.resourceURL = new URL(String.format("http://127.0.0.1:%d/resource.mxf", this.httpServer.getAddress().getPort()));
+    }
+
+    @AfterMethod
+    public void stopServer()
+    {
+        this.httpServer.stop(0);
+        this.httpServerExecutorService.shutdown();
+    }
+
+    private void handleRangeRequest(HttpExchange httpExchange) throws IOException
+    {
+        try
+        {
+            String range = httpExchange.getRequestHeaders().getFirst("Range");
+            this.requestedRanges.add(range);
+            this.requestReceived.countDown();
+            this.responseAllowed.await(10, TimeUnit.SECONDS);
+
+            Matcher matcher = RANGE_PATTERN.matcher(range);
+            Assert.assertTrue(matcher.matches());
+            int rangeStart = Integer.parseInt(matcher.group(1));
+            int rangeEnd = Math.min(Integer.parseInt(matcher.group(2)), this.resourceBytes.length - 1);
+            httpExchange.getResponseHeaders().add("Content-Range", String.format("bytes %d-%d/%d", rangeStart, rangeEnd, this.resourceBytes.length));
+            httpExchange.sendResponseHeaders(206, rangeEnd - rangeStart + 1);
+            try (OutputStream outputStream = httpExchange.getResponseBody())
+            {
+                outputStream.write(this.resourceBytes, rangeStart, rangeEnd - rangeStart + 1);
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            httpExchange.close();
+        }
+    }
+
+    @Test
+    public void byteRangeTest() throws IOException
+    {
+        HttpByteRangeProvider httpByteRangeProvider = new HttpByteRangeProvider(this.resourceURL);
+        Assert.assertEquals(httpByteRangeProvider.getResourceSize(), this.resourceBytes.length);
+        Assert.assertEquals(httpByteRangeProvider.getByteRangeAsBytes(0, 15), Arrays.copyOfRange(this.resourceBytes, 0, 16));
+        Assert.assertEquals(httpByteRangeProvider.getByteRangeAsBytes(this.resourceBytes.length - 100, this.resourceBytes.length - 1),
+                Arrays.copyOfRange(this.resourceBytes, this.resourceBytes.length - 100, this.resourceBytes.length));
+        Assert.assertEquals(this.requestedRanges.size(), 3);
+    }
+
+    @Test
+    public void chunkedByteRangeTest() throws Exception
+    {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try
+        {
+            HttpByteRangeProvider httpByteRangeProvider = new HttpByteRangeProvider(this.resourceURL, executorService, 1000);
+            this.requestedRanges.clear();
+            //chunks are aligned on multiples of the chunk size
+            Assert.assertEquals(httpByteRangeProvider.getByteRangeAsBytes(500, 10499), Arrays.copyOfRange(this.resourceBytes, 500, 10500));
+            Assert.assertEquals(this.requestedRanges.size(), 11);
+            Assert.assertTrue(this.requestedRanges.contains("bytes=500-999"));
+            Assert.assertTrue(this.requestedRanges.contains("bytes=10000-10499"));
+
+            HttpByteRangeProvider serialHttpByteRangeProvider = new HttpByteRangeProvider(this.resourceURL, null, 1000);
+            Assert.assertEquals(serialHttpByteRangeProvider.getByteRangeAsBytes(0, this.resourceBytes.length - 1), this.resourceBytes);
+        }
+        finally
+        {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void coalescedByteRangeTest() throws Exception
+    {
+        HttpByteRangeProvider httpByteRangeProvider = new HttpByteRangeProvider(this.resourceURL);
+        this.requestedRanges.clear();
+        this.requestReceived = new CountDownLatch(1);
+        this.responseAllowed = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(1);
+        try
+        {
+            Future<byte[]> firstRequest = executorService.submit(() -> httpByteRangeProvider.getByteRangeAsBytes(100, 199));
+            //the first request is held by the server, so that the second one is made while the first one is in flight
+            Assert.assertTrue(this.requestReceived.await(10, TimeUnit.SECONDS));
+            FutureTask<byte[]> secondRequest = new FutureTask<>(() -> httpByteRangeProvider.getByteRangeAsBytes(100, 199));
+            Thread secondCaller = new Thread(secondRequest);
+            secondCaller.start();
+            //the server responds once the second caller waits for the result of the first request
+            while (secondCaller.getState() != Thread.State.WAITING
+                    && !secondRequest.isDone())
+            {
+                Thread.yield();
+            }
+            this.responseAllowed.countDown();
+
+            byte[] expectedBytes = Arrays.copyOfRange(this.resourceBytes, 100, 200);
+            Assert.assertEquals(firstRequest.get(), expectedBytes);
+            Assert.assertEquals(secondRequest.get(), expectedBytes);
+            Assert.assertNotSame(firstRequest.get(), secondRequest.get());
+            Assert.assertEquals(this.requestedRanges.size(), 1);
+        }
+        finally
+        {
+            this.responseAllowed.countDown();
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void vectoredByteRangesTest() throws Exception
+    {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try
+        {
+            HttpByteRangeProvider httpByteRangeProvider = new HttpByteRangeProvider(this.resourceURL, executorService, 1000);
+            this.requestedRanges.clear();
+            List<ByteBuffer> byteBuffers = httpByteRangeProvider.getByteRangesAsByteBuffers(new long[]{0, 5000, 20000}, new long[]{99, 5999, 22999});
+            Assert.assertEquals(byteBuffers.get(0), ByteBuffer.wrap(this.resourceBytes, 0, 100));
+            Assert.assertEquals(byteBuffers.get(1), ByteBuffer.wrap(this.resourceBytes, 5000, 1000));
+            Assert.assertEquals(byteBuffers.get(2), ByteBuffer.wrap(this.resourceBytes, 20000, 3000));
+            //the last range is larger than the chunk size
+            Assert.assertEquals(this.requestedRanges.size(), 5);
+        }
+        finally
+        {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void mergedByteRangesTest() throws Exception
+    {
+        HttpByteRangeProvider httpByteRangeProvider = new HttpByteRangeProvider(this.resourceURL, null, 1000);
+        this.requestedRanges.clear();
+        //the overlapping and nearby ranges are merged as long as the merged range fits in a chunk
+        List<ByteBuffer> byteBuffers = httpByteRangeProvider.getByteRangesAsByteBuffers(new long[]{150, 0, 120, 180, 900},
+                new long[]{199, 99, 129, 189, 1099});
+        Assert.assertEquals(byteBuffers.get(0), ByteBuffer.wrap(this.resourceBytes, 150, 50));
+        Assert.assertEquals(byteBuffers.get(1), ByteBuffer.wrap(this.resourceBytes, 0, 100));
+        Assert.assertEquals(byteBuffers.get(2), ByteBuffer.wrap(this.resourceBytes, 120, 10));
+        Assert.assertEquals(byteBuffers.get(3), ByteBuffer.wrap(this.resourceBytes, 180, 10));
+        Assert.assertEquals(byteBuffers.get(4), ByteBuffer.wrap(this.resourceBytes, 900, 200));
+        Assert.assertEquals(this.requestedRanges, Arrays.asList("bytes=0-199", "bytes=900-1099"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void invalidRangeTest() throws IOException
+    {
+        HttpByteRangeProvider httpByteRangeProvider = new HttpByteRangeProvider(this.resourceURL);
+        httpByteRangeProvider.getByteRangeAsBytes(0, this.resourceBytes.length);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void missingResourceTest() throws IOException
+    {
+        new HttpByteRangeProvider(new URL(String.format("http://127.0.0.1:%d/missing.mxf", this.httpServer.getAddress().getPort())));
+    }
+}
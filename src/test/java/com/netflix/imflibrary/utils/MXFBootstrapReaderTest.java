@@ -0,0 +1,140 @@
+/*
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.imflibrary.utils;
+
+import com.netflix.imflibrary.exceptions.MXFException;
+import com.netflix.imflibrary.st0377.PartitionPack;
+import com.netflix.imflibrary.st0377.RandomIndexPack;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import testUtils.TestHelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Test(groups = "unit")
+public class MXFBootstrapReaderTest
+{
+    private static final class CountingByteRangeProvider extends ByteArrayByteRangeProvider
+    {
+        private final List<String> requestedRanges = new ArrayList<>();
+
+        private CountingByteRangeProvider(byte[] bytes)
+        {
+            super(bytes);
+        }
+
+        @Override
+        public ByteBuffer getByteRangeAsByteBuffer(long rangeStart, long rangeEnd)
+        {
+            this.requestedRanges.add(String.format("%d-%d", rangeStart, rangeEnd));
+            return super.getByteRangeAsByteBuffer(rangeStart, rangeEnd);
+        }
+
+        @Override
+        public List<ByteBuffer> getByteRangesAsByteBuffers(long[] rangeStarts, long[] rangeEnds) throws IOException
+        {
+            List<ByteBuffer> byteBuffers = new ArrayList<>();
+            for (int i = 0; i < rangeStarts.length; i++)
+            {
+                this.requestedRanges.add(String.format("%d-%d", rangeStarts[i], rangeEnds[i]));
+                byteBuffers.add(super.getByteRangeAsByteBuffer(rangeStarts[i], rangeEnds[i]));
+            }
+            return byteBuffers;
+        }
+    }
+
+    @Test
+    public void bootstrapTest() throws IOException
+    {
+        File inputFile = TestHelper.findResourceByPath("TearsOfSteel_4k_Test_Master_Audio_002.mxf");
+        byte[] bytes = Files.readAllBytes(inputFile.toPath());
+        CountingByteRangeProvider countingByteRangeProvider = new CountingByteRangeProvider(bytes);
+
+        MXFBootstrapReader bootstrapReader = new MXFBootstrapReader(countingByteRangeProvider);
+        RandomIndexPack randomIndexPack = bootstrapReader.getRandomIndexPack();
+        List<Long> partitionByteOffsets = randomIndexPack.getAllPartitionByteOffsets();
+        Assert.assertEquals(partitionByteOffsets.size(), 4);
+        //the random index pack is read along with the window at the end of the file
+        Assert.assertEquals(countingByteRangeProvider.requestedRanges.size(), 1);
+
+        List<PartitionPack> partitionPacks = bootstrapReader.getPartitionPacks(partitionByteOffsets);
+        Assert.assertEquals(partitionPacks.size(), partitionByteOffsets.size());
+        Assert.assertEquals(partitionPacks.get(0).getPartitionPackType(), PartitionPack.PartitionPackType.HeaderPartitionPack);
+        Assert.assertEquals(partitionPacks.get(partitionPacks.size() - 1).getPartitionPackType(), PartitionPack.PartitionPackType.FooterPartitionPack);
+        for (int i = 0; i < partitionPacks.size(); i++)
+        {
+            long offset = partitionByteOffsets.get(i);
+            PartitionPack partitionPack = new PartitionPack(new ByteArrayDataProvider(Arrays.copyOfRange(bytes, (int)offset, bytes.length)), offset, true);
+            Assert.assertEquals(partitionPacks.get(i).toString(), partitionPack.toString());
+        }
+        //the partition packs outside of the window are read speculatively, the overlapping ranges of the two body partitions are coalesced
+        Assert.assertEquals(partitionByteOffsets, Arrays.asList(0L, 11868L, 12104L, 223644L));
+        Assert.assertEquals(countingByteRangeProvider.requestedRanges, Arrays.asList(
+                String.format("%d-%d", bytes.length - MXFBootstrapReader.DEFAULT_TAIL_WINDOW_SIZE, bytes.length - 1),
+                "0-1023", "11868-13127"));
+    }
+
+    @Test
+    public void smallTailWindowTest() throws IOException
+    {
+        File inputFile = TestHelper.findResourceByPath("TearsOfSteel_4k_Test_Master_Audio_002.mxf");
+        byte[] bytes = Files.readAllBytes(inputFile.toPath());
+        CountingByteRangeProvider countingByteRangeProvider = new CountingByteRangeProvider(bytes);
+
+        MXFBootstrapReader bootstrapReader = new MXFBootstrapReader(countingByteRangeProvider, 4);
+        RandomIndexPack randomIndexPack = bootstrapReader.getRandomIndexPack();
+        Assert.assertEquals(randomIndexPack.toString(), new MXFBootstrapReader(new ByteArrayByteRangeProvider(bytes)).getRandomIndexPack().toString());
+        Assert.assertEquals(countingByteRangeProvider.requestedRanges.size(), 2);
+        Assert.assertEquals(bootstrapReader.getPartitionPacks(randomIndexPack.getAllPartitionByteOffsets()).size(), 4);
+    }
+
+    @Test
+    public void overflowingPartitionPacksTest() throws IOException
+    {
+        File inputFile = TestHelper.findResourceByPath("TearsOfSteel_4k_Test_Master_Audio_002.mxf");
+        byte[] bytes = Files.readAllBytes(inputFile.toPath());
+        CountingByteRangeProvider countingByteRangeProvider = new CountingByteRangeProvider(bytes);
+
+        //the speculative ranges only hold the KLV headers of the partition packs
+        MXFBootstrapReader bootstrapReader = new MXFBootstrapReader(countingByteRangeProvider, 4, 32);
+        List<Long> partitionByteOffsets = bootstrapReader.getRandomIndexPack().getAllPartitionByteOffsets();
+        countingByteRangeProvider.requestedRanges.clear();
+        List<PartitionPack> partitionPacks = bootstrapReader.getPartitionPacks(partitionByteOffsets);
+        for (int i = 0; i < partitionPacks.size(); i++)
+        {
+            long offset = partitionByteOffsets.get(i);
+            PartitionPack partitionPack = new PartitionPack(new ByteArrayDataProvider(Arrays.copyOfRange(bytes, (int)offset, bytes.length)), offset, true);
+            Assert.assertEquals(partitionPacks.get(i).toString(), partitionPack.toString());
+        }
+        //one speculative range for every partition pack, then the partition packs that do not fit are read through a second vectored read
+        Assert.assertEquals(countingByteRangeProvider.requestedRanges.size(), 2 * partitionByteOffsets.size());
+        Assert.assertEquals(countingByteRangeProvider.requestedRanges.subList(0, partitionByteOffsets.size()), Arrays.asList(
+                "0-31", "11868-11899", "12104-12135", "223644-223675"));
+    }
+
+    @Test(expectedExceptions = MXFException.class)
+    public void missingRandomIndexPackTest() throws IOException
+    {
+        new MXFBootstrapReader(new ByteArrayByteRangeProvider(new byte[]{0, 0, 1, 0})).getRandomIndexPack();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.imflibrary.utils;
+
+import com.netflix.imflibrary.IMFErrorLogger;
+import com.netflix.imflibrary.IMFErrorLoggerImpl;
+import com.netflix.imflibrary.st0377.HeaderPartition;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import testUtils.TestHelper;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+@Test(groups = "unit")
+public class MappedResourceByteRangeProviderTest
+{
+    private static final String KEYBOARD = "qwertyuiopasdfghjklzxcvbnm";
+    private File file;
+    private MappedResourceByteRangeProvider mappedResourceByteRangeProvider;
+
+    @BeforeClass
+    public void setUp() throws Exception
+    {
+        this.file = File.createTempFile("test_file",".tmp");
+        FileWriter fileWriter = new FileWriter(this.file);
+        try
+        {
+            fileWriter.write(KEYBOARD);
+        }
+        finally
+        {
+            fileWriter.close();
+        }
+        this.mappedResourceByteRangeProvider = new MappedResourceByteRangeProvider(this.file);
+    }
+
+    @AfterClass
+    public void tearDown() throws Exception
+    {
+        this.mappedResourceByteRangeProvider.close();
+    }
+
+    @Test
+    public void testGetResourceSize()
+    {
+        Assert.assertEquals(26L, this.mappedResourceByteRangeProvider.getResourceSize());
+    }
+
+    @Test
+    public void testGetByteRange() throws IOException
+    {
+        File workingDirectory = Files.createTempDirectory(null).toFile();
+        File file = this.mappedResourceByteRangeProvider.getByteRange(3, 9, workingDirectory);
+        Assert.assertEquals(7L, file.length());
+        BufferedReader bufferedReader = new BufferedReader(new FileReader(file));
+        Assert.assertEquals("rtyuiop", bufferedReader.readLine());
+    }
+
+    @Test
+    public void testGetByteRangeAsBytes() throws IOException
+    {
+        byte[] bytes = this.mappedResourceByteRangeProvider.getByteRangeAsBytes(10, 18);
+        Assert.assertEquals(new String(bytes, StandardCharsets.US_ASCII), "asdfghjkl");
+        bytes = this.mappedResourceByteRangeProvider.getByteRangeAsBytes(0, 25);
+        Assert.assertEquals(new String(bytes, StandardCharsets.US_ASCII), KEYBOARD);
+    }
+
+    @Test
+    public void testGetByteRangeAsByteBuffer() throws IOException
+    {
+        ByteBuffer byteBuffer = this.mappedResourceByteRangeProvider.getByteRangeAsByteBuffer(10, 18);
+        Assert.assertTrue(byteBuffer.isDirect());
+        Assert.assertTrue(byteBuffer.isReadOnly());
+        Assert.assertEquals(byteBuffer.remaining(), 9);
+        Assert.assertEquals(byteBuffer.get(0), (byte)'a');
+
+        ByteProvider byteProvider = this.mappedResourceByteRangeProvider.getByteRangeAsByteProvider(10, 18);
+        byteProvider.skipBytes(4);
+        Assert.assertEquals(new String(byteProvider.getBytes(5), StandardCharsets.US_ASCII), "ghjkl");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetByteRangeAsBytesBeyondEndOfFile() throws IOException
+    {
+        this.mappedResourceByteRangeProvider.getByteRangeAsBytes(20, 26);
+    }
+
+    @Test
+    public void testRangesAcrossSegments() throws IOException
+    {
+        try (MappedResourceByteRangeProvider mappedResourceByteRangeProvider = new MappedResourceByteRangeProvider(this.file, 8, 12))
+        {
+            for (int rangeStart = 0; rangeStart < KEYBOARD.length(); rangeStart++)
+            {
+                for (int rangeEnd = rangeStart; rangeEnd < KEYBOARD.length(); rangeEnd++)
+                {
+                    byte[] bytes = mappedResourceByteRangeProvider.getByteRangeAsBytes(rangeStart, rangeEnd);
+                    Assert.assertEquals(new String(bytes, StandardCharsets.US_ASCII), KEYBOARD.substring(rangeStart, rangeEnd + 1));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testHeaderPartition() throws IOException
+    {
+        File inputFile = TestHelper.findResourceByPath("TearsOfSteel_4k_Test_Master_Audio_002.mxf.hdr");
+        try (MappedResourceByteRangeProvider mappedResourceByteRangeProvider = new MappedResourceByteRangeProvider(inputFile))
+        {
+            IMFErrorLogger imfErrorLogger = new IMFErrorLoggerImpl();
+            ByteProvider byteProvider = mappedResourceByteRangeProvider.getByteRangeAsByteProvider(0, inputFile.length() - 1);
+            HeaderPartition headerPartition = new HeaderPartition(byteProvider, 0L, inputFile.length(), imfErrorLogger);
+            Assert.assertNotNull(headerPartition.getPreface());
+            Assert.assertEquals(imfErrorLogger.getNumberOfErrors(), 0);
+        }
+    }
+
+}
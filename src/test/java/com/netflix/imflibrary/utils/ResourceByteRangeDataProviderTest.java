@@ -0,0 +1,76 @@
+/*
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.imflibrary.utils;
+
+import testUtils.TestHelper;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+@Test(groups = "unit")
+public class ResourceByteRangeDataProviderTest
+{
+    File inputFile;
+    byte[] fileBytes;
+
+    @BeforeClass
+    public void beforeClass() throws IOException
+    {
+        inputFile = TestHelper.findResourceByPath("PKL_e788efe2-1782-4b09-b56d-1336da2413d5.xml");
+        fileBytes = Files.readAllBytes(this.inputFile.toPath());
+    }
+
+    @Test
+    public void testGetBytesAcrossChunks() throws IOException
+    {
+        ByteProvider byteProvider = new ResourceByteRangeDataProvider(new FileByteRangeProvider(this.inputFile), 100, 399, 16);
+        Assert.assertEquals(byteProvider.getBytes(10), Arrays.copyOfRange(this.fileBytes, 100, 110));
+        Assert.assertEquals(byteProvider.getBytes(100), Arrays.copyOfRange(this.fileBytes, 110, 210));
+
+        //a value straddling the end of a chunk is read whole
+        byteProvider.skipBytes(4);
+        ByteBuffer byteBuffer = ByteBuffer.wrap(this.fileBytes);
+        Assert.assertEquals(byteProvider.getLong(), byteBuffer.getLong(214));
+        Assert.assertEquals(byteProvider.getUnsignedInt(), byteBuffer.getInt(222) & 0xffffffffL);
+        Assert.assertEquals(byteProvider.getUnsignedShort(), byteBuffer.getShort(226) & 0xffff);
+        Assert.assertEquals(byteProvider.getUnsignedByte(), this.fileBytes[228] & 0xff);
+
+        byteProvider.skipBytes(100);
+        Assert.assertEquals(byteProvider.getBytes(71), Arrays.copyOfRange(this.fileBytes, 329, 400));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testGetBytesPastRangeEnd() throws IOException
+    {
+        ByteProvider byteProvider = new ResourceByteRangeDataProvider(new FileByteRangeProvider(this.inputFile), 100, 199, 16);
+        byteProvider.skipBytes(96);
+        byteProvider.getLong();
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testSkipBytesPastRangeEnd() throws IOException
+    {
+        ByteProvider byteProvider = new ResourceByteRangeDataProvider(new FileByteRangeProvider(this.inputFile), 100, 199, 16);
+        byteProvider.skipBytes(101);
+    }
+}
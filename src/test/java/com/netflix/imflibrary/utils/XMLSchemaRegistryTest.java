@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.imflibrary.utils;
+
+import com.netflix.imflibrary.st0429_8.PackingList;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.xml.sax.SAXException;
+import testUtils.TestHelper;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.validation.Schema;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Test(groups = "unit")
+public class XMLSchemaRegistryTest
+{
+    private static final String DSIG_SCHEMA_PATH = "org/w3/_2000_09/xmldsig/xmldsig-core-schema.xsd";
+    private static final String PKL_SCHEMA_PATH = "org/smpte_ra/schemas/st0429_8_2007/PKL/packingList_schema.xsd";
+
+    @Test
+    public void testJAXBContextIsShared() throws JAXBException
+    {
+        Assert.assertSame(XMLSchemaRegistry.getJAXBContext("org.smpte_ra.schemas.st0429_8_2007.PKL"),
+                XMLSchemaRegistry.getJAXBContext("org.smpte_ra.schemas.st0429_8_2007.PKL"));
+        Assert.assertNotSame(XMLSchemaRegistry.getJAXBContext("org.smpte_ra.schemas.st0429_8_2007.PKL"),
+                XMLSchemaRegistry.getJAXBContext("org.smpte_ra.schemas.st2067_2_2016.PKL"));
+    }
+
+    @Test
+    public void testSchemaIsShared() throws Exception
+    {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<Future<Schema>> futures = new ArrayList<>();
+            for (int i=0; i<8; i++)
+            {
+                futures.add(executorService.submit((Callable<Schema>) () -> XMLSchemaRegistry.getSchema(DSIG_SCHEMA_PATH, PKL_SCHEMA_PATH)));
+            }
+            Schema schema = XMLSchemaRegistry.getSchema(DSIG_SCHEMA_PATH, PKL_SCHEMA_PATH);
+            for (Future<Schema> future : futures)
+            {
+                Assert.assertSame(future.get(), schema);
+            }
+        }
+        finally
+        {
+            executorService.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = SAXException.class)
+    public void testSchemaOrderMatters() throws IOException, SAXException
+    {
+        //the PackingList schema depends on types defined in the DSig schema
+        XMLSchemaRegistry.getSchema(PKL_SCHEMA_PATH, DSIG_SCHEMA_PATH);
+    }
+
+    @Test
+    public void testPackingListsShareSchema() throws IOException
+    {
+        File inputFile = TestHelper.findResourceByPath("test_mapped_file_set/PKL_51edd4be-4506-494d-a58e-516553055c33.xml");
+        for (int i=0; i<3; i++)
+        {
+            PackingList packingList = new PackingList(inputFile);
+            Assert.assertEquals(packingList.getAssets().size(), 3);
+        }
+    }
+}